@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end generation with {@link DefaultGenerator#generate()}, including template rendering and writing
+ * files. Parsing the spec happens in the per-invocation setup and is not measured; see {@link ParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = Generators.QUIET_LOGGING)
+public class GenerateBenchmark {
+    @Param({"java", "typescript-axios", "python"})
+    public String generatorName;
+
+    @Param({"SMALL", "MEDIUM"})
+    public SyntheticSpec.Size size;
+
+    private Path spec;
+    private Path outputDir;
+    private ClientOptInput input;
+
+    @Setup(Level.Trial)
+    public void writeSpec() throws IOException {
+        spec = SyntheticSpec.write(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        outputDir = Files.createTempDirectory("openapi-benchmark-" + generatorName);
+        input = Generators.input(generatorName, spec, outputDir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        Generators.delete(outputDir);
+    }
+
+    @Benchmark
+    public List<File> generate() {
+        return new DefaultGenerator().opts(input).generate();
+    }
+}
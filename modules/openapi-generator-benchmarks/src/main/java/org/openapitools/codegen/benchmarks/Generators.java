@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.config.CodegenConfigurator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Shared setup for the benchmarks.
+ */
+final class Generators {
+    /**
+     * JVM arguments applied to every benchmark fork; generator logging would otherwise dominate the measurements.
+     */
+    static final String QUIET_LOGGING = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn";
+
+    private Generators() {
+    }
+
+    static CodegenConfigurator configurator(String generatorName, Path spec, Path outputDir) {
+        return new CodegenConfigurator()
+                .setGeneratorName(generatorName)
+                .setInputSpec(spec.toAbsolutePath().toString())
+                .setOutputDir(outputDir.toAbsolutePath().toString())
+                .setValidateSpec(false);
+    }
+
+    static ClientOptInput input(String generatorName, Path spec, Path outputDir) {
+        return configurator(generatorName, spec, outputDir).toClientOptInput();
+    }
+
+    static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.DefaultCodegen;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained by the models of all schemas of a spec, with and without the {@code compactModels}
+ * global property. The retained heap is reported as the {@code retainedBytes} secondary result; it is the difference
+ * of the used heap after a full garbage collection before and after converting the models, so it includes the
+ * generator's property cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = Generators.QUIET_LOGGING)
+public class ModelHeapBenchmark {
+    @Param({"java", "typescript-axios", "python"})
+    public String generatorName;
+
+    @Param({"MEDIUM", "LARGE", "HUGE"})
+    public SyntheticSpec.Size size;
+
+    @Param({"false", "true"})
+    public String compactModels;
+
+    private Path spec;
+    private DefaultCodegen codegen;
+    private Map<String, Schema> schemas;
+
+    /**
+     * The secondary results of the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void writeSpec() throws IOException {
+        spec = SyntheticSpec.write(size);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ClientOptInput input = Generators.input(generatorName, spec, Paths.get("unused"));
+        CodegenConfig config = input.getConfig();
+        config.processOpts();
+        config.preprocessOpenAPI(input.getOpenAPI());
+        config.setOpenAPI(input.getOpenAPI());
+        codegen = (DefaultCodegen) config;
+        schemas = ModelUtils.getSchemas(input.getOpenAPI());
+        // global properties are thread local; thread scoped state is set up by the thread running the benchmark
+        GlobalSettings.setProperty(CodegenConstants.COMPACT_MODELS, compactModels);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        GlobalSettings.reset();
+    }
+
+    @Benchmark
+    public List<CodegenModel> fromModel(Heap heap) {
+        long before = usedHeap();
+        List<CodegenModel> models = new ArrayList<>(schemas.size());
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            models.add(codegen.fromModel(entry.getKey(), entry.getValue()));
+        }
+        heap.retainedBytes = usedHeap() - before;
+        return models;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.DefaultCodegen;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures model processing ({@link DefaultCodegen#fromModel(String, Schema)}, {@link DefaultCodegen#fromProperty(String, Schema)}
+ * and {@link ModelUtils#unaliasSchema(OpenAPI, Schema)}) over all schemas of a spec.
+ * <p>
+ * A fresh generator is configured for every iteration, so caches held by the generator only live as long as they
+ * would during a single generation. {@code fromProperty} starts every invocation with an empty property cache, so it
+ * measures the conversion of each property once; {@code fromPropertyCached} measures lookups in a warm cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = Generators.QUIET_LOGGING)
+public class ModelProcessingBenchmark {
+    @Param({"java", "typescript-axios", "python"})
+    public String generatorName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "HUGE"})
+    public SyntheticSpec.Size size;
+
+    private Path spec;
+    private OpenAPI openAPI;
+    private DefaultCodegen codegen;
+    private Map<String, Schema> schemas;
+
+    /**
+     * Empties the property cache of the generator before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class ColdPropertyCache {
+        @Setup(Level.Invocation)
+        public void clear(ModelProcessingBenchmark benchmark) {
+            benchmark.codegen.getCodegenPropertyCache().clear();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void writeSpec() throws IOException {
+        spec = SyntheticSpec.write(size);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ClientOptInput input = Generators.input(generatorName, spec, Paths.get("unused"));
+        openAPI = input.getOpenAPI();
+        CodegenConfig config = input.getConfig();
+        config.processOpts();
+        config.preprocessOpenAPI(openAPI);
+        config.setOpenAPI(openAPI);
+        codegen = (DefaultCodegen) config;
+        schemas = ModelUtils.getSchemas(openAPI);
+    }
+
+    @Benchmark
+    public void fromModel(Blackhole blackhole) {
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            blackhole.consume(codegen.fromModel(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @Benchmark
+    public void fromProperty(ColdPropertyCache cache, Blackhole blackhole) {
+        convertProperties(blackhole);
+    }
+
+    @Benchmark
+    public void fromPropertyCached(Blackhole blackhole) {
+        convertProperties(blackhole);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void unaliasSchema(Blackhole blackhole) {
+        for (Schema schema : schemas.values()) {
+            blackhole.consume(ModelUtils.unaliasSchema(openAPI, schema));
+            Map<String, Schema> properties = schema.getProperties();
+            if (properties != null) {
+                for (Schema property : properties.values()) {
+                    blackhole.consume(ModelUtils.unaliasSchema(openAPI, property));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void convertProperties(Blackhole blackhole) {
+        for (Schema schema : schemas.values()) {
+            Map<String, Schema> properties = ModelUtils.getReferencedSchema(openAPI, schema).getProperties();
+            if (properties != null) {
+                for (Map.Entry<String, Schema> property : properties.entrySet()) {
+                    blackhole.consume(codegen.fromProperty(property.getKey(), property.getValue()));
+                }
+            }
+        }
+    }
+}
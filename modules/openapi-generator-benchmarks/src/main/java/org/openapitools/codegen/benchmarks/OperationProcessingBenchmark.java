@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures operation processing ({@link CodegenConfig#fromOperation(String, String, Operation, java.util.List)}) over
+ * all operations of a spec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = Generators.QUIET_LOGGING)
+public class OperationProcessingBenchmark {
+    @Param({"java", "typescript-axios", "python"})
+    public String generatorName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "HUGE"})
+    public SyntheticSpec.Size size;
+
+    private Path spec;
+    private OpenAPI openAPI;
+    private CodegenConfig config;
+
+    @Setup(Level.Trial)
+    public void writeSpec() throws IOException {
+        spec = SyntheticSpec.write(size);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ClientOptInput input = Generators.input(generatorName, spec, Paths.get("unused"));
+        openAPI = input.getOpenAPI();
+        config = input.getConfig();
+        config.processOpts();
+        config.preprocessOpenAPI(openAPI);
+        config.setOpenAPI(openAPI);
+    }
+
+    @Benchmark
+    public void fromOperation(Blackhole blackhole) {
+        for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> operation : path.getValue().readOperationsMap().entrySet()) {
+                String httpMethod = operation.getKey().name().toLowerCase(Locale.ROOT);
+                blackhole.consume(config.fromOperation(path.getKey(), httpMethod, operation.getValue(), openAPI.getServers()));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+import org.openapitools.codegen.utils.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the naming helpers in {@link StringUtils} which are called for every model, property and operation name.
+ * The word list is larger than the helpers' caches, so both cached and uncached lookups are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = Generators.QUIET_LOGGING)
+public class StringUtilsBenchmark {
+    private static final String[] PATTERNS = {
+            "%s_property_name", "some-%s-name", "$%sValue", "%s.nested.path", "HTTPResponse%s", "my %s with spaces"
+    };
+
+    private String[] words;
+
+    @Setup
+    public void setUp() {
+        words = new String[1000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = String.format(Locale.ROOT, PATTERNS[i % PATTERNS.length], "word" + i);
+        }
+    }
+
+    @Benchmark
+    public void camelize(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(StringUtils.camelize(word));
+        }
+    }
+
+    @Benchmark
+    public void camelizeLowercaseFirst(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(StringUtils.camelize(word, true));
+        }
+    }
+
+    @Benchmark
+    public void underscore(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(StringUtils.underscore(word));
+        }
+    }
+
+    @Benchmark
+    public void dashize(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(StringUtils.dashize(word));
+        }
+    }
+}
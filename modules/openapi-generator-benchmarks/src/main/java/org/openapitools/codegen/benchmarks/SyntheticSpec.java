@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.benchmarks;
+
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Builds deterministic OpenAPI documents of a given size in-process, so benchmarks don't depend on the network or on
+ * specs checked in elsewhere in the repository.
+ * <p>
+ * Each schema mixes primitive, enum, date-time, array, map and $ref properties; every fifth schema is an allOf
+ * composition. Each schema gets a collection and an item path with the usual CRUD operations, grouped in tags of ten
+ * schemas.
+ */
+public final class SyntheticSpec {
+    /**
+     * The spec sizes used by the benchmarks. {@code HUGE} stands for the very large specs of big API platforms, with
+     * tens of thousands of operations.
+     */
+    public enum Size {
+        SMALL(10),
+        MEDIUM(100),
+        LARGE(1000),
+        HUGE(10000);
+
+        private final int schemas;
+
+        Size(int schemas) {
+            this.schemas = schemas;
+        }
+
+        public int getSchemas() {
+            return schemas;
+        }
+    }
+
+    private static final int SCHEMAS_PER_TAG = 10;
+
+    private SyntheticSpec() {
+    }
+
+    /**
+     * Creates a spec with the given number of schemas.
+     *
+     * @param schemas the number of component schemas
+     * @return the spec
+     */
+    public static OpenAPI create(int schemas) {
+        OpenAPI openAPI = new OpenAPI()
+                .info(new Info().title("Synthetic " + schemas).version("1.0.0").description("Generated for benchmarks"))
+                .servers(Collections.singletonList(new Server().url("http://localhost:8080/v1")))
+                .components(new Components())
+                .paths(new Paths());
+
+        for (int i = 0; i < schemas; i++) {
+            openAPI.getComponents().addSchemas(modelName(i), schema(i, schemas));
+        }
+        for (int i = 0; i < schemas; i++) {
+            addPaths(openAPI.getPaths(), i);
+        }
+        return openAPI;
+    }
+
+    /**
+     * Writes a spec of the given size as YAML to a temporary file.
+     *
+     * @param size the spec size
+     * @return the path of the written spec
+     * @throws IOException if the spec can't be written
+     */
+    public static Path write(Size size) throws IOException {
+        Path spec = Files.createTempFile("openapi-benchmark-" + size.name().toLowerCase(Locale.ROOT), ".yaml");
+        spec.toFile().deleteOnExit();
+        Files.write(spec, Yaml.pretty(create(size.getSchemas())).getBytes(StandardCharsets.UTF_8));
+        return spec;
+    }
+
+    static String modelName(int index) {
+        return "Model" + index;
+    }
+
+    private static String ref(int index) {
+        return "#/components/schemas/" + modelName(index);
+    }
+
+    private static Schema schema(int index, int total) {
+        ObjectSchema schema = new ObjectSchema();
+        schema.setDescription("Synthetic model number " + index);
+        schema.addProperties("id", new IntegerSchema().format("int64"));
+        schema.addProperties("name", new StringSchema().maxLength(64).pattern("^[a-zA-Z0-9_]+$"));
+        schema.addProperties("display_name", new StringSchema().nullable(true));
+        schema.addProperties("amount", new NumberSchema().format("double").minimum(java.math.BigDecimal.ZERO));
+        schema.addProperties("enabled", new BooleanSchema());
+        schema.addProperties("created-at", new DateTimeSchema());
+        schema.addProperties("status", new StringSchema()._enum(Arrays.asList("available", "pending", "sold")));
+        schema.addProperties("tags", new ArraySchema().items(new StringSchema()));
+        schema.addProperties("attributes", new MapSchema().additionalProperties(new StringSchema()));
+        if (total > 1) {
+            int other = (index + 1) % total;
+            schema.addProperties("related", new Schema<>().$ref(ref(other)));
+            schema.addProperties("children", new ArraySchema().items(new Schema<>().$ref(ref((index + 7) % total))));
+        }
+        schema.setRequired(Arrays.asList("id", "name"));
+
+        if (index % 5 == 4 && total > 1) {
+            ComposedSchema composed = new ComposedSchema();
+            composed.setDescription(schema.getDescription());
+            composed.addAllOfItem(new Schema<>().$ref(ref(index - 1)));
+            composed.addAllOfItem(schema);
+            return composed;
+        }
+        return schema;
+    }
+
+    private static void addPaths(Paths paths, int index) {
+        String name = modelName(index);
+        String tag = "group" + (index / SCHEMAS_PER_TAG);
+        String collection = "/resources" + index;
+
+        paths.addPathItem(collection, new PathItem()
+                .get(operation(tag, "list" + name, jsonResponse(new ArraySchema().items(new Schema<>().$ref(ref(index)))))
+                        .addParametersItem(queryParameter("limit", new IntegerSchema().format("int32")))
+                        .addParametersItem(queryParameter("filter", new StringSchema())))
+                .post(operation(tag, "create" + name, jsonResponse(new Schema<>().$ref(ref(index))))
+                        .requestBody(jsonBody(index))));
+
+        Parameter id = new Parameter().name("id").in("path").required(true).schema(new IntegerSchema().format("int64"));
+        paths.addPathItem(collection + "/{id}", new PathItem()
+                .get(operation(tag, "get" + name, jsonResponse(new Schema<>().$ref(ref(index)))).addParametersItem(id))
+                .put(operation(tag, "update" + name, jsonResponse(new Schema<>().$ref(ref(index))))
+                        .addParametersItem(id)
+                        .requestBody(jsonBody(index)))
+                .delete(operation(tag, "delete" + name, new ApiResponse().description("Deleted")).addParametersItem(id)));
+    }
+
+    private static Operation operation(String tag, String operationId, ApiResponse success) {
+        return new Operation()
+                .addTagsItem(tag)
+                .operationId(operationId)
+                .summary("Operation " + operationId)
+                .responses(new ApiResponses()
+                        .addApiResponse("200", success)
+                        .addApiResponse("404", new ApiResponse().description("Not found")));
+    }
+
+    private static Parameter queryParameter(String name, Schema schema) {
+        return new Parameter().name(name).in("query").required(false).schema(schema);
+    }
+
+    private static RequestBody jsonBody(int index) {
+        return new RequestBody().required(true)
+                .content(new Content().addMediaType("application/json", new MediaType().schema(new Schema<>().$ref(ref(index)))));
+    }
+
+    private static ApiResponse jsonResponse(Schema schema) {
+        return new ApiResponse().description("OK")
+                .content(new Content().addMediaType("application/json", new MediaType().schema(schema)));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.openapitools.codegen.Constants.CLI_NAME;
+
+@SuppressWarnings({"unused", "java:S106"})
+@Command(name = "daemon", description = "Keep a warm generator running for the current directory. While it runs, "
+        + "the generate and batch commands started in this directory run in the daemon.")
+public class Daemon extends OpenApiGeneratorCommand {
+
+    @Option(name = {"--stop"}, description = "stop the daemon running for the current directory")
+    private Boolean stop;
+
+    @Option(name = {"--status"}, description = "show whether a daemon is running for the current directory")
+    private Boolean status;
+
+    @Option(name = {"--idle-timeout"}, title = "minutes",
+            description = "stop the daemon after this many minutes without requests, or never if 0 (default 180)")
+    private Integer idleTimeout;
+
+    @Override
+    public void execute() {
+        Path workingDirectory = DaemonProtocol.workingDirectory();
+        Path stateFile = DaemonProtocol.stateFile(DaemonProtocol.defaultStateDirectory(), workingDirectory, buildInfo);
+        DaemonClient client = new DaemonClient(stateFile);
+
+        if (Boolean.TRUE.equals(stop)) {
+            if (client.stop()) {
+                System.out.printf(Locale.ROOT, "Stopped the daemon for %s%n", workingDirectory);
+            } else {
+                System.out.printf(Locale.ROOT, "No daemon is running for %s%n", workingDirectory);
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(status)) {
+            if (client.ping()) {
+                System.out.printf(Locale.ROOT, "A daemon is running for %s%n", workingDirectory);
+            } else {
+                System.out.printf(Locale.ROOT, "No daemon is running for %s%n", workingDirectory);
+                exit(1);
+            }
+            return;
+        }
+
+        if (client.ping()) {
+            System.err.printf(Locale.ROOT, "[error] A daemon is already running for %s%n", workingDirectory);
+            exit(1);
+        }
+        int minutes = idleTimeout == null ? 180 : Math.max(idleTimeout, 0);
+        DaemonServer server = new DaemonServer(stateFile, workingDirectory, minutes, TimeUnit.MINUTES);
+        try {
+            server.start();
+        } catch (IOException e) {
+            System.err.printf(Locale.ROOT, "[error] Unable to start the daemon: %s%n", e.getMessage());
+            exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.printf(Locale.ROOT, "Daemon for %s listening on port %d. Stop it with '%s daemon --stop'.%n",
+                workingDirectory, server.getPort(), CLI_NAME);
+        server.serve();
+    }
+}
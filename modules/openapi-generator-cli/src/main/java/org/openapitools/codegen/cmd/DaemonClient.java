@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+/**
+ * Forwards commands of the CLI to the daemon serving the current working directory, if one is running. See
+ * {@link DaemonProtocol}.
+ */
+@SuppressWarnings({"java:S106"})
+public final class DaemonClient {
+    /**
+     * Set this system property or environment variable to {@code false} to never forward commands to a daemon.
+     */
+    public static final String DAEMON_PROPERTY = "openapi.generator.daemon";
+    public static final String DAEMON_ENVIRONMENT_VARIABLE = "OPENAPI_GENERATOR_DAEMON";
+
+    private static final List<String> FORWARDED_COMMANDS = Arrays.asList("generate", "batch");
+
+    // reconfigures the logging of the whole JVM, so it only applies to a CLI running on its own
+    private static final String LOG_TO_STDERR = "--log-to-stderr";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final Path stateFile;
+    private Properties state;
+
+    DaemonClient(Path stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * @param args the arguments of the CLI
+     * @return true if the command may run in a daemon
+     */
+    public static boolean isForwarded(String[] args) {
+        String enabled = System.getProperty(DAEMON_PROPERTY, System.getenv(DAEMON_ENVIRONMENT_VARIABLE));
+        return !"false".equalsIgnoreCase(enabled)
+                && args.length > 0 && FORWARDED_COMMANDS.contains(args[0])
+                && !Arrays.asList(args).contains(LOG_TO_STDERR);
+    }
+
+    /**
+     * Runs the command in the daemon serving the current working directory, writing its output to
+     * {@link System#out} and {@link System#err}.
+     *
+     * @param args the arguments of the CLI
+     * @return the exit status of the command, or empty if no daemon serves the working directory
+     */
+    public static OptionalInt forward(String[] args) {
+        DaemonClient client = new DaemonClient(DaemonProtocol.stateFile(DaemonProtocol.defaultStateDirectory(),
+                DaemonProtocol.workingDirectory(), new BuildInfo()));
+        OptionalInt status = client.run(args, commandLineProperties(), System.getenv(), System.out, System.err);
+        System.out.flush();
+        System.err.flush();
+        return status;
+    }
+
+    /**
+     * @param args        the arguments of the command
+     * @param properties  the system properties for the command
+     * @param environment the environment variables for the command
+     * @param out         receives the standard output of the command
+     * @param err         receives the error output of the command
+     * @return the exit status of the command, or empty if the daemon isn't running or its environment differs
+     */
+    OptionalInt run(String[] args, Map<String, String> properties, Map<String, String> environment, OutputStream out, OutputStream err) {
+        boolean started = false;
+        try (Socket socket = connect()) {
+            if (socket == null) {
+                return OptionalInt.empty();
+            }
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            request.writeUTF(token());
+            request.writeByte(DaemonProtocol.RUN);
+            request.writeInt(args.length);
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            writeMap(request, properties);
+            writeMap(request, environment);
+            request.flush();
+
+            DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            byte[] buffer = new byte[8192];
+            while (true) {
+                byte type = response.readByte();
+                if (type == DaemonProtocol.DECLINED) {
+                    return OptionalInt.empty();
+                }
+                started = true;
+                if (type == DaemonProtocol.EXIT) {
+                    return OptionalInt.of(response.readInt());
+                }
+                int length = response.readInt();
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                response.readFully(buffer, 0, length);
+                OutputStream target = type == DaemonProtocol.STDERR ? err : out;
+                target.write(buffer, 0, length);
+                target.flush();
+            }
+        } catch (IOException e) {
+            if (!started) {
+                // the command didn't start, so it can still run without the daemon
+                return OptionalInt.empty();
+            }
+            String message = e instanceof EOFException ? "the daemon stopped" : e.getMessage();
+            System.err.printf(Locale.ROOT, "[error] Lost the connection to the daemon: %s%n", message);
+            return OptionalInt.of(1);
+        }
+    }
+
+    private static void writeMap(DataOutputStream request, Map<String, String> map) throws IOException {
+        request.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            request.writeUTF(entry.getKey());
+            request.writeUTF(entry.getValue());
+        }
+    }
+
+    /**
+     * @return true if the daemon is running
+     */
+    boolean ping() {
+        return send(DaemonProtocol.PING);
+    }
+
+    /**
+     * Stops the daemon once its running requests are done.
+     *
+     * @return true if the daemon was running
+     */
+    boolean stop() {
+        return send(DaemonProtocol.STOP);
+    }
+
+    private boolean send(byte type) {
+        try (Socket socket = connect()) {
+            if (socket == null) {
+                return false;
+            }
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            request.writeUTF(token());
+            request.writeByte(type);
+            request.flush();
+            DataInputStream response = new DataInputStream(socket.getInputStream());
+            return response.readByte() == DaemonProtocol.EXIT && response.readInt() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Socket connect() {
+        state = DaemonProtocol.readState(stateFile);
+        if (state == null || state.getProperty(DaemonProtocol.PORT) == null || state.getProperty(DaemonProtocol.TOKEN) == null) {
+            return null;
+        }
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    Integer.parseInt(state.getProperty(DaemonProtocol.PORT))), CONNECT_TIMEOUT_MILLIS);
+            return socket;
+        } catch (IOException | NumberFormatException e) {
+            try {
+                socket.close();
+                // the daemon is gone without removing its state file
+                Files.deleteIfExists(stateFile);
+            } catch (IOException ignored) {
+                // the next client tries again
+            }
+            return null;
+        }
+    }
+
+    private String token() {
+        return state.getProperty(DaemonProtocol.TOKEN);
+    }
+
+    /**
+     * @return the system properties set with {@code -D} on the command line of this JVM, which the CLI would otherwise
+     * see as global properties
+     */
+    static Map<String, String> commandLineProperties() {
+        List<String> jvmArguments;
+        try {
+            jvmArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        } catch (RuntimeException e) {
+            jvmArguments = Collections.emptyList();
+        }
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String argument : jvmArguments) {
+            if (argument.startsWith("-D") && argument.length() > 2) {
+                int separator = argument.indexOf('=');
+                String key = separator < 0 ? argument.substring(2) : argument.substring(2, separator);
+                properties.put(key, System.getProperty(key, ""));
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The protocol between the CLI and the generator daemon, and the state file through which the CLI finds the daemon.
+ * <p>
+ * A daemon serves a single working directory, so relative paths in the forwarded arguments and configuration files
+ * resolve as they would for the CLI. It listens on a loopback port and only serves clients presenting the token of its
+ * state file, which only the user may read.
+ * <p>
+ * A request starts with the token and the request type. A {@link #RUN} request continues with the arguments, the
+ * system properties set on the command line of the client and its environment variables, which the daemon passes on
+ * to the post-processing commands it starts. The daemon answers with frames of output ({@link #STDOUT},
+ * {@link #STDERR}), followed by an {@link #EXIT} frame holding the exit status. A daemon whose own
+ * {@link #postProcessVariables(Map) post-processing variables} differ answers {@link #DECLINED} instead, and the
+ * client runs the command itself.
+ */
+final class DaemonProtocol {
+    static final byte RUN = 1;
+    static final byte PING = 2;
+    static final byte STOP = 3;
+
+    static final byte EXIT = 0;
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte DECLINED = 3;
+
+    // generators read the commands post-processing their files from these variables when they run
+    private static final String POST_PROCESS_FILE_SUFFIX = "_POST_PROCESS_FILE";
+
+    static final String PORT = "port";
+    static final String TOKEN = "token";
+    static final String WORKING_DIRECTORY = "workingDirectory";
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * Generators read these environment variables directly, so a command only runs in a daemon with the same values as
+     * the client.
+     *
+     * @param environment the environment of the client or daemon
+     * @return the variables of the environment which generators read
+     */
+    static Map<String, String> postProcessVariables(Map<String, String> environment) {
+        Map<String, String> variables = new TreeMap<>();
+        environment.forEach((name, value) -> {
+            if (name.endsWith(POST_PROCESS_FILE_SUFFIX)) {
+                variables.put(name, value);
+            }
+        });
+        return variables;
+    }
+
+    /**
+     * @return the directory holding the state files of the daemons of the current user
+     */
+    static Path defaultStateDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".openapi-generator", "daemon");
+    }
+
+    /**
+     * @param stateDirectory   the directory holding the state files
+     * @param workingDirectory the working directory served by the daemon
+     * @param buildInfo        the version of the CLI; a daemon only serves clients of the same version
+     * @return the state file of the daemon
+     */
+    static Path stateFile(Path stateDirectory, Path workingDirectory, BuildInfo buildInfo) {
+        String key = Hashing.sha256()
+                .hashString(buildInfo.getVersion() + '\0' + buildInfo.getSha() + '\0' + workingDirectory, StandardCharsets.UTF_8)
+                .toString();
+        return stateDirectory.resolve(key.substring(0, 16) + ".properties");
+    }
+
+    /**
+     * @return the current working directory, as served by a daemon
+     */
+    static Path workingDirectory() {
+        Path path = Paths.get("").toAbsolutePath();
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path;
+        }
+    }
+
+    static Properties readState(Path stateFile) {
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            state.load(in);
+            return state;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static void writeState(Path stateFile, Properties state) throws IOException {
+        Files.createDirectories(stateFile.getParent());
+        Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        try {
+            if (Files.getFileAttributeView(stateFile.getParent(), PosixFileAttributeView.class) != null) {
+                Files.createFile(temp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(temp);
+                temp.toFile().setReadable(false, false);
+                temp.toFile().setReadable(true, true);
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw new IOException("Another daemon is starting for the same directory", e);
+        }
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            state.store(out, "openapi-generator daemon");
+        }
+        try {
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
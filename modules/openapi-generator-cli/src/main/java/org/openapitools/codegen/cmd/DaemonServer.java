@@ -0,0 +1,418 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import io.airlift.airline.ParseException;
+import org.openapitools.codegen.CodegenConfigLoader;
+import org.openapitools.codegen.OpenAPIGenerator;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.postprocess.PostProcessBatch;
+import org.openapitools.codegen.templating.CompiledTemplateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves {@code generate} and {@code batch} commands of CLI clients from a long-lived JVM, so they don't pay JVM
+ * startup, loading the generators and compiling the templates on every invocation. See {@link DaemonProtocol}.
+ * <p>
+ * Each request runs on its own thread with its own {@link GlobalSettings}, initialized from the system properties of
+ * the daemon and those set on the command line of the client. Post-processing commands started for a request get the
+ * environment of its client. Requests of clients whose post-processing environment variables differ from the daemon's
+ * are declined, as generators read them directly, so these clients run the command themselves. Unless a request
+ * configures otherwise, compiled templates are shared by all requests. Output written to {@link System#out} and
+ * {@link System#err} by a request, or by threads it starts, is sent to its client.
+ */
+final class DaemonServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaemonServer.class);
+
+    // how often the daemon checks whether it has been idle for too long
+    private static final int ACCEPT_TIMEOUT_MILLIS = 1000;
+
+    private static final RoutedOutputStream STDOUT = new RoutedOutputStream();
+    private static final RoutedOutputStream STDERR = new RoutedOutputStream();
+
+    private final Path stateFile;
+    private final Path workingDirectory;
+    private final long idleTimeoutNanos;
+    private final String token;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * @param stateFile        the state file to write once the daemon listens
+     * @param workingDirectory the working directory served by the daemon
+     * @param idleTimeout      how long the daemon waits for requests before it stops, or 0 to wait indefinitely
+     * @param unit             the unit of the idle timeout
+     */
+    DaemonServer(Path stateFile, Path workingDirectory, long idleTimeout, TimeUnit unit) {
+        this.stateFile = stateFile;
+        this.workingDirectory = workingDirectory;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : random) {
+            sb.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        this.token = sb.toString();
+    }
+
+    /**
+     * Listens on a loopback port and writes the state file, so clients find the daemon.
+     *
+     * @throws IOException if the daemon can't listen or write its state file
+     */
+    void start() throws IOException {
+        installRoutedOutput();
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverSocket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+        Properties state = new Properties();
+        state.setProperty(DaemonProtocol.PORT, String.valueOf(serverSocket.getLocalPort()));
+        state.setProperty(DaemonProtocol.TOKEN, token);
+        state.setProperty(DaemonProtocol.WORKING_DIRECTORY, workingDirectory.toString());
+        try {
+            DaemonProtocol.writeState(stateFile, state);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        running = true;
+
+        // load the generator classes before the first request
+        Thread warmUp = new Thread(CodegenConfigLoader::getAll, "openapi-generator-daemon-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    /**
+     * @return the port the daemon listens on
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Serves requests until the daemon is stopped or has been idle for longer than the idle timeout.
+     */
+    void serve() {
+        try {
+            while (running) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    if (isIdle()) {
+                        LOGGER.info("Stopping the daemon after {} minutes without requests", TimeUnit.NANOSECONDS.toMinutes(idleTimeoutNanos));
+                        break;
+                    }
+                    continue;
+                } catch (SocketException e) {
+                    // closed by a stop request
+                    break;
+                }
+                activeRequests.incrementAndGet();
+                Thread thread = new Thread(() -> handle(socket), "openapi-generator-daemon-request-" + requestCount.incrementAndGet());
+                thread.start();
+            }
+        } catch (IOException e) {
+            LOGGER.error("The daemon failed to accept requests", e);
+        } finally {
+            close();
+        }
+    }
+
+    private boolean isIdle() {
+        return idleTimeoutNanos > 0 && activeRequests.get() == 0 && System.nanoTime() - lastActivity.get() > idleTimeoutNanos;
+    }
+
+    /**
+     * Stops accepting requests and removes the state file. Running requests complete.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (serverSocket != null && !serverSocket.isClosed()) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to close the daemon socket: {}", e.getMessage());
+            }
+        }
+        // a newer daemon may have replaced the state file
+        Properties state = DaemonProtocol.readState(stateFile);
+        if (state != null && token.equals(state.getProperty(DaemonProtocol.TOKEN))) {
+            try {
+                Files.deleteIfExists(stateFile);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete the daemon state file {}: {}", stateFile, e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            if (!MessageDigest.isEqual(in.readUTF().getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+                LOGGER.warn("Rejected a request with an invalid token");
+                return;
+            }
+            byte type = in.readByte();
+            int status = 0;
+            if (type == DaemonProtocol.RUN) {
+                OptionalInt result = run(in, out);
+                if (!result.isPresent()) {
+                    out.writeByte(DaemonProtocol.DECLINED);
+                    out.flush();
+                    return;
+                }
+                status = result.getAsInt();
+            } else if (type == DaemonProtocol.STOP) {
+                close();
+            }
+            synchronized (out) {
+                out.writeByte(DaemonProtocol.EXIT);
+                out.writeInt(status);
+                out.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("The daemon lost the connection to a client: {}", e.getMessage());
+        } finally {
+            lastActivity.set(System.nanoTime());
+            activeRequests.decrementAndGet();
+        }
+    }
+
+    private OptionalInt run(DataInputStream in, DataOutputStream out) throws IOException {
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+        Map<String, String> properties = readMap(in);
+        Map<String, String> environment = readMap(in);
+        if (!DaemonProtocol.postProcessVariables(environment).equals(DaemonProtocol.postProcessVariables(System.getenv()))) {
+            // generators read these variables themselves, and the environment of this JVM can't change
+            LOGGER.info("Declined a request whose post-processing environment differs from the daemon's");
+            return OptionalInt.empty();
+        }
+
+        FrameOutputStream stdout = new FrameOutputStream(out, DaemonProtocol.STDOUT);
+        FrameOutputStream stderr = new FrameOutputStream(out, DaemonProtocol.STDERR);
+        STDOUT.target.set(stdout);
+        STDERR.target.set(stderr);
+        try {
+            return OptionalInt.of(execute(args, properties, environment));
+        } finally {
+            System.out.flush();
+            System.err.flush();
+            stdout.close();
+            stderr.close();
+            STDOUT.target.remove();
+            STDERR.target.remove();
+        }
+    }
+
+    private static Map<String, String> readMap(DataInputStream in) throws IOException {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+        return map;
+    }
+
+    static int execute(String[] args, Map<String, String> properties, Map<String, String> environment) {
+        Thread requestThread = Thread.currentThread();
+        GlobalSettings.reset();
+        try {
+            properties.forEach(GlobalSettings::setProperty);
+            // e.g. PATH, so the client's post-processing commands run as they would without the daemon
+            PostProcessBatch.setEnvironment(environment);
+            if (GlobalSettings.getProperty(CompiledTemplateCache.SCOPE_PROPERTY) == null) {
+                GlobalSettings.setProperty(CompiledTemplateCache.SCOPE_PROPERTY, CompiledTemplateCache.Scope.JVM.name().toLowerCase(Locale.ROOT));
+            }
+
+            Runnable command = OpenAPIGenerator.cli().parse(args);
+            if (!(command instanceof Generate) && !(command instanceof GenerateBatch)) {
+                System.err.println("[error] The daemon only runs the generate and batch commands");
+                return 1;
+            }
+            ((OpenApiGeneratorCommand) command).setExitHandler(status -> {
+                // threads started by a command exit after stopping the others; the command then exits on its own thread
+                if (Thread.currentThread() == requestThread) {
+                    throw new CommandExit(status);
+                }
+            });
+            command.run();
+            return 0;
+        } catch (CommandExit e) {
+            return e.status;
+        } catch (ParseException e) {
+            System.err.printf(Locale.ROOT, "[error] %s%n", e.getMessage());
+            return 1;
+        } catch (Throwable e) {
+            e.printStackTrace(System.err);
+            return 1;
+        } finally {
+            PostProcessBatch.setEnvironment(null);
+            GlobalSettings.reset();
+        }
+    }
+
+    private static synchronized void installRoutedOutput() {
+        if (!(System.out instanceof RoutedPrintStream)) {
+            STDOUT.fallback = System.out;
+            System.setOut(new RoutedPrintStream(STDOUT));
+        }
+        if (!(System.err instanceof RoutedPrintStream)) {
+            STDERR.fallback = System.err;
+            System.setErr(new RoutedPrintStream(STDERR));
+        }
+    }
+
+    /**
+     * Thrown by a command run by the daemon instead of exiting the JVM.
+     */
+    private static final class CommandExit extends RuntimeException {
+        private final int status;
+
+        CommandExit(int status) {
+            super(null, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private static final class RoutedPrintStream extends PrintStream {
+        RoutedPrintStream(OutputStream out) {
+            super(out, true);
+        }
+    }
+
+    /**
+     * Writes to the output of the request run by the current thread, or the thread which started it, if any.
+     */
+    private static final class RoutedOutputStream extends OutputStream {
+        private final InheritableThreadLocal<FrameOutputStream> target = new InheritableThreadLocal<>();
+        private volatile OutputStream fallback;
+
+        private OutputStream target() {
+            FrameOutputStream frames = target.get();
+            // threads started by a request may outlive it
+            return frames == null || frames.closed ? fallback : frames;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+
+    /**
+     * Sends output to the client as frames. Output is dropped once the client is gone, so the request still completes.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte type;
+        private volatile boolean closed;
+        private boolean broken;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            synchronized (out) {
+                if (broken || len == 0) {
+                    return;
+                }
+                try {
+                    out.writeByte(type);
+                    out.writeInt(len);
+                    out.write(b, off, len);
+                } catch (IOException e) {
+                    broken = true;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            synchronized (out) {
+                if (broken) {
+                    return;
+                }
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    broken = true;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+            closed = true;
+        }
+    }
+}
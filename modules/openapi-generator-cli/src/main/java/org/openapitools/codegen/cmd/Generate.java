@@ -260,6 +260,11 @@ public class Generate extends OpenApiGeneratorCommand {
         description = "Only write output files that have changed.")
     private Boolean minimalUpdate;
 
+    @Option(name = {"--generation-metrics"},
+        title = "Generation metrics",
+        description = "Record wall time, CPU time and allocations per generation phase, generator hook and template in .openapi-generator/METRICS.json.")
+    private Boolean generationMetrics;
+
     @Override
     public void execute() {
         if (logToStderr != null) {
@@ -280,7 +285,7 @@ public class Generate extends OpenApiGeneratorCommand {
             } else if (StringUtils.isEmpty(spec)) {
                 // if user doesn't pass configFile and does not pass spec, we can fail immediately because one of these two is required to run.
                 System.err.println("[error] Required option '-i' is missing");
-                System.exit(1);
+                exit(1);
             }
 
             // if a config file wasn't specified, or we were unable to read it
@@ -307,7 +312,7 @@ public class Generate extends OpenApiGeneratorCommand {
             if (!spec.matches("^http(s)?://.*") && !new File(spec).exists()) {
                 System.err.println("[error] The spec file is not found: " + spec);
                 System.err.println("[error] Check the path of the OpenAPI spec and try again.");
-                System.exit(1);
+                exit(1);
             }
             configurator.setInputSpec(spec);
         }
@@ -421,6 +426,10 @@ public class Generate extends OpenApiGeneratorCommand {
             configurator.setEnableMinimalUpdate(minimalUpdate);
         }
 
+        if (generationMetrics != null) {
+            configurator.setGenerationMetrics(generationMetrics);
+        }
+
         if (strictSpecBehavior != null) {
             configurator.setStrictSpecBehavior(strictSpecBehavior);
         }
@@ -450,7 +459,7 @@ public class Generate extends OpenApiGeneratorCommand {
         } catch (GeneratorNotFoundException e) {
             System.err.println(e.getMessage());
             System.err.println("[error] Check the spelling of the generator's name and try again.");
-            System.exit(1);
+            exit(1);
         }
     }
 }
@@ -18,6 +18,8 @@ package org.openapitools.codegen.cmd;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -42,8 +44,12 @@ import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.DynamicSettings;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.ParsedSpecCache;
+import org.openapitools.codegen.metrics.Measurement;
+import org.openapitools.codegen.templating.CompiledTemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
 
 import java.io.File;
 import java.io.IOException;
@@ -58,13 +64,12 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @SuppressWarnings({"unused", "MismatchedQueryAndUpdateOfCollection", "java:S106"})
 @Command(name = "batch", description = "Generate code in batch via external configs.")
 public class GenerateBatch extends OpenApiGeneratorCommand {
-    private static AtomicInteger failures = new AtomicInteger(0);
-    private static AtomicInteger successes = new AtomicInteger(0);
+    private final AtomicInteger failures = new AtomicInteger(0);
+    private final AtomicInteger successes = new AtomicInteger(0);
     private final Logger LOGGER = LoggerFactory.getLogger(GenerateBatch.class);
 
     @Option(name = {"-v", "--verbose"}, description = "verbose mode")
@@ -106,7 +111,7 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
     public void execute() {
         if (configs.size() < 1) {
             LOGGER.error("No configuration file inputs specified");
-            System.exit(1);
+            exit(1);
         }
 
         int cores = Runtime.getRuntime().availableProcessors();
@@ -145,19 +150,61 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         SimpleModule module = getCustomDeserializationModel(includesDir);
         List<CodegenConfigurator> configurators = configs.stream().map(config -> CodegenConfigurator.fromFile(config, module)).collect(Collectors.toList());
 
+        // Configs sharing an input spec parse it only once.
+        ParsedSpecCache parsedSpecCache = new ParsedSpecCache();
+        configurators.forEach(configurator -> configurator.setParsedSpecCache(parsedSpecCache));
+        GenerationResult[] results = new GenerationResult[configurators.size()];
+
         // it doesn't make sense to interleave INFO level logs, so limit these to only ERROR.
-        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
-        Stream.of(Logger.ROOT_LOGGER_NAME, "io.swagger", "org.openapitools")
-                .map(lc::getLogger)
-                .forEach(logger -> logger.setLevel(Level.ERROR));
+        // The daemon runs other commands in this JVM at the same time, so this only applies to the threads of this batch.
+        ErrorsOnlyFilter.install((LoggerContext) LoggerFactory.getILoggerFactory());
+        Boolean errorsOnly = ErrorsOnlyFilter.ENABLED.get();
+        ErrorsOnlyFilter.ENABLED.set(Boolean.TRUE);
+        try {
+            generate(configurators, results, rootDir, numThreads, parsedSpecCache);
+        } finally {
+            ErrorsOnlyFilter.ENABLED.set(errorsOnly);
+        }
+    }
 
+    /**
+     * Denies log events below ERROR on threads running a batch, and on the threads they start, leaving the levels of
+     * the loggers unchanged.
+     */
+    static final class ErrorsOnlyFilter extends TurboFilter {
+        static final InheritableThreadLocal<Boolean> ENABLED = new InheritableThreadLocal<>();
+
+        static synchronized void install(LoggerContext context) {
+            // resetting the logging configuration removes the filter
+            if (context.getTurboFilterList().stream().noneMatch(ErrorsOnlyFilter.class::isInstance)) {
+                ErrorsOnlyFilter filter = new ErrorsOnlyFilter();
+                filter.start();
+                context.addTurboFilter(filter);
+            }
+        }
+
+        @Override
+        public FilterReply decide(Marker marker, ch.qos.logback.classic.Logger logger, Level level, String format, Object[] params, Throwable t) {
+            if (level != null && !level.isGreaterOrEqual(Level.ERROR) && Boolean.TRUE.equals(ENABLED.get())) {
+                return FilterReply.DENY;
+            }
+            return FilterReply.NEUTRAL;
+        }
+    }
+
+    private void generate(List<CodegenConfigurator> configurators, GenerationResult[] results, Path rootDir, int numThreads, ParsedSpecCache parsedSpecCache) {
         ExecutorService executor = Executors.newFixedThreadPool(numThreads);
 
         // Execute each configurator on a separate pooled thread.
-        configurators.forEach(configurator -> {
-            GenerationRunner runner = new GenerationRunner(configurator, rootDir, Boolean.TRUE.equals(failFast), Boolean.TRUE.equals(clean));
+        for (int i = 0; i < configurators.size(); i++) {
+            results[i] = new GenerationResult(configs.get(i));
+            GenerationRunner runner = new GenerationRunner(configurators.get(i), results[i], rootDir, Boolean.TRUE.equals(failFast), Boolean.TRUE.equals(clean),
+                    successes, failures, () -> {
+                        executor.shutdownNow();
+                        exit(1);
+                    });
             executor.execute(runner);
-        });
+        }
 
         executor.shutdown();
 
@@ -168,10 +215,12 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
 
             executor.awaitTermination(awaitFor, TimeUnit.MINUTES);
 
+            printTimings(results, parsedSpecCache);
+
             int failCount = failures.intValue();
             if (failCount > 0) {
                 System.err.println(String.format(Locale.ROOT, "[FAIL] Completed with %d failures, %d successes", failCount, successes.intValue()));
-                System.exit(1);
+                exit(1);
             } else {
                 System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch generation finished %d generators successfully.", successes.intValue()));
             }
@@ -182,17 +231,61 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         }
     }
 
+    private static void printTimings(GenerationResult[] results, ParsedSpecCache parsedSpecCache) {
+        System.out.println("[TIMING] Generator timings (wall time, of which parsing):");
+        for (GenerationResult result : results) {
+            System.out.println(String.format(Locale.ROOT, "[TIMING]   %s", result));
+        }
+        System.out.println(String.format(Locale.ROOT, "[TIMING] Input specs parsed: %d, parsed specs reused: %d",
+                parsedSpecCache.getParseCount(), parsedSpecCache.getCopyCount()));
+    }
+
+    /**
+     * The outcome and timing of generating a single config, written by its runner and read once the batch finished.
+     */
+    private static class GenerationResult {
+        private final String config;
+        private volatile String generatorName;
+        private volatile String status = "not run";
+        private volatile long wallNanos = -1;
+        private volatile Measurement parse;
+
+        private GenerationResult(String config) {
+            this.config = config;
+        }
+
+        @Override
+        public String toString() {
+            String name = generatorName == null ? config : String.format(Locale.ROOT, "%s (%s)", config, generatorName);
+            if (wallNanos < 0) {
+                return String.format(Locale.ROOT, "%s: %s", name, status);
+            }
+            long parseMillis = parse == null ? 0 : TimeUnit.NANOSECONDS.toMillis(parse.getWallNanos());
+            return String.format(Locale.ROOT, "%s: %s in %d ms (parse %d ms)",
+                    name, status, TimeUnit.NANOSECONDS.toMillis(wallNanos), parseMillis);
+        }
+    }
+
     private static class GenerationRunner implements Runnable {
         private final CodegenConfigurator configurator;
+        private final GenerationResult result;
         private final Path rootDir;
         private final boolean exitOnError;
         private final boolean clean;
+        private final AtomicInteger successes;
+        private final AtomicInteger failures;
+        private final Runnable exit;
 
-        private GenerationRunner(CodegenConfigurator configurator, Path rootDir, boolean failFast, boolean clean) {
+        private GenerationRunner(CodegenConfigurator configurator, GenerationResult result, Path rootDir, boolean failFast, boolean clean,
+                                 AtomicInteger successes, AtomicInteger failures, Runnable exit) {
             this.configurator = configurator;
+            this.result = result;
             this.rootDir = rootDir;
             this.exitOnError = failFast;
             this.clean = clean;
+            this.successes = successes;
+            this.failures = failures;
+            this.exit = exit;
         }
 
         /**
@@ -209,12 +302,20 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         @Override
         public void run() {
             String name = null;
+            long start = System.nanoTime();
+            result.status = "running";
             try {
                 GlobalSettings.reset();
+                if (GlobalSettings.getProperty(CompiledTemplateCache.SCOPE_PROPERTY) == null) {
+                    // configs using the same generator and templates share compiled templates, unless configured otherwise
+                    GlobalSettings.setProperty(CompiledTemplateCache.SCOPE_PROPERTY, CompiledTemplateCache.Scope.JVM.name().toLowerCase(Locale.ROOT));
+                }
 
                 ClientOptInput opts = configurator.toClientOptInput();
                 CodegenConfig config = opts.getConfig();
                 name = config.getName();
+                result.generatorName = name;
+                result.parse = opts.getParseMeasurement();
                 
                 Path target = Paths.get(config.getOutputDir());
                 Path updated = rootDir.resolve(target);
@@ -232,8 +333,10 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                 defaultGenerator.generate();
 
                 System.out.printf(Locale.ROOT, "[%s] Finished generating %s…%n", Thread.currentThread().getName(), name);
+                result.status = "succeeded";
                 successes.incrementAndGet();
             } catch (Throwable e) {
+                result.status = "failed";
                 failures.incrementAndGet();
                 String failedOn = name;
                 if (StringUtils.isEmpty(failedOn)) {
@@ -242,9 +345,10 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                 System.err.printf(Locale.ROOT, "[%s] Generation failed for %s: (%s) %s%n", Thread.currentThread().getName(), failedOn, e.getClass().getSimpleName(), e.getMessage());
                 e.printStackTrace(System.err);
                 if (exitOnError) {
-                    System.exit(1);
+                    exit.run();
                 }
             } finally {
+                result.wallNanos = System.nanoTime() - start;
                 GlobalSettings.reset();
             }
         }
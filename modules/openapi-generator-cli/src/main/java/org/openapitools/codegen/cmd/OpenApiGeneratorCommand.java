@@ -4,6 +4,7 @@ import io.airlift.airline.Help;
 import io.airlift.airline.model.GlobalMetadata;
 
 import javax.inject.Inject;
+import java.util.function.IntConsumer;
 
 @SuppressWarnings({"java:S106"})
 public abstract class OpenApiGeneratorCommand implements Runnable {
@@ -15,6 +16,8 @@ public abstract class OpenApiGeneratorCommand implements Runnable {
 
     protected BuildInfo buildInfo = new BuildInfo();
 
+    private IntConsumer exitHandler = System::exit;
+
     @Override
     public void run() {
         if (globalOptions.version) {
@@ -36,4 +39,17 @@ public abstract class OpenApiGeneratorCommand implements Runnable {
      * Logic to be executed by implementing commands
      */
     abstract void execute();
+
+    /**
+     * Terminates the command with the given status. This exits the JVM, unless the command is run by the daemon.
+     *
+     * @param status the exit status
+     */
+    protected void exit(int status) {
+        exitHandler.accept(status);
+    }
+
+    void setExitHandler(IntConsumer exitHandler) {
+        this.exitHandler = exitHandler;
+    }
 }
@@ -26,6 +26,7 @@ import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.apache.commons.text.WordUtils;
 import org.openapitools.codegen.validation.ValidationResult;
+import org.openapitools.codegen.validation.ValidationRuleCosts;
 import org.openapitools.codegen.validations.oas.OpenApiEvaluator;
 import org.openapitools.codegen.validations.oas.RuleConfiguration;
 
@@ -44,6 +45,10 @@ public class Validate extends OpenApiGeneratorCommand {
     @Option(name = { "--recommend"}, title = "recommend spec improvements")
     private Boolean recommend;
 
+    @Option(name = {"--report-rule-costs"}, title = "report rule costs",
+            description = "print the number of evaluations and the time spent in each validation rule")
+    private Boolean reportRuleCosts;
+
     @Override
     public void execute() {
         System.out.println("Validating spec (" + spec + ")");
@@ -63,7 +68,13 @@ public class Validate extends OpenApiGeneratorCommand {
         else ruleConfiguration.setEnableRecommendations(false);
 
         OpenApiEvaluator evaluator = new OpenApiEvaluator(ruleConfiguration);
-        ValidationResult validationResult = evaluator.validate(specification);
+        ValidationRuleCosts costs = Boolean.TRUE.equals(reportRuleCosts) ? new ValidationRuleCosts() : null;
+        ValidationResult validationResult = evaluator.validate(specification, costs);
+
+        if (costs != null) {
+            System.out.println("Rule costs (total time, evaluations, rule):");
+            System.out.print(costs.report());
+        }
 
         // TODO: We could also provide description here along with getMessage. getMessage is either a "generic" message or specific (e.g. Model 'Cat' has issues).
         //       This would require that we parse the messageList coming from swagger-parser into a better structure.
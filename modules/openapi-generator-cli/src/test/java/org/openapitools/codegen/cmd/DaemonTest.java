@@ -0,0 +1,122 @@
+package org.openapitools.codegen.cmd;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class DaemonTest {
+    private static final Map<String, String> ENVIRONMENT = System.getenv();
+
+    private Path directory;
+    private Path stateFile;
+    private DaemonServer server;
+    private Thread serving;
+
+    @BeforeMethod
+    public void startDaemon() throws IOException {
+        directory = Files.createTempDirectory("daemon");
+        stateFile = directory.resolve("state").resolve("daemon.properties");
+        server = new DaemonServer(stateFile, DaemonProtocol.workingDirectory(), 0, TimeUnit.MINUTES);
+        server.start();
+        serving = new Thread(server::serve);
+        serving.start();
+    }
+
+    @AfterMethod
+    public void stopDaemon() throws Exception {
+        server.close();
+        serving.join(TimeUnit.SECONDS.toMillis(10));
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void runsGenerateInDaemon() {
+        DaemonClient client = new DaemonClient(stateFile);
+        assertTrue(client.ping());
+
+        Path output = directory.resolve("output");
+        String spec = Paths.get("src", "test", "resources", "batch", "specs", "petstore.yaml").toAbsolutePath().toString();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        for (int i = 0; i < 2; i++) {
+            OptionalInt status = client.run(new String[]{"generate", "-g", "html", "-i", spec, "-o", output.toString()},
+                    Collections.emptyMap(), ENVIRONMENT, out, err);
+            assertEquals(status, OptionalInt.of(0), err.toString());
+        }
+        assertTrue(Files.exists(output.resolve("index.html")));
+        assertTrue(out.toString().contains("index.html"), out.toString());
+    }
+
+    @Test
+    public void declinesClientsWithAnotherPostProcessingEnvironment() {
+        DaemonClient client = new DaemonClient(stateFile);
+        Map<String, String> environment = new HashMap<>(ENVIRONMENT);
+        environment.put("JAVA_POST_PROCESS_FILE", "format-" + System.nanoTime());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        // the client runs the command itself
+        assertEquals(client.run(new String[]{"generate", "-g", "html"}, Collections.emptyMap(), environment, out, err), OptionalInt.empty());
+        assertEquals(out.size() + err.size(), 0);
+        assertTrue(client.ping());
+    }
+
+    @Test
+    public void reportsFailuresWithoutExiting() {
+        DaemonClient client = new DaemonClient(stateFile);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        assertEquals(client.run(new String[]{"generate", "-g", "html"}, Collections.emptyMap(), ENVIRONMENT, out, err), OptionalInt.of(1));
+        assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).contains("Required option '-i' is missing"));
+
+        err.reset();
+        assertEquals(client.run(new String[]{"list"}, Collections.emptyMap(), ENVIRONMENT, out, err), OptionalInt.of(1));
+        assertTrue(err.toString().contains("only runs the generate and batch commands"));
+
+        err.reset();
+        assertEquals(client.run(new String[]{"generate", "--no-such-option"}, Collections.emptyMap(), ENVIRONMENT, out, err), OptionalInt.of(1));
+        assertTrue(err.toString().contains("[error]"));
+
+        // the daemon is still serving
+        assertTrue(client.ping());
+    }
+
+    @Test
+    public void stopsOnRequest() throws InterruptedException {
+        DaemonClient client = new DaemonClient(stateFile);
+        assertTrue(Files.exists(stateFile));
+        assertTrue(client.stop());
+        serving.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(serving.isAlive());
+        assertFalse(Files.exists(stateFile));
+        assertFalse(client.ping());
+        assertEquals(client.run(new String[]{"generate"}, Collections.emptyMap(), ENVIRONMENT, new ByteArrayOutputStream(), new ByteArrayOutputStream()),
+                OptionalInt.empty());
+    }
+
+    @Test
+    public void forwardsOnlyGenerateAndBatch() {
+        assertTrue(DaemonClient.isForwarded(new String[]{"generate", "-g", "java"}));
+        assertTrue(DaemonClient.isForwarded(new String[]{"batch", "config.yaml"}));
+        assertFalse(DaemonClient.isForwarded(new String[]{"generate", "--log-to-stderr"}));
+        assertFalse(DaemonClient.isForwarded(new String[]{"daemon"}));
+        assertFalse(DaemonClient.isForwarded(new String[0]));
+    }
+}
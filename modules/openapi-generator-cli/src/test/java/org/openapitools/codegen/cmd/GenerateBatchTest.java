@@ -1,10 +1,16 @@
 package org.openapitools.codegen.cmd;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.OpenAPIGenerator;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.Context;
 import org.openapitools.codegen.config.GeneratorSettings;
 import org.openapitools.codegen.config.WorkflowSettings;
+import org.slf4j.LoggerFactory;
 import org.testng.ITestContext;
 import org.testng.TestRunner;
 import org.testng.annotations.BeforeTest;
@@ -13,11 +19,16 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.testng.Assert.*;
 
@@ -102,6 +113,79 @@ public class GenerateBatchTest {
         fail("Expected an exception when trying to load a YAML include from a JSON file");
     }
 
+    @Test
+    public void testIdenticalConfigsSharingASpecGenerateIdenticalOutput() throws IOException {
+        Path directory = Files.createTempDirectory("batch");
+        try {
+            String spec = workingDirectory.resolve("specs").resolve("petstore.yaml").toAbsolutePath().toString();
+            String[] args = new String[]{"batch", "--threads", "1", null, null};
+            for (int i = 0; i < 2; i++) {
+                Path config = directory.resolve("config-" + i + ".json");
+                String output = directory.resolve("output-" + i).toString();
+                Files.write(config, ("{\"generatorName\": \"java\", \"inputSpec\": \"" + spec.replace("\\", "\\\\")
+                        + "\", \"outputDir\": \"" + output.replace("\\", "\\\\")
+                        + "\", \"additionalProperties\": {\"hideGenerationTimestamp\": true}}").getBytes(StandardCharsets.UTF_8));
+                args[args.length - 2 + i] = config.toString();
+            }
+
+            OpenApiGeneratorCommand batch = OpenAPIGenerator.cli().parse(args);
+            batch.setExitHandler(status -> fail("batch generation exited with " + status));
+            batch.run();
+
+            Map<String, String> first = readFiles(directory.resolve("output-0"));
+            Map<String, String> second = readFiles(directory.resolve("output-1"));
+            assertFalse(first.isEmpty());
+            assertEquals(second.keySet(), first.keySet());
+            first.forEach((name, contents) -> assertEquals(second.get(name), contents, name));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void testErrorsOnlyFilterOnlyAppliesToThreadsOfTheBatch() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        GenerateBatch.ErrorsOnlyFilter.install(context);
+        GenerateBatch.ErrorsOnlyFilter.install(context);
+        assertEquals(context.getTurboFilterList().stream().filter(GenerateBatch.ErrorsOnlyFilter.class::isInstance).count(), 1);
+        Logger logger = context.getLogger("org.openapitools.codegen.cmd.batch-test");
+        logger.setLevel(Level.INFO);
+
+        AtomicBoolean batchInfo = new AtomicBoolean(true);
+        AtomicBoolean batchError = new AtomicBoolean(false);
+        Thread batch = new Thread(() -> {
+            GenerateBatch.ErrorsOnlyFilter.ENABLED.set(Boolean.TRUE);
+            // threads started by the batch inherit the setting
+            Thread runner = new Thread(() -> {
+                batchInfo.set(logger.isInfoEnabled());
+                batchError.set(logger.isErrorEnabled());
+            });
+            runner.start();
+            try {
+                runner.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        batch.start();
+        batch.join();
+
+        assertFalse(batchInfo.get());
+        assertTrue(batchError.get());
+        assertTrue(logger.isInfoEnabled());
+        assertEquals(logger.getLevel(), Level.INFO);
+    }
+
+    private static Map<String, String> readFiles(Path directory) throws IOException {
+        Map<String, String> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put(directory.relativize(path).toString(), new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
     private File getIncludesDir() {
         // The includes directory would be "batch" under resources here, as everything is relative to this directory.
         return workingDirectory.toFile();
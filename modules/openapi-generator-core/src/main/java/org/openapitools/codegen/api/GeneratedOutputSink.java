@@ -0,0 +1,47 @@
+package org.openapitools.codegen.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Receives the contents of generated files in place of the file system, e.g. to collect them in memory or to stream
+ * them into an archive.
+ */
+public interface GeneratedOutputSink {
+    /**
+     * Write the contents of a generated file
+     *
+     * @param target The targeted file output location, typically below the output directory of the generator
+     * @param contents The contents bytes.  Typically this is a UTF-8 formatted string.
+     * @throws IOException If the contents cannot be written.
+     */
+    void write(Path target, byte[] contents) throws IOException;
+
+    /**
+     * Write the contents of a generated file as they are produced, e.g. for large files which shouldn't be held in
+     * memory. Sinks which need the complete contents receive them through {@link #write(Path, byte[])}.
+     *
+     * @param target The targeted file output location, typically below the output directory of the generator
+     * @param contents Produces the contents bytes
+     * @throws IOException If the contents cannot be produced or written.
+     */
+    default void write(Path target, Contents contents) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        contents.writeTo(buffer);
+        write(target, buffer.toByteArray());
+    }
+
+    /**
+     * Produces the contents of a generated file.
+     */
+    @FunctionalInterface
+    interface Contents {
+        /**
+         * @param out The stream receiving the contents. Implementations must not close it.
+         * @throws IOException If the contents cannot be produced or written.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -44,10 +44,26 @@ public class GenericValidator<TInput> implements Validator<TInput> {
      */
     @Override
     public ValidationResult validate(TInput input) {
+        return validate(input, null);
+    }
+
+    /**
+     * Validates input, recording the time spent in each rule.
+     *
+     * @param input The object instance to be validated.
+     * @param costs Accumulates the cost of each evaluated rule, may be null.
+     *
+     * @return A {@link ValidationResult} which details the success, error, and warning validation results.
+     */
+    public ValidationResult validate(TInput input, ValidationRuleCosts costs) {
         ValidationResult result = new ValidationResult();
         if (rules != null) {
             rules.forEach(it -> {
+                long start = costs == null ? 0L : System.nanoTime();
                 ValidationRule.Result attempt = it.evaluate(input);
+                if (costs != null) {
+                    costs.record(it, System.nanoTime() - start);
+                }
                 if (attempt.passed()) {
                     result.addResult(Validated.valid(it));
                 } else {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.validation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the number of evaluations and the time spent in each {@link ValidationRule}. Rules are told apart by
+ * identity, so evaluations of the same rule from several threads add up to a single entry.
+ */
+public final class ValidationRuleCosts {
+    private final Map<ValidationRule, Cost> costs = new ConcurrentHashMap<>();
+
+    /**
+     * Records one evaluation of a rule.
+     *
+     * @param rule  The rule which was evaluated.
+     * @param nanos The time spent evaluating the rule, in nanoseconds.
+     */
+    public void record(ValidationRule rule, long nanos) {
+        Cost cost = costs.computeIfAbsent(rule, Cost::new);
+        cost.evaluations.increment();
+        cost.nanos.add(nanos);
+    }
+
+    /**
+     * Gets the cost of each evaluated rule, most expensive first.
+     *
+     * @return A snapshot of the recorded costs.
+     */
+    public List<Cost> getCosts() {
+        List<Cost> sorted = new ArrayList<>(costs.values());
+        sorted.sort(Comparator.comparingLong(Cost::getNanos).reversed().thenComparing(Cost::getName));
+        return sorted;
+    }
+
+    /**
+     * Formats the recorded costs as a table, one rule per line, most expensive first.
+     *
+     * @return A user-facing report, or an empty string if no rule was evaluated.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Cost cost : getCosts()) {
+            sb.append(String.format(Locale.ROOT, "%10.3f ms %8d  %s%n",
+                    cost.getNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1), cost.getEvaluations(), cost.getName()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The accumulated cost of one rule.
+     */
+    public static final class Cost {
+        private final ValidationRule rule;
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        Cost(ValidationRule rule) {
+            this.rule = rule;
+        }
+
+        public ValidationRule getRule() {
+            return rule;
+        }
+
+        /**
+         * Gets the description of the rule, or its failure message for rules without a description.
+         *
+         * @return A string identifying the rule.
+         */
+        public String getName() {
+            return rule.getDescription() != null ? rule.getDescription() : String.valueOf(rule.getFailureMessage());
+        }
+
+        public long getEvaluations() {
+            return evaluations.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+    }
+}
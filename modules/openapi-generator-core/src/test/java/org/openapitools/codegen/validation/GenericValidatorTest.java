@@ -146,4 +146,17 @@ public class GenericValidatorTest {
         assertEquals(ageValidation.get().getMessage(), "Only adults (18 years old and older)");
         assertEquals(nameLengthWarning.getMessage(), "Name may be too long.");
     }
+
+    @Test
+    public void testGenericValidatorRecordsRuleCosts() {
+        GenericValidator<Person> validator = new GenericValidator<>(validationRules);
+        ValidationRuleCosts costs = new ValidationRuleCosts();
+        validator.validate(new Person("Jim", 30), costs);
+        validator.validate(new Person("0123456789asdfghjkl", 3), costs);
+
+        List<ValidationRuleCosts.Cost> recorded = costs.getCosts();
+        assertEquals(recorded.size(), validationRules.size(), "Expected one entry per rule.");
+        recorded.forEach(cost -> assertEquals(cost.getEvaluations(), 2L));
+        assertTrue(costs.report().contains("Name too long?"));
+    }
 }
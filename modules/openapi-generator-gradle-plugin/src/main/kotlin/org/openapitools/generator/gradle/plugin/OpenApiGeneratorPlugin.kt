@@ -85,6 +85,7 @@ class OpenApiGeneratorPlugin : Plugin<Project> {
 
                     inputSpec.set(validate.inputSpec)
                     recommend.set(validate.recommend)
+                    reportRuleCosts.set(validate.reportRuleCosts)
                 }
 
                 register("openApiGenerate", GenerateTask::class.java).configure {
@@ -128,6 +129,7 @@ class OpenApiGeneratorPlugin : Plugin<Project> {
                     ignoreFileOverride.set(generate.ignoreFileOverride)
                     removeOperationIdPrefix.set(generate.removeOperationIdPrefix)
                     skipOperationExample.set(generate.skipOperationExample)
+                    generationMetrics.set(generate.generationMetrics)
                     apiFilesConstrainedTo.set(generate.apiFilesConstrainedTo)
                     modelFilesConstrainedTo.set(generate.modelFilesConstrainedTo)
                     supportingFilesConstrainedTo.set(generate.supportingFilesConstrainedTo)
@@ -216,6 +216,11 @@ open class OpenApiGeneratorGenerateExtension(project: Project) {
      */
     val skipOperationExample = project.objects.property<Boolean?>()
 
+    /**
+     * Record wall time, CPU time and allocations per generation phase, generator hook and template in .openapi-generator/METRICS.json
+     */
+    val generationMetrics = project.objects.property<Boolean?>()
+
     /**
      * Defines which API-related files should be generated. This allows you to create a subset of generated files (or none at all).
      *
@@ -35,6 +35,11 @@ open class OpenApiGeneratorValidateExtension(project: Project) {
      */
     val recommend = project.objects.property<Boolean?>()
 
+    /**
+     * Whether or not to print the number of evaluations and the time spent in each validation rule.
+     */
+    val reportRuleCosts = project.objects.property<Boolean?>()
+
     init {
         applyDefaults()
     }
@@ -42,5 +47,6 @@ open class OpenApiGeneratorValidateExtension(project: Project) {
     @Suppress("MemberVisibilityCanBePrivate")
     fun applyDefaults(){
         recommend.set(true)
+        reportRuleCosts.set(false)
     }
 }
\ No newline at end of file
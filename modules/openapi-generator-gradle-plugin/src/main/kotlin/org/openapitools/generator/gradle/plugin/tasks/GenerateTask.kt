@@ -17,11 +17,12 @@
 package org.openapitools.generator.gradle.plugin.tasks
 
 import org.gradle.api.DefaultTask
-import org.gradle.api.GradleException
+import org.gradle.api.InvalidUserDataException
+import org.gradle.api.file.FileCollection
 import org.gradle.api.provider.Property
 import org.gradle.api.tasks.CacheableTask
 import org.gradle.api.tasks.Input
-import org.gradle.api.tasks.InputFile
+import org.gradle.api.tasks.InputFiles
 import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.Optional
 import org.gradle.api.tasks.OutputDirectory
@@ -29,15 +30,18 @@ import org.gradle.api.tasks.PathSensitive
 import org.gradle.api.tasks.PathSensitivity
 import org.gradle.api.tasks.TaskAction
 import org.gradle.api.tasks.options.Option
-import org.gradle.internal.logging.text.StyledTextOutput
-import org.gradle.internal.logging.text.StyledTextOutputFactory
 import org.gradle.kotlin.dsl.listProperty
 import org.gradle.kotlin.dsl.mapProperty
 import org.gradle.kotlin.dsl.property
-import org.openapitools.codegen.CodegenConstants
-import org.openapitools.codegen.DefaultGenerator
-import org.openapitools.codegen.config.CodegenConfigurator
-import org.openapitools.codegen.config.GlobalSettings
+import org.gradle.workers.WorkerExecutor
+import org.openapitools.codegen.utils.ExternalReferences
+import java.io.File
+import java.io.IOException
+import java.io.ObjectOutputStream
+import java.io.OutputStream
+import java.io.Serializable
+import java.util.concurrent.Callable
+import javax.inject.Inject
 
 /**
  * A task which generates the desired code.
@@ -50,7 +54,7 @@ import org.openapitools.codegen.config.GlobalSettings
  */
 @Suppress("UnstableApiUsage")
 @CacheableTask
-open class GenerateTask : DefaultTask() {
+open class GenerateTask @Inject constructor(private val workerExecutor: WorkerExecutor) : DefaultTask() {
 
     /**
      * The verbosity of generation
@@ -90,18 +94,54 @@ open class GenerateTask : DefaultTask() {
 
     /**
      * The Open API 2.0/3.x specification location.
+     *
+     * A local specification is tracked by content through [inputSpecFiles], any other location through [inputSpecLocation].
      */
-    @get:InputFile
-    @PathSensitive(PathSensitivity.RELATIVE)
+    @Internal
     val inputSpec = project.objects.property<String>()
 
+    /**
+     * The local specification and the local files it references through `$ref`, recursively.
+     */
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    val inputSpecFiles: FileCollection = project.files(Callable {
+        localFile(inputSpec)?.let { ExternalReferences.localClosure(it) } ?: emptySet<File>()
+    })
+
+    /**
+     * The specification location when it isn't a local file, e.g. a URL.
+     */
+    @get:Optional
+    @get:Input
+    val inputSpecLocation: String?
+        get() = inputSpec.orNull?.takeIf { localFile(inputSpec) == null }
+
     /**
      * The template directory holding a custom template.
+     *
+     * A local directory is tracked by content through [templateFiles], any other location through [templateLocation].
      */
-    @Optional
-    @Input
+    @Internal
     val templateDir = project.objects.property<String?>()
 
+    /**
+     * The files of the local template directory.
+     */
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    val templateFiles: FileCollection = project.files(Callable {
+        templateDir.orNull?.takeIf { it.isNotEmpty() }?.let { project.file(it) }?.takeIf { it.isDirectory } ?: emptyList<File>()
+    })
+
+    /**
+     * The template location when it isn't a local directory, e.g. a classpath resource.
+     */
+    @get:Optional
+    @get:Input
+    val templateLocation: String?
+        get() = templateDir.orNull?.takeIf { it.isNotEmpty() && !project.file(it).isDirectory }
+
     /**
      * Adds authorization headers when fetching the OpenAPI definitions remotely.
      * Pass in a URL-encoded string of name:header with a comma separating multiple values
@@ -121,11 +161,21 @@ open class GenerateTask : DefaultTask() {
      * Path to json configuration file.
      * File content should be in a json format { "optionKey":"optionValue", "optionKey1":"optionValue1"...}
      * Supported options can be different for each language. Run config-help -g {generator name} command for language specific config options.
+     *
+     * The file is tracked by content through [configFiles].
      */
-    @Optional
-    @Input
+    @Internal
     val configFile = project.objects.property<String>()
 
+    /**
+     * The configuration file, if any.
+     */
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    val configFiles: FileCollection = project.files(Callable {
+        localFile(configFile) ?: emptyList<File>()
+    })
+
     /**
      * Specifies if the existing files should be overwritten during the generation.
      */
@@ -324,6 +374,13 @@ open class GenerateTask : DefaultTask() {
     @Input
     val skipOperationExample = project.objects.property<Boolean?>()
 
+    /**
+     * Record wall time, CPU time and allocations per generation phase, generator hook and template in .openapi-generator/METRICS.json
+     */
+    @Optional
+    @Input
+    val generationMetrics = project.objects.property<Boolean?>()
+
     /**
      * Defines which API-related files should be generated. This allows you to create a subset of generated files (or none at all).
      *
@@ -465,286 +522,128 @@ open class GenerateTask : DefaultTask() {
     @Input
     val engine = project.objects.property<String?>()
 
-    private fun <T : Any?> Property<T>.ifNotEmpty(block: Property<T>.(T) -> Unit) {
-        if (isPresent) {
-            val item: T? = get()
-            if (item != null) {
-                when (get()) {
-                    is String -> if ((get() as String).isNotEmpty()) {
-                        block(get())
-                    }
-                    is String? -> if (true == (get() as String?)?.isNotEmpty()) {
-                        block(get())
-                    }
-                    else -> block(get())
-                }
-            }
+    /**
+     * @return the file a property points to, or null if it isn't set or isn't an existing local file
+     */
+    private fun localFile(location: Property<String>): File? {
+        val value = location.orNull
+        if (value.isNullOrEmpty()) {
+            return null
         }
+        val file = try {
+            project.file(value)
+        } catch (e: InvalidUserDataException) {
+            // e.g. a URL
+            return null
+        }
+        return file.takeIf { it.isFile }
     }
 
-    @Suppress("unused")
-    @TaskAction
-    fun doWork() {
-        val configurator: CodegenConfigurator = if (configFile.isPresent) {
-            CodegenConfigurator.fromFile(configFile.get())
-        } else CodegenConfigurator()
-
-        try {
-            if (globalProperties.isPresent) {
-                globalProperties.get().forEach { (key, value) ->
-                    configurator.addGlobalProperty(key, value)
-                }
-            }
-
-            if (supportingFilesConstrainedTo.isPresent && supportingFilesConstrainedTo.get().isNotEmpty()) {
-                GlobalSettings.setProperty(CodegenConstants.SUPPORTING_FILES, supportingFilesConstrainedTo.get().joinToString(","))
-            } else {
-                GlobalSettings.clearProperty(CodegenConstants.SUPPORTING_FILES)
-            }
-
-            if (modelFilesConstrainedTo.isPresent && modelFilesConstrainedTo.get().isNotEmpty()) {
-                GlobalSettings.setProperty(CodegenConstants.MODELS, modelFilesConstrainedTo.get().joinToString(","))
-            } else {
-                GlobalSettings.clearProperty(CodegenConstants.MODELS)
-            }
-
-            if (apiFilesConstrainedTo.isPresent && apiFilesConstrainedTo.get().isNotEmpty()) {
-                GlobalSettings.setProperty(CodegenConstants.APIS, apiFilesConstrainedTo.get().joinToString(","))
-            } else {
-                GlobalSettings.clearProperty(CodegenConstants.APIS)
-            }
-
-            if (generateApiDocumentation.isPresent) {
-                GlobalSettings.setProperty(CodegenConstants.API_DOCS, generateApiDocumentation.get().toString())
-            }
-
-            if (generateModelDocumentation.isPresent) {
-                GlobalSettings.setProperty(CodegenConstants.MODEL_DOCS, generateModelDocumentation.get().toString())
-            }
-
-            if (generateModelTests.isPresent) {
-                GlobalSettings.setProperty(CodegenConstants.MODEL_TESTS, generateModelTests.get().toString())
-            }
-
-            if (generateApiTests.isPresent) {
-                GlobalSettings.setProperty(CodegenConstants.API_TESTS, generateApiTests.get().toString())
-            }
-
-            if (withXml.isPresent) {
-                GlobalSettings.setProperty(CodegenConstants.WITH_XML, withXml.get().toString())
-            }
-
-            // now override with any specified parameters
-            verbose.ifNotEmpty { value ->
-                configurator.setVerbose(value)
-            }
-
-            validateSpec.ifNotEmpty { value ->
-                configurator.setValidateSpec(value)
-            }
-
-            skipOverwrite.ifNotEmpty { value ->
-                configurator.setSkipOverwrite(value ?: false)
-            }
-
-            inputSpec.ifNotEmpty { value ->
-                configurator.setInputSpec(value)
-            }
-
-            generatorName.ifNotEmpty { value ->
-                configurator.setGeneratorName(value)
-            }
-
-            outputDir.ifNotEmpty { value ->
-                configurator.setOutputDir(value)
-            }
-
-            auth.ifNotEmpty { value ->
-                configurator.setAuth(value)
-            }
-
-            templateDir.ifNotEmpty { value ->
-                configurator.setTemplateDir(value)
-            }
-
-            packageName.ifNotEmpty { value ->
-                configurator.setPackageName(value)
-            }
-
-            apiPackage.ifNotEmpty { value ->
-                configurator.setApiPackage(value)
-            }
-
-            modelPackage.ifNotEmpty { value ->
-                configurator.setModelPackage(value)
-            }
-
-            modelNamePrefix.ifNotEmpty { value ->
-                configurator.setModelNamePrefix(value)
-            }
-
-            modelNameSuffix.ifNotEmpty { value ->
-                configurator.setModelNameSuffix(value)
-            }
-
-            apiNameSuffix.ifNotEmpty { value ->
-                configurator.setApiNameSuffix(value)
-            }
-
-            invokerPackage.ifNotEmpty { value ->
-                configurator.setInvokerPackage(value)
-            }
-
-            groupId.ifNotEmpty { value ->
-                configurator.setGroupId(value)
-            }
-
-            id.ifNotEmpty { value ->
-                configurator.setArtifactId(value)
-            }
-
-            version.ifNotEmpty { value ->
-                configurator.setArtifactVersion(value)
-            }
-
-            library.ifNotEmpty { value ->
-                configurator.setLibrary(value)
-            }
-
-            gitHost.ifNotEmpty { value ->
-                configurator.setGitHost(value)
-            }
-
-            gitUserId.ifNotEmpty { value ->
-                configurator.setGitUserId(value)
-            }
-
-            gitRepoId.ifNotEmpty { value ->
-                configurator.setGitRepoId(value)
-            }
-
-            releaseNote.ifNotEmpty { value ->
-                configurator.setReleaseNote(value)
-            }
-
-            httpUserAgent.ifNotEmpty { value ->
-                configurator.setHttpUserAgent(value)
-            }
-
-            ignoreFileOverride.ifNotEmpty { value ->
-                configurator.setIgnoreFileOverride(value)
-            }
-
-            removeOperationIdPrefix.ifNotEmpty { value ->
-                configurator.setRemoveOperationIdPrefix(value!!)
-            }
-
-            skipOperationExample.ifNotEmpty { value ->
-                configurator.setSkipOperationExample(value!!)
-            }
-
-            logToStderr.ifNotEmpty { value ->
-                configurator.setLogToStderr(value)
-            }
-
-            enablePostProcessFile.ifNotEmpty { value ->
-                configurator.setEnablePostProcessFile(value)
-            }
-
-            skipValidateSpec.ifNotEmpty { value ->
-                configurator.setValidateSpec(!value)
-            }
-
-            generateAliasAsModel.ifNotEmpty { value ->
-                configurator.setGenerateAliasAsModel(value)
-            }
-
-            engine.ifNotEmpty { value ->
-                if ("handlebars".equals(value, ignoreCase = true)) {
-                    configurator.setTemplatingEngineName("handlebars")
-                } else {
-                    configurator.setTemplatingEngineName(value)
-                }
-            }
-
-            if (globalProperties.isPresent) {
-                globalProperties.get().forEach { entry ->
-                    configurator.addGlobalProperty(entry.key, entry.value)
-                }
-            }
-
-            if (instantiationTypes.isPresent) {
-                instantiationTypes.get().forEach { entry ->
-                    configurator.addInstantiationType(entry.key, entry.value)
-                }
-            }
-
-            if (importMappings.isPresent) {
-                importMappings.get().forEach { entry ->
-                    configurator.addImportMapping(entry.key, entry.value)
-                }
-            }
-
-            if (inlineSchemaNameMappings.isPresent) {
-                inlineSchemaNameMappings.get().forEach { entry ->
-                    configurator.addInlineSchemaNameMapping(entry.key, entry.value)
-                }
-            }
-
-            if (typeMappings.isPresent) {
-                typeMappings.get().forEach { entry ->
-                    configurator.addTypeMapping(entry.key, entry.value)
-                }
-            }
-
-            if (additionalProperties.isPresent) {
-                additionalProperties.get().forEach { entry ->
-                    configurator.addAdditionalProperty(entry.key, entry.value)
-                }
-            }
-
-            if (serverVariables.isPresent) {
-                serverVariables.get().forEach { entry ->
-                    configurator.addServerVariable(entry.key, entry.value)
-                }
-            }
-
-            if (languageSpecificPrimitives.isPresent) {
-                languageSpecificPrimitives.get().forEach {
-                    configurator.addLanguageSpecificPrimitive(it)
-                }
-            }
-
-            if (reservedWordsMappings.isPresent) {
-                reservedWordsMappings.get().forEach { entry ->
-                    configurator.addAdditionalReservedWordMapping(entry.key, entry.value)
-                }
-            }
-
-            val clientOptInput = configurator.toClientOptInput()
-            val codgenConfig = clientOptInput.config
-
-            if (configOptions.isPresent) {
-                val userSpecifiedConfigOptions = configOptions.get()
-                codgenConfig.cliOptions().forEach {
-                    if (userSpecifiedConfigOptions.containsKey(it.opt)) {
-                        clientOptInput.config.additionalProperties()[it.opt] = userSpecifiedConfigOptions[it.opt]
-                    }
-                }
+    /**
+     * Additional properties are serialized to pass them to the worker. A value which can't be serialized, e.g. an object
+     * of the build script, fails the task, as templates couldn't read its fields; maps and collections are checked
+     * element by element to name the offending type.
+     */
+    private fun checkSerializable(key: String, value: Any) {
+        when (value) {
+            is Map<*, *> -> value.forEach { (k, v) ->
+                k?.let { checkSerializable(key, it) }
+                v?.let { checkSerializable(key, it) }
             }
+            is Collection<*> -> value.forEach { element -> element?.let { checkSerializable(key, it) } }
+        }
+        if (!isSerializable(value)) {
+            throw InvalidUserDataException("The additional property '$key' can't be passed to the generator, as its " +
+                    "${value.javaClass.name} value isn't serializable. Use strings, numbers, booleans, or lists and " +
+                    "maps of them instead, e.g. \"\${value}\" for the string value of an object.")
+        }
+    }
 
-            try {
-                val out = services.get(StyledTextOutputFactory::class.java).create("openapi")
-                out.withStyle(StyledTextOutput.Style.Success)
+    private fun isSerializable(value: Any): Boolean {
+        if (value !is Serializable) {
+            return false
+        }
+        return try {
+            ObjectOutputStream(object : OutputStream() {
+                override fun write(b: Int) {}
+            }).use { it.writeObject(value) }
+            true
+        } catch (e: IOException) {
+            false
+        }
+    }
 
-                DefaultGenerator().opts(clientOptInput).generate()
+    /**
+     * Resolves the properties, so the generation can run in a worker.
+     */
+    private fun settings() = GenerateSettings().also {
+        it.verbose = verbose.orNull
+        it.validateSpec = validateSpec.orNull
+        it.generatorName = generatorName.orNull
+        it.outputDir = outputDir.orNull
+        it.inputSpec = inputSpec.orNull
+        it.templateDir = templateDir.orNull
+        it.auth = auth.orNull
+        it.globalProperties = globalProperties.orNull?.let { value -> LinkedHashMap(value) }
+        it.configFile = configFile.orNull
+        it.skipOverwrite = skipOverwrite.orNull
+        it.packageName = packageName.orNull
+        it.apiPackage = apiPackage.orNull
+        it.modelPackage = modelPackage.orNull
+        it.modelNamePrefix = modelNamePrefix.orNull
+        it.modelNameSuffix = modelNameSuffix.orNull
+        it.apiNameSuffix = apiNameSuffix.orNull
+        it.instantiationTypes = instantiationTypes.orNull?.let { value -> LinkedHashMap(value) }
+        it.typeMappings = typeMappings.orNull?.let { value -> LinkedHashMap(value) }
+        it.additionalProperties = additionalProperties.orNull?.let { value ->
+            value.forEach { (key, property) -> checkSerializable(key, property) }
+            LinkedHashMap(value)
+        }
+        it.serverVariables = serverVariables.orNull?.let { value -> LinkedHashMap(value) }
+        it.languageSpecificPrimitives = languageSpecificPrimitives.orNull?.let { value -> ArrayList(value) }
+        it.importMappings = importMappings.orNull?.let { value -> LinkedHashMap(value) }
+        it.inlineSchemaNameMappings = inlineSchemaNameMappings.orNull?.let { value -> LinkedHashMap(value) }
+        it.invokerPackage = invokerPackage.orNull
+        it.groupId = groupId.orNull
+        it.id = id.orNull
+        it.version = version.orNull
+        it.library = library.orNull
+        it.gitHost = gitHost.orNull
+        it.gitUserId = gitUserId.orNull
+        it.gitRepoId = gitRepoId.orNull
+        it.releaseNote = releaseNote.orNull
+        it.httpUserAgent = httpUserAgent.orNull
+        it.reservedWordsMappings = reservedWordsMappings.orNull?.let { value -> LinkedHashMap(value) }
+        it.ignoreFileOverride = ignoreFileOverride.orNull
+        it.removeOperationIdPrefix = removeOperationIdPrefix.orNull
+        it.skipOperationExample = skipOperationExample.orNull
+        it.generationMetrics = generationMetrics.orNull
+        it.apiFilesConstrainedTo = apiFilesConstrainedTo.orNull?.let { value -> ArrayList(value) }
+        it.modelFilesConstrainedTo = modelFilesConstrainedTo.orNull?.let { value -> ArrayList(value) }
+        it.supportingFilesConstrainedTo = supportingFilesConstrainedTo.orNull?.let { value -> ArrayList(value) }
+        it.generateModelTests = generateModelTests.orNull
+        it.generateModelDocumentation = generateModelDocumentation.orNull
+        it.generateApiTests = generateApiTests.orNull
+        it.generateApiDocumentation = generateApiDocumentation.orNull
+        it.withXml = withXml.orNull
+        it.logToStderr = logToStderr.orNull
+        it.enablePostProcessFile = enablePostProcessFile.orNull
+        it.skipValidateSpec = skipValidateSpec.orNull
+        it.generateAliasAsModel = generateAliasAsModel.orNull
+        it.configOptions = configOptions.orNull?.let { value -> LinkedHashMap(value) }
+        it.engine = engine.orNull
+    }
 
-                out.println("Successfully generated code to ${outputDir.get()}")
-            } catch (e: RuntimeException) {
-                throw GradleException("Code generation failed.", e)
-            }
-        } finally {
-            GlobalSettings.reset()
+    /**
+     * Submits the generation to a worker with an isolated class loader, so the static state of the generators isn't
+     * shared with the build and other generate tasks of the build can run at the same time.
+     */
+    @Suppress("unused")
+    @TaskAction
+    fun doWork() {
+        val generateSettings = settings()
+        workerExecutor.classLoaderIsolation().submit(GenerateAction::class.java) {
+            settings.set(generateSettings)
         }
     }
 }
@@ -34,6 +34,7 @@ import org.gradle.api.tasks.options.Option
 import org.gradle.internal.logging.text.StyledTextOutput
 import org.gradle.internal.logging.text.StyledTextOutputFactory
 import org.gradle.kotlin.dsl.property
+import org.openapitools.codegen.validation.ValidationRuleCosts
 import org.openapitools.codegen.validations.oas.OpenApiEvaluator
 import org.openapitools.codegen.validations.oas.RuleConfiguration
 
@@ -62,6 +63,10 @@ open class ValidateTask : DefaultTask() {
     @Input
     val recommend = project.objects.property<Boolean?>()
 
+    @Optional
+    @Input
+    val reportRuleCosts = project.objects.property<Boolean?>()
+
     @Suppress("unused")
     @get:Internal
     @set:Option(option = "input", description = "The input specification.")
@@ -70,6 +75,14 @@ open class ValidateTask : DefaultTask() {
             inputSpec.set(value)
         }
 
+    @Suppress("unused")
+    @get:Internal
+    @set:Option(option = "report-rule-costs", description = "Print the number of evaluations and the time spent in each validation rule.")
+    var reportCosts: Boolean = false
+        set(value) {
+            reportRuleCosts.set(value)
+        }
+
     @Suppress("unused")
     @TaskAction
     fun doWork() {
@@ -91,7 +104,12 @@ open class ValidateTask : DefaultTask() {
         ruleConfiguration.isEnableRecommendations = recommendations
 
         val evaluator = OpenApiEvaluator(ruleConfiguration)
-        val validationResult = evaluator.validate(result.openAPI)
+        val costs = if (reportRuleCosts.getOrElse(false) == true) ValidationRuleCosts() else null
+        val validationResult = evaluator.validate(result.openAPI, costs)
+
+        if (costs != null) {
+            logger.quiet("Rule costs (total time, evaluations, rule):\n${costs.report()}")
+        }
 
         if (validationResult.warnings.isNotEmpty()) {
             out.withStyle(StyledTextOutput.Style.Info)
@@ -142,6 +142,84 @@ class GenerateTaskDslTest : TestBase() {
         assertTrue(resultSecondRun.output.contains("Task :openApiGenerate UP-TO-DATE"), "Task of second run should be up-to-date")
     }
 
+    @Test
+    fun `openApiGenerate should regenerate when a referenced file changes`() {
+        // Arrange
+        val projectFiles = mapOf(
+                "spec.yaml" to """
+                    openapi: 3.0.0
+                    info:
+                      title: Pets
+                      version: 1.0.0
+                    paths: {}
+                    components:
+                      schemas:
+                        Pet:
+                          ${'$'}ref: 'pet.yaml#/Pet'
+                """.trimIndent().byteInputStream(),
+                "pet.yaml" to """
+                    Pet:
+                      type: object
+                      properties:
+                        name:
+                          type: string
+                """.trimIndent().byteInputStream()
+        )
+        withProject(defaultBuildGradle, projectFiles)
+
+        // Act
+        val resultFirstRun = GradleRunner.create()
+                .withProjectDir(temp)
+                .withArguments("openApiGenerate", "--info")
+                .withPluginClasspath()
+                .build()
+        File(temp, "pet.yaml").appendText("\n    tag:\n      type: string\n")
+        val resultSecondRun = GradleRunner.create()
+                .withProjectDir(temp)
+                .withArguments("openApiGenerate", "--info")
+                .withPluginClasspath()
+                .build()
+
+        // Assert
+        assertFalse(resultFirstRun.output.contains("Task :openApiGenerate UP-TO-DATE"), "First run should not be up-to-date")
+        assertFalse(resultSecondRun.output.contains("Task :openApiGenerate UP-TO-DATE"), "Second run should detect the changed reference")
+        assertTrue(File(temp, "build/kotlin/src/main/kotlin/org/openapitools/example/model/Pet.kt").readText().contains("tag"),
+                "The changed reference was not generated")
+    }
+
+    @Test
+    fun `openApiGenerate should fail for additional properties which can't be serialized`() {
+        // Arrange
+        val projectFiles = mapOf(
+                "spec.yaml" to javaClass.classLoader.getResourceAsStream("specs/petstore-v3.0.yaml")
+        )
+        withProject("""
+            |class Version {
+            |    String toString() { "2.0.0" }
+            |}
+            |$defaultBuildGradle
+            |openApiGenerate {
+            |    additionalProperties = [
+            |            artifactVersion: "2.0.0",
+            |            versions: [new Version()]
+            |    ]
+            |}
+        """.trimMargin(), projectFiles)
+
+        // Act
+        val result = GradleRunner.create()
+                .withProjectDir(temp)
+                .withArguments("openApiGenerate")
+                .withPluginClasspath()
+                .buildAndFail()
+
+        // Assert
+        assertEquals(TaskOutcome.FAILED, result.task(":openApiGenerate")?.outcome,
+                "Expected a failed run, but found ${result.task(":openApiGenerate")?.outcome}")
+        assertTrue(result.output.contains("The additional property 'versions' can't be passed to the generator, as its Version value isn't serializable."),
+                "The failure didn't name the additional property")
+    }
+
     @Test
     fun `openApiGenerate should use cache instead of regenerate`() {
         // Arrange
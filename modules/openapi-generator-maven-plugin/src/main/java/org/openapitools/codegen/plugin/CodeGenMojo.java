@@ -20,27 +20,20 @@ package org.openapitools.codegen.plugin;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static org.openapitools.codegen.config.CodegenConfiguratorUtils.*;
 
-import io.swagger.v3.parser.core.models.AuthorizationValue;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLConnection;
-import java.nio.channels.Channels;
-import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import com.google.common.io.ByteSource;
-import com.google.common.io.CharSource;
-import io.swagger.v3.parser.util.ClasspathHelper;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecution;
@@ -54,17 +47,18 @@ import org.apache.maven.project.MavenProject;
 import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigDescriptor;
+import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.CodegenConstants;
 import org.openapitools.codegen.DefaultGenerator;
-import org.openapitools.codegen.auth.AuthParser;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.utils.ImplementationVersion;
 import org.sonatype.plexus.build.incremental.BuildContext;
 import org.sonatype.plexus.build.incremental.DefaultBuildContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
 
 /**
@@ -76,6 +70,12 @@ public class CodeGenMojo extends AbstractMojo {
 
     private final Logger LOGGER = LoggerFactory.getLogger(CodeGenMojo.class);
 
+    /**
+     * The fields which aren't inputs of the generation, see {@link #fingerprintInputs()}.
+     */
+    private static final Set<String> NOT_INPUTS = new HashSet<>(Arrays.asList(
+            "LOGGER", "buildContext", "mojo", "project", "skip", "skipIfSpecIsUnchanged"));
+
     /**
      * The build context is only avail when running from within eclipse.
      * It is used to update the eclipse-m2e-layer when the plugin is executed inside the IDE.
@@ -250,6 +250,13 @@ public class CodeGenMojo extends AbstractMojo {
     @Parameter(name = "skipOperationExample", property = "openapi.generator.maven.plugin.skipOperationExample")
     private Boolean skipOperationExample;
 
+    /**
+     * To record wall time, CPU time and allocations per generation phase, generator hook and template
+     * in .openapi-generator/METRICS.json
+     */
+    @Parameter(name = "generationMetrics", property = "openapi.generator.maven.plugin.generationMetrics")
+    private Boolean generationMetrics;
+
     /**
      * To write all log messages (not just errors) to STDOUT
      */
@@ -470,18 +477,15 @@ public class CodeGenMojo extends AbstractMojo {
                 }
             }
 
+            InputFingerprint fingerprint = null;
             if (Boolean.TRUE.equals(skipIfSpecIsUnchanged)) {
+                // fingerprint the inputs before the parameters are applied, some of them are modified on the way
+                fingerprint = fingerprintInputs();
                 File storedInputSpecHashFile = getHashFile(inputSpecFile);
                 if (storedInputSpecHashFile.exists()) {
-                    String inputSpecHash = null;
-                    try {
-                        inputSpecHash = calculateInputSpecHash(inputSpecFile);
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    }
                     @SuppressWarnings("UnstableApiUsage")
                     String storedInputSpecHash = Files.asCharSource(storedInputSpecHashFile, StandardCharsets.UTF_8).read();
-                    if (storedInputSpecHash.equals(inputSpecHash)) {
+                    if (InputFingerprint.hashOf(storedInputSpecHash).equals(fingerprint.getHash())) {
                         getLog().info(
                                 "Code generation is skipped because input was unchanged");
                         return;
@@ -511,6 +515,10 @@ public class CodeGenMojo extends AbstractMojo {
                 configurator.setSkipOperationExample(skipOperationExample);
             }
 
+            if (generationMetrics != null) {
+                configurator.setGenerationMetrics(generationMetrics);
+            }
+
             if (isNotEmpty(inputSpec)) {
                 configurator.setInputSpec(inputSpec);
             }
@@ -784,9 +792,19 @@ public class CodeGenMojo extends AbstractMojo {
                 buildContext.refresh(new File(getCompileSourceRoot()));
             }
 
-            // Store a checksum of the input spec
             File storedInputSpecHashFile = getHashFile(inputSpecFile);
-            String inputSpecHash = calculateInputSpecHash(inputSpecFile);
+            if (fingerprint == null) {
+                // a checksum stored by an earlier execution no longer describes the generated code
+                if (storedInputSpecHashFile.exists() && !storedInputSpecHashFile.delete()) {
+                    throw new RuntimeException("Failed to delete the outdated checksum " +
+                                               storedInputSpecHashFile.getAbsolutePath());
+                }
+                return;
+            }
+
+            // Store a checksum of the inputs, with the ignore file as the generator may have created it
+            fingerprint.addFile("ignore", getIgnoreFile());
+            String inputSpecHash = fingerprint.toString();
 
             if (storedInputSpecHashFile.getParent() != null && !new File(storedInputSpecHashFile.getParent()).exists()) {
                 File parent = new File(storedInputSpecHashFile.getParent());
@@ -811,45 +829,55 @@ public class CodeGenMojo extends AbstractMojo {
     }
 
     /**
-     * Calculate openapi specification file hash. If specification is hosted on remote resource it is downloaded first
+     * Fingerprint everything the generated code depends on: the input spec with all documents it references, the
+     * templates, configuration and ignore files, the generator and the value of every parameter.
      *
-     * @param inputSpecFile - Openapi specification input file to calculate it's hash.
-     *                        Does not taken into account if input spec is hosted on remote resource
-     * @return openapi specification file hash
-     * @throws IOException
-     */
-    private String calculateInputSpecHash(File inputSpecFile) throws IOException {
-
-        URL inputSpecRemoteUrl = inputSpecRemoteUrl();
-
-        File inputSpecTempFile = inputSpecFile;
-
-        if (inputSpecRemoteUrl != null) {
-            inputSpecTempFile = java.nio.file.Files.createTempFile("openapi-spec", ".tmp").toFile();
-
-            URLConnection conn = inputSpecRemoteUrl.openConnection();
-            if (isNotEmpty(auth)) {
-                List<AuthorizationValue> authList = AuthParser.parse(auth);
-                for (AuthorizationValue a : authList) {
-                    conn.setRequestProperty(a.getKeyName(), a.getValue());
-                }
-            }
-            try (ReadableByteChannel readableByteChannel = Channels.newChannel(conn.getInputStream())) {
-                FileChannel fileChannel;
-                try (FileOutputStream fileOutputStream = new FileOutputStream(inputSpecTempFile)) {
-                    fileChannel = fileOutputStream.getChannel();
-                    fileChannel.transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
-                }
-            }
+     * @return the fingerprint of the inputs
+     * @throws IOException if the template directory can't be read
+     */
+    private InputFingerprint fingerprintInputs() throws IOException {
+        InputFingerprint fingerprint = new InputFingerprint(auth);
+        fingerprint.addSpec(inputSpec);
+        if (templateDirectory != null) {
+            fingerprint.addFile("template", templateDirectory);
+        }
+        if (isNotEmpty(configurationFile)) {
+            fingerprint.addFile("config", new File(configurationFile));
+        }
+        fingerprint.addFile("ignore", getIgnoreFile());
+        fingerprint.addValue("version", ImplementationVersion.read());
+        fingerprint.addClassSource(DefaultGenerator.class);
+        Class<?> generatorClass = generatorClass();
+        if (generatorClass != null) {
+            fingerprint.addClassSource(generatorClass);
         }
+        fingerprint.addFields(this, NOT_INPUTS);
+        return fingerprint;
+    }
 
-        ByteSource inputSpecByteSource =
-                inputSpecTempFile.exists()
-                        ? Files.asByteSource(inputSpecTempFile)
-                        : CharSource.wrap(ClasspathHelper.loadFileFromClasspath(inputSpecTempFile.toString().replaceAll("\\\\","/")))
-                        .asByteSource(StandardCharsets.UTF_8);
+    /**
+     * @return the class of the configured generator, without instantiating it, or null if it isn't found
+     */
+    private Class<?> generatorClass() {
+        if (generatorName == null) {
+            return null;
+        }
+        String className = CodegenConfigLoader.getDescriptors().stream()
+                .filter(descriptor -> generatorName.equals(descriptor.getName()))
+                .map(CodegenConfigDescriptor::getClassName)
+                .findFirst()
+                .orElse(generatorName);
+        try {
+            return Class.forName(className, false, CodegenConfig.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
 
-        return inputSpecByteSource.hash(Hashing.sha256()).toString();
+    private File getIgnoreFile() {
+        return isNotEmpty(ignoreFileOverride)
+                ? new File(ignoreFileOverride)
+                : new File(output, ".openapi-generator-ignore");
     }
 
     /**
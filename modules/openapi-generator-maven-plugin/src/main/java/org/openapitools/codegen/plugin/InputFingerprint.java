@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.plugin;
+
+import com.google.common.hash.Hashing;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.util.ClasspathHelper;
+import org.openapitools.codegen.auth.AuthParser;
+import org.openapitools.codegen.utils.ExternalReferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A fingerprint of everything a generation depends on: the input spec and every file it references through
+ * {@code $ref}, the custom templates, the configuration and ignore files, the generator classes and the value of
+ * every parameter of the mojo.
+ * <p>
+ * Each input contributes one line of the form {@code kind:name=hash}, where the hash is the SHA-256 of the content of a
+ * file or of the value of a parameter, so the stored fingerprint doesn't reveal secrets such as the {@code auth}
+ * parameter. {@link #toString()} gives the SHA-256 of all lines followed by the lines themselves, so a stored
+ * fingerprint shows which input changed.
+ */
+final class InputFingerprint {
+    private static final String CLASSPATH_SCHEME = "classpath";
+    private static final String MISSING = "missing";
+
+    private final Map<String, String> entries = new TreeMap<>();
+    private final String auth;
+
+    /**
+     * @param auth the authorization headers used to fetch remote specs, in the format of the {@code auth} parameter
+     */
+    InputFingerprint(String auth) {
+        this.auth = auth;
+    }
+
+    /**
+     * Adds the spec and every external document it references, following {@code $ref} recursively.
+     *
+     * @param inputSpec the path, URL or classpath location of the spec
+     */
+    void addSpec(String inputSpec) {
+        ExternalReferences.closure(specLocation(inputSpec), this::read).forEach((location, content) ->
+                entries.put("spec:" + displayed(location), content == null ? MISSING : sha256(content)));
+    }
+
+    /**
+     * Adds a file, or all files of a directory, recording a missing file as such.
+     *
+     * @param kind the kind of input, e.g. "template"
+     * @param file the file or directory
+     * @throws IOException if a directory can't be listed
+     */
+    void addFile(String kind, File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        if (!Files.isDirectory(path)) {
+            byte[] content = Files.exists(path) ? Files.readAllBytes(path) : null;
+            entries.put(kind + ":" + path, content == null ? MISSING : sha256(content));
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path each : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                entries.put(kind + ":" + path.relativize(each).toString().replace('\\', '/'), sha256(Files.readAllBytes(each)));
+            }
+        }
+    }
+
+    /**
+     * Adds the location, size and modification time of the jar or directory a class is loaded from, so rebuilding a
+     * snapshot of the generator invalidates the fingerprint even if its version doesn't change.
+     *
+     * @param type a class of the generator
+     */
+    void addClassSource(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            entries.put("class:" + type.getName(), "unknown");
+            return;
+        }
+        String value = source.getLocation().toString();
+        try {
+            File file = new File(source.getLocation().toURI());
+            value += "@" + file.length() + ":" + file.lastModified();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // not a file, the location alone identifies it
+        }
+        entries.put("class:" + type.getName(), sha256(value));
+    }
+
+    /**
+     * Adds a value, such as the version of the generator.
+     *
+     * @param name  the name of the value
+     * @param value the value
+     */
+    void addValue(String name, Object value) {
+        entries.put("value:" + name, sha256(canonical(value)));
+    }
+
+    /**
+     * Adds the value of every instance field of an object declared by its class, except the given ones.
+     *
+     * @param parameters the object holding the parameters, e.g. a mojo
+     * @param excluded   the names of the fields which don't affect the result
+     */
+    void addFields(Object parameters, Set<String> excluded) {
+        for (Field field : parameters.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || excluded.contains(field.getName())) {
+                continue;
+            }
+            field.setAccessible(true);
+            try {
+                entries.put("parameter:" + field.getName(), sha256(canonical(field.get(parameters))));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to read parameter " + field.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the SHA-256 of all inputs
+     */
+    String getHash() {
+        StringBuilder lines = new StringBuilder();
+        entries.forEach((name, value) -> lines.append(name).append('=').append(value).append('\n'));
+        return sha256(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the hash of a fingerprint written by {@link #toString()}.
+     *
+     * @param stored the stored fingerprint
+     * @return the hash, i.e. the first line
+     */
+    static String hashOf(String stored) {
+        int end = stored.indexOf('\n');
+        return (end < 0 ? stored : stored.substring(0, end)).trim();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getHash()).append('\n');
+        entries.forEach((name, value) -> sb.append(name).append('=').append(value).append('\n'));
+        return sb.toString();
+    }
+
+    private URI specLocation(String inputSpec) {
+        try {
+            URI uri = new URI(inputSpec);
+            if (ExternalReferences.isUrl(uri)) {
+                uri.toURL();
+                return uri;
+            }
+        } catch (URISyntaxException | IllegalArgumentException | IOException e) {
+            // not a URL
+        }
+        File file = new File(inputSpec);
+        if (file.exists()) {
+            return file.toPath().toAbsolutePath().normalize().toFile().toURI();
+        }
+        try {
+            String path = inputSpec.replace('\\', '/');
+            return new URI(CLASSPATH_SCHEME, null, path.startsWith("/") ? path : "/" + path, null);
+        } catch (URISyntaxException e) {
+            return file.toPath().toAbsolutePath().normalize().toFile().toURI();
+        }
+    }
+
+    /**
+     * @return the content of a document, or null if it doesn't exist or can't be read
+     */
+    private byte[] read(URI location) {
+        try {
+            if ("file".equals(location.getScheme())) {
+                Path path = Paths.get(location);
+                return Files.exists(path) ? Files.readAllBytes(path) : null;
+            }
+            if (CLASSPATH_SCHEME.equals(location.getScheme())) {
+                String path = location.getPath();
+                return ClasspathHelper.loadFileFromClasspath(path.substring(1)).getBytes(StandardCharsets.UTF_8);
+            }
+            URLConnection conn = location.toURL().openConnection();
+            if (auth != null && !auth.isEmpty()) {
+                List<AuthorizationValue> authList = AuthParser.parse(auth);
+                for (AuthorizationValue a : authList) {
+                    conn.setRequestProperty(a.getKeyName(), a.getValue());
+                }
+            }
+            try (InputStream in = conn.getInputStream()) {
+                return IOUtils.toByteArray(in);
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String canonical(Object value) {
+        if (value instanceof Map) {
+            Map<String, String> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> sorted.put(String.valueOf(k), canonical(v)));
+            return sorted.toString();
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(InputFingerprint::canonical).collect(Collectors.joining(", ", "[", "]"));
+        }
+        if (value instanceof File) {
+            return ((File) value).getAbsolutePath();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * @return the location of a document as shown in the fingerprint, hashed if it may hold credentials
+     */
+    private static String displayed(URI location) {
+        if (location.getRawUserInfo() == null && location.getRawQuery() == null) {
+            return location.toString();
+        }
+        return sha256(location.toString());
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+}
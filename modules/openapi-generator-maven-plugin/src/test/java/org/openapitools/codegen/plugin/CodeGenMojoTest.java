@@ -60,6 +60,7 @@ public class CodeGenMojoTest extends BaseTestCase {
         // GIVEN
         Path folder = Files.createTempDirectory("test");
         CodeGenMojo mojo = loadMojo(folder.toFile(), "src/test/resources/default", "executionId");
+        setVariableValueToObject(mojo, "skipIfSpecIsUnchanged", true);
 
         // WHEN
         mojo.execute();
@@ -69,6 +70,30 @@ public class CodeGenMojoTest extends BaseTestCase {
         assertTrue(hashFolder.resolve("petstore.yaml-executionId.sha256").toFile().exists());
     }
 
+    /**
+     * Test that a generation without skipIfSpecIsUnchanged removes the checksum of an earlier generation, which no
+     * longer describes the generated code.
+     *
+     * @throws Exception
+     */
+    public void testGenerationWithoutSkipRemovesOutdatedHashFile() throws Exception {
+        // GIVEN
+        Path folder = Files.createTempDirectory("test");
+        CodeGenMojo mojo = loadMojo(folder.toFile(), "src/test/resources/default", "executionId");
+        setVariableValueToObject(mojo, "skipIfSpecIsUnchanged", true);
+        mojo.execute();
+        Path hashFile = folder.resolve(
+                "target/generated-sources/common-maven/remote-openapi/.openapi-generator/petstore.yaml-executionId.sha256");
+        assertTrue(hashFile.toFile().exists());
+
+        // WHEN
+        setVariableValueToObject(mojo, "skipIfSpecIsUnchanged", false);
+        mojo.execute();
+
+        // THEN
+        assertFalse(hashFile.toFile().exists());
+    }
+
     /**
      * For a Pom file which refers to a input file which will be on the classpath, as opposed to a file path,
      * test that the spec is not regenerated when the hash has not changed. 
@@ -150,6 +175,86 @@ public class CodeGenMojoTest extends BaseTestCase {
 
     }
 
+    /**
+     * For a spec split into several files, test that a change in a file which is only reachable through a $ref
+     * of another referenced file triggers the regeneration.
+     *
+     * @throws Exception
+     */
+    public void testRegenerationForChangedReferencedFile() throws Exception {
+        //GIVEN
+        final Path folder = Files.createTempDirectory("test-multi-file");
+        final CodeGenMojo mojo = loadMojo(folder.toFile(), "src/test/resources/multi-file", "executionId");
+        final Path generated = folder.resolve("target/generated-sources/common-maven/remote-openapi/src");
+        mojo.execute();
+
+        /* Nothing changed, so the generation is skipped */
+        deleteRecursively(generated);
+        mojo.execute();
+        assertFalse("src directory should not have been regenerated", generated.toFile().exists());
+
+        // WHEN
+        Files.write(folder.resolve("schemas/category.yaml"),
+                Arrays.asList("Category:", "  type: object", "  properties:", "    id:", "      type: integer"));
+        mojo.execute();
+
+        // THEN
+        assertTrue("src directory should have been regenerated", generated.toFile().exists());
+        String stored = new String(Files.readAllBytes(folder.resolve(
+                "target/generated-sources/common-maven/remote-openapi/.openapi-generator/petstore.yaml-executionId.sha256")), "UTF-8");
+        assertTrue(stored, stored.contains("/schemas/category.yaml="));
+    }
+
+    /**
+     * Test that changing a parameter of the plugin triggers the regeneration even though the spec is unchanged.
+     *
+     * @throws Exception
+     */
+    public void testRegenerationForChangedParameter() throws Exception {
+        //GIVEN
+        final Path folder = Files.createTempDirectory("test-multi-file");
+        final CodeGenMojo mojo = loadMojo(folder.toFile(), "src/test/resources/multi-file", "executionId");
+        final Path generated = folder.resolve("target/generated-sources/common-maven/remote-openapi/src");
+        mojo.execute();
+        deleteRecursively(generated);
+
+        // WHEN
+        setVariableValueToObject(mojo, "modelPackage", "remote.org.openapitools.client.model2");
+        mojo.execute();
+
+        // THEN
+        assertTrue("src directory should have been regenerated", generated.toFile().exists());
+    }
+
+    /**
+     * Test that the stored checksums don't reveal the values of parameters, such as credentials.
+     *
+     * @throws Exception
+     */
+    public void testHashFileOnlyContainsHashesOfParameters() throws Exception {
+        //GIVEN
+        final Path folder = Files.createTempDirectory("test-multi-file");
+        final CodeGenMojo mojo = loadMojo(folder.toFile(), "src/test/resources/multi-file", "executionId");
+        setVariableValueToObject(mojo, "auth", "Authorization:Bearer%20secret-token");
+
+        // WHEN
+        mojo.execute();
+
+        // THEN
+        String stored = new String(Files.readAllBytes(folder.resolve(
+                "target/generated-sources/common-maven/remote-openapi/.openapi-generator/petstore.yaml-executionId.sha256")), "UTF-8");
+        assertTrue(stored, stored.contains("parameter:auth="));
+        assertFalse(stored, stored.contains("secret-token"));
+        assertFalse(stored, stored.contains("remote.org.openapitools.client"));
+    }
+
+    private static void deleteRecursively(Path directory) throws Exception {
+        Files.walk(directory)
+            .sorted(Comparator.reverseOrder())
+            .map(Path::toFile)
+            .forEach(File::delete);
+    }
+
     protected CodeGenMojo loadMojo(File temporaryFolder, String projectRoot) throws Exception {
         return loadMojo(temporaryFolder, projectRoot, "default");
     }
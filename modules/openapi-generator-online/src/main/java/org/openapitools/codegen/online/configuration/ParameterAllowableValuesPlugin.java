@@ -1,6 +1,6 @@
 package org.openapitools.codegen.online.configuration;
 
-import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigDescriptor;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.CodegenType;
 import org.springframework.stereotype.Component;
@@ -19,12 +19,12 @@ public class ParameterAllowableValuesPlugin implements ParameterBuilderPlugin {
     private static List<String> servers = new ArrayList<>();
 
     static {
-        List<CodegenConfig> extensions = CodegenConfigLoader.getAll();
-        for (CodegenConfig config : extensions) {
-            if (config.getTag().equals(CodegenType.CLIENT)
-                    || config.getTag().equals(CodegenType.DOCUMENTATION)) {
+        List<CodegenConfigDescriptor> extensions = CodegenConfigLoader.getDescriptors();
+        for (CodegenConfigDescriptor config : extensions) {
+            if (config.getType() == CodegenType.CLIENT
+                    || config.getType() == CodegenType.DOCUMENTATION) {
                 clients.add(config.getName());
-            } else if (config.getTag().equals(CodegenType.SERVER)) {
+            } else if (config.getType() == CodegenType.SERVER) {
                 servers.add(config.getName());
             }
         }
@@ -17,9 +17,12 @@
 
 package org.openapitools.codegen.online.model;
 
+import org.openapitools.codegen.online.service.Generator;
+
 public class Generated {
     private String filename;
     private String friendlyName;
+    private Generator.Archive archive;
 
     public String getFilename() {
         return filename;
@@ -36,4 +39,12 @@ public class Generated {
     public void setFriendlyName(String friendlyName) {
         this.friendlyName = friendlyName;
     }
+
+    public Generator.Archive getArchive() {
+        return archive;
+    }
+
+    public void setArchive(Generator.Archive archive) {
+        this.archive = archive;
+    }
 }
@@ -17,50 +17,60 @@
 
 package org.openapitools.codegen.online.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.CliOption;
-import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigDescriptor;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.CodegenType;
 import org.openapitools.codegen.online.api.GenApiDelegate;
 import org.openapitools.codegen.online.model.Generated;
 import org.openapitools.codegen.online.model.GeneratorInput;
 import org.openapitools.codegen.online.model.ResponseCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class GenApiService implements GenApiDelegate {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenApiService.class);
 
     private static List<String> clients = new ArrayList<>();
     private static List<String> servers = new ArrayList<>();
-    private static Map<String, Generated> fileMap = new HashMap<>();
+    private static final Generator.OutputMode outputMode = Generator.OutputMode.fromEnvironment();
+    // archives which were never downloaded are dropped after a while, so they don't pile up on the heap or on disk
+    private static final Cache<String, Generated> fileMap = downloadCache(
+            TimeUnit.MINUTES.toNanos(getPositiveLongEnv("GENERATOR_DOWNLOAD_TTL_MINUTES", 30)),
+            getPositiveLongEnv("GENERATOR_DOWNLOAD_MAX_ENTRIES", 1000),
+            Ticker.systemTicker());
 
     static {
-        List<CodegenConfig> extensions = CodegenConfigLoader.getAll();
-        for (CodegenConfig config : extensions) {
-            if (config.getTag().equals(CodegenType.CLIENT)
-                    || config.getTag().equals(CodegenType.DOCUMENTATION)) {
+        List<CodegenConfigDescriptor> extensions = CodegenConfigLoader.getDescriptors();
+        for (CodegenConfigDescriptor config : extensions) {
+            if (config.getType() == CodegenType.CLIENT
+                    || config.getType() == CodegenType.DOCUMENTATION) {
                 clients.add(config.getName());
-            } else if (config.getTag().equals(CodegenType.SERVER)) {
+            } else if (config.getType() == CodegenType.SERVER) {
                 servers.add(config.getName());
             }
         }
@@ -78,40 +88,26 @@ public class GenApiService implements GenApiDelegate {
     }
 
     @Override
-    public ResponseEntity<Resource> downloadFile(String fileId) {
-        Generated g = fileMap.get(fileId);
-        System.out.println("looking for fileId " + fileId);
-        System.out.println("got filename " + g.getFilename());
-
-        File file = new File(g.getFilename());
-        Path path = Paths.get(file.getAbsolutePath());
-        ByteArrayResource resource;
-        try {
-            resource = new ByteArrayResource(Files.readAllBytes(path));
-        } catch (FileNotFoundException e) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found", e);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error while reading file", e);
-        }
-        try {
-            FileUtils.deleteDirectory(file.getParentFile());
-        } catch (IOException e) {
-            System.out.println("failed to delete file " + file.getAbsolutePath());
+    public ResponseEntity<StreamingResponseBody> downloadFile(String fileId) {
+        // a fileId can be used just once
+        Generated g = fileMap.asMap().remove(fileId);
+        if (g == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
         }
+        LOGGER.debug("downloading {} ({})", fileId, g.getFriendlyName());
+
         return ResponseEntity
                 .ok()
                 .contentType(MediaType.valueOf("application/zip"))
                 .header("Content-Disposition",
                         "attachment; filename=\"" + g.getFriendlyName() + "-generated.zip\"")
                 .header("Accept-Range", "bytes")
-                //.header("Content-Length", bytes.length)
-                .body(resource);
+                .body(out -> g.getArchive().writeTo(out));
     }
 
     @Override
     public ResponseEntity<ResponseCode> generateClient(String language, GeneratorInput generatorInput) {
-        String filename = Generator.generateClient(language, generatorInput);
-        return getResponse(filename, language + "-client");
+        return getResponse(generate(language, generatorInput, Generator.Type.CLIENT), language + "-client");
     }
 
     @Override
@@ -151,13 +147,95 @@ public class GenApiService implements GenApiDelegate {
         if (framework == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Framework is required");
         }
-        String filename = Generator.generateServer(framework, generatorInput);
-        System.out.println("generated name: " + filename);
+        return getResponse(generate(framework, generatorInput, Generator.Type.SERVER), framework + "-server");
+    }
+
+    private Generated generate(String language, GeneratorInput generatorInput, Generator.Type type) {
+        Generated g = new Generated();
+        switch (outputMode) {
+            case STREAM:
+                g.setArchive(Generator.prepareArchive(language, generatorInput, type));
+                break;
+            case MEMORY:
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try {
+                    Generator.prepareArchive(language, generatorInput, type).writeTo(bytes);
+                } catch (IOException e) {
+                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error while generating archive", e);
+                }
+                byte[] archive = bytes.toByteArray();
+                g.setArchive(out -> out.write(archive));
+                break;
+            default:
+                String filename = type == Generator.Type.CLIENT
+                        ? Generator.generateClient(language, generatorInput)
+                        : Generator.generateServer(language, generatorInput);
+                LOGGER.debug("generated name: {}", filename);
+                g.setFilename(filename);
+                g.setArchive(out -> {
+                    try {
+                        Files.copy(new File(filename).toPath(), out);
+                    } finally {
+                        discard(g);
+                    }
+                });
+                break;
+        }
+        return g;
+    }
+
+    /**
+     * Creates the cache of archives waiting to be downloaded. Evicted archives generated to the file system are deleted.
+     *
+     * @param expireAfterNanos Time after which an archive which was not downloaded is evicted
+     * @param maximumSize      Maximum number of archives waiting to be downloaded
+     * @param ticker           The time source
+     * @return The cache
+     */
+    static Cache<String, Generated> downloadCache(long expireAfterNanos, long maximumSize, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterNanos, TimeUnit.NANOSECONDS)
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((String code, Generated g, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && g != null) {
+                        LOGGER.debug("discarding {} ({}), it was not downloaded in time", code, g.getFriendlyName());
+                        discard(g);
+                    }
+                })
+                .build();
+    }
+
+    private static void discard(Generated g) {
+        if (g.getFilename() != null) {
+            File file = new File(g.getFilename());
+            try {
+                FileUtils.deleteDirectory(file.getParentFile());
+            } catch (IOException e) {
+                LOGGER.warn("failed to delete file {}", file.getAbsolutePath(), e);
+            }
+        }
+    }
 
-        return getResponse(filename, framework + "-server");
+    private static long getPositiveLongEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        LOGGER.warn("Invalid value '{}' for {}, using {}", value, name, defaultValue);
+        return defaultValue;
     }
 
-    private ResponseEntity<ResponseCode> getResponse(String filename, String friendlyName) {
+    private ResponseEntity<ResponseCode> getResponse(Generated g, String friendlyName) {
         String host = System.getenv("GENERATOR_HOST");
 
         UriComponentsBuilder uriBuilder;
@@ -167,13 +245,11 @@ public class GenApiService implements GenApiDelegate {
             uriBuilder = ServletUriComponentsBuilder.fromCurrentContextPath();
         }
 
-        if (filename != null) {
+        if (g != null) {
             String code = UUID.randomUUID().toString();
-            Generated g = new Generated();
-            g.setFilename(filename);
             g.setFriendlyName(friendlyName);
             fileMap.put(code, g);
-            System.out.println(code + ", " + filename);
+            LOGGER.debug("{}, {}", code, friendlyName);
             String link = uriBuilder.path("/api/gen/download/").path(code).toUriString();
             return ResponseEntity.ok().body(new ResponseCode(code, link));
         } else {
@@ -22,24 +22,32 @@ import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.sink.ZipOutputSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
 
 public class Generator {
     private static Logger LOGGER = LoggerFactory.getLogger(Generator.class);
@@ -81,7 +89,139 @@ public class Generator {
         return generate(language, opts, Type.SERVER);
     }
 
+    /**
+     * Determines how generated archives reach the download endpoint.
+     */
+    public enum OutputMode {
+        /**
+         * Files are generated into a temporary folder, which is then compressed into a zip file on disk.
+         */
+        FILESYSTEM,
+        /**
+         * Files are compressed into a zip archive held in memory while they are generated. Nothing is written to disk.
+         */
+        MEMORY,
+        /**
+         * The specification and options are validated up front, files are generated and compressed straight into the
+         * download response. Nothing is written to disk or held in memory.
+         */
+        STREAM;
+
+        /**
+         * @return The mode configured by the GENERATOR_OUTPUT_MODE environment variable, FILESYSTEM by default
+         */
+        public static OutputMode fromEnvironment() {
+            String mode = System.getenv("GENERATOR_OUTPUT_MODE");
+            if (mode == null || mode.trim().isEmpty()) {
+                return FILESYSTEM;
+            }
+            try {
+                return OutputMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Unknown GENERATOR_OUTPUT_MODE '{}', using {}", mode, FILESYSTEM);
+                return FILESYSTEM;
+            }
+        }
+    }
+
+    /**
+     * A zip archive of generated files.
+     */
+    @FunctionalInterface
+    public interface Archive {
+        /**
+         * Writes the archive.
+         *
+         * @param out The stream receiving the archive, which is not closed
+         * @throws IOException if the archive cannot be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Parses and validates the specification and configures the generator right away, but defers generation until
+     * the returned archive is written. Files are compressed into the archive as they are generated, without a
+     * temporary folder.
+     * <p>
+     * The download response is already committed when generation starts, so a specification with validation errors is
+     * rejected here rather than failing half way through the download.
+     *
+     * @param language The generator name
+     * @param opts     The generator input
+     * @param type     The kind of generator
+     * @return The archive
+     */
+    public static Archive prepareArchive(String language, GeneratorInput opts, Type type) {
+        // the output folder only names the top level folder of the archive, it is never created
+        Path outputFolder = Paths.get(System.getProperty("java.io.tmpdir"), "codegen-" + UUID.randomUUID(), getDestPath(language, opts, type));
+        ClientOptInput clientOptInput = prepare(language, opts, type, outputFolder.toString(), true);
+
+        return out -> {
+            try (ZipOutputSink zip = new ZipOutputSink(out, outputFolder.getParent())) {
+                new DefaultGenerator().opts(clientOptInput.outputSink(zip)).generate();
+                if (zip.size() == 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "A target generation was attempted, but no files were created!");
+                }
+            } catch (ResponseStatusException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                LOGGER.error("Unable to build target {} after the download started", language, e);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
+            }
+        };
+    }
+
     private static String generate(String language, GeneratorInput opts, Type type) {
+        String outputFolder = getTmpFolder().getAbsolutePath() + File.separator + getDestPath(language, opts, type);
+        String outputFilename = outputFolder + "-bundle.zip";
+
+        ClientOptInput clientOptInput = prepare(language, opts, type, outputFolder, false);
+
+        try {
+            List<File> files = new DefaultGenerator().opts(clientOptInput).generate();
+            if (files.size() > 0) {
+                List<File> filesToAdd = new ArrayList<>();
+                LOGGER.debug("adding to {}", outputFolder);
+                filesToAdd.add(new File(outputFolder));
+                ZipUtil zip = new ZipUtil();
+                zip.compressFiles(filesToAdd, outputFilename);
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "A target generation was attempted, but no files were created!");
+            }
+            for (File file : files) {
+                try {
+                    file.delete();
+                } catch (Exception e) {
+                    LOGGER.error("unable to delete file " + file.getAbsolutePath(), e);
+                }
+            }
+            try {
+                new File(outputFolder).delete();
+            } catch (Exception e) {
+                LOGGER.error("unable to delete output folder " + outputFolder, e);
+            }
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
+        }
+        return outputFilename;
+    }
+
+    private static String getDestPath(String language, GeneratorInput opts, Type type) {
+        String destPath = null;
+
+        if (opts != null && opts.getOptions() != null) {
+            destPath = opts.getOptions().get("outputFolder");
+        }
+        if (destPath == null) {
+            destPath = language + "-" + type.getTypeName();
+        }
+
+        return destPath;
+    }
+
+    private static ClientOptInput prepare(String language, GeneratorInput opts, Type type, String outputFolder, boolean validateSpec) {
         LOGGER.debug(String.format(Locale.ROOT,"generate %s for %s", type.getTypeName(), language));
         if (opts == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No options were supplied");
@@ -91,7 +231,7 @@ public class Generator {
             LOGGER.debug("ignoring empty spec");
             node = null;
         }
-        OpenAPI openapi;
+        SwaggerParseResult result;
         ParseOptions parseOptions = new ParseOptions();
         parseOptions.setResolve(true);
         if (node == null) {
@@ -99,9 +239,9 @@ public class Generator {
                 if (opts.getAuthorizationValue() != null) {
                     List<AuthorizationValue> authorizationValues = new ArrayList<>();
                     authorizationValues.add(opts.getAuthorizationValue());
-                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), authorizationValues, parseOptions).getOpenAPI();
+                    result = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), authorizationValues, parseOptions);
                 } else {
-                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), null, parseOptions).getOpenAPI();
+                    result = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), null, parseOptions);
                 }
             } else {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No OpenAPI specification was supplied");
@@ -109,28 +249,21 @@ public class Generator {
         } else if (opts.getAuthorizationValue() != null) {
             List<AuthorizationValue> authorizationValues = new ArrayList<>();
             authorizationValues.add(opts.getAuthorizationValue());
-            openapi = new OpenAPIParser().readContents(node.toString(), authorizationValues, parseOptions).getOpenAPI();
+            result = new OpenAPIParser().readContents(node.toString(), authorizationValues, parseOptions);
 
         } else {
-            openapi = new OpenAPIParser().readContents(node.toString(), null, parseOptions).getOpenAPI();
+            result = new OpenAPIParser().readContents(node.toString(), null, parseOptions);
+        }
+        OpenAPI openapi = result.getOpenAPI();
+        if (validateSpec && result.getMessages() != null && !result.getMessages().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "There were issues with the specification: "
+                    + String.join("; ", new TreeSet<>(result.getMessages())));
         }
         if (openapi == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The OpenAPI specification supplied was not valid");
         }
 
-        String destPath = null;
-
-        if (opts.getOptions() != null) {
-            destPath = opts.getOptions().get("outputFolder");
-        }
-        if (destPath == null) {
-            destPath = language + "-" + type.getTypeName();
-        }
-
         ClientOptInput clientOptInput = new ClientOptInput();
-        String outputFolder = getTmpFolder().getAbsolutePath() + File.separator + destPath;
-        String outputFilename = outputFolder + "-bundle.zip";
-
         clientOptInput.openAPI(openapi);
 
         CodegenConfig codegenConfig;
@@ -149,34 +282,7 @@ public class Generator {
 
         clientOptInput.config(codegenConfig);
 
-        try {
-            List<File> files = new DefaultGenerator().opts(clientOptInput).generate();
-            if (files.size() > 0) {
-                List<File> filesToAdd = new ArrayList<>();
-                LOGGER.debug("adding to {}", outputFolder);
-                filesToAdd.add(new File(outputFolder));
-                ZipUtil zip = new ZipUtil();
-                zip.compressFiles(filesToAdd, outputFilename);
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                        "A target generation was attempted, but no files were created!");
-            }
-            for (File file : files) {
-                try {
-                    file.delete();
-                } catch (Exception e) {
-                    LOGGER.error("unable to delete file " + file.getAbsolutePath(), e);
-                }
-            }
-            try {
-                new File(outputFolder).delete();
-            } catch (Exception e) {
-                LOGGER.error("unable to delete output folder " + outputFolder, e);
-            }
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
-        }
-        return outputFilename;
+        return clientOptInput;
     }
 
     private static File getTmpFolder() {
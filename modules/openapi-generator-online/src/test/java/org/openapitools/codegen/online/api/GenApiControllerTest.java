@@ -10,10 +10,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -97,10 +99,23 @@ public class GenApiControllerTest {
 
         String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
 
-        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+        download(code);
+    }
+
+    private void download(String code) throws Exception {
+        // the archive is streamed to the client asynchronously
+        MvcResult download = mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(download))
                 .andExpect(content().contentType("application/zip"))
                 .andExpect(status().isOk())
                 .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, not(0)));
+
+        // a code can be used just once
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -119,10 +134,7 @@ public class GenApiControllerTest {
 
         String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
 
-        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
-                .andExpect(content().contentType("application/zip"))
-                .andExpect(status().isOk())
-                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, not(0)));
+        download(code);
     }
 
 }
@@ -0,0 +1,67 @@
+package org.openapitools.codegen.online.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.Test;
+import org.openapitools.codegen.online.model.Generated;
+import org.openapitools.codegen.online.model.GeneratorInput;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class GenApiServiceTest {
+
+    @Test
+    public void archivesWhichAreNotDownloadedExpire() throws Exception {
+        AtomicLong now = new AtomicLong();
+        Cache<String, Generated> downloads = GenApiService.downloadCache(TimeUnit.MINUTES.toNanos(30), 10, now::get);
+
+        Path folder = Files.createTempDirectory("codegen-tmp");
+        File archive = folder.resolve("java-client-bundle.zip").toFile();
+        Files.write(archive.toPath(), "zip".getBytes(StandardCharsets.UTF_8));
+        Generated generated = new Generated();
+        generated.setFilename(archive.getAbsolutePath());
+        downloads.put("code", generated);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(29));
+        downloads.cleanUp();
+        assertSame(generated, downloads.getIfPresent("code"));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        downloads.cleanUp();
+        assertNull(downloads.getIfPresent("code"));
+        assertFalse("expired archives are deleted", folder.toFile().exists());
+    }
+
+    @Test
+    public void archivesAreLimitedInNumber() {
+        Cache<String, Generated> downloads = GenApiService.downloadCache(TimeUnit.MINUTES.toNanos(30), 2, System::nanoTime);
+        for (int i = 0; i < 5; i++) {
+            downloads.put("code" + i, new Generated());
+        }
+        downloads.cleanUp();
+        assertEquals(2, downloads.estimatedSize());
+    }
+
+    @Test
+    public void streamedArchivesRejectInvalidSpecsUpFront() throws Exception {
+        GeneratorInput input = new GeneratorInput();
+        input.setSpec(new ObjectMapper().readTree("{\"openapi\": \"3.0.1\", \"info\": {\"title\": \"t\", \"version\": \"1\"}, \"paths\": {}, \"unexpected\": 1}"));
+
+        try {
+            Generator.prepareArchive("java", input, Generator.Type.CLIENT);
+            fail("the spec has validation errors");
+        } catch (ResponseStatusException e) {
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+            assertTrue(e.getReason(), e.getReason().contains("unexpected"));
+        }
+    }
+}
@@ -20,8 +20,10 @@ package org.openapitools.codegen;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 
+import org.openapitools.codegen.api.GeneratedOutputSink;
 import org.openapitools.codegen.api.TemplateDefinition;
 import org.openapitools.codegen.auth.AuthParser;
+import org.openapitools.codegen.metrics.Measurement;
 
 import java.util.List;
 
@@ -30,6 +32,8 @@ public class ClientOptInput {
     private OpenAPI openAPI;
     private List<AuthorizationValue> auths;
     private List<TemplateDefinition> userDefinedTemplates;
+    private Measurement parseMeasurement;
+    private GeneratedOutputSink outputSink;
 
     public ClientOptInput openAPI(OpenAPI openAPI) {
         this.setOpenAPI(openAPI);
@@ -46,6 +50,29 @@ public class ClientOptInput {
         return this;
     }
 
+    /**
+     * Sets the cost of parsing the specification, reported by the generator when generation metrics are enabled.
+     *
+     * @param parseMeasurement the cost of parsing the specification
+     * @return this instance
+     */
+    public ClientOptInput parseMeasurement(Measurement parseMeasurement) {
+        this.parseMeasurement = parseMeasurement;
+        return this;
+    }
+
+    /**
+     * Sets a sink receiving the generated files in place of the file system (e.g. to stream them into an archive).
+     * Files are still addressed by their path below the output directory, which isn't created.
+     *
+     * @param outputSink the sink, or null to write to the file system
+     * @return this instance
+     */
+    public ClientOptInput outputSink(GeneratedOutputSink outputSink) {
+        this.outputSink = outputSink;
+        return this;
+    }
+
     @Deprecated
     public ClientOptInput auth(String urlEncodedAuthString) {
         this.setAuth(urlEncodedAuthString);
@@ -77,6 +104,14 @@ public class ClientOptInput {
         return userDefinedTemplates;
     }
 
+    public Measurement getParseMeasurement() {
+        return parseMeasurement;
+    }
+
+    public GeneratedOutputSink getOutputSink() {
+        return outputSink;
+    }
+
     /**
      * Sets the generator/config instance
      *
@@ -30,6 +30,7 @@ import org.openapitools.codegen.meta.GeneratorMetadata;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.postprocess.PostProcessBatch;
 
 import java.io.File;
 import java.util.List;
@@ -284,6 +285,15 @@ public interface CodegenConfig {
 
     void setEnablePostProcessFile(boolean isEnablePostProcessFile);
 
+    /**
+     * Sets the batch collecting the files to post-process with external commands, so they run once per chunk of files
+     * after all files have been generated. A null batch post-processes each file as soon as it is written.
+     *
+     * @param postProcessBatch the batch, or null
+     */
+    default void setPostProcessBatch(PostProcessBatch postProcessBatch) {
+    }
+
     /**
      * Set the OpenAPI instance. This method needs to be called right after the instantiation of the Codegen class.
      *
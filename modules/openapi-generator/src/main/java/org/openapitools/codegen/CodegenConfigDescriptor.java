@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.meta.GeneratorMetadata;
+import org.openapitools.codegen.meta.Stability;
+
+import java.util.Objects;
+
+/**
+ * Describes a registered generator without instantiating it. Descriptors of the built-in generators come from the
+ * generator index written at build time, see {@link CodegenConfigIndex}.
+ */
+public final class CodegenConfigDescriptor {
+    private final String name;
+    private final String className;
+    private final CodegenType type;
+    private final Stability stability;
+    private final ClassLoader classLoader;
+
+    CodegenConfigDescriptor(String name, String className, CodegenType type, Stability stability, ClassLoader classLoader) {
+        this.name = name;
+        this.className = className;
+        this.type = type;
+        this.stability = stability;
+        this.classLoader = classLoader;
+    }
+
+    static CodegenConfigDescriptor of(CodegenConfig config, ClassLoader classLoader) {
+        GeneratorMetadata metadata = config.getGeneratorMetadata();
+        return new CodegenConfigDescriptor(config.getName(), config.getClass().getName(), config.getTag(),
+                metadata == null ? null : metadata.getStability(), classLoader);
+    }
+
+    /**
+     * @return the name of the generator, as passed to {@link CodegenConfigLoader#forName(String)}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the fully qualified name of the generator class
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return the type of the generator, see {@link CodegenConfig#getTag()}
+     */
+    public CodegenType getType() {
+        return type;
+    }
+
+    /**
+     * @return the stability of the generator, or null if the generator has no metadata
+     */
+    public Stability getStability() {
+        return stability;
+    }
+
+    /**
+     * @return a new instance of the generator
+     */
+    public CodegenConfig newInstance() {
+        try {
+            return (CodegenConfig) Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new GeneratorNotFoundException("Can't instantiate generator '" + name + "' (" + className + ")", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CodegenConfigDescriptor that = (CodegenConfigDescriptor) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(className, that.className) &&
+                type == that.type &&
+                stability == that.stability;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, className, type, stability);
+    }
+
+    @Override
+    public String toString() {
+        return "CodegenConfigDescriptor{" +
+                "name='" + name + '\'' +
+                ", className='" + className + '\'' +
+                ", type=" + type +
+                ", stability=" + stability +
+                '}';
+    }
+}
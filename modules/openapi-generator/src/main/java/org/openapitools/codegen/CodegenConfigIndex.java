@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.meta.Stability;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.Set;
+
+/**
+ * The index of the generators registered as {@link java.util.ServiceLoader} providers of {@link CodegenConfig}.
+ * <p>
+ * Constructing a generator populates its reserved words, type mappings and options, so finding one by name through
+ * the {@link java.util.ServiceLoader} constructs all of them. Instead, the build writes the name, type and stability
+ * of each generator of this module next to its provider configuration file, by running {@link #main(String[])} on the
+ * compiled classes. Providers not covered by an index, such as custom generators, are still constructed to find their
+ * name.
+ */
+public final class CodegenConfigIndex {
+    static final String SERVICES_RESOURCE = "META-INF/services/" + CodegenConfig.class.getName();
+    static final String INDEX_RESOURCE = "META-INF/openapi-generator/generators.idx";
+
+    private static final String SEPARATOR = "\t";
+
+    private CodegenConfigIndex() {
+    }
+
+    /**
+     * @param classLoader the class loader of the providers
+     * @param useIndex    false to construct all providers, ignoring the index
+     * @return the descriptors of the registered generators, in the order of their provider configuration files
+     */
+    static List<CodegenConfigDescriptor> load(ClassLoader classLoader, boolean useIndex) {
+        Map<String, CodegenConfigDescriptor> indexed = useIndex
+                ? readIndexes(classLoader)
+                : Collections.emptyMap();
+        List<CodegenConfigDescriptor> descriptors = new ArrayList<>();
+        for (String className : readProviders(classLoader)) {
+            CodegenConfigDescriptor descriptor = indexed.get(className);
+            descriptors.add(descriptor != null ? descriptor : describe(className, classLoader));
+        }
+        return descriptors;
+    }
+
+    private static CodegenConfigDescriptor describe(String className, ClassLoader classLoader) {
+        CodegenConfig config;
+        try {
+            Class<?> type = Class.forName(className, true, classLoader);
+            config = (CodegenConfig) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            throw new ServiceConfigurationError(CodegenConfig.class.getName() + ": Provider " + className + " could not be instantiated", e);
+        }
+        return CodegenConfigDescriptor.of(config, classLoader);
+    }
+
+    private static Set<String> readProviders(ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        for (URL resource : resources(classLoader, SERVICES_RESOURCE)) {
+            for (String line : readLines(resource)) {
+                int comment = line.indexOf('#');
+                String className = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (!className.isEmpty()) {
+                    classNames.add(className);
+                }
+            }
+        }
+        return classNames;
+    }
+
+    private static Map<String, CodegenConfigDescriptor> readIndexes(ClassLoader classLoader) {
+        Map<String, CodegenConfigDescriptor> indexed = new HashMap<>();
+        for (URL resource : resources(classLoader, INDEX_RESOURCE)) {
+            for (String line : readLines(resource)) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(SEPARATOR, -1);
+                if (fields.length < 4) {
+                    continue;
+                }
+                indexed.putIfAbsent(fields[0], new CodegenConfigDescriptor(fields[1], fields[0],
+                        fields[2].isEmpty() ? null : CodegenType.valueOf(fields[2]),
+                        fields[3].isEmpty() ? null : Stability.valueOf(fields[3]),
+                        classLoader));
+            }
+        }
+        return indexed;
+    }
+
+    private static List<URL> resources(ClassLoader classLoader, String name) {
+        try {
+            Enumeration<URL> resources = classLoader == null
+                    ? ClassLoader.getSystemResources(name)
+                    : classLoader.getResources(name);
+            return Collections.list(resources);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + name, e);
+        }
+    }
+
+    private static List<String> readLines(URL resource) {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = resource.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line.trim());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + resource, e);
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the index of the generators registered in a directory of compiled classes, which must be on the class
+     * path.
+     *
+     * @param args the directory of compiled classes
+     * @throws IOException if the provider configuration file can't be read or the index can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: CodegenConfigIndex <classes directory>");
+        }
+        Path classes = Paths.get(args[0]);
+        Path services = classes.resolve(SERVICES_RESOURCE);
+        Path index = classes.resolve(INDEX_RESOURCE);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        Files.createDirectories(index.getParent());
+        try (Writer writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+            writer.write("# class, name, type and stability of the generators in " + SERVICES_RESOURCE + "\n");
+            for (String line : readLines(services.toUri().toURL())) {
+                String className = line.contains("#") ? line.substring(0, line.indexOf('#')).trim() : line;
+                if (className.isEmpty()) {
+                    continue;
+                }
+                CodegenConfigDescriptor descriptor = describe(className, classLoader);
+                writer.write(String.join(SEPARATOR, descriptor.getClassName(), descriptor.getName(),
+                        descriptor.getType() == null ? "" : descriptor.getType().name(),
+                        descriptor.getStability() == null ? "" : descriptor.getStability().name()));
+                writer.write("\n");
+            }
+        }
+    }
+}
@@ -17,28 +17,38 @@
 
 package org.openapitools.codegen;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.ServiceLoader;
+import java.util.stream.Collectors;
 
 public class CodegenConfigLoader {
     /**
-     * Tries to load config class with SPI first, then with class name directly from classpath
+     * Tries to load config class with SPI first, then with class name directly from classpath.
+     * Only the requested generator is instantiated when the generator is listed in a {@link CodegenConfigIndex}.
      *
      * @param name name of config, or full qualified class name in classpath
      * @return config class
      */
     public static CodegenConfig forName(String name) {
-        ServiceLoader<CodegenConfig> loader = ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader());
+        List<CodegenConfigDescriptor> descriptors = getDescriptors();
 
         StringBuilder availableConfigs = new StringBuilder();
 
-        for (CodegenConfig config : loader) {
-            if (config.getName().equals(name)) {
-                return config;
+        for (CodegenConfigDescriptor descriptor : descriptors) {
+            if (descriptor.getName().equals(name)) {
+                CodegenConfig config = descriptor.newInstance();
+                if (config.getName().equals(name)) {
+                    return config;
+                }
+                // the index is outdated, so look for the generator among all instantiated providers
+                for (CodegenConfigDescriptor provider : CodegenConfigIndex.load(CodegenConfig.class.getClassLoader(), false)) {
+                    if (provider.getName().equals(name)) {
+                        return provider.newInstance();
+                    }
+                }
+                break;
             }
 
-            availableConfigs.append(config.getName()).append("\n");
+            availableConfigs.append(descriptor.getName()).append("\n");
         }
 
         // else try to load directly
@@ -49,12 +59,21 @@ public class CodegenConfigLoader {
         }
     }
 
+    /**
+     * @return new instances of all registered generators
+     */
     public static List<CodegenConfig> getAll() {
-        ServiceLoader<CodegenConfig> loader = ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader());
-        List<CodegenConfig> output = new ArrayList<CodegenConfig>();
-        for (CodegenConfig aLoader : loader) {
-            output.add(aLoader);
-        }
-        return output;
+        return getDescriptors().stream()
+                .map(CodegenConfigDescriptor::newInstance)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Describes the registered generators without instantiating those listed in a {@link CodegenConfigIndex}.
+     *
+     * @return the descriptors of all registered generators
+     */
+    public static List<CodegenConfigDescriptor> getDescriptors() {
+        return CodegenConfigIndex.load(CodegenConfig.class.getClassLoader(), true);
     }
 }
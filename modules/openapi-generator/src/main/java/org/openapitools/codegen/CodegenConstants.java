@@ -33,6 +33,12 @@ public class CodegenConstants {
 
     public static final String WITH_XML = "withXml";
     public static final String SKIP_FORM_MODEL = "skipFormModel";
+    public static final String RENDER_THREADS = "renderThreads";
+    public static final String INCREMENTAL = "incremental";
+    public static final String GENERATION_METRICS = "generationMetrics";
+    public static final String POST_PROCESS_THREADS = "postProcessThreads";
+    public static final String POST_PROCESS_BATCH_SIZE = "postProcessBatchSize";
+    public static final String COMPACT_MODELS = "compactModels";
     /* /end System Properties */
 
     public static final String API_NAME = "apiName";
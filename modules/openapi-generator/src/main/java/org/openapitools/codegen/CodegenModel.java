@@ -1116,21 +1116,32 @@ public class CodegenModel implements IJsonSchemaValidationProperties {
      * Remove duplicated properties in all variable list
      */
     public void removeAllDuplicatedProperty() {
+        removeAllDuplicatedProperty(false);
+    }
+
+    /**
+     * Remove duplicated properties in all variable list
+     *
+     * @param shareProperties if true, a property contained in several lists is copied once and the copy is shared by
+     *                        these lists; otherwise each list gets its own copy
+     */
+    public void removeAllDuplicatedProperty(boolean shareProperties) {
+        Map<CodegenProperty, CodegenProperty> copies = shareProperties ? new IdentityHashMap<>() : null;
         // remove duplicated properties
-        vars = removeDuplicatedProperty(vars);
-        optionalVars = removeDuplicatedProperty(optionalVars);
-        requiredVars = removeDuplicatedProperty(requiredVars);
-        parentVars = removeDuplicatedProperty(parentVars);
-        allVars = removeDuplicatedProperty(allVars);
-        readOnlyVars = removeDuplicatedProperty(readOnlyVars);
-        readWriteVars = removeDuplicatedProperty(readWriteVars);
+        vars = removeDuplicatedProperty(vars, copies);
+        optionalVars = removeDuplicatedProperty(optionalVars, copies);
+        requiredVars = removeDuplicatedProperty(requiredVars, copies);
+        parentVars = removeDuplicatedProperty(parentVars, copies);
+        allVars = removeDuplicatedProperty(allVars, copies);
+        readOnlyVars = removeDuplicatedProperty(readOnlyVars, copies);
+        readWriteVars = removeDuplicatedProperty(readWriteVars, copies);
     }
 
-    private List<CodegenProperty> removeDuplicatedProperty(List<CodegenProperty> vars) {
+    private List<CodegenProperty> removeDuplicatedProperty(List<CodegenProperty> vars, Map<CodegenProperty, CodegenProperty> copies) {
         // clone the list first
-        List<CodegenProperty> newList = new ArrayList<>();
+        List<CodegenProperty> newList = new ArrayList<>(vars.size());
         for (CodegenProperty cp : vars) {
-            newList.add(cp.clone());
+            newList.add(copies == null ? cp.clone() : copies.computeIfAbsent(cp, CodegenProperty::clone));
         }
 
         Set<String> propertyNames = new TreeSet<>();
@@ -17,6 +17,8 @@
 
 package org.openapitools.codegen;
 
+import com.google.common.collect.Interner;
+
 import java.util.*;
 
 public class CodegenProperty implements Cloneable, IJsonSchemaValidationProperties {
@@ -658,6 +660,35 @@ public class CodegenProperty implements Cloneable, IJsonSchemaValidationProperti
         return composedSchemas;
     }
 
+    /**
+     * Reduces the memory held by this property: the names, types and JSON schema, which repeat across the properties
+     * of a spec, are interned.
+     *
+     * @param interner the interner for the strings
+     */
+    void compact(Interner<String> interner) {
+        openApiType = intern(interner, openApiType);
+        baseName = intern(interner, baseName);
+        complexType = intern(interner, complexType);
+        getter = intern(interner, getter);
+        setter = intern(interner, setter);
+        dataType = intern(interner, dataType);
+        datatypeWithEnum = intern(interner, datatypeWithEnum);
+        dataFormat = intern(interner, dataFormat);
+        name = intern(interner, name);
+        defaultValue = intern(interner, defaultValue);
+        baseType = intern(interner, baseType);
+        containerType = intern(interner, containerType);
+        jsonSchema = intern(interner, jsonSchema);
+        nameInLowerCase = intern(interner, nameInLowerCase);
+        nameInCamelCase = intern(interner, nameInCamelCase);
+        nameInSnakeCase = intern(interner, nameInSnakeCase);
+    }
+
+    private static String intern(Interner<String> interner, String value) {
+        return value == null ? null : interner.intern(value);
+    }
+
     @Override
     public CodegenProperty clone() {
         try {
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the result of {@link DefaultCodegen#fromProperty(String, Schema)} per property name and schema structure, so
+ * structurally equal schemas share a property.
+ * <p>
+ * Generators may change a schema in place after its property was cached, without any signal the cache could listen
+ * to. Entries are therefore keyed by the structure of the schema at the time it was converted, which is hashed on
+ * every lookup, and a changed schema is converted again.
+ */
+public final class CodegenPropertyCache {
+    private final Map<NamedSchema, CodegenProperty> properties = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * @param name   the property name
+     * @param schema the property schema
+     * @return the cached property, or null if none was cached for an equal name and schema
+     */
+    CodegenProperty get(String name, Schema schema) {
+        CodegenProperty property = properties.get(new NamedSchema(name, schema));
+        if (property != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return property;
+    }
+
+    void put(String name, Schema schema, CodegenProperty property) {
+        // converting a property may have touched the schema, so it is keyed as it is now
+        properties.put(new NamedSchema(name, schema), property);
+    }
+
+    /**
+     * Removes all cached properties and resets the counters.
+     */
+    public void clear() {
+        properties.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * @return The number of lookups served by the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups which required converting the schema
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of cached properties
+     */
+    public int size() {
+        return properties.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d properties, %d hits, %d misses", size(), getHits(), getMisses());
+    }
+
+    private static final class NamedSchema {
+        private final String name;
+        private final Schema schema;
+        // Schema.hashCode walks the whole subtree, so it's computed once per key
+        private final int hash;
+
+        NamedSchema(String name, Schema schema) {
+            this.name = name;
+            this.schema = schema;
+            this.hash = Objects.hash(name, schema);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NamedSchema that = (NamedSchema) o;
+            return hash == that.hash && Objects.equals(name, that.name) && Objects.equals(schema, that.schema);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Ticker;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Mustache.Compiler;
 import com.samskivert.mustache.Mustache.Lambda;
@@ -41,7 +43,9 @@ import org.openapitools.codegen.meta.features.*;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationsMap;
-import org.openapitools.codegen.serializer.SerializerUtils;
+import org.openapitools.codegen.postprocess.PostProcessBatch;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
+import org.openapitools.codegen.serializer.SerializedSpec;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.mustache.*;
 import org.openapitools.codegen.utils.ModelUtils;
@@ -90,6 +94,9 @@ public class DefaultCodegen implements CodegenConfig {
     // arguments, this cache is used to optimized performance.
     private static Cache<SanitizeNameOptions, String> sanitizedNameCache;
 
+    // Names and types of compact properties, which repeat across models and specs.
+    private static final Interner<String> compactPropertyStrings = Interners.newWeakInterner();
+
     static {
         DefaultFeatureSet = FeatureSet.newBuilder()
                 .includeDataTypeFeatures(
@@ -236,6 +243,7 @@ public class DefaultCodegen implements CodegenConfig {
     protected String ignoreFilePathOverride;
     // flag to indicate whether to use environment variable to post process file
     protected boolean enablePostProcessFile = false;
+    private PostProcessBatch postProcessBatch;
     private TemplatingEngineAdapter templatingEngine = new MustacheEngineAdapter();
     // flag to indicate whether to use the utils.OneOfImplementorAdditionalData related logic
     protected boolean useOneOfInterfaces = false;
@@ -272,6 +280,9 @@ public class DefaultCodegen implements CodegenConfig {
     // A cache to efficiently lookup schema `toModelName()` based on the schema Key
     private final Map<String, String> schemaKeyToModelNameCache = new HashMap<>();
 
+    // references between models, built by setCircularReferences
+    private ModelDependencyGraph modelDependencyGraph;
+
     protected boolean loadDeepObjectIntoItems = true;
 
     @Override
@@ -440,6 +451,7 @@ public class DefaultCodegen implements CodegenConfig {
     public Map<String, ModelsMap> postProcessAllModels(Map<String, ModelsMap> objs) {
         if (this.useOneOfInterfaces) {
             // First, add newly created oneOf interfaces
+            Map<String, Object> sharedProperties = Collections.unmodifiableMap(new HashMap<>(additionalProperties));
             for (CodegenModel cm : addOneOfInterfaces) {
                 ModelMap modelMapValue = new ModelMap(additionalProperties());
                 modelMapValue.setModel(cm);
@@ -450,7 +462,7 @@ public class DefaultCodegen implements CodegenConfig {
                 objsValue.put("package", modelPackage());
                 objsValue.setImports(importsValue);
                 objsValue.put("classname", cm.classname);
-                objsValue.putAll(additionalProperties);
+                objsValue.layerOver(sharedProperties);
                 objs.put(cm.name, objsValue);
             }
 
@@ -606,54 +618,32 @@ public class DefaultCodegen implements CodegenConfig {
         }
     }
 
+    /**
+     * Builds the dependency graph of the models, and marks the properties referring back to their own model (directly
+     * or through other models) as circular references.
+     *
+     * @param models all models, by name
+     */
     public void setCircularReferences(Map<String, CodegenModel> models) {
-        final Map<String, List<CodegenProperty>> dependencyMap = models.entrySet().stream()
-                .collect(Collectors.toMap(Entry::getKey, entry -> getModelDependencies(entry.getValue())));
-
-        models.keySet().forEach(name -> setCircularReferencesOnProperties(name, dependencyMap));
-    }
-
-    private List<CodegenProperty> getModelDependencies(CodegenModel model) {
-        return model.getAllVars().stream()
-                .map(prop -> {
-                    if (prop.isContainer) {
-                        return prop.items.dataType == null ? null : prop;
-                    }
-                    return prop.dataType == null ? null : prop;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
-    private void setCircularReferencesOnProperties(final String root,
-                                                   final Map<String, List<CodegenProperty>> dependencyMap) {
-        dependencyMap.getOrDefault(root, new ArrayList<>())
-                .forEach(prop -> {
-                    final List<String> unvisited =
-                            Collections.singletonList(prop.isContainer ? prop.items.dataType : prop.dataType);
-                    prop.isCircularReference = isCircularReference(root,
-                            new HashSet<>(),
-                            new ArrayList<>(unvisited),
-                            dependencyMap);
-                });
-    }
-
-    private boolean isCircularReference(final String root,
-                                        final Set<String> visited,
-                                        final List<String> unvisited,
-                                        final Map<String, List<CodegenProperty>> dependencyMap) {
-        for (int i = 0; i < unvisited.size(); i++) {
-            final String next = unvisited.get(i);
-            if (!visited.contains(next)) {
-                if (next.equals(root)) {
-                    return true;
+        modelDependencyGraph = ModelDependencyGraph.build(models);
+        models.forEach((name, model) -> {
+            for (CodegenProperty prop : model.getAllVars()) {
+                String dependency = ModelDependencyGraph.getDependency(prop);
+                if (dependency != null) {
+                    prop.isCircularReference = modelDependencyGraph.isCircularReference(name, dependency);
                 }
-                dependencyMap.getOrDefault(next, new ArrayList<>())
-                        .forEach(prop -> unvisited.add(prop.isContainer ? prop.items.dataType : prop.dataType));
-                visited.add(next);
             }
-        }
-        return false;
+        });
+    }
+
+    /**
+     * Gets the graph of references between models, as computed by {@link #updateAllModels(Map)}. Available to
+     * {@link #postProcessAllModels(Map)} and later hooks.
+     *
+     * @return the model dependency graph, or null if the models weren't processed yet
+     */
+    public ModelDependencyGraph getModelDependencyGraph() {
+        return modelDependencyGraph;
     }
 
     // override with any special post-processing
@@ -684,33 +674,16 @@ public class DefaultCodegen implements CodegenConfig {
             }
 
             // update codegen property enum with proper naming convention
-            // and handling of numbers, special characters
-            for (CodegenProperty var : cm.vars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.allVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.requiredVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.optionalVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.parentVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.readOnlyVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.readWriteVars) {
-                updateCodegenPropertyEnum(var);
+            // and handling of numbers, special characters.
+            // compact models share a property between lists, so update each property once
+            Set<CodegenProperty> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<CodegenProperty> vars : Arrays.asList(cm.vars, cm.allVars, cm.requiredVars, cm.optionalVars,
+                    cm.parentVars, cm.readOnlyVars, cm.readWriteVars)) {
+                for (CodegenProperty var : vars) {
+                    if (updated.add(var)) {
+                        updateCodegenPropertyEnum(var);
+                    }
+                }
             }
 
         }
@@ -2402,31 +2375,48 @@ public class DefaultCodegen implements CodegenConfig {
         return camelizedName;
     }
 
-    private static class NamedSchema {
-        private NamedSchema(String name, Schema s) {
-            this.name = name;
-            this.schema = s;
-        }
+    final CodegenPropertyCache schemaCodegenPropertyCache = new CodegenPropertyCache();
 
-        private String name;
-        private Schema schema;
+    /**
+     * Gets the cache of {@link #fromProperty(String, Schema)}, e.g. to inspect its hit rate.
+     *
+     * @return the cache of converted properties
+     */
+    public CodegenPropertyCache getCodegenPropertyCache() {
+        return schemaCodegenPropertyCache;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            NamedSchema that = (NamedSchema) o;
-            return Objects.equals(name, that.name) &&
-                    Objects.equals(schema, that.schema);
+    /**
+     * Returns true if the {@value CodegenConstants#COMPACT_MODELS} global property is set and the generator
+     * {@link #supportsCompactModels() supports} compact models. Compact models share a single copy of each property
+     * between their lists of properties (vars, allVars, requiredVars, etc.) instead of a copy per list, and intern the
+     * names and types of their properties.
+     *
+     * @return true if models are compact
+     */
+    public boolean isCompactModels() {
+        if (!Boolean.parseBoolean(GlobalSettings.getProperty(CodegenConstants.COMPACT_MODELS))) {
+            return false;
         }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(name, schema);
+        if (!supportsCompactModels()) {
+            once(LOGGER).warn("The {} generator doesn't support compact models, ignoring the {} global property.",
+                    getName(), CodegenConstants.COMPACT_MODELS);
+            return false;
         }
+        return true;
     }
 
-    Map<NamedSchema, CodegenProperty> schemaCodegenPropertyCache = new HashMap<>();
+    /**
+     * Returns true if the generator renders the same output from compact models as from regular ones. A property is
+     * the same instance in all lists of a compact model, so a generator which changes the properties of one list
+     * itself, or walks several lists changing each property, doesn't. Generators should only return true once this
+     * has been verified, and not for their subclasses, which may change properties themselves.
+     *
+     * @return true if the generator may use compact models
+     */
+    protected boolean supportsCompactModels() {
+        return false;
+    }
 
     protected void updateModelForComposedSchema(CodegenModel m, Schema schema, Map<String, Schema> allDefinitions) {
         final ComposedSchema composed = (ComposedSchema) schema;
@@ -2784,7 +2774,7 @@ public class DefaultCodegen implements CodegenConfig {
         }
 
         // remove duplicated properties
-        m.removeAllDuplicatedProperty();
+        m.removeAllDuplicatedProperty(isCompactModels());
 
         // set isDiscriminator on the discriminator property
         if (m.discriminator != null) {
@@ -2819,16 +2809,21 @@ public class DefaultCodegen implements CodegenConfig {
             Collections.sort(m.allVars, comparator);
         }
 
-        // post process model properties
+        // post process model properties, once per property as compact models share a property between vars and allVars
+        Set<CodegenProperty> postProcessed = Collections.newSetFromMap(new IdentityHashMap<>());
         if (m.vars != null) {
             for (CodegenProperty prop : m.vars) {
-                postProcessModelProperty(m, prop);
+                if (postProcessed.add(prop)) {
+                    postProcessModelProperty(m, prop);
+                }
             }
             m.hasVars = m.vars.size() > 0;
         }
         if (m.allVars != null) {
             for (CodegenProperty prop : m.allVars) {
-                postProcessModelProperty(m, prop);
+                if (postProcessed.add(prop)) {
+                    postProcessModelProperty(m, prop);
+                }
             }
         }
 
@@ -3436,8 +3431,8 @@ public class DefaultCodegen implements CodegenConfig {
             return null;
         }
         LOGGER.debug("debugging fromProperty for {} : {}", name, p);
-        NamedSchema ns = new NamedSchema(name, p);
-        CodegenProperty cpc = schemaCodegenPropertyCache.get(ns);
+        Schema original = p;
+        CodegenProperty cpc = schemaCodegenPropertyCache.get(name, p);
         if (cpc != null) {
             LOGGER.debug("Cached fromProperty for {} : {}", name, p.getName());
             return cpc;
@@ -3637,8 +3632,12 @@ public class DefaultCodegen implements CodegenConfig {
             property.isModel = (ModelUtils.isComposedSchema(referencedSchema) || ModelUtils.isObjectSchema(referencedSchema)) && ModelUtils.isModel(referencedSchema);
         }
 
+        if (isCompactModels()) {
+            property.compact(compactPropertyStrings);
+        }
+
         LOGGER.debug("debugging from property return: {}", property);
-        schemaCodegenPropertyCache.put(ns, property);
+        schemaCodegenPropertyCache.put(name, original, property);
         return property;
     }
 
@@ -5700,10 +5699,8 @@ public class DefaultCodegen implements CodegenConfig {
      */
     @SuppressWarnings("static-method")
     public String sanitizeName(final String name, String removeCharRegEx, ArrayList<String> exceptionList) {
-        // NOTE: performance wise, we should have written with 2 replaceAll to replace desired
-        // character with _ or empty character. Below aims to spell out different cases we've
-        // encountered so far and hopefully make it easier for others to add more special
-        // cases in the future.
+        // NOTE: the different cases we've encountered so far are spelled out in NameSanitizer,
+        // which applies all of them in a single scan. Add more special cases there.
 
         // better error handling when map/array type is invalid
         if (name == null) {
@@ -5716,55 +5713,8 @@ public class DefaultCodegen implements CodegenConfig {
             return "value";
         }
 
-        SanitizeNameOptions opts = new SanitizeNameOptions(name, removeCharRegEx, exceptionList);
-
-        return sanitizedNameCache.get(opts, sanitizeNameOptions -> {
-            String modifiable = sanitizeNameOptions.getName();
-            List<String> exceptions = sanitizeNameOptions.getExceptions();
-            // input[] => input
-            modifiable = this.sanitizeValue(modifiable, "\\[\\]", "", exceptions);
-
-            // input[a][b] => input_a_b
-            modifiable = this.sanitizeValue(modifiable, "\\[", "_", exceptions);
-            modifiable = this.sanitizeValue(modifiable, "\\]", "", exceptions);
-
-            // input(a)(b) => input_a_b
-            modifiable = this.sanitizeValue(modifiable, "\\(", "_", exceptions);
-            modifiable = this.sanitizeValue(modifiable, "\\)", "", exceptions);
-
-            // input.name => input_name
-            modifiable = this.sanitizeValue(modifiable, "\\.", "_", exceptions);
-
-            // input-name => input_name
-            modifiable = this.sanitizeValue(modifiable, "-", "_", exceptions);
-
-            // a|b => a_b
-            modifiable = this.sanitizeValue(modifiable, "\\|", "_", exceptions);
-
-            // input name and age => input_name_and_age
-            modifiable = this.sanitizeValue(modifiable, " ", "_", exceptions);
-
-            // /api/films/get => _api_films_get
-            // \api\films\get => _api_films_get
-            modifiable = modifiable.replaceAll("/", "_");
-            modifiable = modifiable.replaceAll("\\\\", "_");
-
-            // remove everything else other than word, number and _
-            // $php_variable => php_variable
-            if (allowUnicodeIdentifiers) { //could be converted to a single line with ?: operator
-                modifiable = Pattern.compile(sanitizeNameOptions.getRemoveCharRegEx(), Pattern.UNICODE_CHARACTER_CLASS).matcher(modifiable).replaceAll("");
-            } else {
-                modifiable = modifiable.replaceAll(sanitizeNameOptions.getRemoveCharRegEx(), "");
-            }
-            return modifiable;
-        });
-    }
-
-    private String sanitizeValue(String value, String replaceMatch, String replaceValue, List<String> exceptionList) {
-        if (exceptionList.size() == 0 || !exceptionList.contains(replaceMatch)) {
-            return value.replaceAll(replaceMatch, replaceValue);
-        }
-        return value;
+        NameSanitizer sanitizer = NameSanitizer.of(removeCharRegEx, exceptionList, Boolean.TRUE.equals(allowUnicodeIdentifiers));
+        return sanitizedNameCache.get(new SanitizeNameOptions(name, sanitizer), options -> sanitizer.sanitize(options.getName()));
     }
 
     /**
@@ -6935,26 +6885,29 @@ public class DefaultCodegen implements CodegenConfig {
 
     /**
      * generates OpenAPI specification file in JSON format
+     * <p>
+     * The spec is only serialized when a template renders {@code openapi-json}, see {@link SerializedSpec}.
      *
      * @param objs map of object
      */
     protected void generateJSONSpecFile(Map<String, Object> objs) {
         OpenAPI openAPI = (OpenAPI) objs.get("openAPI");
         if (openAPI != null) {
-            objs.put("openapi-json", SerializerUtils.toJsonString(openAPI));
+            objs.put("openapi-json", SerializedSpec.json(openAPI));
         }
     }
 
     /**
      * generates OpenAPI specification file in YAML format
+     * <p>
+     * The spec is only serialized when a template renders {@code openapi-yaml}, see {@link SerializedSpec}.
      *
      * @param objs map of object
      */
     public void generateYAMLSpecFile(Map<String, Object> objs) {
         OpenAPI openAPI = (OpenAPI) objs.get("openAPI");
-        String yaml = SerializerUtils.toYamlString(openAPI);
-        if (yaml != null) {
-            objs.put("openapi-yaml", yaml);
+        if (openAPI != null) {
+            objs.put("openapi-yaml", SerializedSpec.yaml(openAPI));
         }
     }
 
@@ -7046,6 +6999,42 @@ public class DefaultCodegen implements CodegenConfig {
     @Override
     public void postProcessFile(File file, String fileType) {
         LOGGER.debug("Post processing file {} ({})", file, fileType);
+        if (file == null) {
+            return;
+        }
+        PostProcessCommand command = getPostProcessCommand(file, fileType);
+        if (command == null) {
+            return;
+        }
+        PostProcessBatch batch = postProcessBatch;
+        if (batch != null) {
+            batch.add(command, file);
+        } else {
+            PostProcessBatch.runNow(command, file);
+        }
+    }
+
+    /**
+     * Returns the external command used to post-process a generated file, typically taken from a *_POST_PROCESS_FILE
+     * environment variable. The path of the file is appended to the arguments of the command; when post-processing
+     * is batched, the command must accept several files at once.
+     *
+     * @param file     file to be processed
+     * @param fileType file type, see {@link #postProcessFile(File, String)}
+     * @return the command, or null if the file isn't post-processed
+     */
+    public PostProcessCommand getPostProcessCommand(File file, String fileType) {
+        return null;
+    }
+
+    /**
+     * Sets the batch collecting the files to post-process, or null to post-process each file right away.
+     *
+     * @param postProcessBatch the batch
+     */
+    @Override
+    public void setPostProcessBatch(PostProcessBatch postProcessBatch) {
+        this.postProcessBatch = postProcessBatch;
     }
 
     /**
@@ -7195,48 +7184,33 @@ public class DefaultCodegen implements CodegenConfig {
     }
 
     /**
-     * An map entry for cached sanitized names.
+     * An map entry for cached sanitized names. Sanitizers are compiled once per combination of options, so they are
+     * compared by identity.
      */
     private static class SanitizeNameOptions {
-        public SanitizeNameOptions(String name, String removeCharRegEx, List<String> exceptions) {
+        public SanitizeNameOptions(String name, NameSanitizer sanitizer) {
             this.name = name;
-            this.removeCharRegEx = removeCharRegEx;
-            if (exceptions != null) {
-                this.exceptions = Collections.unmodifiableList(exceptions);
-            } else {
-                this.exceptions = Collections.emptyList();
-            }
+            this.sanitizer = sanitizer;
         }
 
         public String getName() {
             return name;
         }
 
-        public String getRemoveCharRegEx() {
-            return removeCharRegEx;
-        }
-
-        public List<String> getExceptions() {
-            return exceptions;
-        }
-
-        private String name;
-        private String removeCharRegEx;
-        private List<String> exceptions;
+        private final String name;
+        private final NameSanitizer sanitizer;
 
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             SanitizeNameOptions that = (SanitizeNameOptions) o;
-            return Objects.equals(getName(), that.getName()) &&
-                    Objects.equals(getRemoveCharRegEx(), that.getRemoveCharRegEx()) &&
-                    Objects.equals(getExceptions(), that.getExceptions());
+            return sanitizer == that.sanitizer && name.equals(that.name);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(getName(), getRemoveCharRegEx(), getExceptions());
+            return 31 * name.hashCode() + System.identityHashCode(sanitizer);
         }
     }
 
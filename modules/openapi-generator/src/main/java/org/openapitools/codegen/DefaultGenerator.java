@@ -38,8 +38,12 @@ import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.config.GlobalSettings;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.api.TemplatingExecutor;
 import org.openapitools.codegen.api.TemplateFileType;
 import org.openapitools.codegen.ignore.CodegenIgnoreProcessor;
+import org.openapitools.codegen.metrics.GenerationMetricsListener;
+import org.openapitools.codegen.metrics.JsonMetricsReport;
+import org.openapitools.codegen.metrics.Measurement;
 import org.openapitools.codegen.languages.PythonClientCodegen;
 import org.openapitools.codegen.languages.PythonExperimentalClientCodegen;
 import org.openapitools.codegen.meta.GeneratorMetadata;
@@ -49,9 +53,12 @@ import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.postprocess.PostProcessBatch;
 import org.openapitools.codegen.serializer.SerializerUtils;
 import org.openapitools.codegen.templating.CommonTemplateContentLocator;
+import org.openapitools.codegen.templating.CompiledTemplateCache;
 import org.openapitools.codegen.templating.GeneratorTemplateContentLocator;
+import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
 import org.openapitools.codegen.utils.ImplementationVersion;
@@ -67,7 +74,14 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -96,6 +110,12 @@ public class DefaultGenerator implements Generator {
     private String contextPath;
     private Map<String, String> generatorPropertyDefaults = new HashMap<>();
     protected TemplateProcessor templateProcessor = null;
+    private FingerprintManifest fingerprintManifest = null;
+    private PostProcessBatch postProcessBatch = null;
+    private final List<GenerationMetricsListener> metricsListeners = new CopyOnWriteArrayList<>();
+    private JsonMetricsReport metricsReport = null;
+    // the additional properties shared by the model and api template data, see sharedTemplateData()
+    private Map<String, Object> sharedTemplateData = Collections.emptyMap();
 
     private List<TemplateDefinition> userDefinedTemplates = new ArrayList<>();
 
@@ -137,7 +157,8 @@ public class DefaultGenerator implements Generator {
             this.templateProcessor = new TemplateManager(
                     templateManagerOptions,
                     templatingEngine,
-                    new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator}
+                    new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator},
+                    opts.getOutputSink()
             );
         }
 
@@ -191,6 +212,118 @@ public class DefaultGenerator implements Generator {
         this.generatorPropertyDefaults.put(key, value);
     }
 
+    /**
+     * Adds a listener which receives the cost of each generation phase, generator hook and template.
+     *
+     * @param listener The listener
+     */
+    public void addMetricsListener(GenerationMetricsListener listener) {
+        this.metricsListeners.add(listener);
+    }
+
+    /**
+     * @return The listeners currently registered, including the JSON report while a run with generation metrics is in progress
+     */
+    List<GenerationMetricsListener> getMetricsListeners() {
+        return Collections.unmodifiableList(metricsListeners);
+    }
+
+    private boolean isGenerationMetrics() {
+        String generationMetrics = GlobalSettings.getProperty(CodegenConstants.GENERATION_METRICS, this.generatorPropertyDefaults.get(CodegenConstants.GENERATION_METRICS));
+        return Boolean.parseBoolean(generationMetrics);
+    }
+
+    private Measurement.Probe startMeasurement() {
+        return metricsListeners.isEmpty() ? null : Measurement.start();
+    }
+
+    private void recordMeasurement(GenerationMetricsListener.Category category, String name, Measurement.Probe probe) {
+        if (probe != null) {
+            recordMeasurement(category, name, probe.stop());
+        }
+    }
+
+    private void recordMeasurement(GenerationMetricsListener.Category category, String name, Measurement measurement) {
+        for (GenerationMetricsListener listener : metricsListeners) {
+            listener.onMeasurement(category, name, measurement);
+        }
+    }
+
+    private RenderTask measured(String phase, RenderTask task) {
+        return files -> {
+            Measurement.Probe probe = startMeasurement();
+            task.render(files);
+            recordMeasurement(GenerationMetricsListener.Category.PHASE, phase, probe);
+        };
+    }
+
+    private void postProcessFile(File file, String fileType) {
+        if (isWritingToSink()) {
+            // the file was written to a sink, there is nothing on disk to post-process
+            return;
+        }
+        Measurement.Probe probe = startMeasurement();
+        config.postProcessFile(file, fileType);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcessFile(" + fileType + ")", probe);
+    }
+
+    private boolean isWritingToSink() {
+        return opts != null && opts.getOutputSink() != null;
+    }
+
+    /**
+     * Gets a read-only snapshot of the additional properties, which the model and api template data are layered over
+     * instead of each receiving a copy. The snapshot is shared until the additional properties change.
+     *
+     * @return The snapshot of the additional properties
+     */
+    private Map<String, Object> sharedTemplateData() {
+        Map<String, Object> additionalProperties = config.additionalProperties();
+        if (!sharedTemplateData.equals(additionalProperties)) {
+            sharedTemplateData = Collections.unmodifiableMap(new HashMap<>(additionalProperties));
+        }
+        return sharedTemplateData;
+    }
+
+    private int getRenderThreads() {
+        String renderThreads = GlobalSettings.getProperty(CodegenConstants.RENDER_THREADS, this.generatorPropertyDefaults.get(CodegenConstants.RENDER_THREADS));
+        if (StringUtils.isBlank(renderThreads)) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(renderThreads.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value '{}' for {}, rendering files on a single thread.", renderThreads, CodegenConstants.RENDER_THREADS);
+            return 1;
+        }
+    }
+
+    private int getPostProcessThreads() {
+        return getPositiveIntProperty(CodegenConstants.POST_PROCESS_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    private int getPostProcessBatchSize() {
+        return getPositiveIntProperty(CodegenConstants.POST_PROCESS_BATCH_SIZE, PostProcessBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    private int getPositiveIntProperty(String key, int defaultValue) {
+        String value = GlobalSettings.getProperty(key, this.generatorPropertyDefaults.get(key));
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value '{}' for {}, using {} instead.", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private boolean isIncremental() {
+        String incremental = GlobalSettings.getProperty(CodegenConstants.INCREMENTAL, this.generatorPropertyDefaults.get(CodegenConstants.INCREMENTAL));
+        return Boolean.parseBoolean(incremental);
+    }
+
     private Boolean getGeneratorPropertyDefaultSwitch(final String key, final Boolean defaultValue) {
         String result = null;
         if (this.generatorPropertyDefaults.containsKey(key)) {
@@ -253,8 +386,14 @@ public class DefaultGenerator implements Generator {
             System.out.println(SerializerUtils.toJsonString(openAPI));
         }
 
+        Measurement.Probe probe = startMeasurement();
         config.processOpts();
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "processOpts", probe);
+        probe = startMeasurement();
         config.preprocessOpenAPI(openAPI);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "preprocessOpenAPI", probe);
+        // generators may rewrite nested parts of the document
+        ModelUtils.invalidateIndexes(openAPI);
 
         // set OpenAPI to make these available to all methods
         config.setOpenAPI(openAPI);
@@ -356,13 +495,7 @@ public class DefaultGenerator implements Generator {
                 if (modelTestFile.exists()) {
                     this.templateProcessor.skip(modelTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
                 } else {
-                    File written = processTemplateToFile(models, templateName, filename, generateModelTests, CodegenConstants.MODEL_TESTS, config.modelTestFileFolder());
-                    if (written != null) {
-                        files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
-                            config.postProcessFile(written, "model-test");
-                        }
-                    }
+                    generateFile(files, models, templateName, filename, generateModelTests, CodegenConstants.MODEL_TESTS, config.modelTestFileFolder(), "model-test");
                 }
             } else if (dryRun) {
                 Path skippedPath = java.nio.file.Paths.get(filename);
@@ -377,26 +510,14 @@ public class DefaultGenerator implements Generator {
             String suffix = docExtension != null ? docExtension : config.modelDocTemplateFiles().get(templateName);
             String filename = config.modelDocFileFolder() + File.separator + config.toModelDocFilename(modelName) + suffix;
 
-            File written = processTemplateToFile(models, templateName, filename, generateModelDocumentation, CodegenConstants.MODEL_DOCS);
-            if (written != null) {
-                files.add(written);
-                if (config.isEnablePostProcessFile() && !dryRun) {
-                    config.postProcessFile(written, "model-doc");
-                }
-            }
+            generateFile(files, models, templateName, filename, generateModelDocumentation, CodegenConstants.MODEL_DOCS, config.getOutputDir(), "model-doc");
         }
     }
 
     private void generateModel(List<File> files, Map<String, Object> models, String modelName) throws IOException {
         for (String templateName : config.modelTemplateFiles().keySet()) {
             String filename = config.modelFilename(templateName, modelName);
-            File written = processTemplateToFile(models, templateName, filename, generateModels, CodegenConstants.MODELS);
-            if (written != null) {
-                files.add(written);
-                if (config.isEnablePostProcessFile() && !dryRun) {
-                    config.postProcessFile(written, "model");
-                }
-            }
+            generateFile(files, models, templateName, filename, generateModels, CodegenConstants.MODELS, config.getOutputDir(), "model");
         }
     }
 
@@ -407,6 +528,7 @@ public class DefaultGenerator implements Generator {
             return;
         }
 
+        Measurement.Probe processProbe = startMeasurement();
         final Map<String, Schema> schemas = ModelUtils.getSchemas(this.openAPI);
         if (schemas == null) {
             LOGGER.warn("Skipping generation of models because specification document has no schemas.");
@@ -490,7 +612,7 @@ public class DefaultGenerator implements Generator {
                 schemaMap.put(name, schema);
                 ModelsMap models = processModels(config, schemaMap);
                 models.put("classname", config.toModelName(name));
-                models.putAll(config.additionalProperties());
+                models.layerOver(sharedTemplateData());
                 allProcessedModels.put(name, models);
             } catch (Exception e) {
                 throw new RuntimeException("Could not process model '" + name + "'" + ".Please make sure that your schema is correct!", e);
@@ -498,12 +620,18 @@ public class DefaultGenerator implements Generator {
         }
 
         // loop through all models to update children models, isSelfReference, isCircularReference, etc
+        Measurement.Probe probe = startMeasurement();
         allProcessedModels = config.updateAllModels(allProcessedModels);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "updateAllModels", probe);
 
         // post process all processed models
+        probe = startMeasurement();
         allProcessedModels = config.postProcessAllModels(allProcessedModels);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcessAllModels", probe);
+        recordMeasurement(GenerationMetricsListener.Category.PHASE, "processModels", processProbe);
 
         // generate files based on processed models
+        RenderQueue renderQueue = new RenderQueue(files, getRenderThreads());
         for (String modelName : allProcessedModels.keySet()) {
             ModelsMap models = allProcessedModels.get(modelName);
             models.put("modelPackage", config.modelPackage());
@@ -522,20 +650,22 @@ public class DefaultGenerator implements Generator {
                     }
                     allModels.add(modelTemplate);
                 }
+            } catch (Exception e) {
+                throw new RuntimeException("Could not generate model '" + modelName + "'", e);
+            }
 
+            renderQueue.submit("Could not generate model '" + modelName + "'", measured("renderModels", modelFiles -> {
                 // to generate model files
-                generateModel(files, models, modelName);
+                generateModel(modelFiles, models, modelName);
 
                 // to generate model test files
-                generateModelTests(files, models, modelName);
+                generateModelTests(modelFiles, models, modelName);
 
                 // to generate model documentation files
-                generateModelDocumentation(files, models, modelName);
-
-            } catch (Exception e) {
-                throw new RuntimeException("Could not generate model '" + modelName + "'", e);
-            }
+                generateModelDocumentation(modelFiles, models, modelName);
+            }));
         }
+        renderQueue.drain();
         if (GlobalSettings.getProperty("debugModels") != null) {
             LOGGER.info("############ Model info ############");
             Json.prettyPrint(allModels);
@@ -550,7 +680,9 @@ public class DefaultGenerator implements Generator {
             LOGGER.info("Skipping generation of APIs.");
             return;
         }
+        Measurement.Probe pathsProbe = startMeasurement();
         Map<String, List<CodegenOperation>> paths = processPaths(this.openAPI.getPaths());
+        recordMeasurement(GenerationMetricsListener.Category.PHASE, "processPaths", pathsProbe);
         Set<String> apisToGenerate = null;
         String apiNames = GlobalSettings.getProperty("apis");
         if (apiNames != null && !apiNames.isEmpty()) {
@@ -565,11 +697,14 @@ public class DefaultGenerator implements Generator {
             }
             paths = updatedPaths;
         }
+        RenderQueue renderQueue = new RenderQueue(files, getRenderThreads());
         for (String tag : paths.keySet()) {
+            OperationsMap operation;
+            Measurement.Probe processProbe = startMeasurement();
             try {
                 List<CodegenOperation> ops = paths.get(tag);
                 ops.sort((one, another) -> ObjectUtils.compare(one.operationId, another.operationId));
-                OperationsMap operation = processOperations(config, tag, ops, allModels);
+                operation = processOperations(config, tag, ops, allModels);
                 URL url = URLPathUtils.getServerURL(openAPI, config.serverVariableOverrides());
                 operation.put("basePath", basePath);
                 operation.put("basePathWithoutHost", removeTrailingSlash(config.encodePath(url.getPath())));
@@ -577,7 +712,7 @@ public class DefaultGenerator implements Generator {
                 operation.put("baseName", tag);
                 operation.put("apiPackage", config.apiPackage());
                 operation.put("modelPackage", config.modelPackage());
-                operation.putAll(config.additionalProperties());
+                operation.layerOver(sharedTemplateData());
                 operation.put("classname", config.toApiName(tag));
                 operation.put("classVarName", config.toApiVarName(tag));
                 operation.put("importPath", config.toApiImport(tag));
@@ -622,52 +757,14 @@ public class DefaultGenerator implements Generator {
                 allOperations.add(operation);
 
                 addAuthenticationSwitches(operation);
-
-                for (String templateName : config.apiTemplateFiles().keySet()) {
-                    String filename = config.apiFilename(templateName, tag);
-                    File written = processTemplateToFile(operation, templateName, filename, generateApis, CodegenConstants.APIS);
-                    if (written != null) {
-                        files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
-                            config.postProcessFile(written, "api");
-                        }
-                    }
-                }
-
-                // to generate api test files
-                for (String templateName : config.apiTestTemplateFiles().keySet()) {
-                    String filename = config.apiTestFilename(templateName, tag);
-                    File apiTestFile = new File(filename);
-                    // do not overwrite test file that already exists
-                    if (apiTestFile.exists()) {
-                        this.templateProcessor.skip(apiTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
-                    } else {
-                        File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
-                        if (written != null) {
-                            files.add(written);
-                            if (config.isEnablePostProcessFile() && !dryRun) {
-                                config.postProcessFile(written, "api-test");
-                            }
-                        }
-                    }
-                }
-
-                // to generate api documentation files
-                for (String templateName : config.apiDocTemplateFiles().keySet()) {
-                    String filename = config.apiDocFilename(templateName, tag);
-                    File written = processTemplateToFile(operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS);
-                    if (written != null) {
-                        files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
-                            config.postProcessFile(written, "api-doc");
-                        }
-                    }
-                }
-
             } catch (Exception e) {
                 throw new RuntimeException("Could not generate api file for '" + tag + "'", e);
             }
+
+            recordMeasurement(GenerationMetricsListener.Category.PHASE, "processOperations", processProbe);
+            renderQueue.submit("Could not generate api file for '" + tag + "'", measured("renderApis", apiFiles -> generateApi(apiFiles, operation, tag)));
         }
+        renderQueue.drain();
         if (GlobalSettings.getProperty("debugOperations") != null) {
             LOGGER.info("############ Operation info ############");
             Json.prettyPrint(allOperations);
@@ -675,6 +772,31 @@ public class DefaultGenerator implements Generator {
 
     }
 
+    private void generateApi(List<File> files, OperationsMap operation, String tag) throws IOException {
+        for (String templateName : config.apiTemplateFiles().keySet()) {
+            String filename = config.apiFilename(templateName, tag);
+            generateFile(files, operation, templateName, filename, generateApis, CodegenConstants.APIS, config.getOutputDir(), "api");
+        }
+
+        // to generate api test files
+        for (String templateName : config.apiTestTemplateFiles().keySet()) {
+            String filename = config.apiTestFilename(templateName, tag);
+            File apiTestFile = new File(filename);
+            // do not overwrite test file that already exists
+            if (apiTestFile.exists()) {
+                this.templateProcessor.skip(apiTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
+            } else {
+                generateFile(files, operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder(), "api-test");
+            }
+        }
+
+        // to generate api documentation files
+        for (String templateName : config.apiDocTemplateFiles().keySet()) {
+            String filename = config.apiDocFilename(templateName, tag);
+            generateFile(files, operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS, config.getOutputDir(), "api-doc");
+        }
+    }
+
     private void generateSupportingFiles(List<File> files, Map<String, Object> bundle) {
         if (!generateSupportingFiles) {
             // TODO: process these anyway and report via dryRun?
@@ -695,7 +817,7 @@ public class DefaultGenerator implements Generator {
                 }
                 File of = new File(outputFolder);
                 if (!of.isDirectory()) {
-                    if (!dryRun && !of.mkdirs()) {
+                    if (!dryRun && !isWritingToSink() && !of.mkdirs()) {
                         once(LOGGER).debug("Output directory {} not created. It {}.", outputFolder, of.exists() ? "already exists." : "may not have appropriate permissions.");
                     }
                 }
@@ -712,7 +834,7 @@ public class DefaultGenerator implements Generator {
                 if (written != null) {
                     files.add(written);
                     if (config.isEnablePostProcessFile() && !dryRun) {
-                        config.postProcessFile(written, "supporting-file");
+                        postProcessFile(written, "supporting-file");
                     }
                 }
             } catch (Exception e) {
@@ -735,7 +857,7 @@ public class DefaultGenerator implements Generator {
                 if (written != null) {
                     files.add(written);
                     if (config.isEnablePostProcessFile() && !dryRun) {
-                        config.postProcessFile(written, "openapi-generator-ignore");
+                        postProcessFile(written, "openapi-generator-ignore");
                     }
                 }
             } catch (Exception e) {
@@ -793,7 +915,9 @@ public class DefaultGenerator implements Generator {
             m.hasMoreModels = true;
         }
 
+        Measurement.Probe probe = startMeasurement();
         config.postProcessSupportingFileData(bundle);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcessSupportingFileData", probe);
 
         if (GlobalSettings.getProperty("debugSupportingFiles") != null) {
             LOGGER.info("############ Supporting file info ############");
@@ -846,6 +970,18 @@ public class DefaultGenerator implements Generator {
 
     @Override
     public List<File> generate() {
+        // names are converted over and over during a run, so conversions are cached until the run has finished
+        org.openapitools.codegen.utils.StringUtils.beginNameCacheScope();
+        try {
+            return generateFiles();
+        } finally {
+            // the report only collects the events of this run, also when generation failed
+            unregisterMetricsReport();
+            org.openapitools.codegen.utils.StringUtils.endNameCacheScope();
+        }
+    }
+
+    private List<File> generateFiles() {
         if (openAPI == null) {
             throw new RuntimeException("Issues with the OpenAPI input. Possible causes: invalid/missing spec, malformed JSON/YAML files, etc.");
         }
@@ -871,20 +1007,52 @@ public class DefaultGenerator implements Generator {
             }
         }
 
+        if (isGenerationMetrics()) {
+            metricsReport = new JsonMetricsReport();
+            metricsListeners.add(metricsReport);
+        }
+        if (opts != null && opts.getParseMeasurement() != null && !metricsListeners.isEmpty()) {
+            recordMeasurement(GenerationMetricsListener.Category.PHASE, "parse", opts.getParseMeasurement());
+        }
+
         // resolve inline models
         if (config.getUseInlineModelResolver()) {
+            Measurement.Probe probe = startMeasurement();
             InlineModelResolver inlineModelResolver = new InlineModelResolver();
             inlineModelResolver.setInlineSchemaNameMapping(config.inlineSchemaNameMapping());
             inlineModelResolver.flatten(openAPI);
+            ModelUtils.invalidateIndexes(openAPI);
+            recordMeasurement(GenerationMetricsListener.Category.PHASE, "inlineModelResolver", probe);
         }
 
+        Measurement.Probe probe = startMeasurement();
         configureGeneratorProperties();
         configureOpenAPIInfo();
+        recordMeasurement(GenerationMetricsListener.Category.PHASE, "configure", probe);
 
+        probe = startMeasurement();
         config.processOpenAPI(openAPI);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "processOpenAPI", probe);
+        ModelUtils.invalidateIndexes(openAPI);
 
         processUserDefinedTemplates();
 
+        if (isIncremental() && !dryRun) {
+            Path outDir = absPath(new File(this.config.getOutputDir()));
+            TemplatingExecutor executor = this.templateProcessor instanceof TemplatingExecutor ? (TemplatingExecutor) this.templateProcessor : null;
+            fingerprintManifest = FingerprintManifest.load(outDir, outDir.resolve(METADATA_DIR), config, executor);
+        } else {
+            fingerprintManifest = null;
+        }
+
+        // external post-processing runs in batches once all files are written
+        if (config.isEnablePostProcessFile() && !dryRun && !isWritingToSink()) {
+            postProcessBatch = new PostProcessBatch(getPostProcessThreads(), getPostProcessBatchSize());
+        } else {
+            postProcessBatch = null;
+        }
+        config.setPostProcessBatch(postProcessBatch);
+
         List<File> files = new ArrayList<>();
         // models
         List<String> filteredSchemas = ModelUtils.getSchemasUsedOnlyInFormParam(openAPI);
@@ -895,8 +1063,10 @@ public class DefaultGenerator implements Generator {
         generateApis(files, allOperations, allModels);
 
         // supporting files
+        probe = startMeasurement();
         Map<String, Object> bundle = buildSupportFileBundle(allOperations, allModels);
         generateSupportingFiles(files, bundle);
+        recordMeasurement(GenerationMetricsListener.Category.PHASE, "supportingFiles", probe);
 
         if (dryRun) {
             boolean verbose = Boolean.parseBoolean(GlobalSettings.getProperty("verbose"));
@@ -937,13 +1107,27 @@ public class DefaultGenerator implements Generator {
             LOGGER.error(sb.toString());
         } else {
             // This exists here rather than in the method which generates supporting files to avoid accidentally adding files after this metadata.
+            probe = startMeasurement();
             if (generateSupportingFiles) {
                 generateFilesMetadata(files);
             }
+            generateFingerprintManifest(files);
+            recordMeasurement(GenerationMetricsListener.Category.PHASE, "metadata", probe);
         }
 
+        runPostProcessBatch();
+
         // post-process
+        probe = startMeasurement();
         config.postProcess();
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcess", probe);
+
+        for (GenerationMetricsListener listener : metricsListeners) {
+            listener.onGenerationComplete(config, files);
+        }
+        generateMetricsReport();
+
+        logTemplateCacheStatistics();
 
         // reset GlobalSettings, so that the running thread can be reused for another generator-run
         GlobalSettings.reset();
@@ -951,6 +1135,62 @@ public class DefaultGenerator implements Generator {
         return files;
     }
 
+    /**
+     * Runs the external post-processing commands collected while generating files, see
+     * {@link CodegenConfig#postProcessFile(File, String)}.
+     */
+    private void runPostProcessBatch() {
+        if (postProcessBatch == null) {
+            return;
+        }
+        Measurement.Probe probe = startMeasurement();
+        try {
+            postProcessBatch.run();
+        } finally {
+            config.setPostProcessBatch(null);
+            postProcessBatch = null;
+        }
+        recordMeasurement(GenerationMetricsListener.Category.PHASE, "postProcessFiles", probe);
+    }
+
+    /**
+     * Writes the report of the generation metrics collected by this run to .openapi-generator/METRICS.json.
+     * The report is not tracked in FILES, as it differs between runs.
+     */
+    private void generateMetricsReport() {
+        if (metricsReport == null) {
+            return;
+        }
+        JsonMetricsReport report = metricsReport;
+        unregisterMetricsReport();
+        try {
+            String targetFile = config.outputFolder() + File.separator + METADATA_DIR + File.separator + JsonMetricsReport.FILENAME;
+            this.templateProcessor.writeToFile(targetFile, report.toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            LOGGER.warn("Failed to write generation metrics to {}.", JsonMetricsReport.FILENAME, e);
+        }
+    }
+
+    private void unregisterMetricsReport() {
+        if (metricsReport != null) {
+            metricsListeners.remove(metricsReport);
+            metricsReport = null;
+        }
+    }
+
+    private void logTemplateCacheStatistics() {
+        TemplatingEngineAdapter templatingEngine = config.getTemplatingEngine();
+        CompiledTemplateCache<?> templateCache = null;
+        if (templatingEngine instanceof MustacheEngineAdapter) {
+            templateCache = ((MustacheEngineAdapter) templatingEngine).getTemplateCache();
+        } else if (templatingEngine instanceof HandlebarsEngineAdapter) {
+            templateCache = ((HandlebarsEngineAdapter) templatingEngine).getTemplateCache();
+        }
+        if (templateCache != null) {
+            LOGGER.debug("Compiled template cache: {}", templateCache);
+        }
+    }
+
     private void processUserDefinedTemplates() {
         // TODO: initial behavior is "merge" user defined with built-in templates. consider offering user a "replace" option.
         if (userDefinedTemplates != null && !userDefinedTemplates.isEmpty()) {
@@ -1021,6 +1261,55 @@ public class DefaultGenerator implements Generator {
         }
     }
 
+    /**
+     * Renders a model or api file (or one of their tests or docs) and adds it to {@code files}. In incremental mode,
+     * rendering and post-processing are skipped for an existing file whose inputs are unchanged since the last run.
+     */
+    private void generateFile(List<File> files, Map<String, Object> templateData, String templateName, String outputFilename, boolean shouldGenerate, String skippedByOption, String intendedOutputDir, String fileType) throws IOException {
+        String fingerprint = null;
+        if (fingerprintManifest != null && shouldGenerate) {
+            File target = new File(outputFilename.replaceAll("//", "/").replace('/', File.separatorChar));
+            if (ignoreProcessor.allowsFile(target)) {
+                fingerprint = fingerprintManifest.fingerprint(templateData, templateName, getTemplateContents(templateName));
+                if (fingerprintManifest.isUnchanged(target, templateName, fingerprint)) {
+                    this.templateProcessor.skip(target.toPath(), "Inputs unchanged since last incremental generation.");
+                    fingerprintManifest.record(target, fingerprint);
+                    files.add(target);
+                    return;
+                }
+            }
+        }
+
+        File written;
+        if (fingerprintManifest != null && shouldGenerate) {
+            Map<String, String> partials = new HashMap<>();
+            written = CompiledTemplateCache.recordPartials(partials, () -> processTemplateToFile(templateData, templateName, outputFilename, true, skippedByOption, intendedOutputDir));
+            fingerprintManifest.recordPartials(templateName, partials);
+        } else {
+            written = processTemplateToFile(templateData, templateName, outputFilename, shouldGenerate, skippedByOption, intendedOutputDir);
+        }
+        if (written != null) {
+            if (fingerprintManifest != null) {
+                fingerprintManifest.record(written, fingerprint);
+            }
+            files.add(written);
+            if (config.isEnablePostProcessFile() && !dryRun) {
+                postProcessFile(written, fileType);
+            }
+        }
+    }
+
+    private String getTemplateContents(String templateName) {
+        if (this.templateProcessor instanceof TemplatingExecutor) {
+            try {
+                return ((TemplatingExecutor) this.templateProcessor).getFullTemplateContents(templateName);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Unable to read template {} for fingerprinting.", templateName);
+            }
+        }
+        return null;
+    }
+
     protected File processTemplateToFile(Map<String, Object> templateData, String templateName, String outputFilename, boolean shouldGenerate, String skippedByOption) throws IOException {
         return processTemplateToFile(templateData, templateName, outputFilename, shouldGenerate, skippedByOption, this.config.getOutputDir());
     }
@@ -1035,7 +1324,10 @@ public class DefaultGenerator implements Generator {
                 if (!absoluteTarget.startsWith(outDir)) {
                     throw new RuntimeException(String.format(Locale.ROOT, "Target files must be generated within the output directory; absoluteTarget=%s outDir=%s", absoluteTarget, outDir));
                 }
-                return this.templateProcessor.write(templateData, templateName, target);
+                Measurement.Probe probe = startMeasurement();
+                File written = this.templateProcessor.write(templateData, templateName, target);
+                recordMeasurement(GenerationMetricsListener.Category.TEMPLATE, templateName, probe);
+                return written;
             } else {
                 this.templateProcessor.skip(target.toPath(), String.format(Locale.ROOT, "Skipped by %s options supplied by user.", skippedByOption));
                 return null;
@@ -1132,7 +1424,9 @@ public class DefaultGenerator implements Generator {
         final List<SecurityRequirement> globalSecurities = openAPI.getSecurity();
         for (Tag tag : tags) {
             try {
+                Measurement.Probe probe = startMeasurement();
                 CodegenOperation codegenOperation = config.fromOperation(resourcePath, httpMethod, operation, path.getServers());
+                recordMeasurement(GenerationMetricsListener.Category.HOOK, "fromOperation", probe);
                 codegenOperation.tags = new ArrayList<>(tags);
                 config.addOperationToGroup(config.sanitizeTag(tag.getName()), resourcePath, operation, codegenOperation, operations);
 
@@ -1212,7 +1506,9 @@ public class DefaultGenerator implements Generator {
             operations.put("hasImport", true);
         }
 
+        Measurement.Probe probe = startMeasurement();
         config.postProcessOperationsWithModels(operations, allModels);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcessOperationsWithModels", probe);
         return operations;
     }
 
@@ -1266,7 +1562,9 @@ public class DefaultGenerator implements Generator {
             Schema schema = definitionsEntry.getValue();
             if (schema == null)
                 throw new RuntimeException("schema cannot be null in processModels");
+            Measurement.Probe probe = startMeasurement();
             CodegenModel cm = config.fromModel(key, schema);
+            recordMeasurement(GenerationMetricsListener.Category.HOOK, "fromModel", probe);
             ModelMap mo = new ModelMap();
             mo.setModel(cm);
             mo.put("importPath", config.toModelImport(cm.classname));
@@ -1299,7 +1597,9 @@ public class DefaultGenerator implements Generator {
             imports.add(item);
         }
         objs.setImports(imports);
+        Measurement.Probe probe = startMeasurement();
         config.postProcessModels(objs);
+        recordMeasurement(GenerationMetricsListener.Category.HOOK, "postProcessModels", probe);
         return objs;
     }
 
@@ -1430,7 +1730,7 @@ public class DefaultGenerator implements Generator {
                 if (written != null) {
                     files.add(versionMetadataFile);
                     if (config.isEnablePostProcessFile() && !dryRun) {
-                        config.postProcessFile(written, "openapi-generator-version");
+                        postProcessFile(written, "openapi-generator-version");
                     }
                 }
             } catch (IOException e) {
@@ -1502,8 +1802,97 @@ public class DefaultGenerator implements Generator {
         }
     }
 
+    /**
+     * Generates a file at .openapi-generator/FINGERPRINTS to track the inputs of model and api files when generating
+     * incrementally. See {@link CodegenConstants#INCREMENTAL}.
+     *
+     * @param files The list tracking generated files
+     */
+    private void generateFingerprintManifest(List<File> files) {
+        if (fingerprintManifest != null && generateMetadata) {
+            try {
+                String targetFile = config.outputFolder() + File.separator + METADATA_DIR + File.separator + FingerprintManifest.FILENAME;
+                File manifestFile = this.templateProcessor.writeToFile(targetFile, fingerprintManifest.serialize().getBytes(StandardCharsets.UTF_8));
+                if (manifestFile != null) {
+                    files.add(manifestFile);
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Failed to write FINGERPRINTS metadata to track inputs of generated files.");
+            }
+        }
+    }
+
     private String removeTrailingSlash(String value) {
         return StringUtils.removeEnd(value, "/");
     }
 
+    @FunctionalInterface
+    private interface RenderTask {
+        void render(List<File> files) throws Exception;
+    }
+
+    /**
+     * Renders model and api files, either immediately on the calling thread or, when more than one render thread is
+     * configured via {@link CodegenConstants#RENDER_THREADS}, concurrently once all tasks have been submitted.
+     * Written files are always appended in submission order, so the generated file list stays deterministic.
+     */
+    private static final class RenderQueue {
+        private final List<File> files;
+        private final int threads;
+        private final List<Callable<List<File>>> tasks = new ArrayList<>();
+        private final List<String> errorMessages = new ArrayList<>();
+
+        RenderQueue(List<File> files, int threads) {
+            this.files = files;
+            this.threads = threads;
+        }
+
+        void submit(String errorMessage, RenderTask task) {
+            Callable<List<File>> callable = () -> {
+                List<File> written = new ArrayList<>();
+                task.render(written);
+                return written;
+            };
+            if (threads <= 1) {
+                try {
+                    files.addAll(callable.call());
+                } catch (Exception e) {
+                    throw new RuntimeException(errorMessage, e);
+                }
+            } else {
+                tasks.add(callable);
+                errorMessages.add(errorMessage);
+            }
+        }
+
+        void drain() {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), r -> {
+                Thread thread = new Thread(r, "openapi-generator-render-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<List<File>>> results = executor.invokeAll(tasks);
+                for (int i = 0; i < results.size(); i++) {
+                    try {
+                        files.addAll(results.get(i).get());
+                    } catch (ExecutionException e) {
+                        throw new RuntimeException(errorMessages.get(i), e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while rendering files", e);
+            } finally {
+                executor.shutdownNow();
+                tasks.clear();
+                errorMessages.clear();
+            }
+        }
+    }
+
 }
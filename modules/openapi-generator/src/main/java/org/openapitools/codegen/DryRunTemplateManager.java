@@ -7,15 +7,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages templates for a generator "dry run"
  */
 public class DryRunTemplateManager implements TemplateProcessor {
     private final TemplateManagerOptions options;
-    private final Map<String, DryRunStatus> dryRunStatusMap = new HashMap<>();
+    private final Map<String, DryRunStatus> dryRunStatusMap = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new instance of {@link DryRunTemplateManager} for the provided options
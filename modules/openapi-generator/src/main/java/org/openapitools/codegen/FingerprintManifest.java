@@ -0,0 +1,381 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.samskivert.mustache.Mustache;
+import io.swagger.v3.core.util.Json;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.model.LayeredMap;
+import org.openapitools.codegen.templating.CompiledTemplateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tracks a fingerprint of the inputs of every model and api file written by a generator run, so a later run in
+ * incremental mode (see {@link CodegenConstants#INCREMENTAL}) can skip rendering files whose inputs did not change.
+ * <p>
+ * The fingerprint of a file covers its template data bundle, the template name and contents, and a fingerprint of the
+ * run itself (generator version, class, library, templating engine and the contents of a user-supplied template
+ * directory). Any change to the run fingerprint invalidates every entry. The shared layer of a {@link LayeredMap}
+ * bundle is hashed once per run rather than for every file.
+ * <p>
+ * The partials read while rendering a template are recorded against the template name, as resolved path and content
+ * hash (see {@link CompiledTemplateCache#recordPartials(Map, CompiledTemplateCache.Rendering)}). A file is only
+ * skipped if every recorded partial of its template still resolves to the same path and contents.
+ */
+public class FingerprintManifest {
+    public static final String FILENAME = "FINGERPRINTS";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintManifest.class);
+
+    private static final String RUN_PREFIX = "# run ";
+    private static final String PARTIALS_PREFIX = "# partials ";
+
+    // values which change on every run without affecting the rendered output in a meaningful way
+    private static final Set<String> VOLATILE_KEYS = Collections.singleton("generatedDate");
+
+    // stands in for a value taken from the shared layer, which is covered by the shared layer's hash
+    private static final String SHARED_VALUE = "#shared";
+
+    private static final ObjectMapper MAPPER = Json.mapper().copy()
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .registerModule(new SimpleModule()
+                    .addSerializer(Mustache.Lambda.class, new ClassNameSerializer<>())
+                    .addSerializer(CodegenConfig.class, new ClassNameSerializer<>()));
+
+    private final Path outputDir;
+    private final String runFingerprint;
+    private final TemplatingExecutor executor;
+    private final Map<String, String> previous;
+    private final Map<String, Map<String, String>> previousPartials;
+    private final Map<String, String> current = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> currentPartials = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> partialsUnchanged = new ConcurrentHashMap<>();
+    private final Map<Map<String, Object>, String> sharedFingerprints = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    FingerprintManifest(Path outputDir, String runFingerprint, TemplatingExecutor executor, Map<String, String> previous, Map<String, Map<String, String>> previousPartials) {
+        this.outputDir = outputDir.toAbsolutePath().normalize();
+        this.runFingerprint = runFingerprint;
+        this.executor = executor;
+        this.previous = previous;
+        this.previousPartials = previousPartials;
+    }
+
+    /**
+     * Loads the manifest written by a previous run into {@code metadataDir}. Entries are discarded if the previous
+     * run had a different run fingerprint.
+     *
+     * @param outputDir   The output directory of the generator
+     * @param metadataDir The directory holding generator metadata (e.g. .openapi-generator)
+     * @param config      The generator configuration
+     * @param executor    Resolves the partials recorded by the previous run, or null if templates can't be resolved
+     * @return The manifest
+     */
+    public static FingerprintManifest load(Path outputDir, Path metadataDir, CodegenConfig config, TemplatingExecutor executor) {
+        String runFingerprint = runFingerprint(config);
+        Map<String, String> previous = new HashMap<>();
+        Map<String, Map<String, String>> previousPartials = new HashMap<>();
+        Path manifest = metadataDir.resolve(FILENAME);
+        if (Files.isRegularFile(manifest)) {
+            try {
+                List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && lines.get(0).equals(RUN_PREFIX + runFingerprint)) {
+                    for (String line : lines.subList(1, lines.size())) {
+                        if (line.startsWith(PARTIALS_PREFIX)) {
+                            String[] parts = line.substring(PARTIALS_PREFIX.length()).split("\t");
+                            Map<String, String> partials = new HashMap<>();
+                            for (int i = 1; i < parts.length; i++) {
+                                int idx = parts[i].indexOf('=');
+                                if (idx > 0) {
+                                    partials.put(parts[i].substring(0, idx), parts[i].substring(idx + 1));
+                                }
+                            }
+                            previousPartials.put(parts[0], partials);
+                            continue;
+                        }
+                        int idx = line.lastIndexOf('\t');
+                        if (idx > 0) {
+                            previous.put(line.substring(0, idx), line.substring(idx + 1));
+                        }
+                    }
+                } else {
+                    LOGGER.info("Generator, templates or version changed since the last incremental generation, all files will be rendered.");
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Unable to read {}, all files will be rendered.", manifest, e);
+            }
+        }
+        return new FingerprintManifest(outputDir, runFingerprint, executor, previous, previousPartials);
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of a single output file.
+     *
+     * @param templateData     The data bundle passed to the template
+     * @param templateName     The template name (e.g. model.mustache)
+     * @param templateContents The template contents if available, otherwise null
+     * @return The fingerprint, or null if the inputs can't be fingerprinted (the file is then always rendered)
+     */
+    public String fingerprint(Map<String, Object> templateData, String templateName, String templateContents) {
+        Map<String, Object> shared = templateData instanceof LayeredMap
+                ? ((LayeredMap) templateData).getSharedLayer()
+                : Collections.emptyMap();
+        String sharedFingerprint = sharedFingerprint(shared);
+        if (sharedFingerprint == null) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(templateName, StandardCharsets.UTF_8).putByte((byte) 0);
+        if (templateContents != null) {
+            hasher.putString(templateContents, StandardCharsets.UTF_8);
+        }
+        hasher.putByte((byte) 0);
+        hasher.putString(sharedFingerprint, StandardCharsets.UTF_8).putByte((byte) 0);
+
+        // only the own entries of a layered bundle, the shared entries are covered by the shared fingerprint
+        Map<Object, Object> data = new HashMap<>(templateData instanceof LayeredMap
+                ? ((LayeredMap) templateData).getOwnEntries()
+                : templateData);
+        data.keySet().removeAll(VOLATILE_KEYS);
+        try (OutputStream out = Funnels.asOutputStream(hasher)) {
+            MAPPER.writeValue(out, withoutSharedValues(data, shared));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Unable to fingerprint inputs of template {}: {}", templateName, e.getMessage());
+            return null;
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Determines whether {@code target} exists and was written by a previous run from inputs with the same fingerprint,
+     * using the same partials.
+     *
+     * @param target       The output file
+     * @param templateName The template name (e.g. model.mustache)
+     * @param fingerprint  The fingerprint of the current inputs
+     * @return true if the file can be kept as-is
+     */
+    public boolean isUnchanged(File target, String templateName, String fingerprint) {
+        return fingerprint != null
+                && target.isFile()
+                && fingerprint.equals(previous.get(relativize(target)))
+                && partialsUnchanged.computeIfAbsent(templateName, this::resolvesToPreviousPartials);
+    }
+
+    /**
+     * Records the fingerprint of the inputs a file was generated from.
+     *
+     * @param target      The output file
+     * @param fingerprint The fingerprint of the inputs, or null if they could not be fingerprinted
+     */
+    public void record(File target, String fingerprint) {
+        if (fingerprint != null) {
+            current.put(relativize(target), fingerprint);
+        }
+    }
+
+    /**
+     * Records the partials read while rendering a template.
+     *
+     * @param templateName The template name (e.g. model.mustache)
+     * @param partials     The template name of each partial, mapped to its fingerprint
+     */
+    public void recordPartials(String templateName, Map<String, String> partials) {
+        currentPartials.computeIfAbsent(templateName, k -> new ConcurrentHashMap<>()).putAll(partials);
+    }
+
+    /**
+     * Serializes the manifest. Only entries of files generated or kept in this run are written, so entries of files
+     * which are no longer generated are pruned.
+     *
+     * @return The manifest contents
+     */
+    public String serialize() {
+        Map<String, Map<String, String>> partials = new TreeMap<>();
+        currentPartials.forEach((templateName, recorded) -> partials.put(templateName, new TreeMap<>(recorded)));
+        // templates whose files were all kept still depend on the partials validated in this run
+        previousPartials.forEach((templateName, recorded) -> {
+            if (Boolean.TRUE.equals(partialsUnchanged.get(templateName))) {
+                partials.computeIfAbsent(templateName, k -> new TreeMap<>()).putAll(recorded);
+            }
+        });
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(RUN_PREFIX).append(runFingerprint).append(System.lineSeparator());
+        partials.forEach((templateName, recorded) -> {
+            if (!recorded.isEmpty()) {
+                sb.append(PARTIALS_PREFIX).append(templateName);
+                recorded.forEach((name, fingerprint) -> sb.append('\t').append(name).append('=').append(fingerprint));
+                sb.append(System.lineSeparator());
+            }
+        });
+        new TreeMap<>(current).forEach((path, fingerprint) -> sb.append(path).append('\t').append(fingerprint).append(System.lineSeparator()));
+        return sb.toString();
+    }
+
+    private boolean resolvesToPreviousPartials(String templateName) {
+        Map<String, String> partials = previousPartials.getOrDefault(templateName, Collections.emptyMap());
+        if (partials.isEmpty()) {
+            return true;
+        }
+        if (executor == null) {
+            return false;
+        }
+        for (Map.Entry<String, String> partial : partials.entrySet()) {
+            try {
+                if (!Objects.equals(partial.getValue(), CompiledTemplateCache.fingerprint(executor, partial.getKey()))) {
+                    LOGGER.debug("Partial {} of template {} changed since the last incremental generation.", partial.getKey(), templateName);
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String sharedFingerprint(Map<String, Object> shared) {
+        if (shared.isEmpty()) {
+            return "";
+        }
+        // the shared layer must not be modified once a bundle is layered over it, so its hash is computed once
+        String cached = sharedFingerprints.get(shared);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Object> data = new TreeMap<>(shared);
+        data.keySet().removeAll(VOLATILE_KEYS);
+        Hasher hasher = Hashing.sha256().newHasher();
+        try (OutputStream out = Funnels.asOutputStream(hasher)) {
+            MAPPER.writeValue(out, data);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Unable to fingerprint shared template data: {}", e.getMessage());
+            return null;
+        }
+        String fingerprint = hasher.hash().toString();
+        sharedFingerprints.put(shared, fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * Replaces values of (nested) maps which are the very same instance as the shared value of the same key, e.g. the
+     * additional properties copied into every {@link org.openapitools.codegen.model.ModelMap}.
+     */
+    private static Object withoutSharedValues(Object value, Map<String, Object> shared) {
+        if (shared.isEmpty()) {
+            return value;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object entryValue = entry.getValue();
+                if (entryValue != null && entry.getKey() instanceof String && shared.get(entry.getKey()) == entryValue) {
+                    copy.put(entry.getKey(), SHARED_VALUE);
+                } else {
+                    copy.put(entry.getKey(), withoutSharedValues(entryValue, shared));
+                }
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                copy.add(withoutSharedValues(element, shared));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private String relativize(File target) {
+        Path absolute = Paths.get(target.getAbsolutePath()).normalize();
+        // NOTE: written with linux-style separators, consistent with .openapi-generator/FILES
+        return outputDir.relativize(absolute).toString().replace(File.separatorChar, '/');
+    }
+
+    static String runFingerprint(CodegenConfig config) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        Stream.of(
+                org.openapitools.codegen.utils.ImplementationVersion.read(),
+                config.getClass().getName(),
+                config.getLibrary(),
+                config.getTemplatingEngine() != null ? config.getTemplatingEngine().getIdentifier() : null,
+                config.templateDir(),
+                config.embeddedTemplateDir()
+        ).forEach(value -> hasher.putString(String.valueOf(value), StandardCharsets.UTF_8).putByte((byte) 0));
+
+        // user-supplied templates may change between runs, so include the contents of the template directory
+        String templateDir = config.templateDir();
+        if (templateDir != null && !templateDir.equals(config.embeddedTemplateDir())) {
+            Path dir = Paths.get(templateDir);
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> walk = Files.walk(dir)) {
+                    List<Path> templates = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    for (Path template : templates) {
+                        hasher.putString(dir.relativize(template).toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+                        hasher.putBytes(Files.readAllBytes(template)).putByte((byte) 0);
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Unable to fingerprint template directory {}, all files will be rendered.", dir, e);
+                    hasher.putLong(System.nanoTime());
+                }
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static final class ClassNameSerializer<T> extends JsonSerializer<T> {
+        @Override
+        public void serialize(T value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeString(value.getClass().getName());
+        }
+    }
+}
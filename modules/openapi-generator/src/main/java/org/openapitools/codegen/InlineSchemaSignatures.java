@@ -0,0 +1,250 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the structure of the schemas generated by the {@link InlineModelResolver}, so structurally identical
+ * inline schemas are replaced by a reference to the same model.
+ * <p>
+ * Schemas are identified by a 128-bit hash computed by walking the schema tree, each node being hashed once per walk.
+ * The walk covers the fields which tell schemas apart in practice; schemas with equal serializations always have equal
+ * hashes. A hash match is confirmed by comparing the serialization of the schema with the one recorded for the model,
+ * so a schema is only serialized when it is recorded or when its hash matches a recorded model.
+ */
+final class InlineSchemaSignatures {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InlineSchemaSignatures.class);
+
+    // structure mapper sorts properties alphabetically on write to ensure models are
+    // serialized consistently for lookup of existing models
+    private static final ObjectMapper STRUCTURE_MAPPER = Json.mapper().copy()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+    // stands in for a schema which is part of a cycle, while its own hash is being computed
+    private static final HashCode IN_PROGRESS = HashCode.fromLong(0L);
+
+    private final Map<HashCode, Signature> signatures = new HashMap<>();
+
+    /**
+     * @param schema the schema to look up
+     * @return the name of the generated model with the same structure, or null if there is none
+     */
+    String match(Schema schema) {
+        Signature signature = signatures.get(hash(schema));
+        if (signature == null) {
+            return null;
+        }
+
+        String serialized = serialize(schema);
+        for (; signature != null && serialized != null; signature = signature.next) {
+            if (signature.serialized.equals(serialized)) {
+                return signature.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the structure of a generated model. A model with the same structure recorded earlier is replaced.
+     *
+     * @param name   the name of the model
+     * @param schema the schema of the model
+     */
+    void add(String name, Schema schema) {
+        String serialized = serialize(schema);
+        if (serialized == null) {
+            return;
+        }
+        HashCode hash = hash(schema);
+        for (Signature signature = signatures.get(hash); signature != null; signature = signature.next) {
+            if (signature.serialized.equals(serialized)) {
+                signature.name = name;
+                return;
+            }
+        }
+        signatures.put(hash, new Signature(name, serialized, signatures.get(hash)));
+    }
+
+    /**
+     * @return the number of recorded structures
+     */
+    int size() {
+        int size = 0;
+        for (Signature signature : signatures.values()) {
+            for (; signature != null; signature = signature.next) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static String serialize(Schema schema) {
+        try {
+            return STRUCTURE_MAPPER.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Unable to serialize schema to compare it with generated models: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static HashCode hash(Schema schema) {
+        // the resolver rewrites schemas in place between lookups, so nodes are only memoized for a single walk
+        return hash(schema, new IdentityHashMap<>());
+    }
+
+    private static HashCode hash(Schema schema, Map<Schema, HashCode> walked) {
+        HashCode memoized = walked.get(schema);
+        if (memoized != null) {
+            return memoized;
+        }
+        walked.put(schema, IN_PROGRESS);
+
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        putString(hasher, schema.getType());
+        putString(hasher, schema.getFormat());
+        putString(hasher, schema.get$ref());
+        putString(hasher, schema.getTitle());
+        putString(hasher, schema.getDescription());
+        putString(hasher, schema.getPattern());
+        putValues(hasher, schema.getRequired());
+        putValues(hasher, schema.getEnum());
+        putValue(hasher, schema.getDefault());
+        putValue(hasher, schema.getMinimum());
+        putValue(hasher, schema.getMaximum());
+        putValue(hasher, schema.getExclusiveMinimum());
+        putValue(hasher, schema.getExclusiveMaximum());
+        putValue(hasher, schema.getMultipleOf());
+        putValue(hasher, schema.getMinLength());
+        putValue(hasher, schema.getMaxLength());
+        putValue(hasher, schema.getMinItems());
+        putValue(hasher, schema.getMaxItems());
+        putValue(hasher, schema.getUniqueItems());
+        putValue(hasher, schema.getMinProperties());
+        putValue(hasher, schema.getMaxProperties());
+        putValue(hasher, schema.getNullable());
+        putValue(hasher, schema.getReadOnly());
+        putValue(hasher, schema.getWriteOnly());
+        putValue(hasher, schema.getDeprecated());
+
+        // null and empty collections are hashed alike, whether or not they are serialized alike
+        Map<String, Schema> properties = schema.getProperties();
+        hasher.putInt(properties == null ? 0 : properties.size());
+        if (properties != null) {
+            for (Map.Entry<String, Schema> property : properties.entrySet()) {
+                putString(hasher, property.getKey());
+                putSchema(hasher, property.getValue(), walked);
+            }
+        }
+        Object additionalProperties = schema.getAdditionalProperties();
+        if (additionalProperties instanceof Schema) {
+            putSchema(hasher, (Schema) additionalProperties, walked);
+        } else {
+            putValue(hasher, additionalProperties);
+        }
+        putSchema(hasher, schema.getNot(), walked);
+        if (schema instanceof ArraySchema) {
+            putSchema(hasher, ((ArraySchema) schema).getItems(), walked);
+        }
+        if (schema instanceof ComposedSchema) {
+            ComposedSchema composed = (ComposedSchema) schema;
+            putSchemas(hasher, composed.getAllOf(), walked);
+            putSchemas(hasher, composed.getAnyOf(), walked);
+            putSchemas(hasher, composed.getOneOf(), walked);
+        }
+
+        HashCode hash = hasher.hash();
+        walked.put(schema, hash);
+        return hash;
+    }
+
+    private static void putSchema(Hasher hasher, Schema schema, Map<Schema, HashCode> walked) {
+        if (schema == null) {
+            hasher.putByte((byte) 0);
+        } else {
+            hasher.putByte((byte) 1).putBytes(hash(schema, walked).asBytes());
+        }
+    }
+
+    private static void putSchemas(Hasher hasher, List<Schema> schemas, Map<Schema, HashCode> walked) {
+        hasher.putInt(schemas == null ? 0 : schemas.size());
+        if (schemas != null) {
+            for (Schema schema : schemas) {
+                putSchema(hasher, schema, walked);
+            }
+        }
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void putValues(Hasher hasher, Collection<?> values) {
+        hasher.putInt(values == null ? 0 : values.size());
+        if (values != null) {
+            for (Object value : values) {
+                putValue(hasher, value);
+            }
+        }
+    }
+
+    private static void putValue(Hasher hasher, Object value) {
+        // scalars with equal serializations have equal string forms, e.g. 1 and 1L; anything else only counts as present
+        if (value instanceof String || value instanceof Boolean || value instanceof Number && !(value instanceof BigDecimal)) {
+            putString(hasher, value.toString());
+        } else if (value instanceof BigDecimal) {
+            putString(hasher, ((BigDecimal) value).toPlainString());
+        } else {
+            hasher.putInt(value == null ? -1 : -2);
+        }
+    }
+
+    private static final class Signature {
+        private String name;
+        private final String serialized;
+        private final Signature next;
+
+        Signature(String name, String serialized, Signature next) {
+            this.name = name;
+            this.serialized = serialized;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The graph of references between models, where a model depends on the models used as the type (or item type) of its
+ * properties. The graph is built once, and its strongly connected components are computed in linear time, so checking
+ * whether a reference is circular doesn't require walking the graph.
+ * <p>
+ * Model names are the keys of the map the graph was built from.
+ */
+public final class ModelDependencyGraph {
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, Set<String>> dependents;
+    // strongly connected components, each model's dependencies come before it
+    private final List<Set<String>> components;
+    private final Map<String, Integer> componentOf;
+
+    private ModelDependencyGraph(Map<String, Set<String>> dependencies) {
+        this.dependencies = dependencies;
+        this.dependents = new HashMap<>();
+        dependencies.forEach((model, targets) -> targets.forEach(target ->
+                dependents.computeIfAbsent(target, k -> new LinkedHashSet<>()).add(model)));
+        this.components = new ArrayList<>();
+        this.componentOf = new HashMap<>();
+        computeComponents();
+    }
+
+    /**
+     * Builds the graph of the given models.
+     *
+     * @param models the models, by name
+     * @return the dependency graph
+     */
+    public static ModelDependencyGraph build(Map<String, CodegenModel> models) {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        models.forEach((name, model) -> {
+            Set<String> targets = new LinkedHashSet<>();
+            for (CodegenProperty property : model.getAllVars()) {
+                String target = getDependency(property);
+                if (target != null && models.containsKey(target)) {
+                    targets.add(target);
+                }
+            }
+            dependencies.put(name, targets);
+        });
+        return new ModelDependencyGraph(dependencies);
+    }
+
+    /**
+     * Gets the name of the model a property refers to: the item type for containers, the property type otherwise.
+     *
+     * @param property the property
+     * @return the referenced type name, which may not be a model, or null if the property has no type
+     */
+    public static String getDependency(CodegenProperty property) {
+        if (property.isContainer) {
+            return property.items == null ? null : property.items.dataType;
+        }
+        return property.dataType;
+    }
+
+    /**
+     * @return the names of all models in the graph
+     */
+    public Set<String> getModelNames() {
+        return Collections.unmodifiableSet(dependencies.keySet());
+    }
+
+    /**
+     * @param model the model name
+     * @return the models the given model refers to directly
+     */
+    public Set<String> getDependencies(String model) {
+        return Collections.unmodifiableSet(dependencies.getOrDefault(model, Collections.emptySet()));
+    }
+
+    /**
+     * @param model the model name
+     * @return the models referring directly to the given model
+     */
+    public Set<String> getDependents(String model) {
+        return Collections.unmodifiableSet(dependents.getOrDefault(model, Collections.emptySet()));
+    }
+
+    /**
+     * @param model the model name
+     * @return the models which can be reached from the given model and which can reach it, including the model itself
+     */
+    public Set<String> getComponent(String model) {
+        Integer component = componentOf.get(model);
+        return component == null ? Collections.emptySet() : components.get(component);
+    }
+
+    /**
+     * Gets the strongly connected components of the graph, in dependency order: the models a component refers to are
+     * part of the same or an earlier component.
+     *
+     * @return the components
+     */
+    public List<Set<String>> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * Gets the groups of models which refer to each other, directly or indirectly, including models referring to
+     * themselves.
+     *
+     * @return the components containing a cycle, in dependency order
+     */
+    public List<Set<String>> getCycles() {
+        List<Set<String>> cycles = new ArrayList<>();
+        for (Set<String> component : components) {
+            if (isCyclic(component)) {
+                cycles.add(component);
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * @param model the model name
+     * @return true if the model can be reached through its own references
+     */
+    public boolean isInCycle(String model) {
+        Set<String> component = getComponent(model);
+        return !component.isEmpty() && isCyclic(component);
+    }
+
+    /**
+     * Checks whether a reference from a model to a type leads back to the model.
+     *
+     * @param model  the name of the referring model
+     * @param target the referenced type name
+     * @return true if the target is the model itself, or the model can be reached from the target
+     */
+    public boolean isCircularReference(String model, String target) {
+        if (model.equals(target)) {
+            return true;
+        }
+        Integer component = componentOf.get(model);
+        return component != null && component.equals(componentOf.get(target));
+    }
+
+    private boolean isCyclic(Set<String> component) {
+        if (component.size() > 1) {
+            return true;
+        }
+        String model = component.iterator().next();
+        return dependencies.get(model).contains(model);
+    }
+
+    /**
+     * Tarjan's algorithm, iterative so deep reference chains don't overflow the stack. Components are completed in
+     * reverse topological order, i.e. dependencies first.
+     */
+    private void computeComponents() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        Set<String> onStack = new HashSet<>();
+        Deque<Frame> frames = new ArrayDeque<>();
+
+        for (String root : dependencies.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            frames.push(visit(root, index, lowLink, stack, onStack));
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.targets.hasNext()) {
+                    String target = frame.targets.next();
+                    if (!index.containsKey(target)) {
+                        frames.push(visit(target, index, lowLink, stack, onStack));
+                    } else if (onStack.contains(target)) {
+                        lowLink.put(frame.model, Math.min(lowLink.get(frame.model), index.get(target)));
+                    }
+                    continue;
+                }
+
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    String parent = frames.peek().model;
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(frame.model)));
+                }
+                if (lowLink.get(frame.model).equals(index.get(frame.model))) {
+                    Set<String> component = new LinkedHashSet<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                        componentOf.put(member, components.size());
+                    } while (!member.equals(frame.model));
+                    components.add(Collections.unmodifiableSet(component));
+                }
+            }
+        }
+    }
+
+    private Frame visit(String model, Map<String, Integer> index, Map<String, Integer> lowLink,
+                        Deque<String> stack, Set<String> onStack) {
+        index.put(model, index.size());
+        lowLink.put(model, index.get(model));
+        stack.push(model);
+        onStack.add(model);
+        return new Frame(model, dependencies.get(model).iterator());
+    }
+
+    private static final class Frame {
+        private final String model;
+        private final Iterator<String> targets;
+
+        Frame(String model, Iterator<String> targets) {
+            this.model = model;
+            this.targets = targets;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * The replacements of {@link DefaultCodegen#sanitizeName(String, String, ArrayList)}, compiled for one combination of
+ * the regular expression of characters to remove, the exceptions and whether unicode identifiers are allowed.
+ * <p>
+ * The character replacements are applied in a single scan of the name. The characters to remove are matched with a
+ * precompiled pattern afterwards, unless they are the non-word characters {@code \W}, which are removed in the same
+ * scan.
+ */
+final class NameSanitizer {
+    private static final ConcurrentMap<Key, NameSanitizer> SANITIZERS = new ConcurrentHashMap<>();
+
+    private static final String NON_WORD_CHARACTERS = "\\W";
+    private static final int KEEP = -1;
+    private static final int REMOVE = -2;
+
+    private final boolean removeEmptyBrackets;
+    private final int[] replacements = new int[128];
+    private final boolean removeNonWordCharacters;
+    private final Pattern removeCharPattern;
+
+    private NameSanitizer(String removeCharRegEx, List<String> exceptions, boolean allowUnicodeIdentifiers) {
+        // input[] => input
+        removeEmptyBrackets = !exceptions.contains("\\[\\]");
+
+        Arrays.fill(replacements, KEEP);
+        // input[a][b] => input_a_b
+        replace(exceptions, "\\[", '[', '_');
+        replace(exceptions, "\\]", ']', REMOVE);
+        // input(a)(b) => input_a_b
+        replace(exceptions, "\\(", '(', '_');
+        replace(exceptions, "\\)", ')', REMOVE);
+        // input.name => input_name
+        replace(exceptions, "\\.", '.', '_');
+        // input-name => input_name
+        replace(exceptions, "-", '-', '_');
+        // a|b => a_b
+        replace(exceptions, "\\|", '|', '_');
+        // input name and age => input_name_and_age
+        replace(exceptions, " ", ' ', '_');
+        // /api/films/get => _api_films_get
+        // \api\films\get => _api_films_get
+        replacements['/'] = '_';
+        replacements['\\'] = '_';
+
+        // remove everything else other than word, number and _
+        // $php_variable => php_variable
+        removeNonWordCharacters = !allowUnicodeIdentifiers && NON_WORD_CHARACTERS.equals(removeCharRegEx);
+        if (removeNonWordCharacters) {
+            removeCharPattern = null;
+        } else if (allowUnicodeIdentifiers) {
+            removeCharPattern = Pattern.compile(removeCharRegEx, Pattern.UNICODE_CHARACTER_CLASS);
+        } else {
+            removeCharPattern = Pattern.compile(removeCharRegEx);
+        }
+    }
+
+    private void replace(List<String> exceptions, String match, char c, int replacement) {
+        if (!exceptions.contains(match)) {
+            replacements[c] = replacement;
+        }
+    }
+
+    /**
+     * @param removeCharRegEx         a regex containing all char that will be removed
+     * @param exceptions              a list of matches which should not be sanitized
+     * @param allowUnicodeIdentifiers whether the regex matches unicode characters as word characters
+     * @return the sanitizer for the combination, compiled on first use
+     */
+    static NameSanitizer of(String removeCharRegEx, List<String> exceptions, boolean allowUnicodeIdentifiers) {
+        Key key = new Key(removeCharRegEx, exceptions, allowUnicodeIdentifiers);
+        NameSanitizer sanitizer = SANITIZERS.get(key);
+        if (sanitizer == null) {
+            sanitizer = SANITIZERS.computeIfAbsent(key.copy(),
+                    k -> new NameSanitizer(k.removeCharRegEx, k.exceptions, k.allowUnicodeIdentifiers));
+        }
+        return sanitizer;
+    }
+
+    String sanitize(String name) {
+        int length = name.length();
+        char[] sanitized = new char[length];
+        int size = 0;
+        boolean changed = false;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c == '[' && removeEmptyBrackets && i + 1 < length && name.charAt(i + 1) == ']') {
+                i++;
+                changed = true;
+                continue;
+            }
+            int replacement = c < replacements.length ? replacements[c] : KEEP;
+            if (replacement == REMOVE || (removeNonWordCharacters && replacement == KEEP && !isWordCharacter(c))) {
+                changed = true;
+                continue;
+            }
+            if (replacement != KEEP) {
+                c = (char) replacement;
+                changed = true;
+            }
+            sanitized[size++] = c;
+        }
+
+        String result = changed ? new String(sanitized, 0, size) : name;
+        return removeCharPattern == null ? result : removeCharPattern.matcher(result).replaceAll("");
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static final class Key {
+        private final String removeCharRegEx;
+        private final List<String> exceptions;
+        private final boolean allowUnicodeIdentifiers;
+
+        Key(String removeCharRegEx, List<String> exceptions, boolean allowUnicodeIdentifiers) {
+            this.removeCharRegEx = removeCharRegEx;
+            this.exceptions = exceptions == null ? Collections.emptyList() : exceptions;
+            this.allowUnicodeIdentifiers = allowUnicodeIdentifiers;
+        }
+
+        // the lookup key refers to the caller's list, which may change afterwards
+        Key copy() {
+            return new Key(removeCharRegEx, Collections.unmodifiableList(new ArrayList<>(exceptions)), allowUnicodeIdentifiers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return allowUnicodeIdentifiers == that.allowUnicodeIdentifiers &&
+                    Objects.equals(removeCharRegEx, that.removeCharRegEx) &&
+                    exceptions.equals(that.exceptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(removeCharRegEx, exceptions, allowUnicodeIdentifiers);
+        }
+    }
+}
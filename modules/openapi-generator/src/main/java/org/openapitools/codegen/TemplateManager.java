@@ -2,10 +2,14 @@ package org.openapitools.codegen;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.api.GeneratedOutputSink;
 import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.serializer.SerializedSpec;
+import org.openapitools.codegen.sink.DiffOnlyOutputSink;
+import org.openapitools.codegen.sink.FileSystemOutputSink;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
 import org.openapitools.codegen.templating.TemplateNotFoundException;
 import org.slf4j.Logger;
@@ -15,6 +19,8 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -24,9 +30,15 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
     private final TemplateManagerOptions options;
     private final TemplatingEngineAdapter engineAdapter;
     private final TemplatePathLocator[] templateLoaders;
+    private final GeneratedOutputSink outputSink;
+    // templates are read once per instance, as every rendered file reads its template and partials again
+    private final Map<String, String> templateContents = new ConcurrentHashMap<>();
 
     private final Logger LOGGER = LoggerFactory.getLogger(TemplateManager.class);
 
+    // a mustache template consisting of a single unescaped variable, with the whitespace around it
+    private static final Pattern SINGLE_VARIABLE_TEMPLATE = Pattern.compile("(\\s*)\\{\\{\\{\\s*([^\\s{}]+)\\s*}}}(\\s*)");
+
     /**
      * Constructs a new instance of a {@link TemplateManager}
      *
@@ -38,9 +50,31 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
             TemplateManagerOptions options,
             TemplatingEngineAdapter engineAdapter,
             TemplatePathLocator[] templateLoaders) {
+        this(options, engineAdapter, templateLoaders, null);
+    }
+
+    /**
+     * Constructs a new instance of a {@link TemplateManager} writing through an output sink instead of the file system
+     *
+     * @param options The {@link TemplateManagerOptions} for reading and writing templates
+     * @param engineAdapter The adaptor to underlying templating engine
+     * @param templateLoaders Loaders which define where we look for templates
+     * @param outputSink The sink receiving written files, or null to write to the file system according to the options
+     */
+    public TemplateManager(
+            TemplateManagerOptions options,
+            TemplatingEngineAdapter engineAdapter,
+            TemplatePathLocator[] templateLoaders,
+            GeneratedOutputSink outputSink) {
         this.options = options;
         this.engineAdapter = engineAdapter;
         this.templateLoaders = templateLoaders;
+        this.outputSink = outputSink != null ? outputSink : fileSystemSink(options);
+    }
+
+    private static GeneratedOutputSink fileSystemSink(TemplateManagerOptions options) {
+        GeneratedOutputSink sink = new FileSystemOutputSink(options.isSkipOverwrite());
+        return options.isMinimalUpdate() ? new DiffOnlyOutputSink(sink) : sink;
     }
 
     private String getFullTemplateFile(String name) {
@@ -69,7 +103,7 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
      */
     @Override
     public String getFullTemplateContents(String name) {
-        return readTemplate(getFullTemplateFile(name));
+        return templateContents.computeIfAbsent(getFullTemplateFile(name), this::readTemplate);
     }
 
     /**
@@ -159,6 +193,10 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
     @Override
     public File write(Map<String, Object> data, String template, File target) throws IOException {
         if (this.engineAdapter.handlesFile(template)) {
+            File streamed = writeSerializedSpec(data, template, target);
+            if (streamed != null) {
+                return streamed;
+            }
             // Only pass files with valid endings through template engine
             String templateContent = this.engineAdapter.compileTemplate(this, data, template);
             return writeToFile(target.getPath(), templateContent);
@@ -176,6 +214,33 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
         }
     }
 
+    /**
+     * Streams a {@link SerializedSpec} to the target file, if the mustache template renders nothing but that value, e.g.
+     * <code>{{{openapi-yaml}}}</code>. The serialized spec is then never held in memory.
+     *
+     * @return The written file, or null if the template has to be rendered
+     */
+    private File writeSerializedSpec(Map<String, Object> data, String template, File target) throws IOException {
+        if (!"mustache".equals(this.engineAdapter.getIdentifier())
+                || data.values().stream().noneMatch(SerializedSpec.class::isInstance)) {
+            return null;
+        }
+        Matcher matcher = SINGLE_VARIABLE_TEMPLATE.matcher(getFullTemplateContents(template));
+        if (!matcher.matches() || !(data.get(matcher.group(2)) instanceof SerializedSpec)) {
+            return null;
+        }
+        SerializedSpec spec = (SerializedSpec) data.get(matcher.group(2));
+        byte[] prefix = matcher.group(1).getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = matcher.group(3).getBytes(StandardCharsets.UTF_8);
+        File outputFile = Paths.get(target.getPath()).toFile();
+        this.outputSink.write(outputFile.toPath(), out -> {
+            out.write(prefix);
+            spec.writeTo(out);
+            out.write(suffix);
+        });
+        return outputFile;
+    }
+
     @Override
     public void ignore(Path path, String context) {
         LOGGER.info("Ignored {} ({})", path, context);
@@ -210,54 +275,7 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
     public File writeToFile(String filename, byte[] contents) throws IOException {
         // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
         File outputFile = Paths.get(filename).toFile();
-
-        if (this.options.isMinimalUpdate()) {
-            String tempFilename = filename + ".tmp";
-            File tempFile = null;
-            try {
-                tempFile = writeToFileRaw(tempFilename, contents);
-                if (!filesEqual(tempFile, outputFile)) {
-                    LOGGER.info("writing file {}", filename);
-                    Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                    tempFile = null;
-                } else {
-                    LOGGER.info("skipping unchanged file {}", filename);
-                }
-            } finally {
-                if (tempFile != null && tempFile.exists()) {
-                    try {
-                        Files.delete(tempFile.toPath());
-                    } catch (Exception ex) {
-                        LOGGER.error("Error removing temporary file {}", tempFile, ex);
-                    }
-                }
-            }
-        } else {
-            LOGGER.info("writing file {}", filename);
-            outputFile = writeToFileRaw(filename, contents);
-        }
-
+        this.outputSink.write(outputFile.toPath(), contents);
         return outputFile;
     }
-
-    private File writeToFileRaw(String filename, byte[] contents) throws IOException {
-        // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
-        File output = Paths.get(filename).toFile();
-        if (this.options.isSkipOverwrite() && output.exists()) {
-            LOGGER.info("skip overwrite of file {}", filename);
-            return output;
-        }
-
-        if (output.getParent() != null && !new File(output.getParent()).exists()) {
-            File parent = Paths.get(output.getParent()).toFile();
-            parent.mkdirs();
-        }
-        Files.write(output.toPath(), contents);
-
-        return output;
-    }
-
-    private boolean filesEqual(File file1, File file2) throws IOException {
-        return file1.exists() && file2.exists() && Arrays.equals(Files.readAllBytes(file1.toPath()), Files.readAllBytes(file2.toPath()));
-    }
 }
@@ -34,6 +34,7 @@ import org.openapitools.codegen.*;
 import org.openapitools.codegen.api.TemplateDefinition;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.auth.AuthParser;
+import org.openapitools.codegen.metrics.Measurement;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +74,7 @@ public class CodegenConfigurator {
     private Map<String, String> reservedWordMappings = new HashMap<>();
     private Map<String, String> serverVariables = new HashMap<>();
     private String auth;
+    private ParsedSpecCache parsedSpecCache;
 
     private List<TemplateDefinition> userDefinedTemplates = new ArrayList<>();
 
@@ -208,6 +210,38 @@ public class CodegenConfigurator {
         return this;
     }
 
+    /**
+     * Sets the number of threads used to render model and api files. Values greater than 1 enable parallel rendering.
+     *
+     * @param renderThreads the number of render threads
+     * @return this configurator
+     */
+    public CodegenConfigurator setRenderThreads(int renderThreads) {
+        return addGlobalProperty(CodegenConstants.RENDER_THREADS, String.valueOf(renderThreads));
+    }
+
+    /**
+     * Enables incremental generation, which skips rendering model and api files whose inputs are unchanged since the
+     * previous run into the same output directory.
+     *
+     * @param incremental true to enable incremental generation
+     * @return this configurator
+     */
+    public CodegenConfigurator setIncremental(boolean incremental) {
+        return addGlobalProperty(CodegenConstants.INCREMENTAL, String.valueOf(incremental));
+    }
+
+    /**
+     * Enables recording of wall time, CPU time and allocations per generation phase, generator hook and template,
+     * written to {@code .openapi-generator/METRICS.json}.
+     *
+     * @param generationMetrics true to record generation metrics
+     * @return this configurator
+     */
+    public CodegenConfigurator setGenerationMetrics(boolean generationMetrics) {
+        return addGlobalProperty(CodegenConstants.GENERATION_METRICS, String.valueOf(generationMetrics));
+    }
+
     public CodegenConfigurator addTypeMapping(String key, String value) {
         this.typeMappings.put(key, value);
         generatorSettingsBuilder.withTypeMappings(this.typeMappings);
@@ -493,6 +527,18 @@ public class CodegenConfigurator {
         return this;
     }
 
+    /**
+     * Shares parsed specs with other configurators using the same cache, so an input spec used by several of them is
+     * parsed only once.
+     *
+     * @param parsedSpecCache The cache of parsed specs, or null to always parse the input spec
+     * @return this configurator
+     */
+    public CodegenConfigurator setParsedSpecCache(ParsedSpecCache parsedSpecCache) {
+        this.parsedSpecCache = parsedSpecCache;
+        return this;
+    }
+
     @SuppressWarnings("WeakerAccess")
     public Context<?> toContext() {
         Validate.notEmpty(generatorName, "generator name must be specified");
@@ -538,7 +584,12 @@ public class CodegenConfigurator {
         final List<AuthorizationValue> authorizationValues = AuthParser.parse(this.auth);
         ParseOptions options = new ParseOptions();
         options.setResolve(true);
-        SwaggerParseResult result = new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+        SwaggerParseResult result;
+        if (parsedSpecCache == null) {
+            result = new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+        } else {
+            result = parsedSpecCache.read(inputSpec, auth, () -> new OpenAPIParser().readLocation(inputSpec, authorizationValues, options));
+        }
 
         // TODO: Move custom validations to a separate type as part of a "Workflow"
         Set<String> validationMessages = new HashSet<>(null != result.getMessages() ? result.getMessages() : new ArrayList<>());
@@ -596,7 +647,9 @@ public class CodegenConfigurator {
     }
 
     public ClientOptInput toClientOptInput() {
+        Measurement.Probe parseProbe = Measurement.start();
         Context<?> context = toContext();
+        Measurement parseMeasurement = parseProbe.stop();
         WorkflowSettings workflowSettings = context.getWorkflowSettings();
         GeneratorSettings generatorSettings = context.getGeneratorSettings();
 
@@ -646,7 +699,8 @@ public class CodegenConfigurator {
 
         ClientOptInput input = new ClientOptInput()
                 .config(config)
-                .userDefinedTemplates(userDefinedTemplates);
+                .userDefinedTemplates(userDefinedTemplates)
+                .parseMeasurement(parseMeasurement);
 
         return input.openAPI((OpenAPI)context.getSpecDocument());
     }
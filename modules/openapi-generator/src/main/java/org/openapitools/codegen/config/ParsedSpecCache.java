@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.OpenAPIDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Parses each input spec once and hands out independent copies of the result, so several generators can run from the
+ * same spec (e.g. in batch mode) without parsing it again.
+ * <p>
+ * Generators modify the document they are given, so every caller, including the first, receives a copy deserialized
+ * from a JSON snapshot by the parser's own deserializer, without reading the spec or resolving its references again.
+ * Handing the first caller the parsed document itself would let its output differ from the others, as the snapshot
+ * leaves out state which isn't serialized (e.g. whether an example was set explicitly). Specs whose snapshot doesn't
+ * deserialize to an identical document (e.g. Swagger 2.0 specs, where the converter leaves out defaults the
+ * deserializer fills in) are parsed again for every caller.
+ */
+public class ParsedSpecCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParsedSpecCache.class);
+
+    private final Map<String, CompletableFuture<Snapshot>> snapshots = new ConcurrentHashMap<>();
+    private final AtomicInteger parses = new AtomicInteger();
+    private final AtomicInteger copies = new AtomicInteger();
+
+    /**
+     * Returns the parse result for an input spec, parsing it on first use. Concurrent callers asking for a spec which
+     * is being parsed wait for that parse instead of starting their own.
+     *
+     * @param inputSpec The location of the spec
+     * @param auth      The authorization used to read the spec, part of the cache key
+     * @param parser    Parses the spec
+     * @return A parse result which the caller may modify
+     */
+    public SwaggerParseResult read(String inputSpec, String auth, Supplier<SwaggerParseResult> parser) {
+        String key = (auth == null ? "" : auth) + "\n" + inputSpec;
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = snapshots.putIfAbsent(key, created);
+        if (existing == null) {
+            parses.incrementAndGet();
+            try {
+                SwaggerParseResult result = parser.get();
+                Snapshot snapshot = new Snapshot(inputSpec, result);
+                created.complete(snapshot);
+                return snapshot.isShareable() ? snapshot.copy() : result;
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Snapshot snapshot;
+        try {
+            snapshot = existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        if (!snapshot.isShareable()) {
+            parses.incrementAndGet();
+            return parser.get();
+        }
+        copies.incrementAndGet();
+        return snapshot.copy();
+    }
+
+    /**
+     * @return The number of times a spec was parsed
+     */
+    public int getParseCount() {
+        return parses.get();
+    }
+
+    /**
+     * @return The number of parse results handed out as a copy of an earlier parse
+     */
+    public int getCopyCount() {
+        return copies.get();
+    }
+
+    private static final class Snapshot {
+        private final String inputSpec;
+        private final List<String> messages;
+        private final String json;
+        private final boolean shareable;
+
+        Snapshot(String inputSpec, SwaggerParseResult result) {
+            this.inputSpec = inputSpec;
+            this.messages = result.getMessages() == null ? null : new ArrayList<>(result.getMessages());
+            this.json = serialize(result.getOpenAPI());
+            this.shareable = result.getOpenAPI() == null || (json != null && json.equals(serialize(deserialize())));
+            if (!shareable) {
+                LOGGER.info("The parsed spec {} can't be copied faithfully, it will be parsed for every generator.", inputSpec);
+            }
+        }
+
+        boolean isShareable() {
+            return shareable;
+        }
+
+        SwaggerParseResult copy() {
+            SwaggerParseResult copy = new SwaggerParseResult();
+            if (messages != null) {
+                copy.setMessages(new ArrayList<>(messages));
+            }
+            copy.setOpenAPI(deserialize());
+            return copy;
+        }
+
+        private OpenAPI deserialize() {
+            if (json == null) {
+                return null;
+            }
+            try {
+                JsonNode tree = Json.mapper().readTree(json);
+                return new OpenAPIDeserializer().deserialize(tree, inputSpec, new ParseOptions()).getOpenAPI();
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not copy the parsed spec " + inputSpec, e);
+            }
+        }
+
+        private static String serialize(OpenAPI openAPI) {
+            if (openAPI == null) {
+                return null;
+            }
+            try {
+                return Json.mapper().writeValueAsString(openAPI);
+            } catch (JsonProcessingException e) {
+                LOGGER.warn("Could not serialize the parsed spec: {}", e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationMap;
 import org.openapitools.codegen.model.OperationsMap;
 import org.openapitools.codegen.templating.mustache.*;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -1431,33 +1432,12 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen implements Co
     }
 
     @Override
-    public void postProcessFile(File file, String fileType) {
-        if (file == null) {
-            return;
-        }
-
-        String csharpPostProcessFile = System.getenv("CSHARP_POST_PROCESS_FILE");
-        if (StringUtils.isEmpty(csharpPostProcessFile)) {
-            return; // skip if CSHARP_POST_PROCESS_FILE env variable is not defined
-        }
-
+    public PostProcessCommand getPostProcessCommand(File file, String fileType) {
         // only process files with .cs extension
         if ("cs".equals(FilenameUtils.getExtension(file.toString()))) {
-            String command = csharpPostProcessFile + " " + file;
-            try {
-                Process p = Runtime.getRuntime().exec(command);
-                int exitValue = p.waitFor();
-                if (exitValue != 0) {
-                    LOGGER.error("Error running the command ({}). Exit code: {}", command, exitValue);
-                } else {
-                    LOGGER.info("Successfully executed: {}", command);
-                }
-            } catch (InterruptedException | IOException e) {
-                LOGGER.error("Error running the command ({}). Exception: {}", command, e.getMessage());
-                // Restore interrupted state
-                Thread.currentThread().interrupt();
-            }
+            return PostProcessCommand.fromEnvironment("CSHARP_POST_PROCESS_FILE");
         }
+        return null;
     }
 
     @Override
@@ -26,12 +26,12 @@ import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.*;
 
 import static org.openapitools.codegen.utils.StringUtils.camelize;
@@ -801,16 +801,7 @@ public abstract class AbstractGoCodegen extends DefaultCodegen implements Codege
     }
 
     @Override
-    public void postProcessFile(File file, String fileType) {
-        if (file == null) {
-            return;
-        }
-
-        String goPostProcessFile = System.getenv("GO_POST_PROCESS_FILE");
-        if (StringUtils.isEmpty(goPostProcessFile)) {
-            return; // skip if GO_POST_PROCESS_FILE env variable is not defined
-        }
-
+    public PostProcessCommand getPostProcessCommand(File file, String fileType) {
         // only process the following type (or we can simply rely on the file extension to check if it's a Go file)
         Set<String> supportedFileType = new HashSet<>(
                 Arrays.asList(
@@ -820,28 +811,16 @@ public abstract class AbstractGoCodegen extends DefaultCodegen implements Codege
                         "api-test",
                         "api"));
         if (!supportedFileType.contains(fileType)) {
-            return;
+            return null;
         }
 
         // only process files with go extension
         if ("go".equals(FilenameUtils.getExtension(file.toString()))) {
             // e.g. "gofmt -w yourcode.go"
             // e.g. "go fmt path/to/your/package"
-            String command = goPostProcessFile + " " + file;
-            try {
-                Process p = Runtime.getRuntime().exec(command);
-                int exitValue = p.waitFor();
-                if (exitValue != 0) {
-                    LOGGER.error("Error running the command ({}). Exit code: {}", command, exitValue);
-                } else {
-                    LOGGER.info("Successfully executed: {}", command);
-                }
-            } catch (InterruptedException | IOException e) {
-                LOGGER.error("Error running the command ({}). Exception: {}", command, e.getMessage());
-                // Restore interrupted state
-                Thread.currentThread().interrupt();
-            }
+            return PostProcessCommand.fromEnvironment("GO_POST_PROCESS_FILE");
         }
+        return null;
     }
 
     protected boolean isNumberType(String datatype) {
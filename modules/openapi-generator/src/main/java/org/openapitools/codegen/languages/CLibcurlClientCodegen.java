@@ -24,12 +24,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.*;
 import org.openapitools.codegen.meta.features.*;
 import org.openapitools.codegen.model.ModelsMap;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.*;
 
 import static org.openapitools.codegen.utils.StringUtils.camelize;
@@ -865,16 +865,7 @@ public class CLibcurlClientCodegen extends DefaultCodegen implements CodegenConf
 
 
     @Override
-    public void postProcessFile(File file, String fileType) {
-        if (file == null) {
-            return;
-        }
-
-        String cPostProcessFile = System.getenv("C_POST_PROCESS_FILE");
-        if (StringUtils.isEmpty(cPostProcessFile)) {
-            return; // skip if C_POST_PROCESS_FILE env variable is not defined
-        }
-
+    public PostProcessCommand getPostProcessCommand(File file, String fileType) {
         // only process the following type (or we can simply rely on the file extension to check if it's a .c or .h file)
         Set<String> supportedFileType = new HashSet<>(
                 Arrays.asList(
@@ -884,27 +875,15 @@ public class CLibcurlClientCodegen extends DefaultCodegen implements CodegenConf
                         "api-test",
                         "api"));
         if (!supportedFileType.contains(fileType)) {
-            return;
+            return null;
         }
 
         // only process files with .c or .h extension
         if ("c".equals(FilenameUtils.getExtension(file.toString())) ||
                 "h".equals(FilenameUtils.getExtension(file.toString()))) {
-            String command = cPostProcessFile + " " + file;
-            try {
-                Process p = Runtime.getRuntime().exec(command);
-                int exitValue = p.waitFor();
-                if (exitValue != 0) {
-                    LOGGER.error("Error running the command ({}). Exit code: {}", command, exitValue);
-                } else {
-                    LOGGER.info("Successfully executed: {}", command);
-                }
-            } catch (InterruptedException | IOException e) {
-                LOGGER.error("Error running the command ({}). Exception: {}", command, e.getMessage());
-                // Restore interrupted state
-                Thread.currentThread().interrupt();
-            }
+            return PostProcessCommand.fromEnvironment("C_POST_PROCESS_FILE");
         }
+        return null;
     }
 
     @Override
@@ -239,6 +239,12 @@ public class JavaClientCodegen extends AbstractJavaCodegen
         return "java";
     }
 
+    @Override
+    protected boolean supportsCompactModels() {
+        // verified for this generator only, subclasses may change the properties of models themselves
+        return getClass() == JavaClientCodegen.class;
+    }
+
     @Override
     public String getHelp() {
         return "Generates a Java client library (HTTP lib: Jersey (1.x, 2.x), Retrofit (2.x), OpenFeign (10.x) and more.";
@@ -25,8 +25,9 @@ import org.openapitools.codegen.serializer.SerializerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.util.EnumSet;
 
 public class OpenAPIGenerator extends DefaultCodegen implements CodegenConfig {
@@ -84,11 +85,12 @@ public class OpenAPIGenerator extends DefaultCodegen implements CodegenConfig {
 
     @Override
     public void processOpenAPI(OpenAPI openAPI) {
-        String jsonOpenAPI = SerializerUtils.toJsonString(openAPI);
-
         try {
             String outputFile = outputFolder + File.separator + outputFileName;
-            FileUtils.writeStringToFile(new File(outputFile), jsonOpenAPI, StandardCharsets.UTF_8);
+            // streamed, as the serialized spec can be several times the size of the input
+            try (OutputStream out = new BufferedOutputStream(FileUtils.openOutputStream(new File(outputFile)))) {
+                SerializerUtils.writeJson(openAPI, out);
+            }
             LOGGER.info("wrote file to {}", outputFile);
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
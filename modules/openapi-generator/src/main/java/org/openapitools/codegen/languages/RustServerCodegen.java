@@ -38,13 +38,13 @@ import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.openapitools.codegen.utils.URLPathUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
 import java.net.URL;
 import java.util.*;
 import java.util.Map.Entry;
@@ -326,6 +326,12 @@ public class RustServerCodegen extends DefaultCodegen implements CodegenConfig {
         return "rust-server";
     }
 
+    @Override
+    protected boolean supportsCompactModels() {
+        // verified for this generator only, subclasses may change the properties of models themselves
+        return getClass() == RustServerCodegen.class;
+    }
+
     /**
      * Returns human-friendly help for the generator.  Provide the consumer with help
      * tips, parameters here
@@ -1654,32 +1660,13 @@ public class RustServerCodegen extends DefaultCodegen implements CodegenConfig {
     }
 
     @Override
-    public void postProcessFile(File file, String fileType) {
-        if (file == null) {
-            return;
-        }
-
-        String commandPrefix = System.getenv("RUST_POST_PROCESS_FILE");
-        if (StringUtils.isEmpty(commandPrefix)) {
-            commandPrefix = "rustfmt";
-        }
-
+    public PostProcessCommand getPostProcessCommand(File file, String fileType) {
         // only process files with .rs extension
         if ("rs".equals(FilenameUtils.getExtension(file.toString()))) {
-            try {
-                Process p = Runtime.getRuntime().exec(new String[]{commandPrefix, file.toString()});
-                int exitValue = p.waitFor();
-                if (exitValue != 0) {
-                    LOGGER.error("Error running the command ({} {}). Exit code: {}", commandPrefix, file, exitValue);
-                } else {
-                    LOGGER.info("Successfully executed: {} {}", commandPrefix, file);
-                }
-            } catch (InterruptedException | IOException e) {
-                LOGGER.error("Error running the command ({} ()). Exception: {}", commandPrefix, file, e.getMessage());
-                // Restore interrupted state
-                Thread.currentThread().interrupt();
-            }
+            PostProcessCommand command = PostProcessCommand.fromEnvironment("RUST_POST_PROCESS_FILE");
+            return command != null ? command : PostProcessCommand.of("rustfmt");
         }
+        return null;
     }
 
     @Override
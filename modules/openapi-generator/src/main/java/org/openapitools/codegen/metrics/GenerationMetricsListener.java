@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.metrics;
+
+import org.openapitools.codegen.CodegenConfig;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Receives the cost of the work performed by {@link org.openapitools.codegen.DefaultGenerator#generate()}.
+ * <p>
+ * Measurements are inclusive, e.g. the {@link Category#PHASE} "processModels" contains the {@link Category#HOOK}
+ * "postProcessModels". Templates rendered in parallel (see {@link org.openapitools.codegen.CodegenConstants#RENDER_THREADS})
+ * are reported from the rendering threads, so implementations must be thread-safe.
+ */
+public interface GenerationMetricsListener {
+    /**
+     * The kind of work measured.
+     */
+    enum Category {
+        /** A step of the generation workflow, e.g. parsing the spec or rendering models. */
+        PHASE,
+        /** A call into the generator, e.g. {@link CodegenConfig#postProcessModels} or {@link CodegenConfig#postProcessFile}. */
+        HOOK,
+        /** Rendering a single template to a file. */
+        TEMPLATE
+    }
+
+    /**
+     * Called whenever a unit of work completes. Work with the same category and name (e.g. a hook called once per
+     * model) is reported once per call.
+     *
+     * @param category    The kind of work
+     * @param name        The name of the phase, hook or template
+     * @param measurement The cost of the work
+     */
+    void onMeasurement(Category category, String name, Measurement measurement);
+
+    /**
+     * Called once generation has completed, before generator metadata is finalized.
+     *
+     * @param config The generator which ran
+     * @param files  The files generated
+     */
+    default void onGenerationComplete(CodegenConfig config, List<File> files) {
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenPropertyCache;
+import org.openapitools.codegen.DefaultCodegen;
+import org.openapitools.codegen.utils.ImplementationVersion;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default {@link GenerationMetricsListener}, which aggregates measurements per phase, hook and template and
+ * renders them as a JSON report. {@link org.openapitools.codegen.DefaultGenerator} writes this report to
+ * {@code .openapi-generator/METRICS.json} when {@link org.openapitools.codegen.CodegenConstants#GENERATION_METRICS}
+ * is enabled.
+ * <p>
+ * Phases are reported in the order they started; hooks and templates are ordered by total wall time, most expensive
+ * first.
+ */
+public class JsonMetricsReport implements GenerationMetricsListener {
+    public static final String FILENAME = "METRICS.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<Category, ConcurrentMap<String, Stats>> stats = new EnumMap<>(Category.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile String generatorName;
+    private volatile int fileCount = -1;
+    private volatile Map<String, Object> propertyCache;
+
+    public JsonMetricsReport() {
+        for (Category category : Category.values()) {
+            stats.put(category, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void onMeasurement(Category category, String name, Measurement measurement) {
+        stats.get(category)
+                .computeIfAbsent(name, n -> new Stats(n, sequence.getAndIncrement()))
+                .add(measurement);
+    }
+
+    @Override
+    public void onGenerationComplete(CodegenConfig config, List<File> files) {
+        this.generatorName = config.getName();
+        this.fileCount = files.size();
+        if (config instanceof DefaultCodegen) {
+            CodegenPropertyCache cache = ((DefaultCodegen) config).getCodegenPropertyCache();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("size", cache.size());
+            map.put("hits", cache.getHits());
+            map.put("misses", cache.getMisses());
+            this.propertyCache = map;
+        }
+    }
+
+    /**
+     * @return the report as JSON
+     */
+    public String toJson() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generator", generatorName);
+        report.put("generatorVersion", ImplementationVersion.read());
+        if (fileCount >= 0) {
+            report.put("files", fileCount);
+        }
+        report.put("phases", toList(Category.PHASE, Comparator.comparingLong(s -> s.sequence)));
+        report.put("hooks", toList(Category.HOOK, Comparator.comparingLong((Stats s) -> s.wallNanos).reversed()));
+        report.put("templates", toList(Category.TEMPLATE, Comparator.comparingLong((Stats s) -> s.wallNanos).reversed()));
+        if (propertyCache != null) {
+            report.put("propertyCache", propertyCache);
+        }
+        try {
+            return MAPPER.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialize generation metrics", e);
+        }
+    }
+
+    private List<Map<String, Object>> toList(Category category, Comparator<Stats> order) {
+        List<Stats> sorted = new ArrayList<>(stats.get(category).values());
+        sorted.sort(order);
+        List<Map<String, Object>> result = new ArrayList<>(sorted.size());
+        for (Stats s : sorted) {
+            result.add(s.toMap());
+        }
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static final class Stats {
+        private final String name;
+        private final long sequence;
+        private long calls;
+        private long wallNanos;
+        private long maxWallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        Stats(String name, long sequence) {
+            this.name = name;
+            this.sequence = sequence;
+        }
+
+        synchronized void add(Measurement measurement) {
+            calls++;
+            wallNanos += measurement.getWallNanos();
+            maxWallNanos = Math.max(maxWallNanos, measurement.getWallNanos());
+            // a single unsupported measurement makes the total meaningless
+            cpuNanos = cpuNanos < 0 || measurement.getCpuNanos() < 0 ? -1 : cpuNanos + measurement.getCpuNanos();
+            allocatedBytes = allocatedBytes < 0 || measurement.getAllocatedBytes() < 0 ? -1 : allocatedBytes + measurement.getAllocatedBytes();
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("calls", calls);
+            map.put("wallMillis", millis(wallNanos));
+            map.put("maxWallMillis", millis(maxWallNanos));
+            if (cpuNanos >= 0) {
+                map.put("cpuMillis", millis(cpuNanos));
+            }
+            if (allocatedBytes >= 0) {
+                map.put("allocatedBytes", allocatedBytes);
+            }
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d calls, %.2fms", name, calls, millis(wallNanos));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Locale;
+
+/**
+ * The cost of a unit of work: elapsed wall time, plus CPU time and allocated bytes of the thread which performed it.
+ * <p>
+ * CPU time and allocations are only reported when supported by the JVM, otherwise they are {@code -1}. Allocated bytes
+ * rely on the HotSpot extension of {@link ThreadMXBean}, which is looked up reflectively so other JVMs still work.
+ */
+public final class Measurement {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Measurement.class);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+    private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    public Measurement(long wallNanos, long cpuNanos, long allocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Starts measuring work performed by the current thread.
+     *
+     * @return a probe, which must be stopped on the same thread
+     */
+    public static Probe start() {
+        return new Probe();
+    }
+
+    /**
+     * @return the elapsed wall time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return the CPU time of the measuring thread in nanoseconds, or -1 if not supported
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * @return the bytes allocated by the measuring thread, or -1 if not supported
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "wall=%dns, cpu=%dns, allocated=%dB", wallNanos, cpuNanos, allocatedBytes);
+    }
+
+    private static boolean isCpuTimeSupported() {
+        try {
+            if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+            return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static Method allocatedBytesMethod() {
+        try {
+            Class<?> hotspotThreads = Class.forName("com.sun.management.ThreadMXBean");
+            if (!hotspotThreads.isInstance(THREADS)) {
+                return null;
+            }
+            Method isSupported = hotspotThreads.getMethod("isThreadAllocatedMemorySupported");
+            Method isEnabled = hotspotThreads.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!Boolean.TRUE.equals(isSupported.invoke(THREADS)) || !Boolean.TRUE.equals(isEnabled.invoke(THREADS))) {
+                return null;
+            }
+            return hotspotThreads.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Per-thread allocation tracking is not available: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static long currentCpuNanos() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (Long) ALLOCATED_BYTES.invoke(THREADS, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Measures work performed by a single thread between {@link Measurement#start()} and {@link #stop()}.
+     */
+    public static final class Probe {
+        private final long wallStart;
+        private final long cpuStart;
+        private final long allocatedStart;
+
+        private Probe() {
+            this.allocatedStart = currentAllocatedBytes();
+            this.cpuStart = currentCpuNanos();
+            this.wallStart = System.nanoTime();
+        }
+
+        /**
+         * @return the cost of the work performed since this probe was started
+         */
+        public Measurement stop() {
+            long wall = System.nanoTime() - wallStart;
+            long cpu = cpuStart < 0 ? -1 : currentCpuNanos() - cpuStart;
+            long allocated = allocatedStart < 0 ? -1 : currentAllocatedBytes() - allocatedStart;
+            return new Measurement(wall, cpu, allocated);
+        }
+    }
+}
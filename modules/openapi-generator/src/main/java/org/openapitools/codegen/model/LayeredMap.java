@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Template data whose own entries are layered over a shared, read-only map, such as the additional properties of a
+ * generator, which would otherwise be copied into the data of every generated file.
+ * <p>
+ * The map holds the entries of both layers, with own entries shadowing shared entries of the same key: lookups,
+ * iteration, {@link #size()}, {@link #equals(Object)} and copies all see the same entries, without the shared entries
+ * being copied into each map. Entries of the shared layer can't be modified or removed through the views of the map,
+ * but {@link #put(String, Object)} shadows them, and {@link #remove(Object)}, {@link #clear()} and
+ * {@link #replaceAll(BiFunction)} copy them into the own entries first.
+ */
+public class LayeredMap extends AbstractMap<String, Object> {
+    private final Map<String, Object> own = new HashMap<>();
+    private Map<String, Object> sharedLayer = Collections.emptyMap();
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    /**
+     * Layers this map over a shared map. Like {@link #putAll(Map)}, the entries of the shared map replace own entries
+     * with the same key, but the other entries are read from the shared map instead of being copied.
+     *
+     * @param shared the shared entries, which must not be modified afterwards
+     */
+    public void layerOver(Map<String, Object> shared) {
+        detachSharedLayer();
+        own.keySet().removeAll(shared.keySet());
+        this.sharedLayer = shared;
+    }
+
+    /**
+     * @return the shared entries this map is layered over
+     */
+    public Map<String, Object> getSharedLayer() {
+        return sharedLayer;
+    }
+
+    /**
+     * @return a read-only view of the entries of this map which aren't read from the shared layer
+     */
+    public Map<String, Object> getOwnEntries() {
+        return Collections.unmodifiableMap(own);
+    }
+
+    /**
+     * @return a new map of the shared entries and the own entries
+     */
+    public Map<String, Object> flatten() {
+        Map<String, Object> flat = new HashMap<>(sharedLayer);
+        flat.putAll(own);
+        return flat;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = own.get(key);
+        if (value == null && !own.containsKey(key)) {
+            return sharedLayer.get(key);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return own.containsKey(key) || sharedLayer.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (own.containsKey(key)) {
+            return own.put(key, value);
+        }
+        own.put(key, value);
+        return sharedLayer.get(key);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (sharedLayer.containsKey(key)) {
+            detachSharedLayer();
+        }
+        return own.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        own.clear();
+        sharedLayer = Collections.emptyMap();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        detachSharedLayer();
+        own.replaceAll(function);
+    }
+
+    @Override
+    public int size() {
+        int size = own.size();
+        for (String key : sharedLayer.keySet()) {
+            if (!own.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return own.isEmpty() && sharedLayer.isEmpty();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new Entries();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Copies the shared entries which aren't shadowed into the own entries, so they can be modified.
+     */
+    private void detachSharedLayer() {
+        sharedLayer.forEach(own::putIfAbsent);
+        sharedLayer = Collections.emptyMap();
+    }
+
+    private final class Entries extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return LayeredMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            return containsKey(key) && Objects.equals(get(key), entry.getValue());
+        }
+    }
+
+    /**
+     * Iterates the own entries, then the shared entries which aren't shadowed by an own entry.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private final Map<String, Object> shared = sharedLayer;
+        private final Iterator<Map.Entry<String, Object>> ownEntries = own.entrySet().iterator();
+        private final Iterator<Map.Entry<String, Object>> sharedEntries = shared.entrySet().iterator();
+        private Map.Entry<String, Object> nextShared;
+        private Map.Entry<String, Object> lastOwn;
+        private boolean lastShared;
+
+        @Override
+        public boolean hasNext() {
+            if (ownEntries.hasNext()) {
+                return true;
+            }
+            while (nextShared == null && sharedEntries.hasNext()) {
+                Map.Entry<String, Object> entry = sharedEntries.next();
+                if (!own.containsKey(entry.getKey())) {
+                    nextShared = new SimpleImmutableEntry<>(entry);
+                }
+            }
+            return nextShared != null;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (ownEntries.hasNext()) {
+                lastOwn = ownEntries.next();
+                lastShared = false;
+                return lastOwn;
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry = nextShared;
+            nextShared = null;
+            lastOwn = null;
+            lastShared = true;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastOwn == null && !lastShared) {
+                throw new IllegalStateException();
+            }
+            if (lastShared || shared.containsKey(lastOwn.getKey())) {
+                throw new UnsupportedOperationException("Entries of the shared layer can't be removed while iterating");
+            }
+            ownEntries.remove();
+            lastOwn = null;
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package org.openapitools.codegen.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.openapitools.codegen.CodegenOperation;
 
-public class OperationsMap extends HashMap<String, Object> {
+public class OperationsMap extends LayeredMap {
 
     public void setOperation(OperationMap objs) {
         put("operations", objs);
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.postprocess;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects generated files to post-process and runs each post-processing command once per chunk of files, rather than
+ * once per file.
+ * <p>
+ * Files are grouped by command and split into chunks of at most {@code batchSize} files whose command line stays
+ * below the length the operating system accepts. Chunks run concurrently on at most {@code threads} threads. Failed
+ * invocations are reported together, with the tail of their output, once all chunks have run.
+ */
+public class PostProcessBatch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostProcessBatch.class);
+
+    // post-processing scripts written for one file per invocation keep working unless batching is enabled explicitly
+    public static final int DEFAULT_BATCH_SIZE = 1;
+
+    // CreateProcess limits the whole command line to 32767 characters; elsewhere the limit is much higher, but a
+    // single argument list this long already amortizes the start-up cost of the command.
+    static final int MAX_COMMAND_LINE_LENGTH = SystemUtils.IS_OS_WINDOWS ? 30000 : 120000;
+
+    static final int OUTPUT_TAIL_LINES = 20;
+
+    // the environment of the commands started by a thread and the threads it starts, null for the environment of this JVM
+    private static final InheritableThreadLocal<Map<String, String>> ENVIRONMENT = new InheritableThreadLocal<>();
+
+    private final int threads;
+    private final int batchSize;
+    private final int maxCommandLineLength;
+    private final Map<PostProcessCommand, List<File>> files = new LinkedHashMap<>();
+
+    /**
+     * @param threads   the maximum number of commands running at the same time
+     * @param batchSize the maximum number of files passed to a single invocation of a command
+     */
+    public PostProcessBatch(int threads, int batchSize) {
+        this(threads, batchSize, MAX_COMMAND_LINE_LENGTH);
+    }
+
+    PostProcessBatch(int threads, int batchSize, int maxCommandLineLength) {
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxCommandLineLength = maxCommandLineLength;
+    }
+
+    /**
+     * Schedules a file to be post-processed. May be called from several threads.
+     *
+     * @param command the command to post-process the file with
+     * @param file    the file
+     */
+    public synchronized void add(PostProcessCommand command, File file) {
+        files.computeIfAbsent(command, c -> new ArrayList<>()).add(file);
+    }
+
+    /**
+     * @return the number of files scheduled to be post-processed
+     */
+    public synchronized int size() {
+        return files.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Runs the post-processing commands for all scheduled files, then logs a summary.
+     *
+     * @return the outcome of every invocation, in the order the files were scheduled
+     */
+    public List<Invocation> run() {
+        List<Callable<Invocation>> tasks = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<PostProcessCommand, List<File>> entry : files.entrySet()) {
+                for (List<File> chunk : chunk(entry.getKey(), entry.getValue())) {
+                    tasks.add(() -> execute(entry.getKey(), chunk));
+                }
+            }
+            files.clear();
+        }
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Invocation> invocations = new ArrayList<>(tasks.size());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), r -> {
+            Thread thread = new Thread(r, "openapi-generator-post-process-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Future<Invocation> result : executor.invokeAll(tasks)) {
+                invocations.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while post-processing files", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Could not post-process files", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logSummary(invocations);
+        return invocations;
+    }
+
+    List<List<File>> chunk(PostProcessCommand command, List<File> files) {
+        int commandLength = command.toString().length();
+        List<List<File>> chunks = new ArrayList<>();
+        List<File> chunk = new ArrayList<>();
+        int length = commandLength;
+        for (File file : files) {
+            int fileLength = file.toString().length() + 1;
+            if (!chunk.isEmpty() && (chunk.size() >= batchSize || length + fileLength > maxCommandLineLength)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                length = commandLength;
+            }
+            chunk.add(file);
+            length += fileLength;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static void logSummary(List<Invocation> invocations) {
+        int fileCount = 0;
+        List<Invocation> failures = new ArrayList<>();
+        for (Invocation invocation : invocations) {
+            fileCount += invocation.getFiles().size();
+            if (!invocation.isSuccessful()) {
+                failures.add(invocation);
+            }
+        }
+        LOGGER.info("Post-processed {} files with {} command invocations", fileCount, invocations.size());
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int failedFiles = 0;
+        for (Invocation failure : failures) {
+            failedFiles += failure.getFiles().size();
+            sb.append(System.lineSeparator()).append("  ").append(failure.describe());
+            for (String line : failure.getOutput()) {
+                sb.append(System.lineSeparator()).append("    ").append(line);
+            }
+        }
+        LOGGER.error("Post-processing failed for {} of {} files in {} of {} command invocations:{}",
+                failedFiles, fileCount, failures.size(), invocations.size(), sb);
+    }
+
+    /**
+     * Sets the environment of the commands started by the current thread, and by the threads it starts afterwards,
+     * e.g. the environment of the client a long-lived process generates files for.
+     *
+     * @param environment the environment variables of the commands, or null for the environment of this JVM
+     */
+    public static void setEnvironment(Map<String, String> environment) {
+        if (environment == null) {
+            ENVIRONMENT.remove();
+        } else {
+            ENVIRONMENT.set(Collections.unmodifiableMap(new LinkedHashMap<>(environment)));
+        }
+    }
+
+    /**
+     * Runs a command for a single file immediately and logs the outcome.
+     *
+     * @param command the command
+     * @param file    the file to post-process
+     */
+    public static void runNow(PostProcessCommand command, File file) {
+        Invocation invocation = execute(command, Collections.singletonList(file));
+        if (invocation.isSuccessful()) {
+            LOGGER.info("Successfully executed: {}", invocation.getCommandLine());
+        } else {
+            LOGGER.error("Error running the command ({}). {}{}", invocation.getCommandLine(), invocation.describeFailure(),
+                    invocation.getOutput().isEmpty() ? "" : ", Output: " + String.join(System.lineSeparator(), invocation.getOutput()));
+        }
+    }
+
+    static Invocation execute(PostProcessCommand command, List<File> files) {
+        List<String> commandLine = command.toCommandLine(files);
+        Deque<String> output = new ArrayDeque<>(OUTPUT_TAIL_LINES);
+        try {
+            ProcessBuilder builder = new ProcessBuilder(commandLine).redirectErrorStream(true);
+            Map<String, String> environment = ENVIRONMENT.get();
+            if (environment != null) {
+                builder.environment().clear();
+                builder.environment().putAll(environment);
+            }
+            Process process = builder.start();
+            process.getOutputStream().close();
+            // the output must be drained, or a chatty command blocks once the pipe is full
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (output.size() == OUTPUT_TAIL_LINES) {
+                        output.removeFirst();
+                    }
+                    output.addLast(line);
+                }
+            }
+            return new Invocation(command, files, process.waitFor(), new ArrayList<>(output), null);
+        } catch (IOException e) {
+            return new Invocation(command, files, -1, new ArrayList<>(output), e.getMessage());
+        } catch (InterruptedException e) {
+            // Restore interrupted state
+            Thread.currentThread().interrupt();
+            return new Invocation(command, files, -1, new ArrayList<>(output), "interrupted");
+        }
+    }
+
+    /**
+     * The outcome of running a command for a chunk of files.
+     */
+    public static final class Invocation {
+        private final PostProcessCommand command;
+        private final List<File> files;
+        private final int exitValue;
+        private final List<String> output;
+        private final String exception;
+
+        Invocation(PostProcessCommand command, List<File> files, int exitValue, List<String> output, String exception) {
+            this.command = command;
+            this.files = Collections.unmodifiableList(files);
+            this.exitValue = exitValue;
+            this.output = Collections.unmodifiableList(output);
+            this.exception = exception;
+        }
+
+        public PostProcessCommand getCommand() {
+            return command;
+        }
+
+        public List<File> getFiles() {
+            return files;
+        }
+
+        public int getExitValue() {
+            return exitValue;
+        }
+
+        /**
+         * @return the last lines of the combined standard and error output of the command
+         */
+        public List<String> getOutput() {
+            return output;
+        }
+
+        public boolean isSuccessful() {
+            return exception == null && exitValue == 0;
+        }
+
+        String getCommandLine() {
+            return String.join(" ", command.toCommandLine(files));
+        }
+
+        String describeFailure() {
+            return exception != null ? "Exception: " + exception : "Exit value: " + exitValue;
+        }
+
+        String describe() {
+            String target = files.size() == 1 ? files.get(0).toString() : files.size() + " files, starting with " + files.get(0);
+            return command + " (" + target + "): " + describeFailure();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.postprocess;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * An external command used to post-process generated files, e.g. a code formatter. The paths of the files to
+ * post-process are appended to the arguments of the command.
+ */
+public final class PostProcessCommand {
+    private final List<String> arguments;
+
+    private PostProcessCommand(List<String> arguments) {
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    /**
+     * @param arguments the executable followed by its arguments
+     * @return the command
+     */
+    public static PostProcessCommand of(String... arguments) {
+        if (arguments.length == 0) {
+            throw new IllegalArgumentException("A post-processing command requires an executable");
+        }
+        return new PostProcessCommand(new ArrayList<>(Arrays.asList(arguments)));
+    }
+
+    /**
+     * Splits a command line at whitespace, the way {@link Runtime#exec(String)} does.
+     *
+     * @param commandLine the command line, e.g. the value of a *_POST_PROCESS_FILE environment variable
+     * @return the command, or null if the command line is blank
+     */
+    public static PostProcessCommand parse(String commandLine) {
+        if (StringUtils.isBlank(commandLine)) {
+            return null;
+        }
+        List<String> arguments = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(commandLine);
+        while (tokenizer.hasMoreTokens()) {
+            arguments.add(tokenizer.nextToken());
+        }
+        return new PostProcessCommand(arguments);
+    }
+
+    /**
+     * @param variable the name of the environment variable holding the command line
+     * @return the command, or null if the environment variable isn't set or is blank
+     */
+    public static PostProcessCommand fromEnvironment(String variable) {
+        return parse(System.getenv(variable));
+    }
+
+    /**
+     * @param more arguments to add after the existing arguments
+     * @return a new command with the given arguments appended
+     */
+    public PostProcessCommand withArguments(String... more) {
+        List<String> combined = new ArrayList<>(arguments);
+        combined.addAll(Arrays.asList(more));
+        return new PostProcessCommand(combined);
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    List<String> toCommandLine(List<File> files) {
+        List<String> commandLine = new ArrayList<>(arguments.size() + files.size());
+        commandLine.addAll(arguments);
+        for (File file : files) {
+            commandLine.add(file.toString());
+        }
+        return commandLine;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return arguments.equals(((PostProcessCommand) o).arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return arguments.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", arguments);
+    }
+}
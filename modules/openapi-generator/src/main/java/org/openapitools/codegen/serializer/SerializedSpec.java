@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.serializer;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The spec serialized to JSON or YAML, as passed to templates in {@code openapi-json} and {@code openapi-yaml}.
+ * <p>
+ * The serialization is produced when the value is rendered rather than held in the template data: a template
+ * rendering <code>{{{openapi-yaml}}}</code> gets it from {@link #toString()}, and a template consisting of just that
+ * variable is streamed to the output file through {@link #writeTo(OutputStream)}. The string is computed once, on
+ * first use, as templates may render the variable several times.
+ */
+public final class SerializedSpec {
+    public enum Format {
+        JSON, YAML
+    }
+
+    private final OpenAPI openAPI;
+    private final Format format;
+    private volatile String serialized;
+
+    private SerializedSpec(OpenAPI openAPI, Format format) {
+        this.openAPI = openAPI;
+        this.format = format;
+    }
+
+    public static SerializedSpec json(OpenAPI openAPI) {
+        return new SerializedSpec(openAPI, Format.JSON);
+    }
+
+    public static SerializedSpec yaml(OpenAPI openAPI) {
+        return new SerializedSpec(openAPI, Format.YAML);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Serializes the spec to a stream.
+     *
+     * @param out the stream receiving the UTF-8 encoded serialization, which is left open
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (format == Format.JSON) {
+            SerializerUtils.writeJson(openAPI, out);
+        } else {
+            SerializerUtils.writeYaml(openAPI, out);
+        }
+    }
+
+    /**
+     * @return the serialized spec, or an empty string if it can't be serialized
+     */
+    @Override
+    public String toString() {
+        String result = serialized;
+        if (result == null) {
+            result = format == Format.JSON
+                    ? SerializerUtils.toJsonString(openAPI)
+                    : SerializerUtils.toYamlString(openAPI);
+            if (result == null) {
+                result = "";
+            }
+            serialized = result;
+        }
+        return result;
+    }
+}
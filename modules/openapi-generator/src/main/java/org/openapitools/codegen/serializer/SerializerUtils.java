@@ -3,6 +3,7 @@ package org.openapitools.codegen.serializer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
@@ -13,6 +14,10 @@ import org.openapitools.codegen.config.GlobalSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
 public class SerializerUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(SerializerUtils.class);
     private static final String YAML_MINIMIZE_QUOTES_PROPERTY = "org.openapitools.codegen.utils.yaml.minimize.quotes";
@@ -22,19 +27,8 @@ public class SerializerUtils {
         if (openAPI == null) {
             return null;
         }
-        SimpleModule module = createModule();
         try {
-            ObjectMapper yamlMapper = Yaml.mapper().copy();
-            // there is an unfortunate YAML condition where user inputs should be treated as strings (e.g. "1234_1234"), but in yaml this is a valid number and
-            // removing quotes forcibly by default means we are potentially doing a data conversion resulting in an unexpected change to the user's YAML outputs.
-            // We may allow for property-based enable/disable, retaining the default of enabled for backward compatibility.
-            if (minimizeYamlQuotes) {
-                ((YAMLFactory) yamlMapper.getFactory()).enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
-            } else {
-                ((YAMLFactory) yamlMapper.getFactory()).disable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
-            }
-            return yamlMapper.registerModule(module)
-                    .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            return yamlWriter()
                     .writeValueAsString(openAPI)
                     .replace("\r\n", "\n");
         } catch (JsonProcessingException e) {
@@ -43,18 +37,24 @@ public class SerializerUtils {
         return null;
     }
 
+    /**
+     * Writes the spec in YAML format, as {@link #toYamlString(OpenAPI)} returns it, without holding it in memory.
+     *
+     * @param openAPI the spec
+     * @param out     the stream receiving the UTF-8 encoded YAML, which is left open
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeYaml(OpenAPI openAPI, OutputStream out) throws IOException {
+        yamlWriter().writeValue(new UnixLineEndingsOutputStream(out), openAPI);
+    }
+
     public static String toJsonString(OpenAPI openAPI) {
         if (openAPI == null) {
             return null;
         }
 
-        SimpleModule module = createModule();
         try {
-            return Json.mapper()
-                    .copy()
-                    .registerModule(module)
-                    .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
-                    .writerWithDefaultPrettyPrinter()
+            return jsonWriter()
                     .writeValueAsString(openAPI)
                     .replace("\r\n", "\n");
         } catch (JsonProcessingException e) {
@@ -63,9 +63,93 @@ public class SerializerUtils {
         return null;
     }
 
+    /**
+     * Writes the spec in JSON format, as {@link #toJsonString(OpenAPI)} returns it, without holding it in memory.
+     *
+     * @param openAPI the spec
+     * @param out     the stream receiving the UTF-8 encoded JSON, which is left open
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeJson(OpenAPI openAPI, OutputStream out) throws IOException {
+        jsonWriter().writeValue(new UnixLineEndingsOutputStream(out), openAPI);
+    }
+
+    private static ObjectWriter yamlWriter() {
+        ObjectMapper yamlMapper = Yaml.mapper().copy();
+        // there is an unfortunate YAML condition where user inputs should be treated as strings (e.g. "1234_1234"), but in yaml this is a valid number and
+        // removing quotes forcibly by default means we are potentially doing a data conversion resulting in an unexpected change to the user's YAML outputs.
+        // We may allow for property-based enable/disable, retaining the default of enabled for backward compatibility.
+        if (minimizeYamlQuotes) {
+            ((YAMLFactory) yamlMapper.getFactory()).enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        } else {
+            ((YAMLFactory) yamlMapper.getFactory()).disable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        }
+        return yamlMapper.registerModule(createModule())
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .writer();
+    }
+
+    private static ObjectWriter jsonWriter() {
+        return Json.mapper()
+                .copy()
+                .registerModule(createModule())
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .writerWithDefaultPrettyPrinter();
+    }
+
     private static SimpleModule createModule() {
         SimpleModule module = new SimpleModule("OpenAPIModule");
         module.addSerializer(OpenAPI.class, new OpenAPISerializer());
         return module;
     }
+
+    /**
+     * Drops the carriage return of each CRLF line ending, as the string serializations do. Closing it leaves the
+     * underlying stream open.
+     */
+    private static final class UnixLineEndingsOutputStream extends FilterOutputStream {
+        private boolean pendingCarriageReturn;
+
+        UnixLineEndingsOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                if (b != '\n') {
+                    out.write('\r');
+                }
+            }
+            if (b == '\r') {
+                pendingCarriageReturn = true;
+            } else {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                if (b[i] == '\r' || pendingCarriageReturn) {
+                    out.write(b, start, i - start);
+                    write(b[i]);
+                    start = i + 1;
+                }
+            }
+            out.write(b, start, end - start);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                out.write('\r');
+            }
+            out.flush();
+        }
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.sink;
+
+import org.openapitools.codegen.api.GeneratedOutputSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares generated files against the contents of the file system, and passes on only the files which changed.
+ * <p>
+ * Without a delegate nothing is written, which allows reporting the files a generation would change (e.g. to verify
+ * checked-in generated code is up-to-date).
+ */
+public class DiffOnlyOutputSink implements GeneratedOutputSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiffOnlyOutputSink.class);
+
+    // files of at least this size are compared through a memory mapping rather than read onto the heap
+    static final int MAPPED_COMPARE_THRESHOLD = 64 * 1024;
+
+    // a file with a mapping open can't be replaced on Windows, and mappings are only released on garbage collection
+    private static final boolean MAPPING_SUPPORTED = File.separatorChar == '/';
+
+    private final GeneratedOutputSink delegate;
+    private final List<Path> changed = Collections.synchronizedList(new ArrayList<>());
+    private final List<Path> unchanged = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Creates a sink which only records the files which changed.
+     */
+    public DiffOnlyOutputSink() {
+        this(null);
+    }
+
+    /**
+     * @param delegate The sink receiving the files which changed, or null to only record them
+     */
+    public DiffOnlyOutputSink(GeneratedOutputSink delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(Path target, byte[] contents) throws IOException {
+        if (hasContents(target, contents)) {
+            LOGGER.info("skipping unchanged file {}", target);
+            unchanged.add(target);
+            return;
+        }
+        changed.add(target);
+        if (delegate != null) {
+            delegate.write(target, contents);
+        }
+    }
+
+    /**
+     * @return The files which are new or have different contents, in the order they were written
+     */
+    public List<Path> getChangedFiles() {
+        synchronized (changed) {
+            return new ArrayList<>(changed);
+        }
+    }
+
+    /**
+     * @return The files whose contents didn't change, in the order they were written
+     */
+    public List<Path> getUnchangedFiles() {
+        synchronized (unchanged) {
+            return new ArrayList<>(unchanged);
+        }
+    }
+
+    private static boolean hasContents(Path target, byte[] contents) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) != contents.length) {
+            return false;
+        }
+        if (contents.length < MAPPED_COMPARE_THRESHOLD || !MAPPING_SUPPORTED) {
+            return Arrays.equals(Files.readAllBytes(target), contents);
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, contents.length);
+            return existing.equals(ByteBuffer.wrap(contents));
+        }
+    }
+}
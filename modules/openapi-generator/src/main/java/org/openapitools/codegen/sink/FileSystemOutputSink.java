@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.sink;
+
+import org.openapitools.codegen.api.GeneratedOutputSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes generated files to the file system, creating parent directories as needed.
+ */
+public class FileSystemOutputSink implements GeneratedOutputSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemOutputSink.class);
+
+    private final boolean skipOverwrite;
+
+    public FileSystemOutputSink() {
+        this(false);
+    }
+
+    /**
+     * @param skipOverwrite Whether to keep files which already exist
+     */
+    public FileSystemOutputSink(boolean skipOverwrite) {
+        this.skipOverwrite = skipOverwrite;
+    }
+
+    @Override
+    public void write(Path target, byte[] contents) throws IOException {
+        if (prepare(target)) {
+            Files.write(target, contents);
+        }
+    }
+
+    @Override
+    public void write(Path target, Contents contents) throws IOException {
+        if (prepare(target)) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+                contents.writeTo(out);
+            }
+        }
+    }
+
+    private boolean prepare(Path target) throws IOException {
+        if (skipOverwrite && Files.exists(target)) {
+            LOGGER.info("skip overwrite of file {}", target);
+            return false;
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null && !Files.isDirectory(parent)) {
+            // createDirectories tolerates directories created concurrently by other render threads
+            Files.createDirectories(parent);
+        }
+        LOGGER.info("writing file {}", target);
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.sink;
+
+import org.openapitools.codegen.api.GeneratedOutputSink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects generated files in memory, keyed by their path relative to a base directory (using '/' as separator).
+ */
+public class InMemoryOutputSink implements GeneratedOutputSink {
+    private final Path baseDir;
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    /**
+     * @param baseDir The directory generated files are relative to, typically the output directory of the generator
+     */
+    public InMemoryOutputSink(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    public void write(Path target, byte[] contents) throws IOException {
+        String name = OutputSinks.relativeName(baseDir, target);
+        synchronized (files) {
+            files.put(name, contents);
+        }
+    }
+
+    /**
+     * @return The generated files, keyed by their relative path
+     */
+    public Map<String, byte[]> getFiles() {
+        synchronized (files) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(files));
+        }
+    }
+
+    /**
+     * @param name The path of a generated file relative to the base directory, e.g. src/main/java/Pet.java
+     * @return The contents of the file, or null if it wasn't generated
+     */
+    public byte[] getFile(String name) {
+        synchronized (files) {
+            return files.get(name);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.sink;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+final class OutputSinks {
+    private OutputSinks() {
+    }
+
+    /**
+     * Computes the name of a generated file relative to a base directory, using '/' as separator.
+     *
+     * @param baseDir The base directory
+     * @param target  The generated file
+     * @return The relative name
+     * @throws IOException If the file is not located below the base directory
+     */
+    static String relativeName(Path baseDir, Path target) throws IOException {
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path file = target.toAbsolutePath().normalize();
+        if (!file.startsWith(base) || file.equals(base)) {
+            throw new IOException("Generated file " + target + " is not located below " + baseDir);
+        }
+        return base.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.sink;
+
+import org.openapitools.codegen.api.GeneratedOutputSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams generated files into a zip archive as they are written, so neither the files nor the archive have to be
+ * held on disk or in memory.
+ * <p>
+ * Entries are named after the path of the generated file relative to a base directory. As entries can't be replaced
+ * once written, a file written more than once keeps its first contents.
+ */
+public class ZipOutputSink implements GeneratedOutputSink, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipOutputSink.class);
+
+    private final Path baseDir;
+    private final ZipOutputStream zip;
+    private final Set<String> entries = new HashSet<>();
+
+    /**
+     * @param out     The stream receiving the archive. It is not closed by this sink.
+     * @param baseDir The directory entry names are relative to. Use the parent of the output directory of the
+     *                generator to have all entries in a top level folder.
+     */
+    public ZipOutputSink(OutputStream out, Path baseDir) {
+        this.baseDir = baseDir;
+        this.zip = new ZipOutputStream(out);
+    }
+
+    @Override
+    public synchronized void write(Path target, byte[] contents) throws IOException {
+        if (putNextEntry(target)) {
+            zip.write(contents);
+            zip.closeEntry();
+        }
+    }
+
+    @Override
+    public synchronized void write(Path target, Contents contents) throws IOException {
+        if (putNextEntry(target)) {
+            contents.writeTo(new FilterOutputStream(zip) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    // the entry is closed by the sink
+                }
+            });
+            zip.closeEntry();
+        }
+    }
+
+    private boolean putNextEntry(Path target) throws IOException {
+        String name = OutputSinks.relativeName(baseDir, target);
+        if (!entries.add(name)) {
+            LOGGER.warn("{} was already written to the archive, ignoring its new contents", name);
+            return false;
+        }
+        zip.putNextEntry(new ZipEntry(name));
+        return true;
+    }
+
+    /**
+     * @return The number of entries written to the archive
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finishes the archive, leaving the underlying stream open.
+     *
+     * @throws IOException If the archive cannot be finished
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        zip.finish();
+        zip.flush();
+    }
+}
@@ -5,13 +5,15 @@ import org.openapitools.codegen.TemplateManager;
 import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
-import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Locates generator-agnostic templates from a common built-in location.
  */
 public class CommonTemplateContentLocator implements TemplatePathLocator {
     private String resourceLocation = "_common";
+    private final Map<String, Boolean> classpathTemplates = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new instance of {@link CommonTemplateContentLocator} defaulting to _common resource location.
@@ -40,8 +42,9 @@ public class CommonTemplateContentLocator implements TemplatePathLocator {
         if (StringUtils.isNotEmpty(relativeTemplateFile)) {
             String loc = this.resourceLocation + File.separator + relativeTemplateFile;
 
-            URL url = this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(loc));
-            if (url != null) {
+            boolean exists = classpathTemplates.computeIfAbsent(loc,
+                    l -> this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(l)) != null);
+            if (exists) {
                 return loc;
             }
         }
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating;
+
+import com.google.common.hash.Hashing;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe cache of compiled templates, keyed by the resolved template path and a hash of the template contents.
+ * <p>
+ * Template engines load partials lazily, so a compiled template may pull in further template files after it has been
+ * cached. Partials must be read through {@link Source#readPartial(String)} so they are recorded against the cached
+ * entry; an entry is only handed to a different {@link TemplatingExecutor} once every recorded partial resolves to the
+ * same path and contents there.
+ *
+ * @param <T> The compiled template type of the underlying engine
+ */
+public class CompiledTemplateCache<T> {
+    /**
+     * Set the scope of the compiled template cache: {@code none}, {@code run} (default) or {@code jvm}.
+     */
+    public static final String SCOPE_PROPERTY = "org.openapitools.codegen.templating.cache.scope";
+
+    /**
+     * Describes how long compiled templates are kept around.
+     */
+    public enum Scope {
+        /** Templates are compiled for every file. */
+        NONE,
+        /** Templates are cached by the templating engine adapter of a single generator run. */
+        RUN,
+        /** Templates are cached once per JVM and shared by all generator runs. */
+        JVM;
+
+        /**
+         * Reads the configured scope from {@link #SCOPE_PROPERTY}.
+         *
+         * @return The configured scope, or {@link #RUN} if not set
+         */
+        public static Scope current() {
+            String value = GlobalSettings.getProperty(SCOPE_PROPERTY);
+            if (value == null || value.trim().isEmpty()) {
+                return RUN;
+            }
+            return Scope.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Performs the actual compilation of a template.
+     *
+     * @param <T> The compiled template type of the underlying engine
+     */
+    @FunctionalInterface
+    public interface Compilation<T> {
+        T compile(Source source) throws IOException;
+    }
+
+    /**
+     * Renders a compiled template.
+     *
+     * @param <R> The render result
+     */
+    @FunctionalInterface
+    public interface Rendering<R> {
+        R render() throws IOException;
+    }
+
+    private static final ThreadLocal<TemplatingExecutor> CURRENT_EXECUTOR = new ThreadLocal<>();
+    private static final ThreadLocal<Object> CURRENT_RENDERING = new ThreadLocal<>();
+    private static final ThreadLocal<List<Map<String, String>>> PARTIAL_RECORDER = new ThreadLocal<>();
+
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the compiled template for {@code templateFile}, compiling it on a cache miss.
+     *
+     * @param executor     From where we can fetch the templates content
+     * @param templateFile The name of the template (e.g. model.mustache)
+     * @param variant      Engine settings which affect compilation (e.g. compiler options), part of the cache key
+     * @param compilation  Compiles the template from its {@link Source}
+     * @return The compiled template
+     * @throws IOException an error occurred compiling the template
+     */
+    public T get(TemplatingExecutor executor, String templateFile, String variant, Compilation<T> compilation) throws IOException {
+        String contents = executor.getFullTemplateContents(templateFile);
+        String key = variant + '\0' + executor.getFullTemplatePath(templateFile) + '\0' + hash(contents);
+
+        Entry<T> entry = entries.get(key);
+        if (entry != null && entry.isValidFor(executor)) {
+            hits.incrementAndGet();
+            track(entry);
+            return entry.template;
+        }
+
+        misses.incrementAndGet();
+        Entry<T> compiled = new Entry<>(executor);
+        track(compiled);
+        compiled.template = render(executor, () -> compilation.compile(new Source(contents, compiled)));
+        entries.put(key, compiled);
+        return compiled.template;
+    }
+
+    /**
+     * Renders a compiled template, making {@code executor} available to partials loaded lazily during rendering.
+     *
+     * @param executor  The executor the template is rendered for
+     * @param rendering Renders the template
+     * @param <R>       The render result
+     * @return The result of {@code rendering}
+     * @throws IOException an error occurred rendering the template
+     */
+    public static <R> R render(TemplatingExecutor executor, Rendering<R> rendering) throws IOException {
+        TemplatingExecutor previous = CURRENT_EXECUTOR.get();
+        boolean outermost = CURRENT_RENDERING.get() == null;
+        CURRENT_EXECUTOR.set(executor);
+        if (outermost) {
+            CURRENT_RENDERING.set(new Object());
+        }
+        try {
+            return rendering.render();
+        } finally {
+            if (outermost) {
+                CURRENT_RENDERING.remove();
+            }
+            if (previous == null) {
+                CURRENT_EXECUTOR.remove();
+            } else {
+                CURRENT_EXECUTOR.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Identifies the template rendering in progress on the current thread, so template helpers can keep state for the
+     * duration of a single rendering. Partials compiled while rendering belong to the same rendering.
+     *
+     * @return A token unique to the current rendering, or null if no template is being rendered
+     */
+    public static Object currentRendering() {
+        return CURRENT_RENDERING.get();
+    }
+
+    /**
+     * Compiles a template without caching, using the same {@link Source} contract as cached compilation.
+     *
+     * @param executor     From where we can fetch the templates content
+     * @param templateFile The name of the template (e.g. model.mustache)
+     * @param compilation  Compiles the template from its {@link Source}
+     * @param <T>          The compiled template type of the underlying engine
+     * @return The compiled template
+     * @throws IOException an error occurred compiling the template
+     */
+    public static <T> T compileUncached(TemplatingExecutor executor, String templateFile, Compilation<T> compilation) throws IOException {
+        Entry<T> entry = new Entry<>(executor);
+        track(entry);
+        Source source = new Source(executor.getFullTemplateContents(templateFile), entry);
+        return render(executor, () -> compilation.compile(source));
+    }
+
+    /**
+     * Collects the partials read by the templates compiled or fetched from a cache on the current thread while
+     * {@code rendering} runs. Partials recorded against a cached template when it was first rendered are included, so
+     * the result doesn't depend on whether the template was compiled for this rendering.
+     *
+     * @param partials  Receives the template name of each partial, mapped to its {@link #fingerprint(TemplatingExecutor, String) fingerprint}
+     * @param rendering Renders one or more templates
+     * @param <R>       The render result
+     * @return The result of {@code rendering}
+     * @throws IOException an error occurred rendering the template
+     */
+    public static <R> R recordPartials(Map<String, String> partials, Rendering<R> rendering) throws IOException {
+        List<Map<String, String>> outer = PARTIAL_RECORDER.get();
+        List<Map<String, String>> recorded = new ArrayList<>();
+        PARTIAL_RECORDER.set(recorded);
+        try {
+            return rendering.render();
+        } finally {
+            if (outer == null) {
+                PARTIAL_RECORDER.remove();
+            } else {
+                PARTIAL_RECORDER.set(outer);
+                outer.addAll(recorded);
+            }
+            // partials are loaded lazily, so the dependencies are only complete once rendering has finished
+            recorded.forEach(partials::putAll);
+        }
+    }
+
+    /**
+     * Identifies a template by its resolved path and a hash of its contents, as recorded for partials.
+     *
+     * @param executor From where we can fetch the templates content
+     * @param name     The name of the template (e.g. licenseInfo.mustache)
+     * @return The fingerprint of the template
+     */
+    public static String fingerprint(TemplatingExecutor executor, String name) {
+        return executor.getFullTemplatePath(name) + "#" + hash(executor.getFullTemplateContents(name));
+    }
+
+    private static void track(Entry<?> entry) {
+        List<Map<String, String>> recorder = PARTIAL_RECORDER.get();
+        if (recorder != null) {
+            recorder.add(entry.dependencies);
+        }
+    }
+
+    /**
+     * @return The number of lookups served from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups which required compiling a template
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of compiled templates currently held
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all compiled templates and resets the hit/miss counters.
+     */
+    public void clear() {
+        entries.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d compiled templates, %d hits, %d misses", size(), getHits(), getMisses());
+    }
+
+    private static String hash(String contents) {
+        return Hashing.murmur3_128().hashString(contents, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * The contents of a template being compiled, along with access to the partials it references.
+     */
+    public static final class Source {
+        private final String contents;
+        private final Entry<?> entry;
+
+        private Source(String contents, Entry<?> entry) {
+            this.contents = contents;
+            this.entry = entry;
+        }
+
+        /**
+         * @return The raw template contents
+         */
+        public String getContents() {
+            return contents;
+        }
+
+        /**
+         * Reads a partial referenced by the template, and records it as a dependency of the compiled template.
+         * The partial is resolved against the executor currently rendering (see {@link #render(TemplatingExecutor, Rendering)}),
+         * falling back to the executor the template was last validated for.
+         *
+         * @param name the template name of the partial (e.g. licenseInfo.mustache)
+         * @return the contents of the partial
+         */
+        public String readPartial(String name) {
+            TemplatingExecutor executor = CURRENT_EXECUTOR.get();
+            if (executor == null) {
+                executor = entry.validatedFor.get();
+            }
+            if (executor == null) {
+                throw new TemplateNotFoundException(name);
+            }
+            String partial = executor.getFullTemplateContents(name);
+            entry.dependencies.put(name, executor.getFullTemplatePath(name) + "#" + hash(partial));
+            return partial;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final Map<String, String> dependencies = new ConcurrentHashMap<>();
+        private volatile WeakReference<TemplatingExecutor> validatedFor;
+        private T template;
+
+        Entry(TemplatingExecutor compiledBy) {
+            this.validatedFor = new WeakReference<>(compiledBy);
+        }
+
+        boolean isValidFor(TemplatingExecutor executor) {
+            if (validatedFor.get() == executor) {
+                return true;
+            }
+            for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+                try {
+                    if (!Objects.equals(dependency.getValue(), fingerprint(executor, dependency.getKey()))) {
+                        return false;
+                    }
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+            validatedFor = new WeakReference<>(executor);
+            return true;
+        }
+    }
+}
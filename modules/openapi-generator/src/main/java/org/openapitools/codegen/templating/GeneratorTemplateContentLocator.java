@@ -7,12 +7,21 @@ import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Locates templates according to {@link CodegenConfig} settings.
+ * <p>
+ * Resolved template paths are indexed by the template directories and library they were resolved against, so each
+ * template is looked up on the file system and the classpath only once per instance. A generator run creates its own
+ * instance, so templates added or removed between runs are picked up by the next run.
  */
 public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     private final CodegenConfig codegenConfig;
+    private final Map<String, Optional<String>> resolvedPaths = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> classpathTemplates = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new instance of {@link GeneratorTemplateContentLocator} for the provided {@link CodegenConfig}
@@ -39,7 +48,8 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     }
 
     private boolean classpathTemplateExists(String name) {
-        return this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(name)) != null;
+        return classpathTemplates.computeIfAbsent(name,
+                n -> this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(n)) != null);
     }
 
     /**
@@ -59,9 +69,15 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     @Override
     public String getFullTemplatePath(String relativeTemplateFile) {
         CodegenConfig config = this.codegenConfig;
+        final String library = config.getLibrary();
+        // the template directories may still change while the generator is configured
+        String key = config.templateDir() + '\0' + config.embeddedTemplateDir() + '\0' + library + '\0' + relativeTemplateFile;
+        return resolvedPaths.computeIfAbsent(key, k -> Optional.ofNullable(resolveTemplatePath(config, library, relativeTemplateFile)))
+                .orElse(null);
+    }
 
+    private String resolveTemplatePath(CodegenConfig config, String library, String relativeTemplateFile) {
         //check the supplied template library folder for the file
-        final String library = config.getLibrary();
         if (StringUtils.isNotEmpty(library)) {
             //look for the file in the library subfolder of the supplied template
             final String libTemplateFile = buildLibraryFilePath(config.templateDir(), library, relativeTemplateFile);
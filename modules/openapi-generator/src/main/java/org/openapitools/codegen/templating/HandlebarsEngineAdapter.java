@@ -20,6 +20,7 @@ import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Jackson2Helper;
 import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
 import com.github.jknack.handlebars.context.FieldValueResolver;
 import com.github.jknack.handlebars.context.JavaBeanValueResolver;
 import com.github.jknack.handlebars.context.MapValueResolver;
@@ -49,6 +50,9 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
     private boolean infiniteLoops = false;
     private boolean prettyPrint = false;
 
+    private static final CompiledTemplateCache<Template> SHARED_TEMPLATE_CACHE = new CompiledTemplateCache<>();
+    private final CompiledTemplateCache<Template> templateCache = new CompiledTemplateCache<>();
+
     /**
      * Provides an identifier used to load the adapter. This could be a name, uuid, or any other string.
      *
@@ -61,13 +65,6 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
 
     public String compileTemplate(TemplatingExecutor executor,
                                   Map<String, Object> bundle, String templateFile) throws IOException {
-        TemplateLoader loader = new AbstractTemplateLoader() {
-            @Override
-            public TemplateSource sourceAt(String location) {
-                return findTemplate(executor, location);
-            }
-        };
-
         Context context = Context
                 .newBuilder(bundle)
                 .resolver(
@@ -77,7 +74,48 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
                         MethodValueResolver.INSTANCE)
                 .build();
 
+        String templateName = findTemplate(executor, templateFile).filename();
+        CompiledTemplateCache.Compilation<Template> compilation = source -> {
+            TemplateLoader loader = new AbstractTemplateLoader() {
+                @Override
+                public TemplateSource sourceAt(String location) {
+                    return findTemplate(source, location);
+                }
+            };
+            return newHandlebars(loader).compile(new StringTemplateSource(templateName, source.getContents()));
+        };
+
+        Template tmpl;
+        CompiledTemplateCache<Template> cache = getTemplateCache();
+        if (cache == null) {
+            tmpl = CompiledTemplateCache.compileUncached(executor, templateName, compilation);
+        } else {
+            tmpl = cache.get(executor, templateName, infiniteLoops + "|" + prettyPrint, compilation);
+        }
+
+        return CompiledTemplateCache.render(executor, () -> tmpl.apply(context));
+    }
+
+    /**
+     * Gets the cache of compiled templates according to {@link CompiledTemplateCache#SCOPE_PROPERTY}.
+     *
+     * @return The cache in use, or null if caching is disabled
+     */
+    public CompiledTemplateCache<Template> getTemplateCache() {
+        switch (CompiledTemplateCache.Scope.current()) {
+            case NONE:
+                return null;
+            case JVM:
+                return SHARED_TEMPLATE_CACHE;
+            default:
+                return templateCache;
+        }
+    }
+
+    private Handlebars newHandlebars(TemplateLoader loader) {
         Handlebars handlebars = new Handlebars(loader);
+        // partials are compiled lazily while rendering; keep them alongside the compiled template
+        handlebars.with(new ConcurrentMapTemplateCache());
         handlebars.registerHelperMissing((obj, options) -> {
             LOGGER.warn(String.format(Locale.ROOT, "Unregistered helper name '%s', processing template:%n%s", options.helperName, options.fn.text()));
             return "";
@@ -88,8 +126,7 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
         handlebars.registerHelpers(org.openapitools.codegen.templating.handlebars.StringHelpers.class);
         handlebars.setInfiniteLoops(infiniteLoops);
         handlebars.setPrettyPrint(prettyPrint);
-        Template tmpl = handlebars.compile(templateFile);
-        return tmpl.apply(context);
+        return handlebars;
     }
 
     @SuppressWarnings("java:S108")
@@ -111,6 +148,25 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
         throw new TemplateNotFoundException(String.join(", ", possibilities));
     }
 
+    @SuppressWarnings("java:S108")
+    private TemplateSource findTemplate(CompiledTemplateCache.Source source, String templateFile) {
+        String[] possibilities = getModifiedFileLocation(templateFile);
+        for (String file : possibilities) {
+            try {
+                return new StringTemplateSource(file, source.readPartial(file));
+            } catch (Exception ignored) {
+            }
+        }
+
+        // allow lookup of files without extension modification (such as .openapi-generator-ignore, README.md, etc)
+        try {
+            return new StringTemplateSource(templateFile, source.readPartial(templateFile));
+        } catch (Exception ignored) {
+        }
+
+        throw new TemplateNotFoundException(String.join(", ", possibilities));
+    }
+
     @Override
     public String[] getFileExtensions() {
         return extensions;
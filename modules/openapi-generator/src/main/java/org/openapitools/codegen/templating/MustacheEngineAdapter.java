@@ -43,7 +43,10 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
         return "mustache";
     }
 
+    private static final CompiledTemplateCache<Template> SHARED_TEMPLATE_CACHE = new CompiledTemplateCache<>();
+
     private final String[] extensions = {"mustache"};
+    private final CompiledTemplateCache<Template> templateCache = new CompiledTemplateCache<>();
     Mustache.Compiler compiler = Mustache.compiler();
 
     /**
@@ -57,12 +60,63 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
      */
     @Override
     public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile) throws IOException {
-        Template tmpl = compiler
-                .withLoader(name -> findTemplate(executor, name))
+        CompiledTemplateCache.Compilation<Template> compilation = source -> compiler
+                .withLoader(name -> findTemplate(source, name))
                 .defaultValue("")
-                .compile(executor.getFullTemplateContents(templateFile));
+                .compile(source.getContents());
+
+        Template tmpl;
+        CompiledTemplateCache<Template> cache = getTemplateCache();
+        if (cache == null) {
+            tmpl = CompiledTemplateCache.compileUncached(executor, templateFile, compilation);
+        } else {
+            tmpl = cache.get(executor, templateFile, compilerVariant(), compilation);
+        }
+
+        return CompiledTemplateCache.render(executor, () -> tmpl.execute(bundle));
+    }
+
+    /**
+     * Gets the cache of compiled templates according to {@link CompiledTemplateCache#SCOPE_PROPERTY}.
+     *
+     * @return The cache in use, or null if caching is disabled
+     */
+    public CompiledTemplateCache<Template> getTemplateCache() {
+        switch (CompiledTemplateCache.Scope.current()) {
+            case NONE:
+                return null;
+            case JVM:
+                return SHARED_TEMPLATE_CACHE;
+            default:
+                return templateCache;
+        }
+    }
 
-        return tmpl.execute(bundle);
+    private String compilerVariant() {
+        return String.join("|",
+                String.valueOf(compiler.standardsMode),
+                String.valueOf(compiler.strictSections),
+                String.valueOf(compiler.nullValue),
+                String.valueOf(compiler.missingIsNull),
+                String.valueOf(compiler.emptyStringIsFalse),
+                String.valueOf(compiler.zeroIsFalse),
+                compiler.formatter.getClass().getName(),
+                compiler.escaper.getClass().getName(),
+                compiler.collector.getClass().getName());
+    }
+
+    @SuppressWarnings("java:S108") // catch-all is expected, and is later thrown
+    private Reader findTemplate(CompiledTemplateCache.Source source, String name) {
+        for (String extension : extensions) {
+            final String templateName = name + "." + extension;
+            try {
+                return new StringReader(source.readPartial(templateName));
+            } catch (Exception exception) {
+                LOGGER.error("Failed to read full template {}, {}", templateName, exception.getMessage());
+            }
+        }
+
+        throw new TemplateNotFoundException(name);
     }
 
     @SuppressWarnings("java:S108") // catch-all is expected, and is later thrown
@@ -8,10 +8,12 @@ import org.slf4j.LoggerFactory;
 
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Template;
+import org.openapitools.codegen.templating.CompiledTemplateCache;
 
 /**
  * Lambda writes current fragment to the output when it is different than
- * the previous fragment.
+ * the previous fragment of the same rendering, so every generated file starts
+ * afresh whichever thread renders it.
  *
  * Register:
  * <pre>
@@ -26,15 +28,37 @@ import com.samskivert.mustache.Template;
 public class OnChangeLambda implements Mustache.Lambda {
     private final Logger LOGGER = LoggerFactory.getLogger(OnChangeLambda.class);
 
-    private String lastVal = null;
+    // a rendering runs on a single thread, while files may be rendered concurrently
+    private final ThreadLocal<State> state = new ThreadLocal<>();
 
     @Override
     public void execute(Template.Fragment frag, Writer out) throws IOException {
+        State current = currentState();
         String curVal = frag.execute();
-        LOGGER.debug("[lastVal={}, curVal={}]", lastVal, curVal);
-        if (curVal != null && !curVal.equals(lastVal)) {
+        LOGGER.debug("[lastVal={}, curVal={}]", current.lastVal, curVal);
+        if (curVal != null && !curVal.equals(current.lastVal)) {
             out.write(curVal);
-            lastVal = curVal;
+            current.lastVal = curVal;
+        }
+    }
+
+    private State currentState() {
+        Object rendering = CompiledTemplateCache.currentRendering();
+        State current = state.get();
+        if (current == null || current.rendering != rendering) {
+            current = new State(rendering);
+            state.set(current);
+        }
+        return current;
+    }
+
+    private static final class State {
+        // null outside a template engine adapter, where the value is tracked for the lifetime of the thread
+        private final Object rendering;
+        private String lastVal;
+
+        private State(Object rendering) {
+            this.rendering = rendering;
         }
     }
 }
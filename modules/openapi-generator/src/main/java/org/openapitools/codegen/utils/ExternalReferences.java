@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Finds the documents an OpenAPI document depends on through external {@code $ref}s, without parsing it as a spec.
+ * Build tools use the closure of a spec to decide whether a generation is up-to-date.
+ */
+public final class ExternalReferences {
+    private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private ExternalReferences() {
+    }
+
+    /**
+     * Follows the external references of a document recursively.
+     *
+     * @param root   the location of the document
+     * @param reader reads the content of a document, returning null if it doesn't exist or can't be read
+     * @return the content of the root and of every referenced document by location, in the order they were found,
+     * with null for the documents which couldn't be read
+     */
+    public static Map<URI, byte[]> closure(URI root, Function<URI, byte[]> reader) {
+        Map<URI, byte[]> documents = new LinkedHashMap<>();
+        Deque<URI> pending = new ArrayDeque<>();
+        pending.add(root.normalize());
+        while (!pending.isEmpty()) {
+            URI location = pending.remove();
+            if (documents.containsKey(location)) {
+                continue;
+            }
+            byte[] content = reader.apply(location);
+            documents.put(location, content);
+            if (content != null) {
+                for (String ref : references(content)) {
+                    URI referenced = resolve(location, ref);
+                    if (referenced != null) {
+                        pending.add(referenced);
+                    }
+                }
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Follows the external references of a local file recursively, ignoring references to remote documents.
+     *
+     * @param root the file
+     * @return the file and the referenced files which exist
+     */
+    public static Set<File> localClosure(File root) {
+        Set<File> files = new LinkedHashSet<>();
+        closure(root.getAbsoluteFile().toURI(), ExternalReferences::readFile).forEach((location, content) -> {
+            if (content != null) {
+                files.add(new File(location));
+            }
+        });
+        return files;
+    }
+
+    /**
+     * @param content a JSON or YAML document
+     * @return the {@code $ref} values of the document, none if it can't be parsed
+     */
+    public static Set<String> references(byte[] content) {
+        Set<String> refs = new LinkedHashSet<>();
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(content);
+        } catch (IOException e) {
+            return refs;
+        }
+        Deque<JsonNode> nodes = new ArrayDeque<>();
+        if (root != null) {
+            nodes.add(root);
+        }
+        while (!nodes.isEmpty()) {
+            JsonNode node = nodes.remove();
+            if (node.isObject()) {
+                JsonNode ref = node.get("$ref");
+                if (ref != null && ref.isTextual()) {
+                    refs.add(ref.asText());
+                }
+            }
+            node.elements().forEachRemaining(nodes::add);
+        }
+        return refs;
+    }
+
+    /**
+     * @param base the location of the document holding the reference
+     * @param ref  the value of a {@code $ref}
+     * @return the location of the referenced document, or null for a reference within the same document
+     */
+    public static URI resolve(URI base, String ref) {
+        int fragment = ref.indexOf('#');
+        String document = (fragment < 0 ? ref : ref.substring(0, fragment)).trim();
+        if (document.isEmpty()) {
+            return null;
+        }
+        try {
+            URI uri = new URI(document);
+            return (isUrl(uri) ? uri : base.resolve(uri)).normalize();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            try {
+                // a relative path which isn't a valid URI, e.g. one with spaces
+                return base.resolve(new URI(null, null, document.replace('\\', '/'), null)).normalize();
+            } catch (URISyntaxException | IllegalArgumentException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @param uri a location
+     * @return true if the location is a URL rather than a path, which may start with the drive of a Windows path
+     */
+    public static boolean isUrl(URI uri) {
+        return uri.isAbsolute() && uri.getScheme().length() > 1;
+    }
+
+    private static byte[] readFile(URI location) {
+        if (!"file".equals(location.getScheme())) {
+            return null;
+        }
+        try {
+            Path path = Paths.get(location);
+            return Files.isRegularFile(path) ? Files.readAllBytes(path) : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
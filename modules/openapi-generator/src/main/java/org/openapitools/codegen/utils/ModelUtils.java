@@ -19,6 +19,8 @@ package org.openapitools.codegen.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -49,6 +51,7 @@ import java.net.URI;
 import java.net.URLDecoder;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -73,6 +76,12 @@ public class ModelUtils {
 
     private static ObjectMapper JSON_MAPPER, YAML_MAPPER;
 
+    // Schema usage indexes, keyed by the identity of the OpenAPI document (weak keys compare by identity).
+    private static final Cache<OpenAPI, SchemaUsage> schemaUsageCache = Caffeine.newBuilder().weakKeys().build();
+
+    // $ref resolution indexes, keyed by the identity of the OpenAPI document.
+    private static final Cache<OpenAPI, ReferenceIndex> referenceIndexCache = Caffeine.newBuilder().weakKeys().build();
+
     static {
         JSON_MAPPER = ObjectMapperFactory.createJson();
         YAML_MAPPER = ObjectMapperFactory.createYaml();
@@ -128,24 +137,7 @@ public class ModelUtils {
      * @return schemas a list of used schemas
      */
     public static List<String> getAllUsedSchemas(OpenAPI openAPI) {
-        Map<String, List<String>> childrenMap = getChildrenMap(openAPI);
-        List<String> allUsedSchemas = new ArrayList<String>();
-        visitOpenAPI(openAPI, (s, t) -> {
-            if (s.get$ref() != null) {
-                String ref = getSimpleRef(s.get$ref());
-                if (!allUsedSchemas.contains(ref)) {
-                    allUsedSchemas.add(ref);
-                }
-                if (childrenMap.containsKey(ref)) {
-                    for (String child : childrenMap.get(ref)) {
-                        if (!allUsedSchemas.contains(child)) {
-                            allUsedSchemas.add(child);
-                        }
-                    }
-                }
-            }
-        });
-        return allUsedSchemas;
+        return new ArrayList<>(getSchemaUsage(openAPI).used);
     }
 
     /**
@@ -155,33 +147,15 @@ public class ModelUtils {
      * @return schemas a list of unused schemas
      */
     public static List<String> getUnusedSchemas(OpenAPI openAPI) {
-        final Map<String, List<String>> childrenMap;
-        Map<String, List<String>> tmpChildrenMap;
-        try {
-            tmpChildrenMap = getChildrenMap(openAPI);
-        } catch (NullPointerException npe) {
-            // in rare cases, such as a spec document with only one top-level oneOf schema and multiple referenced schemas,
-            // the stream used in getChildrenMap will raise an NPE. Rather than modify getChildrenMap which is used by getAllUsedSchemas,
-            // we'll catch here as a workaround for this edge case.
-            tmpChildrenMap = new HashMap<>();
-        }
-
-        childrenMap = tmpChildrenMap;
         List<String> unusedSchemas = new ArrayList<String>();
 
         if (openAPI != null) {
-            Map<String, Schema> schemas = getSchemas(openAPI);
-            unusedSchemas.addAll(schemas.keySet());
-
-            visitOpenAPI(openAPI, (s, t) -> {
-                if (s.get$ref() != null) {
-                    String ref = getSimpleRef(s.get$ref());
-                    unusedSchemas.remove(ref);
-                    if (childrenMap.containsKey(ref)) {
-                        unusedSchemas.removeAll(childrenMap.get(ref));
-                    }
+            Set<String> used = getSchemaUsage(openAPI).used;
+            for (String name : getSchemas(openAPI).keySet()) {
+                if (!used.contains(name)) {
+                    unusedSchemas.add(name);
                 }
-            });
+            }
         }
         return unusedSchemas;
     }
@@ -193,21 +167,111 @@ public class ModelUtils {
      * @return schemas a list of schemas
      */
     public static List<String> getSchemasUsedOnlyInFormParam(OpenAPI openAPI) {
-        List<String> schemasUsedInFormParam = new ArrayList<String>();
-        List<String> schemasUsedInOtherCases = new ArrayList<String>();
-
-        visitOpenAPI(openAPI, (s, t) -> {
-            if (s.get$ref() != null) {
-                String ref = getSimpleRef(s.get$ref());
-                if ("application/x-www-form-urlencoded".equalsIgnoreCase(t) ||
-                        "multipart/form-data".equalsIgnoreCase(t)) {
-                    schemasUsedInFormParam.add(ref);
-                } else {
-                    schemasUsedInOtherCases.add(ref);
-                }
+        SchemaUsage usage = getSchemaUsage(openAPI);
+        return usage.usedInFormParam.stream().filter(n -> !usage.usedInOtherCases.contains(n)).collect(Collectors.toList());
+    }
+
+    /**
+     * Drop the indexes derived from an OpenAPI document: the schema usage index backing
+     * {@link #getAllUsedSchemas(OpenAPI)}, {@link #getUnusedSchemas(OpenAPI)} and
+     * {@link #getSchemasUsedOnlyInFormParam(OpenAPI)}, and the $ref resolution index backing the
+     * getReferenced* methods and {@link #unaliasSchema(OpenAPI, Schema, Map)}.
+     *
+     * Adding, removing or replacing components is detected automatically, but code which mutates nested objects of
+     * the document (e.g. replaces the schema of a request body or the type of a component schema) must call this
+     * method afterwards. Generators mutating the document in preprocessOpenAPI don't need to, as DefaultGenerator does so.
+     *
+     * @param openAPI specification
+     */
+    public static void invalidateIndexes(OpenAPI openAPI) {
+        if (openAPI != null) {
+            schemaUsageCache.invalidate(openAPI);
+            referenceIndexCache.invalidate(openAPI);
+        }
+    }
+
+    private static ReferenceIndex getReferenceIndex(OpenAPI openAPI) {
+        return referenceIndexCache.get(openAPI, o -> new ReferenceIndex());
+    }
+
+    private static SchemaUsage getSchemaUsage(OpenAPI openAPI) {
+        int stamp = documentStamp(openAPI);
+        SchemaUsage usage = schemaUsageCache.getIfPresent(openAPI);
+        if (usage == null || usage.stamp != stamp) {
+            usage = new SchemaUsage(openAPI, stamp);
+            schemaUsageCache.put(openAPI, usage);
+        }
+        return usage;
+    }
+
+    /**
+     * A cheap stamp of the top-level structure of an OpenAPI document, used to detect added, removed or replaced
+     * paths and components since an index was built.
+     */
+    private static int documentStamp(OpenAPI openAPI) {
+        int stamp = stamp(System.identityHashCode(openAPI.getPaths()), openAPI.getPaths());
+        if (openAPI.getComponents() != null) {
+            stamp = stamp(stamp, openAPI.getComponents().getSchemas());
+            stamp = stamp(stamp, openAPI.getComponents().getParameters());
+            stamp = stamp(stamp, openAPI.getComponents().getRequestBodies());
+            stamp = stamp(stamp, openAPI.getComponents().getResponses());
+            stamp = stamp(stamp, openAPI.getComponents().getHeaders());
+            stamp = stamp(stamp, openAPI.getComponents().getCallbacks());
+        }
+        return stamp;
+    }
+
+    private static int stamp(int stamp, Map<String, ?> map) {
+        stamp = 31 * stamp + System.identityHashCode(map);
+        if (map != null) {
+            for (Entry<String, ?> e : map.entrySet()) {
+                stamp = 31 * stamp + Objects.hashCode(e.getKey());
+                stamp = 31 * stamp + System.identityHashCode(e.getValue());
             }
-        });
-        return schemasUsedInFormParam.stream().filter(n -> !schemasUsedInOtherCases.contains(n)).collect(Collectors.toList());
+        }
+        return stamp;
+    }
+
+    /**
+     * The schemas referenced from the paths of an OpenAPI document, collected in a single traversal.
+     */
+    private static final class SchemaUsage {
+        private final int stamp;
+        // referenced schemas and the children of composed schemas they are the parent of, in traversal order
+        private final Set<String> used = new LinkedHashSet<>();
+        private final Set<String> usedInFormParam = new LinkedHashSet<>();
+        private final Set<String> usedInOtherCases = new HashSet<>();
+
+        private SchemaUsage(OpenAPI openAPI, int stamp) {
+            this.stamp = stamp;
+            Map<String, List<String>> childrenMap;
+            try {
+                childrenMap = getChildrenMap(openAPI);
+            } catch (NullPointerException npe) {
+                // in rare cases, such as a spec document with only one top-level oneOf schema and multiple referenced schemas,
+                // the stream used in getChildrenMap will raise an NPE. Rather than modify getChildrenMap,
+                // we'll catch here as a workaround for this edge case.
+                childrenMap = new HashMap<>();
+            }
+
+            final Map<String, List<String>> children = childrenMap;
+            visitOpenAPI(openAPI, (s, t) -> {
+                if (s.get$ref() != null) {
+                    String ref = getSimpleRef(s.get$ref());
+                    used.add(ref);
+                    // a schema may have been added as the child of its parent before it is visited itself
+                    if (children.containsKey(ref)) {
+                        used.addAll(children.get(ref));
+                    }
+                    if ("application/x-www-form-urlencoded".equalsIgnoreCase(t) ||
+                            "multipart/form-data".equalsIgnoreCase(t)) {
+                        usedInFormParam.add(ref);
+                    } else {
+                        usedInOtherCases.add(ref);
+                    }
+                }
+            });
+        }
     }
 
     /**
@@ -221,7 +285,7 @@ public class ModelUtils {
      */
     private static void visitOpenAPI(OpenAPI openAPI, OpenAPISchemaVisitor visitor) {
         Map<String, PathItem> paths = openAPI.getPaths();
-        List<String> visitedSchemas = new ArrayList<>();
+        Set<String> visitedSchemas = new HashSet<>();
 
         if (paths != null) {
             for (PathItem path : paths.values()) {
@@ -230,7 +294,7 @@ public class ModelUtils {
         }
     }
 
-    private static void visitPathItem(PathItem pathItem, OpenAPI openAPI, OpenAPISchemaVisitor visitor, List<String> visitedSchemas) {
+    private static void visitPathItem(PathItem pathItem, OpenAPI openAPI, OpenAPISchemaVisitor visitor, Set<String> visitedSchemas) {
         List<Operation> allOperations = pathItem.readOperations();
         if (allOperations != null) {
             for (Operation operation : allOperations) {
@@ -280,7 +344,7 @@ public class ModelUtils {
     }
 
     private static void visitParameters(OpenAPI openAPI, List<Parameter> parameters, OpenAPISchemaVisitor visitor,
-                                        List<String> visitedSchemas) {
+                                        Set<String> visitedSchemas) {
         if (parameters != null) {
             for (Parameter p : parameters) {
                 Parameter parameter = getReferencedParameter(openAPI, p);
@@ -296,7 +360,7 @@ public class ModelUtils {
         }
     }
 
-    private static void visitContent(OpenAPI openAPI, Content content, OpenAPISchemaVisitor visitor, List<String> visitedSchemas) {
+    private static void visitContent(OpenAPI openAPI, Content content, OpenAPISchemaVisitor visitor, Set<String> visitedSchemas) {
         if (content != null) {
             for (Entry<String, MediaType> e : content.entrySet()) {
                 if (e.getValue().getSchema() != null) {
@@ -315,15 +379,14 @@ public class ModelUtils {
      * @param openAPI the OpenAPI document that contains schema objects.
      * @param schema the root schema object to be visited.
      * @param mimeType the mime type. TODO: does not seem to be used in a meaningful way.
-     * @param visitedSchemas the list of referenced schemas that have been visited.
+     * @param visitedSchemas the set of referenced schemas that have been visited.
      * @param visitor the visitor function which is invoked for every visited schema.
      */
-    private static void visitSchema(OpenAPI openAPI, Schema schema, String mimeType, List<String> visitedSchemas, OpenAPISchemaVisitor visitor) {
+    private static void visitSchema(OpenAPI openAPI, Schema schema, String mimeType, Set<String> visitedSchemas, OpenAPISchemaVisitor visitor) {
         visitor.visit(schema, mimeType);
         if (schema.get$ref() != null) {
             String ref = getSimpleRef(schema.get$ref());
-            if (!visitedSchemas.contains(ref)) {
-                visitedSchemas.add(ref);
+            if (visitedSchemas.add(ref)) {
                 Schema referencedSchema = getSchemas(openAPI).get(ref);
                 if (referencedSchema != null) {
                     visitSchema(openAPI, referencedSchema, mimeType, visitedSchemas, visitor);
@@ -845,8 +908,7 @@ public class ModelUtils {
      */
     public static Schema getReferencedSchema(OpenAPI openAPI, Schema schema) {
         if (schema != null && StringUtils.isNotEmpty(schema.get$ref())) {
-            String name = getSimpleRef(schema.get$ref());
-            Schema referencedSchema = getSchema(openAPI, name);
+            Schema referencedSchema = resolveReference(openAPI, schema.get$ref(), name -> getSchema(openAPI, name));
             if (referencedSchema != null) {
                 return referencedSchema;
             }
@@ -854,6 +916,21 @@ public class ModelUtils {
         return schema;
     }
 
+    /**
+     * Resolve a '$ref' through the reference index of the document, parsing the reference only the first time.
+     *
+     * @param openAPI specification being checked
+     * @param ref     the '$ref' value
+     * @param lookup  the lookup of a component by its simple name
+     * @return the referenced component, or null if it is not found
+     */
+    private static <T> T resolveReference(OpenAPI openAPI, String ref, Function<String, T> lookup) {
+        if (openAPI == null) {
+            return lookup.apply(getSimpleRef(ref));
+        }
+        return getReferenceIndex(openAPI).resolve(ref, lookup);
+    }
+
     public static Schema getSchema(OpenAPI openAPI, String name) {
         if (name == null) {
             return null;
@@ -886,7 +963,7 @@ public class ModelUtils {
      */
     public static List<Schema> getAllSchemas(OpenAPI openAPI) {
         List<Schema> allSchemas = new ArrayList<Schema>();
-        List<String> refSchemas = new ArrayList<String>();
+        Set<String> refSchemas = new HashSet<>();
         getSchemas(openAPI).forEach((key, schema) -> {
             // Invoke visitSchema to recursively visit all schema objects, included inlined and composed schemas.
             // Use the OpenAPISchemaVisitor visitor function
@@ -906,8 +983,7 @@ public class ModelUtils {
      */
     public static RequestBody getReferencedRequestBody(OpenAPI openAPI, RequestBody requestBody) {
         if (requestBody != null && StringUtils.isNotEmpty(requestBody.get$ref())) {
-            String name = getSimpleRef(requestBody.get$ref());
-            RequestBody referencedRequestBody = getRequestBody(openAPI, name);
+            RequestBody referencedRequestBody = resolveReference(openAPI, requestBody.get$ref(), name -> getRequestBody(openAPI, name));
             if (referencedRequestBody != null) {
                 return referencedRequestBody;
             }
@@ -935,8 +1011,7 @@ public class ModelUtils {
      */
     public static ApiResponse getReferencedApiResponse(OpenAPI openAPI, ApiResponse apiResponse) {
         if (apiResponse != null && StringUtils.isNotEmpty(apiResponse.get$ref())) {
-            String name = getSimpleRef(apiResponse.get$ref());
-            ApiResponse referencedApiResponse = getApiResponse(openAPI, name);
+            ApiResponse referencedApiResponse = resolveReference(openAPI, apiResponse.get$ref(), name -> getApiResponse(openAPI, name));
             if (referencedApiResponse != null) {
                 return referencedApiResponse;
             }
@@ -964,8 +1039,7 @@ public class ModelUtils {
      */
     public static Parameter getReferencedParameter(OpenAPI openAPI, Parameter parameter) {
         if (parameter != null && StringUtils.isNotEmpty(parameter.get$ref())) {
-            String name = getSimpleRef(parameter.get$ref());
-            Parameter referencedParameter = getParameter(openAPI, name);
+            Parameter referencedParameter = resolveReference(openAPI, parameter.get$ref(), name -> getParameter(openAPI, name));
             if (referencedParameter != null) {
                 return referencedParameter;
             }
@@ -993,8 +1067,7 @@ public class ModelUtils {
      */
     public static Callback getReferencedCallback(OpenAPI openAPI, Callback callback) {
         if (callback != null && StringUtils.isNotEmpty(callback.get$ref())) {
-            String name = getSimpleRef(callback.get$ref());
-            Callback referencedCallback = getCallback(openAPI, name);
+            Callback referencedCallback = resolveReference(openAPI, callback.get$ref(), name -> getCallback(openAPI, name));
             if (referencedCallback != null) {
                 return referencedCallback;
             }
@@ -1186,58 +1259,83 @@ public class ModelUtils {
         }
 
         if (schema != null && StringUtils.isNotEmpty(schema.get$ref())) {
-            String simpleRef = ModelUtils.getSimpleRef(schema.get$ref());
-            if (importMappings.containsKey(simpleRef)) {
-                LOGGER.debug("Schema unaliasing of {} omitted because aliased class is to be mapped to {}", simpleRef, importMappings.get(simpleRef));
-                return schema;
+            return getReferenceIndex(openAPI)
+                    .unaliased(schema.get$ref(), isGenerateAliasAsModel(), allSchemas, ref -> unaliasReference(ref, allSchemas))
+                    .apply(schema, importMappings);
+        }
+        return schema;
+    }
+
+    /**
+     * Follow the chain of aliases starting at a '$ref', without applying import mappings.
+     *
+     * @param $ref       the reference to unalias
+     * @param allSchemas the schemas of the OpenAPI document
+     * @return the chain of aliases and its result
+     */
+    private static ReferenceIndex.Unaliased unaliasReference(String $ref, Map<String, Schema> allSchemas) {
+        List<String> names = new ArrayList<>();
+        List<Schema> levels = new ArrayList<>();
+        List<Schema> targets = new ArrayList<>();
+        Schema current = null; // the schema being unaliased at level 0
+        while (true) {
+            String simpleRef = ModelUtils.getSimpleRef($ref);
+            if (names.contains(simpleRef)) {
+                // circular aliases
+                return unaliased(names, levels, targets, levels.size() - 1, null);
             }
+            names.add(simpleRef);
+            levels.add(current);
+
+            int level = levels.size() - 1;
             Schema ref = allSchemas.get(simpleRef);
+            targets.add(ref);
+            Schema next;
             if (ref == null) {
-                once(LOGGER).warn("{} is not defined", schema.get$ref());
-                return schema;
+                once(LOGGER).warn("{} is not defined", $ref);
+                return unaliased(names, levels, targets, level, null);
             } else if (ref.getEnum() != null && !ref.getEnum().isEmpty()) {
                 // top-level enum class
-                return schema;
+                return unaliased(names, levels, targets, level, null);
             } else if (isArraySchema(ref)) {
                 if (isGenerateAliasAsModel(ref)) {
-                    return schema; // generate a model extending array
+                    return unaliased(names, levels, targets, level, null); // generate a model extending array
                 } else {
-                    return unaliasSchema(openAPI, allSchemas.get(ModelUtils.getSimpleRef(schema.get$ref())),
-                            importMappings);
+                    next = ref;
                 }
             } else if (isComposedSchema(ref)) {
-                return schema;
+                return unaliased(names, levels, targets, level, null);
             } else if (isMapSchema(ref)) {
-                if (ref.getProperties() != null && !ref.getProperties().isEmpty()) // has at least one property
-                    return schema; // treat it as model
-                else {
-                    if (isGenerateAliasAsModel(ref)) {
-                        return schema; // generate a model extending map
-                    } else {
-                        // treat it as a typical map
-                        return unaliasSchema(openAPI, allSchemas.get(ModelUtils.getSimpleRef(schema.get$ref())),
-                                importMappings);
-                    }
+                if (ref.getProperties() != null && !ref.getProperties().isEmpty()) { // has at least one property
+                    return unaliased(names, levels, targets, level, null); // treat it as model
+                } else if (isGenerateAliasAsModel(ref)) {
+                    return unaliased(names, levels, targets, level, null); // generate a model extending map
+                } else {
+                    // treat it as a typical map
+                    next = ref;
                 }
             } else if (isObjectSchema(ref)) { // model
                 if (ref.getProperties() != null && !ref.getProperties().isEmpty()) { // has at least one property
-                    if (hasSelfReference(openAPI, ref)) {
-                        // it's self referencing so returning itself instead
-                        return schema;
-                    } else {
-                        // TODO we may revise below to return `ref` instead of schema
-                        // which is the last reference to the actual model/object
-                        return schema;
-                    }
+                    // TODO we may revise below to return `ref` instead of schema
+                    // which is the last reference to the actual model/object
+                    return unaliased(names, levels, targets, level, null);
                 } else { // free form object (type: object)
-                    return unaliasSchema(openAPI, allSchemas.get(ModelUtils.getSimpleRef(schema.get$ref())),
-                            importMappings);
+                    next = ref;
                 }
             } else {
-                return unaliasSchema(openAPI, allSchemas.get(ModelUtils.getSimpleRef(schema.get$ref())), importMappings);
+                next = ref;
             }
+
+            if (StringUtils.isEmpty(next.get$ref())) {
+                return unaliased(names, levels, targets, -1, next);
+            }
+            current = next;
+            $ref = next.get$ref();
         }
-        return schema;
+    }
+
+    private static ReferenceIndex.Unaliased unaliased(List<String> names, List<Schema> levels, List<Schema> targets, int resultLevel, Schema result) {
+        return new ReferenceIndex.Unaliased(names.toArray(new String[0]), levels.toArray(new Schema[0]), targets.toArray(new Schema[0]), resultLevel, result);
     }
 
     /**
@@ -1308,8 +1406,7 @@ public class ModelUtils {
 
     public static Header getReferencedHeader(OpenAPI openAPI, Header header) {
         if (header != null && StringUtils.isNotEmpty(header.get$ref())) {
-            String name = getSimpleRef(header.get$ref());
-            Header referencedheader = getHeader(openAPI, name);
+            Header referencedheader = resolveReference(openAPI, header.get$ref(), name -> getHeader(openAPI, name));
             if (referencedheader != null) {
                 return referencedheader;
             }
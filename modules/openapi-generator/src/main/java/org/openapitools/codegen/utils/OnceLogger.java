@@ -40,7 +40,7 @@ public class OnceLogger extends LoggerWrapper {
     /**
      * Internal message cache for logger decorated with the onceler.
      */
-    static Cache<String, AtomicInteger> messageCountCache;
+    static volatile Cache<String, AtomicInteger> messageCountCache;
 
     /**
      * The fully qualified class name of the <b>logger instance</b>,
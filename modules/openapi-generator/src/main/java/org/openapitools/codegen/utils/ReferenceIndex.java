@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memoizes the resolution of '$ref' strings against the components of a single OpenAPI document, so the
+ * {@code ModelUtils.getReferenced*} helpers and {@link ModelUtils#unaliasSchema(OpenAPI, Schema, Map)} don't parse the
+ * same reference again on every call.
+ * <p>
+ * Only the parsing of references is memoized for the getReferenced* helpers; the component itself is looked up in the
+ * document on every call. A memoized chain of aliases is checked against the current component schemas before it is
+ * used, so adding, removing or replacing a component (e.g. {@code schemas.put(name, newSchema)}) is detected
+ * automatically. Mutations of the component schemas themselves require a call to
+ * {@link ModelUtils#invalidateIndexes(OpenAPI)}.
+ */
+final class ReferenceIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelUtils.class);
+
+    // ConcurrentHashMap can't hold null values, and references which can't be parsed have no simple name
+    private final Map<String, Optional<String>> simpleNames = new ConcurrentHashMap<>();
+    private final Map<String, Unaliased> unaliased = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves a '$ref'.
+     *
+     * @param ref    the reference, e.g. #/components/schemas/Pet
+     * @param lookup looks up the component by the simple name of the reference, may return null
+     * @param <T>    the type of the component
+     * @return the referenced component, or null if it doesn't exist
+     */
+    <T> T resolve(String ref, Function<String, T> lookup) {
+        return lookup.apply(simpleNames.computeIfAbsent(ref, r -> Optional.ofNullable(ModelUtils.getSimpleRef(r))).orElse(null));
+    }
+
+    /**
+     * Returns the memoized result of unaliasing a '$ref', computing it again if a schema of the chain was added,
+     * removed or replaced since.
+     *
+     * @param ref                  the reference
+     * @param generateAliasAsModel the value of the generateAliasAsModel setting the result was computed with
+     * @param allSchemas           the current component schemas of the document
+     * @param compute              computes the result when it isn't memoized yet
+     * @return the result
+     */
+    Unaliased unaliased(String ref, boolean generateAliasAsModel, Map<String, Schema> allSchemas, Function<String, Unaliased> compute) {
+        String key = (generateAliasAsModel ? "1" : "0") + ref;
+        Unaliased result = unaliased.get(key);
+        if (result == null || !result.isCurrent(allSchemas)) {
+            result = compute.apply(ref);
+            unaliased.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * The chain of aliases followed when unaliasing a '$ref'. Import mappings may stop the chain early, so they are
+     * applied when the result is read rather than when it is computed.
+     */
+    static final class Unaliased {
+        // names[i] is the simple name of the reference of levels[i]; levels[0] is the schema being unaliased
+        private final String[] names;
+        private final Schema[] levels;
+        // targets[i] is the component schema names[i] resolved to, or null if it wasn't defined
+        private final Schema[] targets;
+        // index of the resulting level, or -1 if the result is the last (non-referencing) schema
+        private final int resultLevel;
+        private final Schema result;
+
+        Unaliased(String[] names, Schema[] levels, Schema[] targets, int resultLevel, Schema result) {
+            this.names = names;
+            this.levels = levels;
+            this.targets = targets;
+            this.resultLevel = resultLevel;
+            this.result = result;
+        }
+
+        boolean isCurrent(Map<String, Schema> allSchemas) {
+            for (int i = 0; i < names.length; i++) {
+                if (allSchemas.get(names[i]) != targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Schema apply(Schema schema, Map<String, String> importMappings) {
+            for (int i = 0; i < names.length; i++) {
+                if (importMappings.containsKey(names[i])) {
+                    LOGGER.debug("Schema unaliasing of {} omitted because aliased class is to be mapped to {}", names[i], importMappings.get(names[i]));
+                    return level(i, schema);
+                }
+            }
+            return resultLevel < 0 ? result : level(resultLevel, schema);
+        }
+
+        private Schema level(int i, Schema schema) {
+            return i == 0 ? schema : levels[i];
+        }
+    }
+}
@@ -2,68 +2,80 @@ package org.openapitools.codegen.utils;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Ticker;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.openapitools.codegen.config.GlobalSettings;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class StringUtils {
 
     /**
-     * Set the cache size (entry count) of the sanitizedNameCache, camelizedWordsCache and underscoreWordsCache.
+     * Set the cache size (entry count) of the sanitizedNameCache.
      */
     public static final String NAME_CACHE_SIZE_PROPERTY = "org.openapitools.codegen.utils.namecache.cachesize";
     /**
-     * Set the cache expiry (in seconds) of the sanitizedNameCache, camelizedWordsCache and underscoreWordsCache.
+     * Set the cache expiry (in seconds) of the sanitizedNameCache.
      */
     public static final String NAME_CACHE_EXPIRY_PROPERTY = "org.openapitools.codegen.utils.namecache.expireafter.seconds";
 
-    // A cache of camelized words. The camelize() method is invoked many times with the same
-    // arguments, this cache is used to optimized performance.
-    private static Cache<Pair<String, Boolean>, String> camelizedWordsCache;
-
-    // A cache of underscored words, used to optimize the performance of the underscore() method.
-    private static Cache<String, String> underscoreWordsCache;
+    /**
+     * Set the cache size (entry count) of the camelizedWordsCache and underscoreWordsCache.
+     */
+    public static final String WORD_CACHE_SIZE_PROPERTY = "org.openapitools.codegen.utils.wordcache.cachesize";
 
-    // A cache of escaped words, used to optimize the performance of the escape() method.
-    private static Cache<EscapedNameOptions, String> escapedWordsCache;
+    // Caches of camelized and underscored words. These methods are invoked many times with the same arguments during
+    // a generator run; the caches are only filled while a run is active (see beginNameCacheScope) and are dropped once
+    // the last active run has finished. The conversions only depend on their arguments, so concurrent runs share the
+    // caches, which are bounded as runs may overlap indefinitely in a long-lived JVM.
+    private static final AtomicInteger nameCacheScopes = new AtomicInteger();
+    private static final Cache<String, String> camelizedWordsCache = newWordCache();
+    private static final Cache<String, String> lowerCamelizedWordsCache = newWordCache();
+    private static final Cache<String, String> underscoreWordsCache = newWordCache();
 
-    static {
-        int cacheSize = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_SIZE_PROPERTY, "200"));
-        int cacheExpiry = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_EXPIRY_PROPERTY, "5"));
-        camelizedWordsCache = Caffeine.newBuilder()
+    private static Cache<String, String> newWordCache() {
+        long cacheSize = Long.parseLong(GlobalSettings.getProperty(WORD_CACHE_SIZE_PROPERTY, "50000"));
+        return Caffeine.newBuilder()
                 .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
                 .build();
+    }
 
-        escapedWordsCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
+    /**
+     * Starts caching the results of {@link #camelize(String, boolean)} and {@link #underscore(String)}, typically for
+     * the duration of a generator run. Every call must be followed by a call to {@link #endNameCacheScope()}.
+     */
+    public static void beginNameCacheScope() {
+        nameCacheScopes.incrementAndGet();
+    }
 
-        underscoreWordsCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
+    /**
+     * Ends a scope started by {@link #beginNameCacheScope()}. The caches are cleared once no scope is active.
+     */
+    public static void endNameCacheScope() {
+        if (nameCacheScopes.decrementAndGet() <= 0) {
+            nameCacheScopes.set(0);
+            camelizedWordsCache.invalidateAll();
+            lowerCamelizedWordsCache.invalidateAll();
+            underscoreWordsCache.invalidateAll();
+        }
     }
 
-    private static Pattern capitalLetterPattern = Pattern.compile("([A-Z]+)([A-Z][a-z][a-z]+)");
-    private static Pattern lowercasePattern = Pattern.compile("([a-z\\d])([A-Z])");
-    private static Pattern pkgSeparatorPattern = Pattern.compile("\\.");
-    private static Pattern dollarPattern = Pattern.compile("\\$");
+    private static String cached(Cache<String, String> cache, String key, Function<String, String> conversion) {
+        if (nameCacheScopes.get() <= 0) {
+            return conversion.apply(key);
+        }
+        // not Cache.get(key, conversion), which must not be re-entered by the conversion
+        String result = cache.getIfPresent(key);
+        if (result == null) {
+            result = conversion.apply(key);
+            cache.put(key, result);
+        }
+        return result;
+    }
 
     /**
      * Underscore the given word.
@@ -74,22 +86,52 @@ public class StringUtils {
      * @return The underscored version of the word
      */
     public static String underscore(final String word) {
-        return underscoreWordsCache.get(word, wordToUnderscore -> {
-            String result;
-            String replacementPattern = "$1_$2";
-            // Replace package separator with slash.
-            result = pkgSeparatorPattern.matcher(wordToUnderscore).replaceAll("/");
-            // Replace $ with two underscores for inner classes.
-            result = dollarPattern.matcher(result).replaceAll("__");
-            // Replace capital letter with _ plus lowercase letter.
-            result = capitalLetterPattern.matcher(result).replaceAll(replacementPattern);
-            result = lowercasePattern.matcher(result).replaceAll(replacementPattern);
-            result = result.replace('-', '_');
-            // replace space with underscore
-            result = result.replace(' ', '_');
-            result = result.toLowerCase(Locale.ROOT);
-            return result;
-        });
+        return cached(underscoreWordsCache, word, StringUtils::convertToUnderscore);
+    }
+
+    /**
+     * Converts a word the way the original regular expressions of elephant bird do, in a single pass:
+     * <ul>
+     * <li>package separators become slashes, $ (inner classes) becomes two underscores</li>
+     * <li>an underscore separates the last capital letter of an acronym from a capitalized word that follows
+     * ("ListABCs" keeps "ABCs", "ABCDef" becomes "ABC_Def")</li>
+     * <li>an underscore separates a lowercase letter or digit from a following capital letter</li>
+     * <li>hyphens and spaces become underscores and everything is lower-cased</li>
+     * </ul>
+     */
+    private static String convertToUnderscore(final String word) {
+        final int length = word.length();
+        final char[] result = new char[length * 2];
+        int size = 0;
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (isAsciiUpperCase(c)) {
+                if (i > 0) {
+                    char previous = word.charAt(i - 1);
+                    if (isAsciiLowerCase(previous) || isAsciiDigit(previous)) {
+                        result[size++] = '_';
+                    } else if (isAsciiUpperCase(previous) && i + 2 < length
+                            && isAsciiLowerCase(word.charAt(i + 1)) && isAsciiLowerCase(word.charAt(i + 2))) {
+                        result[size++] = '_';
+                    }
+                }
+                result[size++] = (char) (c + ('a' - 'A'));
+            } else if (c == '.') {
+                result[size++] = '/';
+            } else if (c == '$') {
+                result[size++] = '_';
+                result[size++] = '_';
+            } else if (c == '-' || c == ' ') {
+                result[size++] = '_';
+            } else {
+                ascii &= c < 0x80;
+                result[size++] = c;
+            }
+        }
+        String underscored = new String(result, 0, size);
+        // only non-ASCII letters are left to lower-case; the context-sensitive rules of toLowerCase still apply
+        return ascii ? underscored : underscored.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -99,7 +141,24 @@ public class StringUtils {
      * @return The dashized version of the word, e.g. "my-name"
      */
     public static String dashize(String word) {
-        return underscore(word).replaceAll("[_ ]+", "-");
+        String underscored = underscore(word);
+        final int length = underscored.length();
+        final char[] result = new char[length];
+        int size = 0;
+        boolean separated = false;
+        for (int i = 0; i < length; i++) {
+            char c = underscored.charAt(i);
+            if (c == '_' || c == ' ') {
+                if (!separated) {
+                    result[size++] = '-';
+                }
+                separated = true;
+            } else {
+                result[size++] = c;
+                separated = false;
+            }
+        }
+        return new String(result, 0, size);
     }
 
     /**
@@ -129,115 +188,201 @@ public class StringUtils {
      * @return camelized string
      */
     public static String camelize(final String inputWord, boolean lowercaseFirstLetter) {
-        Pair<String, Boolean> key = new ImmutablePair<>(inputWord, lowercaseFirstLetter);
-
-        return camelizedWordsCache.get(key, pair -> {
-            String word = pair.getKey();
-            Boolean lowerFirstLetter = pair.getValue();
-            // Replace all slashes with dots (package separator)
-            Matcher m = camelizeSlashPattern.matcher(word);
-            while (m.find()) {
-                word = m.replaceFirst("." + m.group(1)/*.toUpperCase()*/);
-                m = camelizeSlashPattern.matcher(word);
-            }
+        if (lowercaseFirstLetter) {
+            return cached(lowerCamelizedWordsCache, inputWord, word -> convertToCamelCase(word, true));
+        }
+        return cached(camelizedWordsCache, inputWord, word -> convertToCamelCase(word, false));
+    }
 
-            // case out dots
-            String[] parts = word.split("\\.");
-            StringBuilder f = new StringBuilder();
-            for (String z : parts) {
-                if (z.length() > 0) {
-                    f.append(Character.toUpperCase(z.charAt(0))).append(z.substring(1));
-                }
-            }
-            word = f.toString();
+    private static String convertToCamelCase(String word, boolean lowercaseFirstLetter) {
+        if (!isPlainAscii(word)) {
+            return camelizeWithPatterns(word, lowercaseFirstLetter);
+        }
 
-            m = camelizeSlashPattern.matcher(word);
-            while (m.find()) {
-                word = m.replaceFirst(Character.toUpperCase(m.group(1).charAt(0)) + m.group(1).substring(1)/*.toUpperCase()*/);
-                m = camelizeSlashPattern.matcher(word);
+        final char[] chars = word.toCharArray();
+        int length = chars.length;
+
+        // Replace all slashes with dots (package separator), then case out dots
+        int size = 0;
+        boolean upperCaseNext = true;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '/' || c == '.') {
+                upperCaseNext = true;
+            } else {
+                chars[size++] = upperCaseNext ? toAsciiUpperCase(c) : c;
+                upperCaseNext = false;
             }
+        }
+        length = size;
 
-            // Uppercase the class name.
-            m = camelizeUppercasePattern.matcher(word);
-            if (m.find()) {
-                String rep = m.group(1) + m.group(2).toUpperCase(Locale.ROOT) + m.group(3);
-                rep = camelizeDollarPattern.matcher(rep).replaceAll("\\\\\\$");
-                word = m.replaceAll(rep);
+        // Uppercase the class name.
+        for (int i = 0; i < length; i++) {
+            if (isWordCharacter(chars[i])) {
+                chars[i] = toAsciiUpperCase(chars[i]);
+                break;
             }
+        }
 
-            // Remove all underscores (underscore_case to camelCase)
-            m = camelizeUnderscorePattern.matcher(word);
-            while (m.find()) {
-                String original = m.group(2);
-                String upperCase = original.toUpperCase(Locale.ROOT);
-                if (original.equals(upperCase)) {
-                    word = camelizeSimpleUnderscorePattern.matcher(word).replaceFirst("");
-                } else {
-                    word = m.replaceFirst(upperCase);
+        // Remove underscores followed by a character, upper-casing a lowercase letter that follows
+        // (underscore_case to camelCase)
+        size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '_' && i + 1 < length) {
+                if (isAsciiLowerCase(chars[i + 1])) {
+                    chars[size++] = toAsciiUpperCase(chars[++i]);
                 }
-                m = camelizeUnderscorePattern.matcher(word);
+                continue;
             }
+            chars[size++] = c;
+        }
+        length = size;
 
-            // Remove all hyphens (hyphen-case to camelCase)
-            m = camelizeHyphenPattern.matcher(word);
-            while (m.find()) {
-                word = m.replaceFirst(m.group(2).toUpperCase(Locale.ROOT));
-                m = camelizeHyphenPattern.matcher(word);
+        // Remove all hyphens followed by a character, upper-casing that character (hyphen-case to camelCase)
+        size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '-') {
+                while (i + 1 < length && chars[i + 1] == '-') {
+                    i++;
+                }
+                if (i + 1 < length) {
+                    c = toAsciiUpperCase(chars[++i]);
+                }
             }
+            chars[size++] = c;
+        }
+        length = size;
 
-            if (lowerFirstLetter && word.length() > 0) {
-                int i = 0;
-                char charAt = word.charAt(i);
-                while (i + 1 < word.length() && !((charAt >= 'a' && charAt <= 'z') || (charAt >= 'A' && charAt <= 'Z'))) {
-                    i = i + 1;
-                    charAt = word.charAt(i);
+        if (lowercaseFirstLetter) {
+            for (int i = 0; i < length; i++) {
+                if (isAsciiUpperCase(chars[i]) || isAsciiLowerCase(chars[i])) {
+                    chars[i] = toAsciiLowerCase(chars[i]);
+                    break;
                 }
-                i = i + 1;
-                word = word.substring(0, i).toLowerCase(Locale.ROOT) + word.substring(i);
             }
+        }
 
-            // remove all underscore
-            word = camelizeSimpleUnderscorePattern.matcher(word).replaceAll("");
-            return word;
-        });
+        // remove all underscore
+        size = 0;
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != '_') {
+                chars[size++] = chars[i];
+            }
+        }
+        return new String(chars, 0, size);
     }
 
-    private static class EscapedNameOptions {
-        public EscapedNameOptions(String name, Set<String> specialChars, List<String> charactersToAllow, String appendToReplacement) {
-            this.name = name;
-            this.appendToReplacement = appendToReplacement;
-            if (specialChars != null) {
-                this.specialChars = Collections.unmodifiableSet(specialChars);
-            } else {
-                this.specialChars = Collections.emptySet();
+    /**
+     * Words with other than printable ASCII characters, or with characters the regular expressions of
+     * {@link #camelizeWithPatterns(String, boolean)} treat specially ($ and \ in replacements, line terminators), are
+     * camelized by the regular expressions themselves.
+     */
+    private static boolean isPlainAscii(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80 || c == '$' || c == '\\' || c == '\n' || c == '\r') {
+                return false;
             }
-            if (charactersToAllow != null) {
-                this.charactersToAllow = Collections.unmodifiableList(charactersToAllow);
+        }
+        return true;
+    }
+
+    /**
+     * Camelizes a word with the regular expressions copied from elephant bird, which define the expected behaviour
+     * of {@link #camelize(String, boolean)}.
+     */
+    static String camelizeWithPatterns(String word, boolean lowerFirstLetter) {
+        // Replace all slashes with dots (package separator)
+        Matcher m = camelizeSlashPattern.matcher(word);
+        while (m.find()) {
+            word = m.replaceFirst("." + m.group(1)/*.toUpperCase()*/);
+            m = camelizeSlashPattern.matcher(word);
+        }
+
+        // case out dots
+        String[] parts = word.split("\\.");
+        StringBuilder f = new StringBuilder();
+        for (String z : parts) {
+            if (z.length() > 0) {
+                f.append(Character.toUpperCase(z.charAt(0))).append(z.substring(1));
+            }
+        }
+        word = f.toString();
+
+        m = camelizeSlashPattern.matcher(word);
+        while (m.find()) {
+            word = m.replaceFirst(Character.toUpperCase(m.group(1).charAt(0)) + m.group(1).substring(1)/*.toUpperCase()*/);
+            m = camelizeSlashPattern.matcher(word);
+        }
+
+        // Uppercase the class name.
+        m = camelizeUppercasePattern.matcher(word);
+        if (m.find()) {
+            String rep = m.group(1) + m.group(2).toUpperCase(Locale.ROOT) + m.group(3);
+            rep = camelizeDollarPattern.matcher(rep).replaceAll("\\\\\\$");
+            word = m.replaceAll(rep);
+        }
+
+        // Remove all underscores (underscore_case to camelCase)
+        m = camelizeUnderscorePattern.matcher(word);
+        while (m.find()) {
+            String original = m.group(2);
+            String upperCase = original.toUpperCase(Locale.ROOT);
+            if (original.equals(upperCase)) {
+                word = camelizeSimpleUnderscorePattern.matcher(word).replaceFirst("");
             } else {
-                this.charactersToAllow = Collections.emptyList();
+                word = m.replaceFirst(upperCase);
             }
+            m = camelizeUnderscorePattern.matcher(word);
         }
 
-        private String name;
-        private String appendToReplacement;
-        private Set<String> specialChars;
-        private List<String> charactersToAllow;
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            EscapedNameOptions that = (EscapedNameOptions) o;
-            return Objects.equals(name, that.name) &&
-                    Objects.equals(appendToReplacement, that.appendToReplacement) &&
-                    Objects.equals(specialChars, that.specialChars) &&
-                    Objects.equals(charactersToAllow, that.charactersToAllow);
+        // Remove all hyphens (hyphen-case to camelCase)
+        m = camelizeHyphenPattern.matcher(word);
+        while (m.find()) {
+            word = m.replaceFirst(m.group(2).toUpperCase(Locale.ROOT));
+            m = camelizeHyphenPattern.matcher(word);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(name, appendToReplacement, specialChars, charactersToAllow);
+        if (lowerFirstLetter && word.length() > 0) {
+            int i = 0;
+            char charAt = word.charAt(i);
+            while (i + 1 < word.length() && !((charAt >= 'a' && charAt <= 'z') || (charAt >= 'A' && charAt <= 'Z'))) {
+                i = i + 1;
+                charAt = word.charAt(i);
+            }
+            i = i + 1;
+            word = word.substring(0, i).toLowerCase(Locale.ROOT) + word.substring(i);
         }
+
+        // remove all underscore
+        word = camelizeSimpleUnderscorePattern.matcher(word).replaceAll("");
+        return word;
+    }
+
+    private static boolean isAsciiUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return isAsciiUpperCase(c) || isAsciiLowerCase(c) || isAsciiDigit(c) || c == '_';
+    }
+
+    private static char toAsciiUpperCase(char c) {
+        return isAsciiLowerCase(c) ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    private static char toAsciiLowerCase(char c) {
+        return isAsciiUpperCase(c) ? (char) (c + ('a' - 'A')) : c;
     }
 
     /**
@@ -253,21 +398,26 @@ public class StringUtils {
      */
     public static String escape(final String name, final Map<String, String> replacementMap,
                                 final List<String> charactersToAllow, final String appendToReplacement) {
-        EscapedNameOptions ns = new EscapedNameOptions(name, replacementMap.keySet(), charactersToAllow, appendToReplacement);
-        return escapedWordsCache.get(ns, wordToEscape -> {
-            String result = name.chars().mapToObj(c -> {
-                String character = String.valueOf((char) c);
-                if (charactersToAllow != null && charactersToAllow.contains(character)) {
-                    return character;
-                } else if (replacementMap.containsKey(character)) {
-                    return replacementMap.get(character) + (appendToReplacement != null ? appendToReplacement: "");
-                } else {
-                    return character;
-                }
-            }).reduce( (c1, c2) -> c1 + c2).orElse(null);
-
-            if (result != null) return result;
+        // not cached: a cache key would have to hash the replacement map, which costs as much as escaping the name
+        if (name.isEmpty()) {
             throw new RuntimeException("Word '" + name + "' could not be escaped.");
-        });
+        }
+        StringBuilder result = null;
+        for (int i = 0; i < name.length(); i++) {
+            String character = String.valueOf(name.charAt(i));
+            if ((charactersToAllow == null || !charactersToAllow.contains(character)) && replacementMap.containsKey(character)) {
+                if (result == null) {
+                    result = new StringBuilder(name.length() + 16).append(name, 0, i);
+                }
+                result.append(replacementMap.get(character));
+                if (appendToReplacement != null) {
+                    result.append(appendToReplacement);
+                }
+            } else if (result != null) {
+                result.append(name.charAt(i));
+            }
+        }
+        // most names contain nothing to escape
+        return result == null ? name : result.toString();
     }
 }
@@ -11,20 +11,38 @@ import org.openapitools.codegen.utils.ModelUtils;
 import org.openapitools.codegen.validation.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A validator which evaluates an OpenAPI 3.x specification document
+ * <p>
+ * The rules of each schema, operation, security scheme and parameter are evaluated as separate tasks of a
+ * {@link ForkJoinPool}, while the calling thread looks for unused schemas. Results are collected in document order,
+ * regardless of the order in which the tasks complete.
  */
 public class OpenApiEvaluator implements Validator<OpenAPI> {
     private RuleConfiguration ruleConfiguration;
+    private ForkJoinPool pool;
 
     /**
-     * Constructs a new instance of {@link OpenApiEvaluator} with applied rules.
+     * Constructs a new instance of {@link OpenApiEvaluator} with applied rules, evaluated on the common pool.
      *
      * @param ruleConfiguration The set of rules to be applied to evaluation.
      */
     public OpenApiEvaluator(RuleConfiguration ruleConfiguration) {
+        this(ruleConfiguration, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new instance of {@link OpenApiEvaluator} with applied rules.
+     *
+     * @param ruleConfiguration The set of rules to be applied to evaluation.
+     * @param pool The pool evaluating the rules, or null to evaluate all rules on the calling thread.
+     */
+    public OpenApiEvaluator(RuleConfiguration ruleConfiguration, ForkJoinPool pool) {
         this.ruleConfiguration = ruleConfiguration;
+        this.pool = pool;
     }
 
     /**
@@ -35,6 +53,17 @@ public class OpenApiEvaluator implements Validator<OpenAPI> {
      */
     @Override
     public ValidationResult validate(OpenAPI specification) {
+        return validate(specification, null);
+    }
+
+    /**
+     * Validates input, recording the time spent in each rule.
+     *
+     * @param specification The {@link OpenAPI} object instance to be validated.
+     * @param costs Accumulates the cost of each evaluated rule, may be null.
+     * @return A {@link ValidationResult} which details the success, error, and warning validation results.
+     */
+    public ValidationResult validate(OpenAPI specification, ValidationRuleCosts costs) {
         ValidationResult validationResult = new ValidationResult();
         if (specification == null) return validationResult;
 
@@ -43,18 +72,16 @@ public class OpenApiEvaluator implements Validator<OpenAPI> {
         OpenApiSchemaValidations schemaValidations = new OpenApiSchemaValidations(ruleConfiguration);
         OpenApiOperationValidations operationValidations = new OpenApiOperationValidations(ruleConfiguration);
 
-        if (ruleConfiguration.isEnableUnusedSchemasRecommendation()) {
-            ValidationRule unusedSchema = ValidationRule.create(Severity.WARNING, "Unused schema", "A schema was determined to be unused.", s -> ValidationRule.Pass.empty());
-            ModelUtils.getUnusedSchemas(specification).forEach(schemaName -> validationResult.addResult(Validated.invalid(unusedSchema, "Unused model: " + schemaName)));
-        }
+        // one task per validated element, in document order
+        List<ForkJoinTask<ValidationResult>> tasks = new ArrayList<>();
 
         // Get list of all schemas under /components/schemas, including nested schemas defined inline and composed schema.
         // The validators must be able to validate every schema defined in the OAS document.
         List<Schema> schemas = ModelUtils.getAllSchemas(specification);
-        schemas.forEach(schema -> {
+        schemas.forEach(schema -> tasks.add(ForkJoinTask.adapt(() -> {
             SchemaWrapper wrapper = new SchemaWrapper(specification, schema);
-            validationResult.consume(schemaValidations.validate(wrapper));
-        });
+            return schemaValidations.validate(wrapper, costs);
+        })));
 
         List<Parameter> parameters = new ArrayList<>(50);
 
@@ -72,8 +99,10 @@ public class OpenApiEvaluator implements Validator<OpenAPI> {
                             parameters.addAll(op.getParameters());
                         }
 
-                        OperationWrapper wrapper = new OperationWrapper(specification, op, httpMethod);
-                        validationResult.consume(operationValidations.validate(wrapper));
+                        tasks.add(ForkJoinTask.adapt(() -> {
+                            OperationWrapper wrapper = new OperationWrapper(specification, op, httpMethod);
+                            return operationValidations.validate(wrapper, costs);
+                        }));
                     }
                 });
             });
@@ -83,10 +112,10 @@ public class OpenApiEvaluator implements Validator<OpenAPI> {
         if (components != null) {
             Map<String, SecurityScheme> securitySchemes = components.getSecuritySchemes();
             if (securitySchemes != null && !securitySchemes.isEmpty()) {
-                securitySchemes.values().forEach(securityScheme -> {
+                securitySchemes.values().forEach(securityScheme -> tasks.add(ForkJoinTask.adapt(() -> {
                     SecuritySchemeWrapper wrapper = new SecuritySchemeWrapper(specification, securityScheme);
-                    validationResult.consume(securitySchemeValidations.validate(wrapper));
-                });
+                    return securitySchemeValidations.validate(wrapper, costs);
+                })));
             }
 
             if (components.getParameters() != null) {
@@ -94,11 +123,25 @@ public class OpenApiEvaluator implements Validator<OpenAPI> {
             }
         }
 
-        parameters.forEach(parameter -> {
-            parameter = ModelUtils.getReferencedParameter(specification, parameter);
-            ParameterWrapper wrapper = new ParameterWrapper(specification, parameter);
-            validationResult.consume(parameterValidations.validate(wrapper));
-        });
+        parameters.forEach(parameter -> tasks.add(ForkJoinTask.adapt(() -> {
+            ParameterWrapper wrapper = new ParameterWrapper(specification, ModelUtils.getReferencedParameter(specification, parameter));
+            return parameterValidations.validate(wrapper, costs);
+        })));
+
+        if (pool != null) {
+            tasks.forEach(pool::execute);
+        }
+
+        // ModelUtils may depend on the global settings of the calling thread, so this pass isn't forked
+        if (ruleConfiguration.isEnableUnusedSchemasRecommendation()) {
+            ValidationRule unusedSchema = ValidationRule.create(Severity.WARNING, "Unused schema", "A schema was determined to be unused.", s -> ValidationRule.Pass.empty());
+            long start = System.nanoTime();
+            List<String> unusedSchemas = ModelUtils.getUnusedSchemas(specification);
+            if (costs != null) costs.record(unusedSchema, System.nanoTime() - start);
+            unusedSchemas.forEach(schemaName -> validationResult.addResult(Validated.invalid(unusedSchema, "Unused model: " + schemaName)));
+        }
+
+        tasks.forEach(task -> validationResult.consume(pool != null ? task.join() : task.invoke()));
 
         List<Tag> tags = specification.getTags();
         if (tags != null && tags.size() > 1) {
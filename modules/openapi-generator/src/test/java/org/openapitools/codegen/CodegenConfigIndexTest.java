@@ -0,0 +1,52 @@
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.languages.JavaClientCodegen;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class CodegenConfigIndexTest {
+    private final ClassLoader classLoader = CodegenConfig.class.getClassLoader();
+
+    @Test
+    public void indexCoversAllProviders() {
+        assertNotNull(classLoader.getResource(CodegenConfigIndex.INDEX_RESOURCE), "the build writes the generator index");
+
+        List<CodegenConfigDescriptor> indexed = CodegenConfigIndex.load(classLoader, true);
+        List<CodegenConfigDescriptor> instantiated = CodegenConfigIndex.load(classLoader, false);
+
+        assertFalse(indexed.isEmpty());
+        assertEquals(indexed, instantiated);
+    }
+
+    @Test
+    public void loadsGeneratorsByName() {
+        CodegenConfig config = CodegenConfigLoader.forName("java");
+        assertTrue(config instanceof JavaClientCodegen);
+        assertEquals(config.getName(), "java");
+
+        assertTrue(CodegenConfigLoader.forName(JavaClientCodegen.class.getName()) instanceof JavaClientCodegen);
+        assertNotSame(CodegenConfigLoader.forName("java"), config);
+    }
+
+    @Test(expectedExceptions = GeneratorNotFoundException.class,
+            expectedExceptionsMessageRegExp = "(?s)Can't load config class with name 'no-such-generator'.*java\n.*")
+    public void listsAvailableGeneratorsWhenNotFound() {
+        CodegenConfigLoader.forName("no-such-generator");
+    }
+
+    @Test
+    public void describesGenerators() {
+        CodegenConfigDescriptor java = CodegenConfigLoader.getDescriptors().stream()
+                .filter(descriptor -> "java".equals(descriptor.getName()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        CodegenConfig config = java.newInstance();
+
+        assertEquals(java.getClassName(), JavaClientCodegen.class.getName());
+        assertEquals(java.getType(), config.getTag());
+        assertEquals(java.getStability(), config.getGeneratorMetadata().getStability());
+    }
+}
@@ -36,6 +36,8 @@ import io.swagger.v3.parser.core.models.ParseOptions;
 
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.languages.CSharpNetCoreClientCodegen;
+import org.openapitools.codegen.languages.JavaClientCodegen;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.templating.mustache.CamelCaseLambda;
@@ -2336,6 +2338,113 @@ public class DefaultCodegenTest {
         Assert.assertFalse(roundCOut.isCircularReference);
     }
 
+    @Test
+    public void testFromPropertyCachesByStructure() {
+        DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(new OpenAPI().components(new Components()));
+        ObjectSchema address = new ObjectSchema();
+        address.addProperties("street", new StringSchema().maxLength(64));
+        ObjectSchema sameAddress = new ObjectSchema();
+        sameAddress.addProperties("street", new StringSchema().maxLength(64));
+
+        CodegenProperty property = codegen.fromProperty("address", address);
+        CodegenPropertyCache cache = codegen.getCodegenPropertyCache();
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+
+        Assert.assertSame(codegen.fromProperty("address", address), property);
+        Assert.assertSame(codegen.fromProperty("address", sameAddress), property);
+        Assert.assertEquals(cache.getHits(), hits + 2);
+
+        Assert.assertEquals(cache.getMisses(), misses);
+        Assert.assertNotSame(codegen.fromProperty("billingAddress", address), property);
+        Assert.assertTrue(cache.getMisses() > misses);
+    }
+
+    @Test
+    public void testCompactModels() {
+        final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/allOf_composition.yaml");
+        Map<String, CodegenModel> regular = new HashMap<>();
+        Map<String, CodegenModel> compact = new HashMap<>();
+        DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(openAPI);
+        Assert.assertFalse(codegen.isCompactModels());
+        openAPI.getComponents().getSchemas().forEach((name, schema) -> regular.put(name, codegen.fromModel(name, schema)));
+
+        GlobalSettings.setProperty(CodegenConstants.COMPACT_MODELS, "true");
+        try {
+            DefaultCodegen compactCodegen = new DefaultCodegen() {
+                @Override
+                protected boolean supportsCompactModels() {
+                    return true;
+                }
+            };
+            compactCodegen.setOpenAPI(openAPI);
+            Assert.assertTrue(compactCodegen.isCompactModels());
+            openAPI.getComponents().getSchemas().forEach((name, schema) -> compact.put(name, compactCodegen.fromModel(name, schema)));
+        } finally {
+            GlobalSettings.reset();
+        }
+
+        // the generated output is compared in DefaultGeneratorTest
+        Assert.assertEquals(compact.keySet(), regular.keySet());
+
+        CodegenModel supermanRegular = regular.get("SuperMan");
+        CodegenModel superman = compact.get("SuperMan");
+        Assert.assertFalse(superman.requiredVars.isEmpty());
+        for (CodegenProperty required : superman.requiredVars) {
+            CodegenProperty inAllVars = superman.allVars.stream().filter(p -> p.baseName.equals(required.baseName)).findFirst().get();
+            Assert.assertSame(inAllVars, required);
+            Assert.assertTrue(inAllVars.vars.isEmpty());
+            // generators add nested properties after conversion
+            inAllVars.vars.add(new CodegenProperty());
+            inAllVars.vars.clear();
+            Assert.assertNotSame(supermanRegular.allVars.stream().filter(p -> p.baseName.equals(required.baseName)).findFirst().get(),
+                    supermanRegular.requiredVars.stream().filter(p -> p.baseName.equals(required.baseName)).findFirst().get());
+        }
+
+        // types are interned across models
+        CodegenProperty category = superman.vars.stream().filter(p -> "category".equals(p.baseName)).findFirst().get();
+        CodegenProperty origin = compact.get("Hero").vars.stream().filter(p -> "origin".equals(p.baseName)).findFirst().get();
+        Assert.assertEquals(origin.jsonSchema, category.jsonSchema);
+        Assert.assertSame(origin.jsonSchema, category.jsonSchema);
+        Assert.assertSame(origin.dataType, category.dataType);
+    }
+
+    @Test
+    public void testCompactModelsOnlyApplyToSupportedGenerators() {
+        GlobalSettings.setProperty(CodegenConstants.COMPACT_MODELS, "true");
+        try {
+            Assert.assertTrue(new JavaClientCodegen().isCompactModels());
+            Assert.assertFalse(new DefaultCodegen().isCompactModels());
+            Assert.assertFalse(new CSharpNetCoreClientCodegen().isCompactModels());
+            // subclasses may change the properties of models themselves
+            Assert.assertFalse(new JavaClientCodegen() {}.isCompactModels());
+        } finally {
+            GlobalSettings.reset();
+        }
+    }
+
+    @Test
+    public void testFromPropertyConvertsSchemaChangedInPlaceAgain() {
+        DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(new OpenAPI().components(new Components()));
+        Schema street = new StringSchema().maxLength(64);
+
+        CodegenProperty property = codegen.fromProperty("street", street);
+        Assert.assertEquals(property.getMaxLength(), Integer.valueOf(64));
+
+        street.setMaxLength(128);
+        CodegenProperty changed = codegen.fromProperty("street", street);
+        Assert.assertNotSame(changed, property);
+        Assert.assertEquals(changed.getMaxLength(), Integer.valueOf(128));
+        Assert.assertSame(codegen.fromProperty("street", street), changed);
+
+        // a schema changed back to its cached state finds its property again
+        street.setMaxLength(64);
+        Assert.assertSame(codegen.fromProperty("street", street), property);
+    }
+
     @Test
     public void testUseOneOfInterfaces() {
         final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/composed-oneof.yaml");
@@ -1,5 +1,7 @@
 package org.openapitools.codegen;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -11,14 +13,25 @@ import io.swagger.v3.oas.models.parameters.QueryParameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.languages.JavaClientCodegen;
+import org.openapitools.codegen.metrics.GenerationMetricsListener;
+import org.openapitools.codegen.metrics.JsonMetricsReport;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.postprocess.PostProcessCommand;
+import org.openapitools.codegen.sink.InMemoryOutputSink;
+import org.openapitools.codegen.sink.ZipOutputSink;
+import org.openapitools.codegen.templating.mustache.OnChangeLambda;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -26,6 +39,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class DefaultGeneratorTest {
 
@@ -110,6 +125,351 @@ public class DefaultGeneratorTest {
         }
     }
 
+    @Test
+    public void testParallelRenderingIsDeterministic() throws IOException {
+        Path sequentialTarget = Files.createTempDirectory("test-sequential");
+        Path parallelTarget = Files.createTempDirectory("test-parallel");
+        try {
+            List<File> sequentialFiles = generatePetstore(sequentialTarget, "1");
+            List<File> parallelFiles = generatePetstore(parallelTarget, "4");
+
+            Assert.assertEquals(parallelFiles.size(), sequentialFiles.size());
+            for (int i = 0; i < sequentialFiles.size(); i++) {
+                Path expected = sequentialTarget.relativize(sequentialFiles.get(i).toPath().toAbsolutePath());
+                Path actual = parallelTarget.relativize(parallelFiles.get(i).toPath().toAbsolutePath());
+                Assert.assertEquals(actual, expected);
+            }
+
+            Path filesMetadata = java.nio.file.Paths.get(".openapi-generator", "FILES");
+            Assert.assertEquals(
+                    Files.readAllLines(parallelTarget.resolve(filesMetadata)),
+                    Files.readAllLines(sequentialTarget.resolve(filesMetadata)));
+            Path petApi = java.nio.file.Paths.get("src/main/java/org/openapitools/client/api/PetApi.java");
+            Assert.assertEquals(
+                    Files.readAllLines(parallelTarget.resolve(petApi)),
+                    Files.readAllLines(sequentialTarget.resolve(petApi)));
+        } finally {
+            FileUtils.deleteDirectory(sequentialTarget.toFile());
+            FileUtils.deleteDirectory(parallelTarget.toFile());
+        }
+    }
+
+    @Test
+    public void testParallelRenderingOfOnChangeIsDeterministic() throws IOException {
+        Path templateDir = Files.createTempDirectory("test-onchange-templates");
+        Path sequentialTarget = Files.createTempDirectory("test-onchange-sequential");
+        Path parallelTarget = Files.createTempDirectory("test-onchange-parallel");
+        try {
+            Files.write(templateDir.resolve("model.mustache"), ("{{#onchange}}header{{/onchange}}\n"
+                    + "{{#models}}{{#model}}{{#vars}}{{name}}\n{{/vars}}{{/model}}{{/models}}")
+                    .getBytes(StandardCharsets.UTF_8));
+            generatePetstoreWithOnChange(templateDir, sequentialTarget, "1");
+            generatePetstoreWithOnChange(templateDir, parallelTarget, "4");
+
+            Path models = java.nio.file.Paths.get("src/main/java/org/openapitools/client/model");
+            for (String model : Arrays.asList("Category", "ModelApiResponse", "Order", "Pet", "Tag", "User")) {
+                Path file = models.resolve(model + ".java");
+                List<String> sequential = Files.readAllLines(sequentialTarget.resolve(file));
+                Assert.assertEquals(sequential.get(0), "header", model);
+                Assert.assertEquals(Files.readAllLines(parallelTarget.resolve(file)), sequential, model);
+            }
+        } finally {
+            FileUtils.deleteDirectory(templateDir.toFile());
+            FileUtils.deleteDirectory(sequentialTarget.toFile());
+            FileUtils.deleteDirectory(parallelTarget.toFile());
+        }
+    }
+
+    private void generatePetstoreWithOnChange(Path templateDir, Path target, String renderThreads) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setTemplateDir(templateDir.toAbsolutePath().toString())
+                .addAdditionalProperty("onchange", new OnChangeLambda())
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        DefaultGenerator generator = new DefaultGenerator(false);
+        generator.setGeneratorPropertyDefault(CodegenConstants.RENDER_THREADS, renderThreads);
+        generator.opts(configurator.toClientOptInput()).generate();
+    }
+
+    @Test
+    public void testIncrementalGenerationSkipsUnchangedFiles() throws IOException {
+        Path target = Files.createTempDirectory("test-incremental");
+        try {
+            generatePetstoreIncrementally(target, "first");
+            Assert.assertTrue(Files.exists(target.resolve(".openapi-generator/FINGERPRINTS")));
+
+            // a marker only survives the next run if the file is not rendered again
+            Path pet = target.resolve("src/main/java/org/openapitools/client/model/Pet.java");
+            Files.write(pet, "// marker".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            List<File> secondRun = generatePetstoreIncrementally(target, "first");
+            Assert.assertTrue(secondRun.stream().anyMatch(f -> f.toPath().toAbsolutePath().equals(pet.toAbsolutePath())));
+            Assert.assertTrue(new String(Files.readAllBytes(pet), StandardCharsets.UTF_8).endsWith("// marker"));
+
+            // changed inputs render the file again
+            generatePetstoreIncrementally(target, "second");
+            Assert.assertFalse(new String(Files.readAllBytes(pet), StandardCharsets.UTF_8).endsWith("// marker"));
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    @Test
+    public void testIncrementalGenerationTracksPartialsAndPrunesEntries() throws IOException {
+        Path target = Files.createTempDirectory("test-incremental");
+        try {
+            generatePetstoreIncrementally(target, "first");
+            Path manifest = target.resolve(".openapi-generator/FINGERPRINTS");
+            List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+            String modelPartials = lines.stream()
+                    .filter(line -> line.startsWith("# partials model.mustache\t"))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("partials of model.mustache not recorded"));
+            Assert.assertTrue(modelPartials.contains("\tlicenseInfo.mustache="), modelPartials);
+
+            // a partial which no longer resolves to the recorded contents renders the file again
+            List<String> tampered = new ArrayList<>();
+            for (String line : lines) {
+                tampered.add(line.startsWith("# partials model.mustache\t")
+                        ? line.replaceAll("(\tlicenseInfo\\.mustache=[^\t]*#)[0-9a-f]+", "$1ffff")
+                        : line);
+            }
+            tampered.add("src/main/java/org/openapitools/client/model/Removed.java\tdeadbeef");
+            Files.write(manifest, tampered, StandardCharsets.UTF_8);
+
+            Path pet = target.resolve("src/main/java/org/openapitools/client/model/Pet.java");
+            Path user = target.resolve("src/main/java/org/openapitools/client/api/UserApi.java");
+            Files.write(pet, "// marker".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Files.write(user, "// marker".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            generatePetstoreIncrementally(target, "first");
+            Assert.assertFalse(new String(Files.readAllBytes(pet), StandardCharsets.UTF_8).endsWith("// marker"));
+            Assert.assertTrue(new String(Files.readAllBytes(user), StandardCharsets.UTF_8).endsWith("// marker"));
+
+            // entries of files which are no longer generated are pruned
+            List<String> rewritten = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+            Assert.assertTrue(rewritten.stream().noneMatch(line -> line.contains("Removed.java")));
+            Assert.assertTrue(rewritten.stream().anyMatch(line -> line.startsWith("src/main/java/org/openapitools/client/api/UserApi.java\t")));
+            Assert.assertEquals(
+                    rewritten.stream().filter(line -> line.startsWith("# partials model.mustache\t")).findFirst().orElse(null),
+                    modelPartials);
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    @Test
+    public void testGenerationMetrics() throws IOException {
+        Path target = Files.createTempDirectory("test-metrics");
+        try {
+            final CodegenConfigurator configurator = new CodegenConfigurator()
+                    .setGeneratorName("java")
+                    .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                    .setGenerationMetrics(true)
+                    .setOutputDir(target.toAbsolutePath().toString());
+
+            Map<GenerationMetricsListener.Category, Set<String>> measured = new EnumMap<>(GenerationMetricsListener.Category.class);
+            DefaultGenerator generator = new DefaultGenerator(false);
+            generator.addMetricsListener((category, name, measurement) -> {
+                Assert.assertTrue(measurement.getWallNanos() >= 0);
+                synchronized (measured) {
+                    measured.computeIfAbsent(category, c -> new HashSet<>()).add(name);
+                }
+            });
+            List<File> files = generator.opts(configurator.toClientOptInput()).generate();
+
+            Assert.assertTrue(measured.get(GenerationMetricsListener.Category.PHASE).containsAll(Arrays.asList(
+                    "parse", "configure", "processModels", "renderModels", "processPaths", "processOperations", "renderApis", "supportingFiles", "metadata")));
+            Assert.assertTrue(measured.get(GenerationMetricsListener.Category.HOOK).containsAll(Arrays.asList(
+                    "processOpts", "fromModel", "postProcessModels", "postProcessAllModels", "fromOperation", "postProcessOperationsWithModels", "postProcess")));
+            Assert.assertTrue(measured.get(GenerationMetricsListener.Category.TEMPLATE).contains("model.mustache"));
+
+            File report = target.resolve(".openapi-generator").resolve(JsonMetricsReport.FILENAME).toFile();
+            Assert.assertTrue(report.exists());
+            Assert.assertFalse(files.contains(report));
+            JsonNode json = Json.mapper().readTree(report);
+            Assert.assertEquals(json.get("generator").asText(), "java");
+            Assert.assertEquals(json.get("phases").get(0).get("name").asText(), "parse");
+            Assert.assertTrue(json.get("templates").size() > 0);
+            Assert.assertTrue(json.get("propertyCache").get("misses").asLong() > 0);
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    @Test
+    public void testGenerationMetricsReportIsRemovedWhenGenerationFails() throws IOException {
+        Path target = Files.createTempDirectory("test-metrics");
+        try {
+            final CodegenConfigurator configurator = new CodegenConfigurator()
+                    .setGeneratorName("java")
+                    .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                    .setGenerationMetrics(true)
+                    .setOutputDir(target.toAbsolutePath().toString());
+
+            DefaultGenerator generator = new DefaultGenerator(false);
+            GenerationMetricsListener failing = (category, name, measurement) -> {
+                if ("configure".equals(name)) {
+                    throw new IllegalStateException("failed on purpose");
+                }
+            };
+            generator.addMetricsListener(failing);
+            generator.opts(configurator.toClientOptInput());
+
+            Assert.assertThrows(IllegalStateException.class, generator::generate);
+            Assert.assertEquals(generator.getMetricsListeners(), Collections.singletonList(failing));
+        } finally {
+            // a failed run doesn't reset the global properties of the configurator
+            GlobalSettings.reset();
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    @DataProvider(name = "compactModelGenerators")
+    public Object[][] compactModelGenerators() {
+        // generators which support compact models, and generators which change the properties of models themselves
+        return new Object[][]{
+                {"java"}, {"java:native"}, {"java:jersey2"}, {"rust-server"},
+                {"typescript-angular"}, {"typescript-fetch"}, {"javascript"}, {"javascript-apollo"},
+                {"csharp"}, {"csharp-netcore"}, {"aspnetcore"}, {"swift5"}, {"powershell"}};
+    }
+
+    @Test(dataProvider = "compactModelGenerators")
+    public void testCompactModelsGenerateIdenticalOutput(String generatorName) {
+        Map<String, byte[]> regular = generateInMemory(generatorName, false);
+        Map<String, byte[]> compact = generateInMemory(generatorName, true);
+
+        Assert.assertEquals(compact.keySet(), regular.keySet());
+        regular.forEach((name, contents) -> Assert.assertEquals(new String(compact.get(name), StandardCharsets.UTF_8),
+                new String(contents, StandardCharsets.UTF_8), name));
+    }
+
+    private Map<String, byte[]> generateInMemory(String generatorName, boolean compactModels) {
+        Path target = java.nio.file.Paths.get("target", "compact-models", generatorName.replace(':', '-')).toAbsolutePath();
+        String[] nameAndLibrary = generatorName.split(":");
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName(nameAndLibrary[0])
+                .setLibrary(nameAndLibrary.length > 1 ? nameAndLibrary[1] : null)
+                .setInputSpec("src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml")
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true)
+                // otherwise random in C# projects
+                .addAdditionalProperty(CodegenConstants.OPTIONAL_PROJECT_GUID, "{8E4B9E6F-1C2B-4F9D-9C1A-5B3E2A7D6F40}")
+                .addAdditionalProperty("userSecretsGuid", "5b0e3c1d-7f2a-4c8e-9d6b-2a4f1e8c7b30")
+                .addGlobalProperty(CodegenConstants.COMPACT_MODELS, String.valueOf(compactModels))
+                .setOutputDir(target.toString());
+        InMemoryOutputSink sink = new InMemoryOutputSink(target);
+        try {
+            new DefaultGenerator().opts(configurator.toClientOptInput().outputSink(sink)).generate();
+        } finally {
+            GlobalSettings.reset();
+        }
+        return sink.getFiles();
+    }
+
+    @DataProvider(name = "postProcessBatchSizes")
+    public Object[][] postProcessBatchSizes() {
+        // single files unless batching is enabled explicitly
+        return new Object[][]{{null, 1}, {"10", 10}};
+    }
+
+    @Test(dataProvider = "postProcessBatchSizes")
+    public void testPostProcessFilesInBatches(String batchSize, int expectedBatchSize) throws IOException {
+        if (org.apache.commons.lang3.SystemUtils.IS_OS_WINDOWS) {
+            return;
+        }
+        Path target = Files.createTempDirectory("test-post-process");
+        try {
+            Path log = target.resolve("invocations.log");
+            Path script = target.resolve("formatter.sh");
+            Files.write(script, ("echo $# >> " + log).getBytes(StandardCharsets.UTF_8));
+            PostProcessedJavaClientCodegen.command = PostProcessCommand.of("/bin/sh", script.toString());
+
+            final CodegenConfigurator configurator = new CodegenConfigurator()
+                    .setGeneratorName(PostProcessedJavaClientCodegen.class.getName())
+                    .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                    .setEnablePostProcessFile(true)
+                    .setOutputDir(target.resolve("out").toAbsolutePath().toString());
+            if (batchSize != null) {
+                configurator.addGlobalProperty(CodegenConstants.POST_PROCESS_BATCH_SIZE, batchSize);
+            }
+            List<File> files = new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+
+            long javaFiles = files.stream().filter(f -> f.getName().endsWith(".java")).count();
+            List<String> invocations = Files.readAllLines(log, StandardCharsets.UTF_8);
+            Assert.assertEquals(invocations.size(), (javaFiles + expectedBatchSize - 1) / expectedBatchSize);
+            Assert.assertEquals(invocations.stream().mapToLong(Long::parseLong).sum(), javaFiles);
+        } finally {
+            PostProcessedJavaClientCodegen.command = null;
+            org.apache.commons.io.FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    public static class PostProcessedJavaClientCodegen extends JavaClientCodegen {
+        static volatile PostProcessCommand command;
+
+        @Override
+        public PostProcessCommand getPostProcessCommand(File file, String fileType) {
+            return file.getName().endsWith(".java") ? command : null;
+        }
+    }
+
+    @Test
+    public void testGenerationToOutputSinks() throws IOException {
+        Path target = Files.createTempDirectory("test-sink").resolve("petstore-client");
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        InMemoryOutputSink memory = new InMemoryOutputSink(target);
+        List<File> files = new DefaultGenerator(false).opts(configurator.toClientOptInput().outputSink(memory)).generate();
+        Assert.assertFalse(target.toFile().exists(), "Nothing is written to the output directory");
+        Assert.assertEquals(memory.getFiles().size(), files.size());
+        Assert.assertTrue(new String(memory.getFile("src/main/java/org/openapitools/client/model/Pet.java"), StandardCharsets.UTF_8)
+                .contains("public class Pet"));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputSink zip = new ZipOutputSink(archive, target.getParent())) {
+            new DefaultGenerator(false).opts(configurator.toClientOptInput().outputSink(zip)).generate();
+        }
+        Assert.assertFalse(target.toFile().exists(), "Nothing is written to the output directory");
+        Set<String> entries = new HashSet<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        Assert.assertEquals(entries.size(), memory.getFiles().size());
+        Assert.assertTrue(entries.contains("petstore-client/src/main/java/org/openapitools/client/model/Pet.java"));
+        Assert.assertTrue(entries.contains("petstore-client/.openapi-generator/FILES"));
+        target.getParent().toFile().delete();
+    }
+
+    private List<File> generatePetstoreIncrementally(Path target, String artifactId) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setArtifactId(artifactId)
+                .setIncremental(true)
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        DefaultGenerator generator = new DefaultGenerator(false);
+        return generator.opts(configurator.toClientOptInput()).generate();
+    }
+
+    private List<File> generatePetstore(Path target, String renderThreads) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        DefaultGenerator generator = new DefaultGenerator(false);
+        generator.setGeneratorPropertyDefault(CodegenConstants.RENDER_THREADS, renderThreads);
+        return generator.opts(configurator.toClientOptInput()).generate();
+    }
+
     @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     public void testFilesAreNeverOverwritten() throws IOException {
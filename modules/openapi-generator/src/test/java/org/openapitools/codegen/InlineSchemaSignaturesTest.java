@@ -0,0 +1,79 @@
+package org.openapitools.codegen;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class InlineSchemaSignaturesTest {
+
+    @Test
+    public void matchesStructurallyEqualSchemas() {
+        InlineSchemaSignatures signatures = new InlineSchemaSignatures();
+        signatures.add("Pet", pet("name"));
+
+        assertEquals(signatures.match(pet("name")), "Pet");
+        assertNull(signatures.match(pet("title")));
+        assertNull(signatures.match(new ObjectSchema().addProperties("id", new IntegerSchema())));
+    }
+
+    @Test
+    public void replacesNameOfEqualStructure() {
+        InlineSchemaSignatures signatures = new InlineSchemaSignatures();
+        signatures.add("Pet", pet("name"));
+        signatures.add("Animal", pet("name"));
+        signatures.add("Other", pet("title"));
+
+        assertEquals(signatures.size(), 2);
+        assertEquals(signatures.match(pet("name")), "Animal");
+        assertEquals(signatures.match(pet("title")), "Other");
+    }
+
+    @Test
+    public void keepsStructureAsOfRegistration() {
+        InlineSchemaSignatures signatures = new InlineSchemaSignatures();
+        Schema registered = pet("name");
+        signatures.add("Pet", registered);
+
+        // the resolver replaces nested inline schemas of registered models by references afterwards
+        registered.getProperties().put("tags", new Schema<>().$ref("#/components/schemas/Pet_tags"));
+
+        assertEquals(signatures.match(pet("name")), "Pet");
+        assertNull(signatures.match(registered));
+    }
+
+    @Test
+    public void confirmsMatchesBySerialization() {
+        InlineSchemaSignatures signatures = new InlineSchemaSignatures();
+        signatures.add("Pet", pet("name").example("{\"name\": \"Rex\"}"));
+
+        // the example is not part of the hash, so these only differ in their serialization
+        Schema other = pet("name").example("{\"name\": \"Tom\"}");
+        assertEquals(InlineSchemaSignatures.hash(other), InlineSchemaSignatures.hash(pet("name").example("{}")));
+        assertNull(signatures.match(other));
+        assertEquals(signatures.match(pet("name").example("{\"name\": \"Rex\"}")), "Pet");
+    }
+
+    @Test
+    public void matchesEqualSerializationsOfDifferentSchemaTypes() {
+        InlineSchemaSignatures signatures = new InlineSchemaSignatures();
+        signatures.add("Pet", pet("name"));
+
+        Schema pet = new Schema<>().type("object")
+                .addProperties("id", new Schema<>().type("integer").format("int64"))
+                .addProperties("name", new Schema<>().type("string"))
+                .addProperties("tags", new ArraySchema().items(new Schema<>().type("object").addProperties("label", new StringSchema())));
+        assertEquals(signatures.match(pet), "Pet");
+    }
+
+    private static Schema pet(String nameProperty) {
+        return new ObjectSchema()
+                .addProperties("id", new IntegerSchema().format("int64"))
+                .addProperties(nameProperty, new StringSchema())
+                .addProperties("tags", new ArraySchema().items(new ObjectSchema().addProperties("label", new StringSchema())));
+    }
+}
@@ -0,0 +1,131 @@
+package org.openapitools.codegen;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public class ModelDependencyGraphTest {
+
+    @Test
+    public void findsCyclesAndDependencyOrder() {
+        Map<String, CodegenModel> models = new LinkedHashMap<>();
+        models.put("Inbound", model(property("RoundA")));
+        models.put("RoundA", model(property("RoundB"), property("string")));
+        models.put("RoundB", model(array("RoundC")));
+        models.put("RoundC", model(property("RoundA"), property("Outbound")));
+        models.put("Outbound", model());
+        models.put("Tree", model(array("Tree")));
+
+        ModelDependencyGraph graph = ModelDependencyGraph.build(models);
+
+        assertEquals(graph.getDependencies("RoundA"), Collections.singleton("RoundB"));
+        assertEquals(graph.getDependents("RoundA"), new HashSet<>(Arrays.asList("Inbound", "RoundC")));
+        assertEquals(graph.getComponent("RoundB"), new HashSet<>(Arrays.asList("RoundA", "RoundB", "RoundC")));
+        assertEquals(graph.getCycles(), Arrays.asList(
+                new HashSet<>(Arrays.asList("RoundA", "RoundB", "RoundC")),
+                Collections.singleton("Tree")));
+        assertTrue(graph.isInCycle("Tree"));
+        assertFalse(graph.isInCycle("Inbound"));
+        assertFalse(graph.isInCycle("Outbound"));
+
+        assertTrue(graph.isCircularReference("RoundC", "RoundA"));
+        assertTrue(graph.isCircularReference("Tree", "Tree"));
+        assertFalse(graph.isCircularReference("RoundC", "Outbound"));
+        assertFalse(graph.isCircularReference("Inbound", "RoundA"));
+        assertFalse(graph.isCircularReference("RoundA", "string"));
+
+        List<String> order = new ArrayList<>();
+        graph.getComponents().forEach(order::addAll);
+        assertTrue(order.indexOf("Outbound") < order.indexOf("RoundC"));
+        assertTrue(order.indexOf("RoundA") < order.indexOf("Inbound"));
+    }
+
+    @Test
+    public void handlesDeepReferenceChains() {
+        Map<String, CodegenModel> models = new LinkedHashMap<>();
+        int depth = 50_000;
+        for (int i = 0; i < depth; i++) {
+            models.put("M" + i, model(property("M" + ((i + 1) % depth))));
+        }
+
+        ModelDependencyGraph graph = ModelDependencyGraph.build(models);
+
+        assertEquals(graph.getComponents().size(), 1);
+        assertTrue(graph.isCircularReference("M0", "M1"));
+    }
+
+    @Test
+    public void matchesReachabilityOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            int size = 1 + random.nextInt(40);
+            Map<String, CodegenModel> models = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                List<CodegenProperty> properties = new ArrayList<>();
+                int edges = random.nextInt(3);
+                for (int e = 0; e < edges; e++) {
+                    String target = "M" + random.nextInt(size + 2); // may refer to a type which isn't a model
+                    properties.add(random.nextBoolean() ? property(target) : array(target));
+                }
+                models.put("M" + i, model(properties.toArray(new CodegenProperty[0])));
+            }
+
+            ModelDependencyGraph graph = ModelDependencyGraph.build(models);
+            for (Map.Entry<String, CodegenModel> entry : models.entrySet()) {
+                for (CodegenProperty property : entry.getValue().getAllVars()) {
+                    String target = ModelDependencyGraph.getDependency(property);
+                    assertEquals(graph.isCircularReference(entry.getKey(), target),
+                            reaches(models, target, entry.getKey()), entry.getKey() + " -> " + target);
+                }
+            }
+        }
+    }
+
+    private static boolean reaches(Map<String, CodegenModel> models, String from, String to) {
+        Set<String> visited = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>(Collections.singleton(from));
+        while (!pending.isEmpty()) {
+            String next = pending.pop();
+            if (next.equals(to)) {
+                return true;
+            }
+            if (visited.add(next) && models.containsKey(next)) {
+                models.get(next).getAllVars().forEach(p -> pending.push(ModelDependencyGraph.getDependency(p)));
+            }
+        }
+        return false;
+    }
+
+    private static CodegenModel model(CodegenProperty... properties) {
+        CodegenModel model = new CodegenModel();
+        model.setAllVars(Arrays.asList(properties));
+        return model;
+    }
+
+    private static CodegenProperty property(String dataType) {
+        CodegenProperty property = new CodegenProperty();
+        property.dataType = dataType;
+        return property;
+    }
+
+    private static CodegenProperty array(String itemType) {
+        CodegenProperty property = new CodegenProperty();
+        property.isContainer = true;
+        property.dataType = "List<" + itemType + ">";
+        property.items = property(itemType);
+        return property;
+    }
+}
@@ -0,0 +1,105 @@
+package org.openapitools.codegen;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.*;
+
+public class NameSanitizerTest {
+
+    private static final List<String> REGEXES = Arrays.asList("\\W", "[^\\w$]", "[^a-zA-Z0-9_]", "\\W-[\\$]", "[\\s]");
+
+    private static final List<List<String>> EXCEPTIONS = Arrays.asList(
+            Collections.emptyList(),
+            Arrays.asList("\\[\\]", "\\["),
+            Arrays.asList("\\]", "\\(", "\\)"),
+            Arrays.asList("\\.", "-", "\\|", " "),
+            Collections.singletonList("\\$"));
+
+    @Test
+    public void sanitizesLikeSuccessiveReplacements() {
+        List<String> names = new ArrayList<>(Arrays.asList("", "input[]", "input[a][b]", "[[]]", "[[]", "input(a)(b)",
+                "input.name", "input-name", "a|b", "input name and age", "/api/films/get", "\\api\\films\\get",
+                "$php_variable", "čaj-€", "😀emoji", "\uD800lone", "tab\there", "a\u0000b"));
+        String alphabet = "aZ09_[]().-| /\\$#@čé€😀\t";
+        Random random = new Random(17);
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int length = random.nextInt(12); length > 0; length--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            names.add(sb.toString());
+        }
+
+        for (String regex : REGEXES) {
+            for (List<String> exceptions : EXCEPTIONS) {
+                for (boolean allowUnicodeIdentifiers : new boolean[]{false, true}) {
+                    NameSanitizer sanitizer = NameSanitizer.of(regex, exceptions, allowUnicodeIdentifiers);
+                    for (String name : names) {
+                        assertEquals(sanitizer.sanitize(name), sanitizeWithPatterns(name, regex, exceptions, allowUnicodeIdentifiers),
+                                "'" + name + "' with " + regex + ", " + exceptions + ", " + allowUnicodeIdentifiers);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compilesOncePerOptions() {
+        List<String> exceptions = new ArrayList<>(Collections.singletonList("-"));
+        NameSanitizer sanitizer = NameSanitizer.of("\\W", exceptions, false);
+        assertSame(NameSanitizer.of("\\W", new ArrayList<>(exceptions), false), sanitizer);
+        assertNotSame(NameSanitizer.of("\\W", exceptions, true), sanitizer);
+        assertNotSame(NameSanitizer.of("[^\\w$]", exceptions, false), sanitizer);
+
+        // changing the caller's list afterwards doesn't affect the compiled sanitizer
+        exceptions.clear();
+        assertNotSame(NameSanitizer.of("\\W", exceptions, false), sanitizer);
+        assertEquals(sanitizer.sanitize("a-b"), "ab");
+        assertEquals(NameSanitizer.of("\\W", exceptions, false).sanitize("a-b"), "a_b");
+    }
+
+    @Test
+    public void cachesSanitizedNamesPerUnicodeSetting() {
+        DefaultCodegen ascii = new DefaultCodegen();
+        DefaultCodegen unicode = new DefaultCodegen();
+        unicode.setAllowUnicodeIdentifiers(true);
+
+        assertEquals(unicode.sanitizeName("čaj-name"), "čaj_name");
+        assertEquals(ascii.sanitizeName("čaj-name"), "aj_name");
+        assertEquals(unicode.sanitizeName("čaj-name"), "čaj_name");
+    }
+
+    // the replacements as DefaultCodegen applied them before they were compiled into a single scan
+    private static String sanitizeWithPatterns(String name, String removeCharRegEx, List<String> exceptions, boolean allowUnicodeIdentifiers) {
+        String modifiable = name;
+        modifiable = sanitizeValue(modifiable, "\\[\\]", "", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\[", "_", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\]", "", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\(", "_", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\)", "", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\.", "_", exceptions);
+        modifiable = sanitizeValue(modifiable, "-", "_", exceptions);
+        modifiable = sanitizeValue(modifiable, "\\|", "_", exceptions);
+        modifiable = sanitizeValue(modifiable, " ", "_", exceptions);
+        modifiable = modifiable.replaceAll("/", "_");
+        modifiable = modifiable.replaceAll("\\\\", "_");
+        if (allowUnicodeIdentifiers) {
+            return Pattern.compile(removeCharRegEx, Pattern.UNICODE_CHARACTER_CLASS).matcher(modifiable).replaceAll("");
+        }
+        return modifiable.replaceAll(removeCharRegEx, "");
+    }
+
+    private static String sanitizeValue(String value, String replaceMatch, String replaceValue, List<String> exceptionList) {
+        if (exceptionList.size() == 0 || !exceptionList.contains(replaceMatch)) {
+            return value.replaceAll(replaceMatch, replaceValue);
+        }
+        return value;
+    }
+}
@@ -1,6 +1,11 @@
 package org.openapitools.codegen;
 
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.serializer.SerializedSpec;
+import org.openapitools.codegen.serializer.SerializerUtils;
 import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
@@ -131,6 +136,31 @@ public class TemplateManagerTest {
         }
     }
 
+    @Test
+    public void writeStreamsSerializedSpec() throws IOException {
+        TemplateManagerOptions opts = new TemplateManagerOptions(false,false);
+        TemplateManager manager = new TemplateManager(opts, mustacheEngineAdapter, new TemplatePathLocator[]{ locator });
+        OpenAPI openAPI = new OpenAPI().info(new Info().title("Streamed").version("1.0"));
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", "Streamed");
+        data.put("openapi-yaml", SerializedSpec.yaml(openAPI));
+        data.put("openapi-json", SerializedSpec.json(openAPI));
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            File written = manager.write(data, "openapi.mustache", new File(target.toFile(), "openapi.yaml"));
+            assertEquals(new String(Files.readAllBytes(written.toPath()), StandardCharsets.UTF_8),
+                    SerializerUtils.toYamlString(openAPI) + "\n");
+
+            // other templates render the serialized spec as a string
+            written = manager.write(data, "openapi-with-title.mustache", new File(target.toFile(), "openapi.txt"));
+            assertEquals(new String(Files.readAllBytes(written.toPath()), StandardCharsets.UTF_8),
+                    "Spec of Streamed:\n" + SerializerUtils.toJsonString(openAPI));
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
     @Test
     public void skipOverwriteViaOption() throws IOException {
         TemplateManagerOptions opts = new TemplateManagerOptions(false,true);
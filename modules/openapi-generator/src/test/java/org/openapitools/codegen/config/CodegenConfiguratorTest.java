@@ -16,15 +16,24 @@
 
 package org.openapitools.codegen.config;
 
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.sink.InMemoryOutputSink;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -122,4 +131,75 @@ public class CodegenConfiguratorTest {
         want(props, "foo", "bar");
         want(props, "baz", "quux");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parsedSpecCacheParsesOnceAndGeneratesIdenticalOutput() {
+        ParsedSpecCache cache = new ParsedSpecCache();
+        Path outputDir = Paths.get("target", "parsed-spec-cache").toAbsolutePath();
+
+        Map<String, byte[]> uncached = generate(null, outputDir);
+        Map<String, byte[]> parsed = generate(cache, outputDir);
+        Map<String, byte[]> copied = generate(cache, outputDir);
+
+        assertEquals(cache.getParseCount(), 1);
+        assertEquals(cache.getCopyCount(), 1);
+        for (Map<String, byte[]> copy : Arrays.asList(parsed, copied)) {
+            assertEquals(copy.keySet(), uncached.keySet());
+            uncached.forEach((name, contents) -> assertEquals(new String(copy.get(name), StandardCharsets.UTF_8),
+                    new String(contents, StandardCharsets.UTF_8), name));
+        }
+    }
+
+    @Test
+    public void parsedSpecCacheParsesAgainWhenCopiesWouldDiffer() {
+        // the Swagger 2.0 converter leaves out parameter defaults which a copy would fill in
+        ParsedSpecCache cache = new ParsedSpecCache();
+        String spec = "src/test/resources/2_0/petstore-with-fake-endpoints-models-for-testing.yaml";
+
+        cache.read(spec, null, () -> new OpenAPIParser().readLocation(spec, null, new ParseOptions()));
+        cache.read(spec, null, () -> new OpenAPIParser().readLocation(spec, null, new ParseOptions()));
+
+        assertEquals(cache.getParseCount(), 2);
+        assertEquals(cache.getCopyCount(), 0);
+    }
+
+    @Test
+    public void parsedSpecCacheHandsEveryCallerAnEqualCopy() {
+        // whether an example was set explicitly isn't part of the JSON snapshot
+        ParsedSpecCache cache = new ParsedSpecCache();
+        String spec = "openapi: 3.0.1\n"
+                + "info: {title: cached, version: '1'}\n"
+                + "paths: {}\n"
+                + "components:\n"
+                + "  schemas:\n"
+                + "    Pet:\n"
+                + "      type: object\n"
+                + "      properties:\n"
+                + "        name: {type: string, example: null}\n";
+
+        SwaggerParseResult first = cache.read("pet.yaml", null, () -> new OpenAPIParser().readContents(spec, null, new ParseOptions()));
+        SwaggerParseResult second = cache.read("pet.yaml", null, () -> new OpenAPIParser().readContents(spec, null, new ParseOptions()));
+
+        assertEquals(cache.getParseCount(), 1);
+        assertNotSame(first.getOpenAPI(), second.getOpenAPI());
+        assertEquals(first.getOpenAPI(), second.getOpenAPI());
+        assertEquals(nameSchema(first).getExampleSetFlag(), nameSchema(second).getExampleSetFlag());
+    }
+
+    private static Schema<?> nameSchema(SwaggerParseResult result) {
+        return (Schema<?>) result.getOpenAPI().getComponents().getSchemas().get("Pet").getProperties().get("name");
+    }
+
+    private Map<String, byte[]> generate(ParsedSpecCache cache, Path outputDir) {
+        ClientOptInput input = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing-with-http-signature.yaml")
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true)
+                .setParsedSpecCache(cache)
+                .setOutputDir(outputDir.toString())
+                .toClientOptInput();
+        InMemoryOutputSink sink = new InMemoryOutputSink(outputDir);
+        new DefaultGenerator().opts(input.outputSink(sink)).generate();
+        return sink.getFiles();
+    }
+}
@@ -0,0 +1,146 @@
+package org.openapitools.codegen.model;
+
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
+import org.openapitools.codegen.templating.MustacheEngineAdapter;
+import org.openapitools.codegen.templating.TemplateManagerOptions;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.testng.Assert.*;
+
+public class LayeredMapTest {
+    private final TemplatePathLocator locator = name -> Paths.get("templating", "templates", name).toString();
+
+    private static Map<String, Object> shared() {
+        Map<String, Object> shared = new HashMap<>();
+        shared.put("age", "3");
+        shared.put("classname", "Shared");
+        shared.put("numbers", Arrays.asList(1, 2, 3));
+        return shared;
+    }
+
+    @Test
+    public void readsThroughToSharedLayer() {
+        ModelsMap models = new ModelsMap();
+        models.put("name", "Teddy");
+        models.put("classname", "Own");
+        models.layerOver(shared());
+
+        assertEquals(models.get("name"), "Teddy");
+        assertEquals(models.get("age"), "3");
+        assertTrue(models.containsKey("age"));
+        assertEquals(models.getOrDefault("age", "0"), "3");
+        assertEquals(models.getOrDefault("missing", "0"), "0");
+        assertFalse(models.containsKey("missing"));
+
+        // as with putAll, the shared entries replace own entries
+        assertEquals(models.get("classname"), "Shared");
+        models.put("classname", "Own");
+        assertEquals(models.get("classname"), "Own");
+
+        // the shared entries aren't copied
+        assertEquals(models.getOwnEntries().size(), 2);
+        assertEquals(models.flatten().size(), 4);
+        assertEquals(models.flatten().get("age"), "3");
+    }
+
+    @Test
+    public void viewsIncludeSharedLayer() {
+        ModelsMap models = new ModelsMap();
+        models.put("name", "Teddy");
+        models.layerOver(shared());
+        models.put("classname", "Own");
+
+        Map<String, Object> expected = new HashMap<>(shared());
+        expected.put("name", "Teddy");
+        expected.put("classname", "Own");
+
+        assertEquals(models.size(), 4);
+        assertFalse(models.isEmpty());
+        assertEquals(models.keySet(), expected.keySet());
+        assertEquals(models.entrySet(), expected.entrySet());
+        assertTrue(models.containsValue("3"));
+        assertFalse(models.containsValue("Shared"));
+        assertEquals(models, expected);
+        assertEquals(expected, models);
+        assertEquals(models.hashCode(), expected.hashCode());
+        assertEquals(new HashMap<>(models), expected);
+
+        Map<String, Object> visited = new HashMap<>();
+        models.forEach(visited::put);
+        assertEquals(visited, expected);
+    }
+
+    @Test
+    public void removesSharedEntries() {
+        ModelsMap models = new ModelsMap();
+        models.put("name", "Teddy");
+        models.layerOver(shared());
+
+        assertEquals(models.remove("age"), "3");
+        assertFalse(models.containsKey("age"));
+        assertEquals(models.size(), 3);
+        assertEquals(models.get("classname"), "Shared");
+
+        models.clear();
+        assertTrue(models.isEmpty());
+        assertNull(models.get("classname"));
+    }
+
+    @Test
+    public void putReturnsSharedValue() {
+        OperationsMap operations = new OperationsMap();
+        operations.layerOver(shared());
+
+        assertEquals(operations.put("age", "4"), "3");
+        assertEquals(operations.get("age"), "4");
+        assertEquals(operations.size(), 3);
+        assertEquals(operations.computeIfAbsent("classname", key -> "Own"), "Shared");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void sharedEntriesAreReadOnlyThroughViews() {
+        ModelsMap models = new ModelsMap();
+        models.layerOver(shared());
+
+        models.entrySet().iterator().next().setValue("4");
+    }
+
+    @Test
+    public void ownNullValuesShadowSharedLayer() {
+        OperationsMap operations = new OperationsMap();
+        operations.layerOver(shared());
+        operations.put("age", null);
+
+        assertNull(operations.get("age"));
+        assertTrue(operations.containsKey("age"));
+        assertNull(operations.getOrDefault("age", "0"));
+    }
+
+    @Test
+    public void templatesResolveSharedLayer() throws IOException {
+        ModelsMap data = new ModelsMap();
+        data.put("name", "Teddy");
+        data.layerOver(shared());
+
+        TemplateManager mustache = new TemplateManager(new TemplateManagerOptions(false, false),
+                new MustacheEngineAdapter(), new TemplatePathLocator[]{locator});
+        assertEquals(new MustacheEngineAdapter().compileTemplate(mustache, data, "simple.mustache").trim(), "Teddy and 3");
+
+        TemplateManager handlebars = new TemplateManager(new TemplateManagerOptions(false, false),
+                new HandlebarsEngineAdapter(), new TemplatePathLocator[]{locator});
+        assertEquals(new HandlebarsEngineAdapter().compileTemplate(handlebars, data, "numbers.handlebars").trim(), "Teddy counts 1 2 3");
+
+        String keys = new HandlebarsEngineAdapter().compileTemplate(handlebars, data, "keys.handlebars").trim();
+        assertEquals(new TreeSet<>(Arrays.asList(keys.split(";"))),
+                new TreeSet<>(Arrays.asList("age", "classname", "name", "numbers")));
+    }
+}
@@ -0,0 +1,150 @@
+package org.openapitools.codegen.postprocess;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.*;
+
+public class PostProcessBatchTest {
+
+    @Test
+    public void parsesCommandLinesLikeRuntimeExec() {
+        assertNull(PostProcessCommand.parse(null));
+        assertNull(PostProcessCommand.parse("  "));
+        assertEquals(PostProcessCommand.parse(" gofmt\t-w ").getArguments(), Arrays.asList("gofmt", "-w"));
+        assertEquals(PostProcessCommand.parse("perltidy").withArguments("-b", "-bext='/'").getArguments(),
+                Arrays.asList("perltidy", "-b", "-bext='/'"));
+        assertEquals(PostProcessCommand.parse("a  b"), PostProcessCommand.of("a", "b"));
+    }
+
+    @Test
+    public void chunksByBatchSizeAndCommandLineLength() {
+        PostProcessCommand command = PostProcessCommand.of("fmt");
+        List<File> files = Arrays.asList(new File("a1"), new File("b2"), new File("c3"), new File("d4"), new File("e5"));
+
+        List<List<File>> bySize = new PostProcessBatch(1, 2).chunk(command, files);
+        assertEquals(bySize.size(), 3);
+        assertEquals(bySize.get(2), Collections.singletonList(new File("e5")));
+
+        // "fmt" plus three " xx" arguments is 12 characters
+        List<List<File>> byLength = new PostProcessBatch(1, 100, 12).chunk(command, files);
+        assertEquals(byLength.size(), 2);
+        assertEquals(byLength.get(0).size(), 3);
+
+        // a single file exceeding the limit still gets its own invocation
+        assertEquals(new PostProcessBatch(1, 100, 1).chunk(command, files).size(), 5);
+    }
+
+    @Test
+    public void runsCommandOncePerChunk() throws IOException {
+        assumePosix();
+        Path dir = Files.createTempDirectory("post-process");
+        try {
+            Path log = dir.resolve("invocations.log");
+            Path script = script(dir, "echo \"$@\" >> " + log);
+            PostProcessCommand command = PostProcessCommand.of("/bin/sh", script.toString());
+
+            PostProcessBatch batch = new PostProcessBatch(2, 3);
+            List<File> files = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                File file = dir.resolve("File" + i + ".java").toFile();
+                files.add(file);
+                batch.add(command, file);
+            }
+            assertEquals(batch.size(), 7);
+
+            List<PostProcessBatch.Invocation> invocations = batch.run();
+            assertEquals(invocations.size(), 3);
+            assertTrue(invocations.stream().allMatch(PostProcessBatch.Invocation::isSuccessful));
+            assertEquals(invocations.get(0).getFiles(), files.subList(0, 3));
+            assertEquals(batch.size(), 0);
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            assertEquals(lines.size(), 3);
+            List<String> processed = new ArrayList<>();
+            lines.forEach(line -> processed.addAll(Arrays.asList(line.split(" "))));
+            Collections.sort(processed);
+            assertEquals(processed, files.stream().map(File::toString).sorted().collect(java.util.stream.Collectors.toList()));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void reportsFailuresWithOutputTail() throws IOException {
+        assumePosix();
+        Path dir = Files.createTempDirectory("post-process");
+        try {
+            Path script = script(dir, "i=0; while [ $i -lt 30 ]; do echo line$i; i=$((i+1)); done; echo \"cannot format $1\" >&2; exit 3");
+            PostProcessBatch batch = new PostProcessBatch(1, 1);
+            batch.add(PostProcessCommand.of("/bin/sh", script.toString()), new File("Broken.java"));
+            batch.add(PostProcessCommand.of("/bin/sh", "-c", "exit 0"), new File("Fine.java"));
+            batch.add(PostProcessCommand.of(dir.resolve("missing-formatter").toString()), new File("Other.java"));
+
+            List<PostProcessBatch.Invocation> invocations = batch.run();
+            assertEquals(invocations.size(), 3);
+
+            PostProcessBatch.Invocation failed = invocations.get(0);
+            assertFalse(failed.isSuccessful());
+            assertEquals(failed.getExitValue(), 3);
+            assertEquals(failed.getOutput().size(), PostProcessBatch.OUTPUT_TAIL_LINES);
+            assertEquals(failed.getOutput().get(failed.getOutput().size() - 1), "cannot format Broken.java");
+
+            assertTrue(invocations.get(1).isSuccessful());
+            assertFalse(invocations.get(2).isSuccessful());
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void startsCommandsInTheEnvironmentSetForTheThread() throws Exception {
+        assumePosix();
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.put("FORMATTER_STYLE", "client");
+        PostProcessCommand command = PostProcessCommand.of("/bin/sh", "-c", "echo \"${FORMATTER_STYLE:-unset}\"");
+        List<File> files = Collections.singletonList(new File("Pet.java"));
+
+        PostProcessBatch.setEnvironment(environment);
+        try {
+            assertEquals(PostProcessBatch.execute(command, files).getOutput(), Collections.singletonList("client"));
+            // as used by the threads running chunks
+            AtomicReference<List<String>> output = new AtomicReference<>();
+            Thread thread = new Thread(() -> output.set(PostProcessBatch.execute(command, files).getOutput()));
+            thread.start();
+            thread.join();
+            assertEquals(output.get(), Collections.singletonList("client"));
+        } finally {
+            PostProcessBatch.setEnvironment(null);
+        }
+        assertEquals(PostProcessBatch.execute(command, files).getOutput(),
+                Collections.singletonList(System.getenv().getOrDefault("FORMATTER_STYLE", "unset")));
+    }
+
+    private static Path script(Path dir, String body) throws IOException {
+        Path script = dir.resolve("formatter.sh");
+        Files.write(script, body.getBytes(StandardCharsets.UTF_8));
+        return script;
+    }
+
+    private static void assumePosix() {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            throw new SkipException("requires /bin/sh");
+        }
+    }
+}
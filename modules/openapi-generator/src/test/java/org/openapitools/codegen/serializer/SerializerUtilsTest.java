@@ -11,10 +11,12 @@ import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.tags.Tag;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 public class SerializerUtilsTest {
 
@@ -214,6 +216,30 @@ public class SerializerUtilsTest {
         assertEquals(content, expected);
     }
 
+    @Test
+    public void testWriteMatchesStrings() throws Exception {
+        OpenAPI openAPI = createCompleteExample();
+
+        ByteArrayOutputStream yaml = new ByteArrayOutputStream();
+        SerializerUtils.writeYaml(openAPI, yaml);
+        assertEquals(yaml.toString("UTF-8"), SerializerUtils.toYamlString(openAPI));
+        assertEquals(SerializedSpec.yaml(openAPI).toString(), SerializerUtils.toYamlString(openAPI));
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        SerializedSpec.json(openAPI).writeTo(json);
+        assertEquals(json.toString("UTF-8"), SerializerUtils.toJsonString(openAPI));
+        assertEquals(SerializedSpec.json(openAPI).toString(), SerializerUtils.toJsonString(openAPI));
+    }
+
+    @Test
+    public void testSerializedSpecStringIsComputedOnce() {
+        OpenAPI openAPI = createCompleteExample();
+        SerializedSpec yaml = SerializedSpec.yaml(openAPI);
+
+        String serialized = yaml.toString();
+        assertSame(yaml.toString(), serialized);
+    }
+
     private OpenAPI createMinimalExample() {
         OpenAPI openAPI = new OpenAPI();
         openAPI.setInfo(new Info().title("Some title"));
@@ -0,0 +1,99 @@
+package org.openapitools.codegen.sink;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+public class DiffOnlyOutputSinkTest {
+
+    @Test
+    public void reportsChangesWithoutWriting() throws IOException {
+        Path dir = Files.createTempDirectory("diff-only");
+        try {
+            Path unchanged = dir.resolve("unchanged.txt");
+            Path modified = dir.resolve("modified.txt");
+            Path added = dir.resolve("nested").resolve("added.txt");
+            Files.write(unchanged, bytes("same"));
+            Files.write(modified, bytes("before"));
+
+            DiffOnlyOutputSink sink = new DiffOnlyOutputSink();
+            sink.write(unchanged, bytes("same"));
+            sink.write(modified, bytes("after!"));
+            sink.write(added, bytes("new"));
+
+            assertEquals(sink.getChangedFiles(), Arrays.asList(modified, added));
+            assertEquals(sink.getUnchangedFiles(), Collections.singletonList(unchanged));
+            assertEquals(new String(Files.readAllBytes(modified), StandardCharsets.UTF_8), "before");
+            assertFalse(Files.exists(added));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void writesOnlyChangedFilesToDelegate() throws IOException {
+        Path dir = Files.createTempDirectory("diff-only");
+        try {
+            // large enough to be compared through a memory mapping
+            byte[] large = new byte[DiffOnlyOutputSink.MAPPED_COMPARE_THRESHOLD * 2];
+            Arrays.fill(large, (byte) 'a');
+            byte[] changed = large.clone();
+            changed[changed.length - 1] = 'b';
+
+            Path unchanged = dir.resolve("unchanged.bin");
+            Path modified = dir.resolve("modified.bin");
+            Files.write(unchanged, large);
+            Files.write(modified, large);
+            long lastModified = Files.getLastModifiedTime(unchanged).toMillis();
+
+            InMemoryOutputSink delegate = new InMemoryOutputSink(dir);
+            DiffOnlyOutputSink sink = new DiffOnlyOutputSink(delegate);
+            sink.write(unchanged, large.clone());
+            sink.write(modified, changed);
+
+            assertEquals(delegate.getFiles().keySet(), Collections.singleton("modified.bin"));
+            assertEquals(delegate.getFile("modified.bin"), changed);
+            assertEquals(Files.getLastModifiedTime(unchanged).toMillis(), lastModified);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void fileSystemSinkHonorsSkipOverwrite() throws IOException {
+        Path dir = Files.createTempDirectory("file-system");
+        try {
+            Path existing = dir.resolve("existing.txt");
+            Path added = dir.resolve("a").resolve("b").resolve("added.txt");
+            Files.write(existing, bytes("original"));
+
+            FileSystemOutputSink sink = new FileSystemOutputSink(true);
+            sink.write(existing, bytes("replaced"));
+            sink.write(added, bytes("new"));
+
+            assertEquals(new String(Files.readAllBytes(existing), StandardCharsets.UTF_8), "original");
+            assertEquals(new String(Files.readAllBytes(added), StandardCharsets.UTF_8), "new");
+
+            new FileSystemOutputSink().write(existing, bytes("replaced"));
+            assertEquals(new String(Files.readAllBytes(existing), StandardCharsets.UTF_8), "replaced");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static byte[] bytes(String contents) {
+        return contents.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+}
@@ -0,0 +1,130 @@
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class CompiledTemplateCacheTest {
+    private Path templateDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        templateDir = Files.createTempDirectory("test-compiled-template-cache");
+        write("model.mustache", "{{>header}}{{name}}");
+        write("header.mustache", "header:");
+        write("model.handlebars", "{{>header}}{{name}}");
+        write("header.handlebars", "header:");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        GlobalSettings.reset();
+        File[] files = templateDir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        templateDir.toFile().delete();
+    }
+
+    @Test
+    public void mustacheCompilesOncePerRun() throws IOException {
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        TemplateManager manager = newManager(adapter);
+        Map<String, Object> bundle = bundle("Pet");
+
+        assertEquals(adapter.compileTemplate(manager, bundle, "model.mustache"), "header:Pet");
+        assertEquals(adapter.compileTemplate(manager, bundle, "model.mustache"), "header:Pet");
+        assertEquals(adapter.compileTemplate(manager, bundle, "model.mustache"), "header:Pet");
+
+        assertEquals(adapter.getTemplateCache().getMisses(), 1);
+        assertEquals(adapter.getTemplateCache().getHits(), 2);
+    }
+
+    @Test
+    public void handlebarsCompilesOncePerRun() throws IOException {
+        HandlebarsEngineAdapter adapter = new HandlebarsEngineAdapter();
+        TemplateManager manager = newManager(adapter);
+        Map<String, Object> bundle = bundle("Pet");
+
+        assertEquals(adapter.compileTemplate(manager, bundle, "model.mustache"), "header:Pet");
+        assertEquals(adapter.compileTemplate(manager, bundle, "model.mustache"), "header:Pet");
+
+        assertEquals(adapter.getTemplateCache().getMisses(), 1);
+        assertEquals(adapter.getTemplateCache().getHits(), 1);
+    }
+
+    @Test
+    public void changedPartialInvalidatesEntryForOtherExecutor() throws IOException {
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        Map<String, Object> bundle = bundle("Pet");
+
+        assertEquals(adapter.compileTemplate(newManager(adapter), bundle, "model.mustache"), "header:Pet");
+
+        write("header.mustache", "changed:");
+        assertEquals(adapter.compileTemplate(newManager(adapter), bundle, "model.mustache"), "changed:Pet");
+
+        assertEquals(adapter.getTemplateCache().getMisses(), 2);
+        assertEquals(adapter.getTemplateCache().getHits(), 0);
+    }
+
+    @Test
+    public void unchangedPartialIsReusedByOtherExecutor() throws IOException {
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        Map<String, Object> bundle = bundle("Pet");
+
+        adapter.compileTemplate(newManager(adapter), bundle, "model.mustache");
+        adapter.compileTemplate(newManager(adapter), bundle, "model.mustache");
+
+        assertEquals(adapter.getTemplateCache().getMisses(), 1);
+        assertEquals(adapter.getTemplateCache().getHits(), 1);
+    }
+
+    @Test
+    public void scopeNoneDisablesCache() throws IOException {
+        GlobalSettings.setProperty(CompiledTemplateCache.SCOPE_PROPERTY, "none");
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        TemplateManager manager = newManager(adapter);
+
+        assertEquals(adapter.compileTemplate(manager, bundle("Pet"), "model.mustache"), "header:Pet");
+        assertNull(adapter.getTemplateCache());
+    }
+
+    @Test
+    public void scopeJvmSharesCacheAcrossAdapters() throws IOException {
+        GlobalSettings.setProperty(CompiledTemplateCache.SCOPE_PROPERTY, "jvm");
+        MustacheEngineAdapter first = new MustacheEngineAdapter();
+        MustacheEngineAdapter second = new MustacheEngineAdapter();
+
+        assertSame(first.getTemplateCache(), second.getTemplateCache());
+    }
+
+    private Map<String, Object> bundle(String name) {
+        Map<String, Object> bundle = new HashMap<>();
+        bundle.put("name", name);
+        return bundle;
+    }
+
+    private TemplateManager newManager(org.openapitools.codegen.api.TemplatingEngineAdapter adapter) {
+        TemplatePathLocator locator = name -> templateDir.resolve(name).toString();
+        return new TemplateManager(new TemplateManagerOptions(false, false), adapter, new TemplatePathLocator[]{locator});
+    }
+
+    private void write(String name, String contents) throws IOException {
+        Files.write(templateDir.resolve(name), contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package org.openapitools.codegen.templating;
+
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.languages.JavaClientCodegen;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class GeneratorTemplateContentLocatorTest {
+
+    @Test
+    public void resolvesTemplatesOncePerDirectory() throws IOException {
+        Path userTemplates = Files.createTempDirectory("user-templates");
+        try {
+            Path libraryTemplate = userTemplates.resolve("libraries").resolve("okhttp-gson").resolve("model.mustache");
+            Files.createDirectories(libraryTemplate.getParent());
+            Files.write(libraryTemplate, "custom".getBytes(StandardCharsets.UTF_8));
+
+            JavaClientCodegen config = new JavaClientCodegen();
+            config.setLibrary("okhttp-gson");
+            config.setTemplateDir(userTemplates.toString());
+            GeneratorTemplateContentLocator locator = new GeneratorTemplateContentLocator(config);
+
+            assertEquals(locator.getFullTemplatePath("model.mustache"), libraryTemplate.toString());
+            assertEquals(locator.getFullTemplatePath("pojo_doc.mustache"), "Java" + File.separator + "pojo_doc.mustache");
+            assertNull(locator.getFullTemplatePath("missing.mustache"));
+
+            // resolved paths are indexed, so removing the template doesn't change the result
+            Files.delete(libraryTemplate);
+            assertEquals(locator.getFullTemplatePath("model.mustache"), libraryTemplate.toString());
+
+            // ... unless the template directories change
+            config.setTemplateDir(config.embeddedTemplateDir());
+            assertEquals(locator.getFullTemplatePath("model.mustache"),
+                    "Java" + File.separator + "libraries" + File.separator + "okhttp-gson" + File.separator + "model.mustache");
+
+            // a new instance resolves templates again
+            Files.write(libraryTemplate, "custom".getBytes(StandardCharsets.UTF_8));
+            config.setTemplateDir(userTemplates.toString());
+            Files.delete(libraryTemplate);
+            assertEquals(new GeneratorTemplateContentLocator(config).getFullTemplatePath("model.mustache"),
+                    "Java" + File.separator + "libraries" + File.separator + "okhttp-gson" + File.separator + "model.mustache");
+        } finally {
+            FileUtils.deleteDirectory(userTemplates.toFile());
+        }
+    }
+}
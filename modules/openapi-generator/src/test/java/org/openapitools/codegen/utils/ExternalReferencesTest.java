@@ -0,0 +1,70 @@
+package org.openapitools.codegen.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class ExternalReferencesTest {
+    private static void write(Path file, String... lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testLocalClosure() throws IOException {
+        Path dir = Files.createTempDirectory("closure");
+        try {
+            write(dir.resolve("spec.yaml"),
+                    "paths:",
+                    "  /pets:",
+                    "    $ref: 'paths/pets.yaml'",
+                    "components:",
+                    "  schemas:",
+                    "    Local:",
+                    "      $ref: '#/components/schemas/Other'",
+                    "    Remote:",
+                    "      $ref: 'https://example.com/remote.yaml#/Remote'",
+                    "    Missing:",
+                    "      $ref: 'missing.yaml#/Missing'");
+            write(dir.resolve("paths/pets.yaml"),
+                    "get:",
+                    "  responses:",
+                    "    '200':",
+                    "      $ref: '../schemas/pet.json#/Pet'");
+            write(dir.resolve("schemas/pet.json"),
+                    "{\"Pet\": {\"properties\": {\"self\": {\"$ref\": \"#/Pet\"}, \"back\": {\"$ref\": \"../spec.yaml#/components/schemas/Local\"}}}}");
+
+            File root = dir.resolve("spec.yaml").toFile();
+            assertEquals(ExternalReferences.localClosure(root), new LinkedHashSet<>(Arrays.asList(
+                    root.getAbsoluteFile(),
+                    dir.resolve("paths/pets.yaml").toFile().getAbsoluteFile(),
+                    dir.resolve("schemas/pet.json").toFile().getAbsoluteFile())));
+
+            Map<URI, byte[]> documents = ExternalReferences.closure(root.toURI(), uri -> null);
+            assertEquals(documents.size(), 1, "documents which can't be read aren't followed");
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testResolve() {
+        URI base = URI.create("file:/specs/api/spec.yaml");
+        assertNull(ExternalReferences.resolve(base, "#/components/schemas/Pet"));
+        assertEquals(ExternalReferences.resolve(base, "../common.yaml#/Error"), URI.create("file:/specs/common.yaml"));
+        assertEquals(ExternalReferences.resolve(base, "with space.yaml"), URI.create("file:/specs/api/with%20space.yaml"));
+        assertEquals(ExternalReferences.resolve(base, "https://example.com/a.yaml#/A"), URI.create("https://example.com/a.yaml"));
+        assertEquals(ExternalReferences.resolve(URI.create("https://example.com/v1/spec.yaml"), "b.yaml"), URI.create("https://example.com/v1/b.yaml"));
+    }
+}
@@ -18,10 +18,13 @@
 package org.openapitools.codegen.utils;
 
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.media.*;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
 import org.openapitools.codegen.TestUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -114,6 +117,63 @@ public class ModelUtilsTest {
         Assert.assertTrue(unusedSchemas.contains("SomeObj7"), "contains 'SomeObj7'");
     }
 
+    @Test
+    public void testSchemaUsageFollowsDocumentChanges() {
+        final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/unusedSchemas.yaml");
+        List<String> unusedSchemas = ModelUtils.getUnusedSchemas(openAPI);
+        Assert.assertTrue(unusedSchemas.contains("UnusedObj1"));
+        Assert.assertTrue(unusedSchemas.contains("UnusedObj2"));
+
+        // the returned lists are copies
+        unusedSchemas.clear();
+        Assert.assertTrue(ModelUtils.getUnusedSchemas(openAPI).contains("UnusedObj1"));
+
+        // added paths are detected
+        openAPI.getPaths().addPathItem("/some/unused1", new PathItem().get(new Operation()
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                        .content(new Content().addMediaType("application/json",
+                                new MediaType().schema(new Schema<>().$ref("#/components/schemas/UnusedObj1"))))))));
+        Assert.assertFalse(ModelUtils.getUnusedSchemas(openAPI).contains("UnusedObj1"));
+        Assert.assertTrue(ModelUtils.getAllUsedSchemas(openAPI).contains("UnusedObj1"));
+
+        // nested changes require an explicit invalidation
+        openAPI.getPaths().get("/some/p2").getPost().getRequestBody().getContent()
+                .get("application/x-www-form-urlencoded").setSchema(new Schema<>().$ref("#/components/schemas/UnusedObj2"));
+        ModelUtils.invalidateIndexes(openAPI);
+        Assert.assertFalse(ModelUtils.getUnusedSchemas(openAPI).contains("UnusedObj2"));
+        List<String> formSchemas = ModelUtils.getSchemasUsedOnlyInFormParam(openAPI);
+        Assert.assertTrue(formSchemas.contains("UnusedObj2"));
+        Assert.assertFalse(formSchemas.contains("SomeObj2"));
+    }
+
+    @Test
+    public void testSchemaUsageIncludesChildrenOfComposedHierarchy() {
+        final OpenAPI openAPI = TestUtils.createOpenAPI();
+        openAPI.getComponents().addSchemas("Animal", new ObjectSchema()
+                .addProperties("kind", new StringSchema())
+                .discriminator(new Discriminator().propertyName("kind")));
+        openAPI.getComponents().addSchemas("Mammal", new ComposedSchema()
+                .addAllOfItem(new Schema<>().$ref("#/components/schemas/Animal"))
+                .addAllOfItem(new ObjectSchema().addProperties("legs", new IntegerSchema())));
+        openAPI.getComponents().addSchemas("Dog", new ComposedSchema()
+                .addAllOfItem(new Schema<>().$ref("#/components/schemas/Mammal"))
+                .addAllOfItem(new ObjectSchema().addProperties("breed", new StringSchema())));
+
+        // Mammal is first used as a child of Animal, and only then referenced on its own
+        openAPI.getPaths().addPathItem("/animals", new PathItem().get(new Operation()
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                        .content(new Content().addMediaType("application/json",
+                                new MediaType().schema(new Schema<>().$ref("#/components/schemas/Animal"))))))));
+        openAPI.getPaths().addPathItem("/mammals", new PathItem().get(new Operation()
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                        .content(new Content().addMediaType("application/json",
+                                new MediaType().schema(new Schema<>().$ref("#/components/schemas/Mammal"))))))));
+
+        Assert.assertEquals(ModelUtils.getAllUsedSchemas(openAPI), Arrays.asList("Animal", "Mammal", "Dog"));
+        Assert.assertTrue(ModelUtils.getUnusedSchemas(openAPI).isEmpty());
+        Assert.assertTrue(ModelUtils.getSchemasUsedOnlyInFormParam(openAPI).isEmpty());
+    }
+
     @Test
     public void testNoComponentsSection() {
         final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/ping.yaml");
@@ -228,6 +288,63 @@ public class ModelUtilsTest {
         Assert.assertEquals(stringSchema, ModelUtils.unaliasSchema(openAPI, emailSchema, new HashMap<>()));
     }
 
+    @Test
+    public void testChainedAliasesAreUnaliasedPerImportMapping() {
+        StringSchema stringSchema = new StringSchema();
+        Schema contactSchema = new Schema().$ref("#/components/schemas/Email");
+        OpenAPI openAPI = TestUtils.createOpenAPIWithOneSchema("Email", stringSchema);
+        openAPI.getComponents().addSchemas("Contact", contactSchema);
+
+        Schema refToContact = new Schema().$ref("#/components/schemas/Contact");
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact, new HashMap<>()), stringSchema);
+        // the memoized chain honours the import mappings of each call
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact, Collections.singletonMap("Email", "foo.bar.Email")), contactSchema);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact, Collections.singletonMap("Contact", "foo.bar.Contact")), refToContact);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, new Schema().$ref("#/components/schemas/Email"), new HashMap<>()), stringSchema);
+    }
+
+    @Test
+    public void testReferenceIndexFollowsDocumentChanges() {
+        OpenAPI openAPI = TestUtils.createOpenAPIWithOneSchema("Email", new StringSchema());
+        Schema refToName = new Schema().$ref("#/components/schemas/Name");
+        Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, refToName), refToName);
+
+        // added components are detected
+        Schema nameSchema = new StringSchema().maxLength(64);
+        openAPI.getComponents().addSchemas("Name", nameSchema);
+        Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, refToName), nameSchema);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToName), nameSchema);
+
+        // nested changes require an explicit invalidation
+        nameSchema.setEnum(Arrays.asList("a", "b"));
+        ModelUtils.invalidateIndexes(openAPI);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToName), refToName);
+    }
+
+    @Test
+    public void testReferenceIndexFollowsReplacedComponents() {
+        StringSchema emailSchema = new StringSchema();
+        OpenAPI openAPI = TestUtils.createOpenAPIWithOneSchema("Email", emailSchema);
+        openAPI.getComponents().addSchemas("Contact", new Schema().$ref("#/components/schemas/Email"));
+        Schema refToEmail = new Schema().$ref("#/components/schemas/Email");
+        Schema refToContact = new Schema().$ref("#/components/schemas/Contact");
+        Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, refToEmail), emailSchema);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact), emailSchema);
+
+        // a component replaced under the same name is detected, also at the end of a chain of aliases
+        Schema replacedEmail = new StringSchema().maxLength(254);
+        openAPI.getComponents().getSchemas().put("Email", replacedEmail);
+        Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, refToEmail), replacedEmail);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact), replacedEmail);
+
+        // and in the middle of it
+        ObjectSchema contactModel = new ObjectSchema();
+        contactModel.addProperties("email", new Schema().$ref("#/components/schemas/Email"));
+        openAPI.getComponents().getSchemas().put("Contact", contactModel);
+        Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, refToContact), contactModel);
+        Assert.assertSame(ModelUtils.unaliasSchema(openAPI, refToContact), refToContact);
+    }
+
     /**
      * Issue https://github.com/OpenAPITools/openapi-generator/issues/1624.
      * ModelUtils.isFreeFormObject() should not throw an NPE when passed an empty
@@ -3,6 +3,10 @@ package org.openapitools.codegen.utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
 import static org.openapitools.codegen.utils.StringUtils.*;
 
 public class StringUtilsTest {
@@ -39,4 +43,114 @@ public class StringUtilsTest {
         Assert.assertEquals(dashize("Foo_Response__links"), "foo-response-links");
         Assert.assertEquals(dashize("Foo Response _links"), "foo-response-links");
     }
+
+    @Test
+    public void testEscape() {
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("-", "Minus");
+        replacements.put("@", "At");
+
+        Assert.assertEquals(escape("a-b@c", replacements, null, "_"), "aMinus_bAt_c");
+        Assert.assertEquals(escape("a-b@c", replacements, Collections.singletonList("-"), null), "a-bAtc");
+        Assert.assertEquals(escape("abc", replacements, null, null), "abc");
+        Assert.expectThrows(RuntimeException.class, () -> escape("", replacements, null, null));
+    }
+
+    @Test
+    public void testNameCacheScope() {
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("-", "Minus");
+
+        beginNameCacheScope();
+        try {
+            Assert.assertEquals(escape("a-b", replacements, null, null), "aMinusb");
+            // a changed replacement map applies to names escaped before
+            replacements.put("-", "Dash");
+            Assert.assertEquals(escape("a-b", replacements, null, null), "aDashb");
+            Assert.assertSame(camelize("some_value"), camelize("some_value"));
+        } finally {
+            endNameCacheScope();
+        }
+        Assert.assertNotSame(camelize("some_value"), camelize("some_value"));
+    }
+
+    @Test
+    public void testConversionsMatchRegularExpressions() {
+        List<String> words = new ArrayList<>(Arrays.asList(
+                "", "a", "A", "_", "-", ".", "/", "$", " ", "__", "--", "a--", "-a", "a-", "_a", "a_", "a__b", "a_-b",
+                "a-_b", "a._b", "ListABCs", "ABCDef", "ABCdef", "ABcD", "HTTPServer", "getHTTPResponseCode", "iOS",
+                "some-value", "some_value", "some.value", "some/value", "Foo_Response__links", "Foo Response _links",
+                "$type", "$123", "123", "a/$b", "a-$b", "a\\b", "a/\\b", "a\nb", "_\n_b", "x_\n_1", "@type",
+                "foo.bar.Baz", "foo/bar/baz", "foo..bar", "..", "//", "a/.b", "a./b", "AbcDEF_ghi-JKL.mno/pqr",
+                "straße_ßig", "İstanbul_city", "ΣΑΣ_σας", "snake_case_ÄÖÜ", "\uD801\uDC28_x", "日本_語", "a1B2c3D4",
+                "a1_2b", "X-Rate-Limit", "x-rate-limit", "user_id", "UserID", "userIDs", "IDsOfUsers", "_123abc"));
+        Random random = new Random(42);
+        // words with characters only the regular expressions handle, and plain ASCII words
+        for (String alphabet : Arrays.asList("aAbBzZ019_-./$ @\\\nßéİΣσ中", "aAbBcCxXyYzZ09_-./ @")) {
+            for (int i = 0; i < 50000; i++) {
+                char[] word = new char[random.nextInt(12)];
+                for (int j = 0; j < word.length; j++) {
+                    word[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+                }
+                words.add(new String(word));
+            }
+        }
+
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("$", "Dollar");
+        replacements.put("-", "Minus");
+        replacements.put(".", "Period");
+        List<String> allowed = Collections.singletonList("-");
+
+        for (String word : words) {
+            assertSameResult(word, () -> camelize(word), () -> camelizeWithPatterns(word, false));
+            assertSameResult(word, () -> camelize(word, true), () -> camelizeWithPatterns(word, true));
+            assertSameResult(word, () -> underscore(word), () -> underscoreWithPatterns(word));
+            assertSameResult(word, () -> dashize(word), () -> underscoreWithPatterns(word).replaceAll("[_ ]+", "-"));
+            assertSameResult(word, () -> escape(word, replacements, allowed, "_"), () -> escapeWithStreams(word, replacements, allowed, "_"));
+        }
+    }
+
+    private static void assertSameResult(String word, Callable<String> actual, Callable<String> expected) {
+        Object actualResult;
+        Object expectedResult;
+        try {
+            actualResult = actual.call();
+        } catch (Exception e) {
+            actualResult = e.getClass();
+        }
+        try {
+            expectedResult = expected.call();
+        } catch (Exception e) {
+            expectedResult = e.getClass();
+        }
+        Assert.assertEquals(actualResult, expectedResult, "converting '" + word + "'");
+    }
+
+    private static String underscoreWithPatterns(String word) {
+        String replacementPattern = "$1_$2";
+        String result = Pattern.compile("\\.").matcher(word).replaceAll("/");
+        result = Pattern.compile("\\$").matcher(result).replaceAll("__");
+        result = Pattern.compile("([A-Z]+)([A-Z][a-z][a-z]+)").matcher(result).replaceAll(replacementPattern);
+        result = Pattern.compile("([a-z\\d])([A-Z])").matcher(result).replaceAll(replacementPattern);
+        result = result.replace('-', '_');
+        result = result.replace(' ', '_');
+        return result.toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeWithStreams(String name, Map<String, String> replacementMap, List<String> charactersToAllow, String appendToReplacement) {
+        String result = name.chars().mapToObj(c -> {
+            String character = String.valueOf((char) c);
+            if (charactersToAllow != null && charactersToAllow.contains(character)) {
+                return character;
+            } else if (replacementMap.containsKey(character)) {
+                return replacementMap.get(character) + (appendToReplacement != null ? appendToReplacement : "");
+            } else {
+                return character;
+            }
+        }).reduce((c1, c2) -> c1 + c2).orElse(null);
+
+        if (result != null) return result;
+        throw new RuntimeException("Word '" + name + "' could not be escaped.");
+    }
 }
@@ -0,0 +1,67 @@
+package org.openapitools.codegen.validations.oas;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.TestUtils;
+import org.openapitools.codegen.validation.Invalid;
+import org.openapitools.codegen.validation.Valid;
+import org.openapitools.codegen.validation.ValidationResult;
+import org.openapitools.codegen.validation.ValidationRuleCosts;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+public class OpenApiEvaluatorTest {
+    private static RuleConfiguration recommendations() {
+        RuleConfiguration config = new RuleConfiguration();
+        config.setEnableRecommendations(true);
+        return config;
+    }
+
+    private static List<String> messages(ValidationResult result) {
+        return result.getAll().stream()
+                .map(validated -> validated instanceof Invalid
+                        ? "invalid: " + ((Invalid) validated).getMessage()
+                        : "valid: " + ((Valid) validated).getRule().getDescription())
+                .collect(Collectors.toList());
+    }
+
+    @Test(description = "results don't depend on the order in which the rules complete")
+    public void testParallelResultsMatchSequential() {
+        OpenAPI openAPI = TestUtils.parseSpec("src/test/resources/3_0/petstore-with-complex-headers.yaml");
+        List<String> sequential = messages(new OpenApiEvaluator(recommendations(), null).validate(openAPI));
+        assertFalse(sequential.isEmpty());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(messages(new OpenApiEvaluator(recommendations(), pool).validate(openAPI)), sequential);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(messages(new OpenApiEvaluator(recommendations()).validate(openAPI)), sequential);
+    }
+
+    @Test(description = "records the evaluations of each rule")
+    public void testRuleCosts() {
+        OpenAPI openAPI = TestUtils.parseSpec("src/test/resources/3_0/unusedSchemas.yaml");
+        ValidationRuleCosts costs = new ValidationRuleCosts();
+        ValidationResult result = new OpenApiEvaluator(recommendations()).validate(openAPI, costs);
+
+        Map<String, ValidationRuleCosts.Cost> byName = costs.getCosts().stream()
+                .collect(Collectors.toMap(ValidationRuleCosts.Cost::getName, Function.identity()));
+        assertEquals(byName.get("Unused schema").getEvaluations(), 1L);
+        assertTrue(result.getWarnings().stream().anyMatch(invalid -> invalid.getMessage().startsWith("Unused model: ")));
+
+        ValidationRuleCosts.Cost nullable = byName.get("Schema uses the 'nullable' attribute.");
+        assertNotNull(nullable);
+        assertTrue(nullable.getEvaluations() > 1, "one evaluation per schema");
+        assertTrue(costs.report().contains("Schema uses the 'nullable' attribute."));
+    }
+}